@@ -19,3 +19,18 @@ ALTER TABLE ACT_HI_CASEINST
 
 ALTER TABLE ACT_HI_CASEACTINST
   ADD REQUIRED_ smallint check(REQUIRED_ in (1,0));
+
+-- job priorities --
+
+ALTER TABLE ACT_RU_JOB
+  ADD PRIORITY_ bigint default 0 NOT NULL;
+
+ALTER TABLE ACT_RU_JOBDEF
+  ADD JOB_PRIORITY_ bigint;
+
+create index ACT_IDX_JOB_PRIORITY on ACT_RU_JOB(PRIORITY_ desc, DUEDATE_);
+
+-- byte array encoding --
+
+ALTER TABLE ACT_GE_BYTEARRAY
+  ADD ENCODING_ varchar(64);
@@ -19,3 +19,18 @@ ALTER TABLE ACT_HI_CASEINST
 
 ALTER TABLE ACT_HI_CASEACTINST
   ADD REQUIRED_ NUMBER(1,0) CHECK (REQUIRED_ IN (1,0));
+
+-- job priorities --
+
+ALTER TABLE ACT_RU_JOB
+  ADD PRIORITY_ NUMBER(19,0) default 0 NOT NULL;
+
+ALTER TABLE ACT_RU_JOBDEF
+  ADD JOB_PRIORITY_ NUMBER(19,0);
+
+create index ACT_IDX_JOB_PRIORITY on ACT_RU_JOB(PRIORITY_ desc, DUEDATE_);
+
+-- byte array encoding --
+
+ALTER TABLE ACT_GE_BYTEARRAY
+  ADD ENCODING_ NVARCHAR2(64);
@@ -28,6 +28,7 @@ import org.camunda.bpm.engine.variable.type.SerializableValueType;
 import org.camunda.bpm.engine.variable.type.ValueType;
 import org.camunda.bpm.engine.variable.type.ValueTypeResolver;
 import org.camunda.bpm.engine.variable.value.SerializableValue;
+import org.camunda.bpm.engine.variable.value.StreamValue;
 import org.camunda.bpm.engine.variable.value.TypedValue;
 import org.codehaus.jackson.map.ObjectMapper;
 
@@ -149,6 +150,10 @@ public class VariableValueDto {
       }
 
     }
+    else if(typedValue instanceof StreamValue) {
+      // the content of stream values is only served by the binary data resources
+      dto.setValue(null);
+    }
     else {
       dto.setValue(typedValue.getValue());
     }
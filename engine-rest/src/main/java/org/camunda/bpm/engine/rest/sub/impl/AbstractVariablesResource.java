@@ -35,6 +35,7 @@ import org.camunda.bpm.engine.rest.sub.VariableResource;
 import org.camunda.bpm.engine.variable.VariableMap;
 import org.camunda.bpm.engine.variable.Variables;
 import org.camunda.bpm.engine.variable.value.BytesValue;
+import org.camunda.bpm.engine.variable.value.StreamValue;
 import org.camunda.bpm.engine.variable.value.TypedValue;
 import org.codehaus.jackson.map.ObjectMapper;
 import org.codehaus.jackson.map.type.TypeFactory;
@@ -91,6 +92,18 @@ public abstract class AbstractVariablesResource implements VariableResource {
   }
 
   public InputStream getVariableBinary(String variableName) {
+    InputStream binaryStream = null;
+    try {
+      binaryStream = getVariableEntityBinaryStream(variableName);
+    } catch (ProcessEngineException e) {
+      String errorMessage = String.format("Cannot get %s variable %s: %s", getResourceTypeName(), variableName, e.getMessage());
+      throw new RestException(Status.INTERNAL_SERVER_ERROR, e, errorMessage);
+    }
+
+    if (binaryStream != null) {
+      return binaryStream;
+    }
+
     TypedValue typedValue = getTypedValueForVariable(variableName, false);
     if(typedValue instanceof BytesValue) {
       byte[] valueBytes = ((BytesValue)typedValue).getValue();
@@ -100,6 +113,10 @@ public abstract class AbstractVariablesResource implements VariableResource {
 
       return new ByteArrayInputStream(valueBytes);
     }
+    else if(typedValue instanceof StreamValue) {
+      InputStream valueStream = ((StreamValue) typedValue).getValue();
+      return valueStream != null ? valueStream : new ByteArrayInputStream(new byte[0]);
+    }
     else {
       throw new InvalidRequestException(Status.BAD_REQUEST, "Variable '"+variableName+"' is not of type 'Bytes' but of type '"+typedValue.getType()+"'.");
     }
@@ -207,6 +224,16 @@ public abstract class AbstractVariablesResource implements VariableResource {
 
   protected abstract TypedValue getVariableEntity(String variableKey, boolean deserializeValue);
 
+  /**
+   * Returns a stream on the value of a bytes variable which does not load the value into memory at once.
+   *
+   * @return the stream or null if the variable is not a bytes variable or streaming is not supported by the resource,
+   * in which case the value is fetched by {@link #getVariableEntity(String, boolean)}
+   */
+  protected InputStream getVariableEntityBinaryStream(String variableKey) {
+    return null;
+  }
+
   protected abstract void setVariableEntity(String variableKey, TypedValue variableValue);
 
   protected abstract void removeVariableEntity(String variableKey);
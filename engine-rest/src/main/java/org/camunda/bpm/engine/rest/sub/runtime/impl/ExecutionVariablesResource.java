@@ -1,5 +1,6 @@
 package org.camunda.bpm.engine.rest.sub.runtime.impl;
 
+import java.io.InputStream;
 import java.util.List;
 import org.camunda.bpm.engine.ProcessEngine;
 import org.camunda.bpm.engine.impl.RuntimeServiceImpl;
@@ -42,6 +43,10 @@ public class ExecutionVariablesResource extends AbstractVariablesResource {
     return engine.getRuntimeService().getVariableTyped(resourceId, variableKey, deserializeValue);
   }
 
+  protected InputStream getVariableEntityBinaryStream(String variableKey) {
+    return engine.getRuntimeService().getVariableBinaryStream(resourceId, variableKey);
+  }
+
   protected void setVariableEntity(String variableKey, TypedValue variableValue) {
     engine.getRuntimeService().setVariable(resourceId, variableKey, variableValue);
   }
@@ -12,6 +12,7 @@
  */
 package org.camunda.bpm.engine.rest.sub.runtime.impl;
 
+import java.io.InputStream;
 import java.util.List;
 import org.camunda.bpm.engine.ProcessEngine;
 import org.camunda.bpm.engine.impl.RuntimeServiceImpl;
@@ -51,6 +52,10 @@ public class LocalExecutionVariablesResource extends AbstractVariablesResource {
     return engine.getRuntimeService().getVariableLocalTyped(resourceId, variableKey, deserializeValue);
   }
 
+  protected InputStream getVariableEntityBinaryStream(String variableKey) {
+    return engine.getRuntimeService().getVariableLocalBinaryStream(resourceId, variableKey);
+  }
+
   protected void setVariableEntity(String variableKey, TypedValue variableValue) {
     engine.getRuntimeService().setVariableLocal(resourceId, variableKey, variableValue);
   }
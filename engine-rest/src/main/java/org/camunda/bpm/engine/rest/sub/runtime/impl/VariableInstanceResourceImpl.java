@@ -73,6 +73,9 @@ public class VariableInstanceResourceImpl implements VariableInstanceResource {
         }
 
         return new ByteArrayInputStream(valueBytes);
+      } else if (variableInstance.getTypeName().equals(ValueType.STREAM.getName())) {
+        InputStream valueStream = (InputStream) variableInstance.getValue();
+        return valueStream != null ? valueStream : new ByteArrayInputStream(new byte[0]);
       } else {
         throw new InvalidRequestException(Status.BAD_REQUEST,
             String.format("Value of variable %s is not a binary value.", variableId));
@@ -1,5 +1,6 @@
 package org.camunda.bpm.engine.rest.sub.task.impl;
 
+import java.io.InputStream;
 import java.util.List;
 import java.util.Map;
 
@@ -42,6 +43,10 @@ public class LocalTaskVariablesResource extends AbstractVariablesResource {
     return engine.getTaskService().getVariableLocalTyped(resourceId, variableKey, deserializeValue);
   }
 
+  protected InputStream getVariableEntityBinaryStream(String variableKey) {
+    return engine.getTaskService().getVariableLocalBinaryStream(resourceId, variableKey);
+  }
+
   protected void setVariableEntity(String variableKey, TypedValue variableValue) {
     engine.getTaskService().setVariableLocal(resourceId, variableKey, variableValue);
   }
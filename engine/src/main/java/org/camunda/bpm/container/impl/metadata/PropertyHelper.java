@@ -53,6 +53,8 @@ public class PropertyHelper {
     Object propertyValue;
     if (clazz.isAssignableFrom(int.class)) {
       propertyValue = Integer.parseInt(value);
+    } else if (clazz.isAssignableFrom(long.class) || clazz.isAssignableFrom(Long.class)) {
+      propertyValue = Long.parseLong(value);
     } else if (clazz.isAssignableFrom(boolean.class)) {
       propertyValue = Boolean.parseBoolean(value);
     } else {
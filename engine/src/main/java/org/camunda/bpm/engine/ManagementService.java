@@ -521,6 +521,29 @@ public interface ManagementService {
    */
   void setJobDuedate(String jobId, Date newDuedate);
 
+  /**
+   * Sets the priority of a job. Jobs with a higher priority are acquired
+   * by the job executor first if acquisition by priority is enabled.
+   *
+   * @param jobId id of the job to modify, cannot be null.
+   * @param priority the new priority of the job
+   *
+   * @throws ProcessEngineException when no job exists with the given id.
+   */
+  void setJobPriority(String jobId, long priority);
+
+  /**
+   * Sets the priority which is assigned to all jobs created from the given
+   * job definition in the future. Existing jobs are not changed.
+   *
+   * @param jobDefinitionId id of the job definition to modify, cannot be null.
+   * @param priority the new job priority or null to create jobs with
+   *   the default priority again
+   *
+   * @throws ProcessEngineException when no job definition exists with the given id.
+   */
+  void setJobDefinitionPriority(String jobDefinitionId, Long priority);
+
   /**
    * Returns the full stacktrace of the exception that occurs when the job
    * with the given id was last executed. Returns null when the job has no
@@ -12,6 +12,7 @@
  */
 package org.camunda.bpm.engine;
 
+import java.io.InputStream;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
@@ -601,6 +602,26 @@ public interface RuntimeService {
    * @since 7.2 */
   <T extends TypedValue> T getVariableLocalTyped(String executionId, String variableName, boolean deserializeValue);
 
+  /** Returns a stream on the value of a variable of type bytes. Searching for the variable is done in all scopes that are visible
+   * to the given execution (including parent scopes). The value is read from the database while the stream is consumed, so that
+   * large values are not loaded into memory at once. The stream must be closed by the caller. It reads the value as it was
+   * committed when the stream is opened.
+   *
+   * @param executionId id of process instance or execution, cannot be null.
+   * @param variableName name of variable, cannot be null.
+   * @return a stream on the variable value or null if the variable is undefined, its value is null or it is not of type bytes.
+   * @throws ProcessEngineException when no execution is found for the given executionId. */
+  InputStream getVariableBinaryStream(String executionId, String variableName);
+
+  /** Returns a stream on the value of a variable of type bytes which is set for the execution (and not searching parent scopes).
+   * The value is read from the database while the stream is consumed. The stream must be closed by the caller.
+   *
+   * @param executionId id of process instance or execution, cannot be null.
+   * @param variableName name of variable, cannot be null.
+   * @return a stream on the variable value or null if the variable is undefined, its value is null or it is not of type bytes.
+   * @throws ProcessEngineException when no execution is found for the given executionId. */
+  InputStream getVariableLocalBinaryStream(String executionId, String variableName);
+
   /** Update or create a variable for an execution.  If the variable does not already exist
    * somewhere in the execution hierarchy (i.e. the specified execution or any ancestor),
    * it will be created in the process instance (which is the root execution).
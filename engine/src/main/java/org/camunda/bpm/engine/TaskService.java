@@ -397,6 +397,27 @@ public interface TaskService {
    */
   <T extends TypedValue> T getVariableLocalTyped(String taskId, String variableName, boolean deserializeValue);
 
+  /** get a stream on the value of a variable of type bytes and search in the task scope and if available also the execution scopes.
+   * The value is read from the database while the stream is consumed, so that large values are not loaded into memory at once.
+   * The stream must be closed by the caller.
+   *
+   * @param taskId the id of the task
+   * @param variableName the name of the variable to fetch
+   *
+   * @return a stream on the variable value or 'null' in case no such variable exists, its value is null or it is not of type bytes.
+   */
+  InputStream getVariableBinaryStream(String taskId, String variableName);
+
+  /** get a stream on the value of a variable of type bytes and only search in the task scope.
+   * The stream must be closed by the caller.
+   *
+   * @param taskId the id of the task
+   * @param variableName the name of the variable to fetch
+   *
+   * @return a stream on the variable value or 'null' in case no such variable exists, its value is null or it is not of type bytes.
+   */
+  InputStream getVariableLocalBinaryStream(String taskId, String variableName);
+
   /** get all variables and search in the task scope and if available also the execution scopes.
    * If you have many variables and you only need a few, consider using {@link #getVariables(String, Collection)}
    * for better performance.*/
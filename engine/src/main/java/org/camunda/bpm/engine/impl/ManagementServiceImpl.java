@@ -87,6 +87,14 @@ public class ManagementServiceImpl extends ServiceImpl implements ManagementServ
     commandExecutor.execute(new SetJobDuedateCmd(jobId, newDuedate));
   }
 
+  public void setJobPriority(String jobId, long priority) {
+    commandExecutor.execute(new SetJobPriorityCmd(jobId, priority));
+  }
+
+  public void setJobDefinitionPriority(String jobDefinitionId, Long priority) {
+    commandExecutor.execute(new SetJobDefinitionPriorityCmd(jobDefinitionId, priority));
+  }
+
   public TablePageQuery createTablePageQuery() {
     return new TablePageQueryImpl(commandExecutor);
   }
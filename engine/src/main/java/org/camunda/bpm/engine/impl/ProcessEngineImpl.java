@@ -16,13 +16,20 @@ import java.util.Map;
 import java.util.logging.Logger;
 
 import org.camunda.bpm.engine.*;
+import org.camunda.bpm.engine.impl.cfg.IdGenerator;
 import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
 import org.camunda.bpm.engine.impl.cfg.TransactionContextFactory;
+import org.camunda.bpm.engine.impl.cmd.DeleteUnknownDeploymentSnapshotsCmd;
+import org.camunda.bpm.engine.impl.db.PrefetchingDbIdGenerator;
 import org.camunda.bpm.engine.impl.el.ExpressionManager;
 import org.camunda.bpm.engine.impl.history.HistoryLevel;
+import org.camunda.bpm.engine.impl.history.handler.AsyncDbHistoryEventHandler;
+import org.camunda.bpm.engine.impl.history.handler.HistoryEventHandler;
 import org.camunda.bpm.engine.impl.interceptor.CommandExecutor;
 import org.camunda.bpm.engine.impl.interceptor.SessionFactory;
 import org.camunda.bpm.engine.impl.jobexecutor.JobExecutor;
+import org.camunda.bpm.engine.impl.persistence.deploy.DeploymentParseExecutor;
+import org.camunda.bpm.engine.impl.persistence.deploy.DeploymentSnapshotStore;
 
 /**
  * @author Tom Baeyens
@@ -76,6 +83,7 @@ public class ProcessEngineImpl implements ProcessEngine {
     this.transactionContextFactory = processEngineConfiguration.getTransactionContextFactory();
 
     executeSchemaOperations();
+    deleteUnknownDeploymentSnapshots();
 
     if (name == null) {
       log.info("default activiti ProcessEngine created");
@@ -95,6 +103,13 @@ public class ProcessEngineImpl implements ProcessEngine {
     commandExecutorSchemaOperations.execute(new SchemaOperationsProcessEngineBuild());
   }
 
+  protected void deleteUnknownDeploymentSnapshots() {
+    DeploymentSnapshotStore snapshotStore = processEngineConfiguration.getDeploymentCache().getSnapshotStore();
+    if (snapshotStore != null) {
+      commandExecutor.execute(new DeleteUnknownDeploymentSnapshotsCmd(snapshotStore));
+    }
+  }
+
   public void close() {
 
     ProcessEngines.unregister(this);
@@ -104,6 +119,23 @@ public class ProcessEngineImpl implements ProcessEngine {
       jobExecutor.unregisterProcessEngine(this);
     }
 
+    HistoryEventHandler historyEventHandler = processEngineConfiguration.getHistoryEventHandler();
+    if (historyEventHandler instanceof AsyncDbHistoryEventHandler) {
+      // write the queued history events
+      ((AsyncDbHistoryEventHandler) historyEventHandler).close();
+    }
+
+    IdGenerator idGenerator = processEngineConfiguration.getIdGenerator();
+    if (idGenerator instanceof PrefetchingDbIdGenerator) {
+      // stop fetching id blocks before the schema may be dropped
+      ((PrefetchingDbIdGenerator) idGenerator).close();
+    }
+
+    DeploymentParseExecutor deploymentParseExecutor = processEngineConfiguration.getDeploymentParseExecutor();
+    if (deploymentParseExecutor != null) {
+      deploymentParseExecutor.close();
+    }
+
     commandExecutorSchemaOperations.execute(new SchemaOperationProcessEngineClose());
   }
 
@@ -47,6 +47,7 @@ import org.camunda.bpm.engine.impl.cmd.GetTaskAttachmentsCmd;
 import org.camunda.bpm.engine.impl.cmd.GetTaskCommentCmd;
 import org.camunda.bpm.engine.impl.cmd.GetTaskCommentsCmd;
 import org.camunda.bpm.engine.impl.cmd.GetTaskEventsCmd;
+import org.camunda.bpm.engine.impl.cmd.GetTaskVariableBinaryStreamCmd;
 import org.camunda.bpm.engine.impl.cmd.GetTaskVariableCmd;
 import org.camunda.bpm.engine.impl.cmd.GetTaskVariableCmdTyped;
 import org.camunda.bpm.engine.impl.cmd.GetTaskVariablesCmd;
@@ -264,6 +265,14 @@ public class TaskServiceImpl extends ServiceImpl implements TaskService {
     return (T) commandExecutor.execute(new GetTaskVariableCmdTyped(taskId, variableName, isLocal, deserializeValue));
   }
 
+  public InputStream getVariableBinaryStream(String taskId, String variableName) {
+    return commandExecutor.execute(new GetTaskVariableBinaryStreamCmd(taskId, variableName, false));
+  }
+
+  public InputStream getVariableLocalBinaryStream(String taskId, String variableName) {
+    return commandExecutor.execute(new GetTaskVariableBinaryStreamCmd(taskId, variableName, true));
+  }
+
   public void setVariable(String executionId, String variableName, Object value) {
     ensureNotNull("variableName", variableName);
     Map<String, Object> variables = new HashMap<String, Object>();
@@ -13,8 +13,6 @@
 
 package org.camunda.bpm.engine.impl.bpmn.behavior;
 
-import static org.camunda.bpm.engine.impl.util.ClassDelegateUtil.instantiateDelegate;
-
 import java.util.List;
 import java.util.concurrent.Callable;
 
@@ -26,10 +24,12 @@ import org.camunda.bpm.engine.impl.bpmn.helper.ErrorPropagation;
 import org.camunda.bpm.engine.impl.bpmn.parser.FieldDeclaration;
 import org.camunda.bpm.engine.impl.context.Context;
 import org.camunda.bpm.engine.impl.context.ProcessApplicationContextUtil;
+import org.camunda.bpm.engine.impl.delegate.ClassDelegateMetadata;
 import org.camunda.bpm.engine.impl.persistence.entity.ExecutionEntity;
 import org.camunda.bpm.engine.impl.pvm.delegate.ActivityBehavior;
 import org.camunda.bpm.engine.impl.pvm.delegate.ActivityExecution;
 import org.camunda.bpm.engine.impl.pvm.delegate.SignallableActivityBehavior;
+import org.camunda.bpm.engine.impl.util.ClassDelegateUtil;
 
 
 /**
@@ -46,6 +46,9 @@ public class ClassDelegateActivityBehavior extends AbstractBpmnActivityBehavior
   protected String className;
   protected List<FieldDeclaration> fieldDeclarations;
 
+  /** the metadata of the last invocation */
+  protected volatile ClassDelegateMetadata metadata;
+
   public ClassDelegateActivityBehavior(String className, List<FieldDeclaration> fieldDeclarations) {
     this.className = className;
     this.fieldDeclarations = fieldDeclarations;
@@ -111,7 +114,9 @@ public class ClassDelegateActivityBehavior extends AbstractBpmnActivityBehavior
   }
 
   protected ActivityBehavior getActivityBehaviorInstance(ActivityExecution execution) {
-    Object delegateInstance = instantiateDelegate(className, fieldDeclarations);
+    ClassDelegateMetadata currentMetadata = ClassDelegateUtil.getMetadata(className, metadata);
+    metadata = currentMetadata;
+    Object delegateInstance = ClassDelegateUtil.instantiateDelegate(currentMetadata, fieldDeclarations);
 
     if (delegateInstance instanceof ActivityBehavior) {
       return determineBehaviour((ActivityBehavior) delegateInstance, execution);
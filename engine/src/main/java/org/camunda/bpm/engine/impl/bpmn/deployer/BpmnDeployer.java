@@ -19,6 +19,8 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -29,6 +31,8 @@ import org.camunda.bpm.engine.impl.bpmn.parser.BpmnParse;
 import org.camunda.bpm.engine.impl.bpmn.parser.BpmnParser;
 import org.camunda.bpm.engine.impl.bpmn.parser.EventSubscriptionDeclaration;
 import org.camunda.bpm.engine.impl.cfg.IdGenerator;
+import org.camunda.bpm.engine.impl.cfg.TransactionListener;
+import org.camunda.bpm.engine.impl.cfg.TransactionState;
 import org.camunda.bpm.engine.impl.cmd.DeleteJobsCmd;
 import org.camunda.bpm.engine.impl.context.Context;
 import org.camunda.bpm.engine.impl.db.entitymanager.DbEntityManager;
@@ -40,6 +44,8 @@ import org.camunda.bpm.engine.impl.jobexecutor.TimerDeclarationImpl;
 import org.camunda.bpm.engine.impl.jobexecutor.TimerStartEventJobHandler;
 import org.camunda.bpm.engine.impl.persistence.deploy.Deployer;
 import org.camunda.bpm.engine.impl.persistence.deploy.DeploymentCache;
+import org.camunda.bpm.engine.impl.persistence.deploy.DeploymentParseExecutor;
+import org.camunda.bpm.engine.impl.persistence.deploy.DeploymentSnapshotStore;
 import org.camunda.bpm.engine.impl.persistence.entity.DeploymentEntity;
 import org.camunda.bpm.engine.impl.persistence.entity.EventSubscriptionEntity;
 import org.camunda.bpm.engine.impl.persistence.entity.IdentityLinkEntity;
@@ -51,6 +57,7 @@ import org.camunda.bpm.engine.impl.persistence.entity.ProcessDefinitionManager;
 import org.camunda.bpm.engine.impl.persistence.entity.ResourceEntity;
 import org.camunda.bpm.engine.impl.persistence.entity.TimerEntity;
 import org.camunda.bpm.engine.impl.util.IoUtil;
+import org.camunda.bpm.engine.impl.util.xml.Element;
 import org.camunda.bpm.engine.management.JobDefinition;
 import org.camunda.bpm.engine.repository.ProcessDefinition;
 import org.camunda.bpm.engine.runtime.Job;
@@ -75,6 +82,7 @@ public class BpmnDeployer implements Deployer {
   protected ExpressionManager expressionManager;
   protected BpmnParser bpmnParser;
   protected IdGenerator idGenerator;
+  protected DeploymentParseExecutor parseExecutor;
 
   public void deploy(DeploymentEntity deployment) {
     LOG.fine("Processing deployment " + deployment.getName());
@@ -83,55 +91,46 @@ public class BpmnDeployer implements Deployer {
     List<ProcessDefinitionEntity> processDefinitions = new ArrayList<ProcessDefinitionEntity>();
     Map<String, ResourceEntity> resources = deployment.getResources();
 
+    List<String> bpmnResourceNames = new ArrayList<String>();
     for (String resourceName : resources.keySet()) {
-      BpmnParse bpmnParse = null;
-
       LOG.fine("Processing resource " + resourceName);
       if (isBpmnResource(resourceName)) {
-        ResourceEntity resource = resources.get(resourceName);
-        byte[] bytes = resource.getBytes();
-        ByteArrayInputStream inputStream = new ByteArrayInputStream(bytes);
-
-
-        bpmnParse = bpmnParser
-          .createParse()
-          .sourceInputStream(inputStream)
-          .deployment(deployment)
-          .name(resourceName);
-
-        if (!deployment.isValidatingSchema()) {
-          bpmnParse.setSchemaResource(null);
-        }
+        bpmnResourceNames.add(resourceName);
+      }
+    }
 
-        bpmnParse.execute();
-
-        for (ProcessDefinitionEntity processDefinition: bpmnParse.getProcessDefinitions()) {
-          processDefinition.setResourceName(resourceName);
-
-          String diagramResourceName = getDiagramResourceForProcess(resourceName, processDefinition.getKey(), resources);
-
-          // Only generate the resource when deployment is new to prevent modification of deployment resources
-          // after the process-definition is actually deployed. Also to prevent resource-generation failure every
-          // time the process definition is added to the deployment-cache when diagram-generation has failed the first time.
-          if(deployment.isNew()) {
-            if (Context.getProcessEngineConfiguration().isCreateDiagramOnDeploy() &&
-                  diagramResourceName==null && processDefinition.isGraphicalNotationDefined()) {
-              try {
-                  byte[] diagramBytes = IoUtil.readInputStream(ProcessDiagramGenerator.generatePngDiagram(processDefinition), null);
-                  diagramResourceName = getProcessImageResourceName(resourceName, processDefinition.getKey(), "png");
-                  createResource(diagramResourceName, diagramBytes, deployment);
-              } catch (Throwable t) { // if anything goes wrong, we don't store the image (the process will still be executable).
-                LOG.log(Level.WARNING, "Error while generating process diagram, image will not be stored in repository", t);
-              }
+    List<BpmnParse> bpmnParses = parseResources(deployment, bpmnResourceNames);
+
+    for (int i = 0; i < bpmnResourceNames.size(); i++) {
+      String resourceName = bpmnResourceNames.get(i);
+      BpmnParse bpmnParse = bpmnParses.get(i);
+
+      for (ProcessDefinitionEntity processDefinition: bpmnParse.getProcessDefinitions()) {
+        processDefinition.setResourceName(resourceName);
+
+        String diagramResourceName = getDiagramResourceForProcess(resourceName, processDefinition.getKey(), resources);
+
+        // Only generate the resource when deployment is new to prevent modification of deployment resources
+        // after the process-definition is actually deployed. Also to prevent resource-generation failure every
+        // time the process definition is added to the deployment-cache when diagram-generation has failed the first time.
+        if(deployment.isNew()) {
+          if (Context.getProcessEngineConfiguration().isCreateDiagramOnDeploy() &&
+                diagramResourceName==null && processDefinition.isGraphicalNotationDefined()) {
+            try {
+                byte[] diagramBytes = IoUtil.readInputStream(ProcessDiagramGenerator.generatePngDiagram(processDefinition), null);
+                diagramResourceName = getProcessImageResourceName(resourceName, processDefinition.getKey(), "png");
+                createResource(diagramResourceName, diagramBytes, deployment);
+            } catch (Throwable t) { // if anything goes wrong, we don't store the image (the process will still be executable).
+              LOG.log(Level.WARNING, "Error while generating process diagram, image will not be stored in repository", t);
             }
           }
-
-          processDefinition.setDiagramResourceName(diagramResourceName);
-          processDefinitions.add(processDefinition);
         }
 
-        jobDeclarations.putAll(bpmnParse.getJobDeclarations());
+        processDefinition.setDiagramResourceName(diagramResourceName);
+        processDefinitions.add(processDefinition);
       }
+
+      jobDeclarations.putAll(bpmnParse.getJobDeclarations());
     }
 
     // check if there are process definitions with the same process key to prevent database unique index violation
@@ -192,6 +191,105 @@ public class BpmnDeployer implements Deployer {
     }
   }
 
+  /**
+   * Parses the BPMN resources, in parallel if a {@link DeploymentParseExecutor} is configured.
+   *
+   * @return the executed parses in the order of the resource names
+   */
+  protected List<BpmnParse> parseResources(final DeploymentEntity deployment, List<String> resourceNames) {
+    final DeploymentSnapshotStore snapshotStore = Context.getProcessEngineConfiguration().getDeploymentCache().getSnapshotStore();
+    // the documents of the resources which were parsed from XML, by resource name
+    final Map<String, Element> parsedRootElements = new ConcurrentHashMap<String, Element>();
+
+    List<Callable<BpmnParse>> parseTasks = new ArrayList<Callable<BpmnParse>>();
+    for (final String resourceName : resourceNames) {
+      // the parse is created by the deploying thread, only its execution may be performed in parallel
+      final BpmnParse bpmnParse = createBpmnParse(deployment, resourceName);
+      parseTasks.add(new Callable<BpmnParse>() {
+        public BpmnParse call() {
+          if (snapshotStore != null) {
+            return executeParse(bpmnParse, deployment, resourceName, snapshotStore, parsedRootElements);
+          } else {
+            return bpmnParse.execute();
+          }
+        }
+      });
+    }
+
+    List<BpmnParse> bpmnParses;
+    if (parseExecutor != null) {
+      bpmnParses = parseExecutor.execute(parseTasks);
+    } else {
+      bpmnParses = DeploymentParseExecutor.executeSequentially(parseTasks);
+    }
+
+    if (!parsedRootElements.isEmpty()) {
+      saveSnapshotsOnCommit(deployment, parsedRootElements, snapshotStore);
+    }
+
+    return bpmnParses;
+  }
+
+  /**
+   * Executes the parse on the document restored from the snapshot of the resource if the
+   * deployment is redeployed and a valid snapshot exists, otherwise parses the resource
+   * and adds its document to the parsed root elements.
+   */
+  protected BpmnParse executeParse(BpmnParse bpmnParse, DeploymentEntity deployment, String resourceName,
+      DeploymentSnapshotStore snapshotStore, Map<String, Element> parsedRootElements) {
+
+    if (!deployment.isNew()) {
+      byte[] bytes = deployment.getResources().get(resourceName).getBytes();
+      Element rootElement = snapshotStore.load(deployment.getId(), resourceName, bytes);
+      if (rootElement != null) {
+        LOG.fine("Using snapshot of resource " + resourceName);
+        bpmnParse.sourceRootElement(rootElement);
+        return bpmnParse.execute();
+      }
+    }
+
+    bpmnParse.execute();
+    parsedRootElements.put(resourceName, bpmnParse.getRootElement());
+    return bpmnParse;
+  }
+
+  /**
+   * Writes the snapshots of the parsed resources once the transaction which deploys or
+   * redeploys the deployment is committed, so that no snapshots of deployments which
+   * were rolled back are left behind.
+   */
+  protected void saveSnapshotsOnCommit(final DeploymentEntity deployment, final Map<String, Element> rootElements, final DeploymentSnapshotStore snapshotStore) {
+    Context.getCommandContext()
+      .getTransactionContext()
+      .addTransactionListener(TransactionState.COMMITTED, new TransactionListener() {
+        public void execute(CommandContext commandContext) {
+          for (Map.Entry<String, Element> rootElement : rootElements.entrySet()) {
+            String resourceName = rootElement.getKey();
+            byte[] bytes = deployment.getResources().get(resourceName).getBytes();
+            snapshotStore.save(deployment.getId(), resourceName, bytes, rootElement.getValue());
+          }
+        }
+      });
+  }
+
+  protected BpmnParse createBpmnParse(DeploymentEntity deployment, String resourceName) {
+    ResourceEntity resource = deployment.getResources().get(resourceName);
+    byte[] bytes = resource.getBytes();
+    ByteArrayInputStream inputStream = new ByteArrayInputStream(bytes);
+
+    BpmnParse bpmnParse = bpmnParser
+      .createParse()
+      .sourceInputStream(inputStream)
+      .deployment(deployment)
+      .name(resourceName);
+
+    if (!deployment.isValidatingSchema()) {
+      bpmnParse.setSchemaResource(null);
+    }
+
+    return bpmnParse;
+  }
+
   protected void updateJobDeclarations(List<JobDeclaration<?>> jobDeclarations, ProcessDefinition processDefinition, boolean isNewDeployment) {
 
     if(jobDeclarations == null || jobDeclarations.isEmpty()) {
@@ -496,4 +594,12 @@ public class BpmnDeployer implements Deployer {
     this.idGenerator = idGenerator;
   }
 
+  public DeploymentParseExecutor getParseExecutor() {
+    return parseExecutor;
+  }
+
+  public void setParseExecutor(DeploymentParseExecutor parseExecutor) {
+    this.parseExecutor = parseExecutor;
+  }
+
 }
@@ -12,8 +12,6 @@
  */
 package org.camunda.bpm.engine.impl.bpmn.listener;
 
-import static org.camunda.bpm.engine.impl.util.ClassDelegateUtil.instantiateDelegate;
-
 import java.util.List;
 
 import org.camunda.bpm.engine.ProcessEngineException;
@@ -50,7 +48,7 @@ public class ClassDelegateExecutionListener extends ClassDelegate implements Exe
   }
 
   protected ExecutionListener getExecutionListenerInstance() {
-    Object delegateInstance = instantiateDelegate(className, fieldDeclarations);
+    Object delegateInstance = getDelegateInstance();
     if (delegateInstance instanceof ExecutionListener) {
       return (ExecutionListener) delegateInstance;
 
@@ -15,6 +15,7 @@ package org.camunda.bpm.engine.impl.cfg;
 
 import static org.camunda.bpm.engine.impl.util.EnsureUtil.ensureNotNull;
 
+import java.io.File;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
@@ -86,6 +87,7 @@ import org.camunda.bpm.engine.impl.cfg.auth.ResourceAuthorizationProvider;
 import org.camunda.bpm.engine.impl.cfg.standalone.StandaloneTransactionContextFactory;
 import org.camunda.bpm.engine.impl.cmmn.CaseServiceImpl;
 import org.camunda.bpm.engine.impl.cmmn.deployer.CmmnDeployer;
+import org.camunda.bpm.engine.impl.cmmn.entity.repository.CaseDefinitionEntity;
 import org.camunda.bpm.engine.impl.cmmn.entity.repository.CaseDefinitionManager;
 import org.camunda.bpm.engine.impl.cmmn.entity.runtime.CaseExecutionManager;
 import org.camunda.bpm.engine.impl.cmmn.entity.runtime.CaseSentryPartManager;
@@ -94,9 +96,14 @@ import org.camunda.bpm.engine.impl.cmmn.transformer.CmmnTransformFactory;
 import org.camunda.bpm.engine.impl.cmmn.transformer.CmmnTransformListener;
 import org.camunda.bpm.engine.impl.cmmn.transformer.CmmnTransformer;
 import org.camunda.bpm.engine.impl.cmmn.transformer.DefaultCmmnTransformFactory;
+import org.camunda.bpm.engine.impl.db.AuthorizationDecisionCache;
+import org.camunda.bpm.engine.impl.db.DbEntity;
 import org.camunda.bpm.engine.impl.db.DbIdGenerator;
+import org.camunda.bpm.engine.impl.db.PrefetchingDbIdGenerator;
 import org.camunda.bpm.engine.impl.db.entitymanager.DbEntityManagerFactory;
 import org.camunda.bpm.engine.impl.db.entitymanager.cache.DbEntityCacheKeyMapping;
+import org.camunda.bpm.engine.impl.db.entitymanager.cache.DbSecondLevelCache;
+import org.camunda.bpm.engine.impl.db.entitymanager.cache.DbSecondLevelCacheListener;
 import org.camunda.bpm.engine.impl.db.sql.DbSqlPersistenceProviderFactory;
 import org.camunda.bpm.engine.impl.db.sql.DbSqlSessionFactory;
 import org.camunda.bpm.engine.impl.delegate.DefaultDelegateInterceptor;
@@ -127,6 +134,7 @@ import org.camunda.bpm.engine.impl.form.validator.MinValidator;
 import org.camunda.bpm.engine.impl.form.validator.ReadOnlyValidator;
 import org.camunda.bpm.engine.impl.form.validator.RequiredValidator;
 import org.camunda.bpm.engine.impl.history.HistoryLevel;
+import org.camunda.bpm.engine.impl.history.handler.AsyncDbHistoryEventHandler;
 import org.camunda.bpm.engine.impl.history.handler.DbHistoryEventHandler;
 import org.camunda.bpm.engine.impl.history.handler.HistoryEventHandler;
 import org.camunda.bpm.engine.impl.history.parser.HistoryParseListener;
@@ -166,6 +174,11 @@ import org.camunda.bpm.engine.impl.jobexecutor.TimerSuspendProcessDefinitionHand
 import org.camunda.bpm.engine.impl.persistence.GenericManagerFactory;
 import org.camunda.bpm.engine.impl.persistence.deploy.Deployer;
 import org.camunda.bpm.engine.impl.persistence.deploy.DeploymentCache;
+import org.camunda.bpm.engine.impl.persistence.deploy.DeploymentParseExecutor;
+import org.camunda.bpm.engine.impl.persistence.deploy.DeploymentSnapshotStore;
+import org.camunda.bpm.engine.impl.persistence.deploy.cache.DefaultDeploymentCacheProvider;
+import org.camunda.bpm.engine.impl.persistence.deploy.cache.DeploymentCacheProvider;
+import org.camunda.bpm.engine.impl.persistence.deploy.cache.LruCache;
 import org.camunda.bpm.engine.impl.persistence.entity.AttachmentManager;
 import org.camunda.bpm.engine.impl.persistence.entity.AuthorizationManager;
 import org.camunda.bpm.engine.impl.persistence.entity.ByteArrayManager;
@@ -188,6 +201,7 @@ import org.camunda.bpm.engine.impl.persistence.entity.IdentityLinkManager;
 import org.camunda.bpm.engine.impl.persistence.entity.IncidentManager;
 import org.camunda.bpm.engine.impl.persistence.entity.JobDefinitionManager;
 import org.camunda.bpm.engine.impl.persistence.entity.JobManager;
+import org.camunda.bpm.engine.impl.persistence.entity.ProcessDefinitionEntity;
 import org.camunda.bpm.engine.impl.persistence.entity.ProcessDefinitionManager;
 import org.camunda.bpm.engine.impl.persistence.entity.PropertyManager;
 import org.camunda.bpm.engine.impl.persistence.entity.ResourceManager;
@@ -196,6 +210,8 @@ import org.camunda.bpm.engine.impl.persistence.entity.TableDataManager;
 import org.camunda.bpm.engine.impl.persistence.entity.TaskManager;
 import org.camunda.bpm.engine.impl.persistence.entity.UserOperationLogManager;
 import org.camunda.bpm.engine.impl.persistence.entity.VariableInstanceManager;
+import org.camunda.bpm.engine.impl.persistence.entity.util.ByteArrayCodec;
+import org.camunda.bpm.engine.impl.persistence.entity.util.DeflateByteArrayCodec;
 import org.camunda.bpm.engine.impl.runtime.CorrelationHandler;
 import org.camunda.bpm.engine.impl.runtime.DefaultCorrelationHandler;
 import org.camunda.bpm.engine.impl.scripting.ScriptFactory;
@@ -219,6 +235,7 @@ import org.camunda.bpm.engine.impl.variable.serializer.JavaObjectSerializer;
 import org.camunda.bpm.engine.impl.variable.serializer.LongValueSerlializer;
 import org.camunda.bpm.engine.impl.variable.serializer.NullValueSerializer;
 import org.camunda.bpm.engine.impl.variable.serializer.ShortValueSerializer;
+import org.camunda.bpm.engine.impl.variable.serializer.StreamValueSerializer;
 import org.camunda.bpm.engine.impl.variable.serializer.StringValueSerializer;
 import org.camunda.bpm.engine.impl.variable.serializer.TypedValueSerializer;
 import org.camunda.bpm.engine.impl.variable.serializer.VariableSerializers;
@@ -228,6 +245,8 @@ import org.camunda.bpm.engine.impl.variable.serializer.jpa.JPAVariableSerializer
 import org.camunda.bpm.engine.repository.DeploymentBuilder;
 import org.camunda.bpm.engine.variable.Variables;
 import org.camunda.bpm.engine.variable.type.ValueType;
+import org.camunda.bpm.model.bpmn.BpmnModelInstance;
+import org.camunda.bpm.model.cmmn.CmmnModelInstance;
 
 
 /**
@@ -245,6 +264,11 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
   public static final int HISTORYLEVEL_AUDIT = HistoryLevel.HISTORY_LEVEL_AUDIT.getId();
   public static final int HISTORYLEVEL_FULL = HistoryLevel.HISTORY_LEVEL_FULL.getId();
 
+  /** history events are written in the transaction which produces them */
+  public static final String HISTORY_EVENT_DURABILITY_SYNC = "sync";
+  /** history events are written by a background thread after the transaction has committed */
+  public static final String HISTORY_EVENT_DURABILITY_ASYNC_AFTER_COMMIT = "async-after-commit";
+
   public static final String DEFAULT_WS_SYNC_FACTORY = "org.camunda.bpm.engine.impl.webservice.CxfWebServiceClientFactory";
 
   public static final String DEFAULT_MYBATIS_MAPPING_FILE = "org/camunda/bpm/engine/impl/mapping/mappings.xml";
@@ -298,6 +322,17 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
   protected List<Deployer> customPostDeployers;
   protected List<Deployer> deployers;
   protected DeploymentCache deploymentCache;
+  protected DeploymentCacheProvider deploymentCacheProvider;
+  /** maximum number of entries of the individual deployment caches. Zero or less means unbounded. */
+  protected int processDefinitionCacheLimit = LruCache.UNBOUNDED;
+  protected int caseDefinitionCacheLimit = LruCache.UNBOUNDED;
+  protected int bpmnModelInstanceCacheLimit = LruCache.UNBOUNDED;
+  protected int cmmnModelInstanceCacheLimit = LruCache.UNBOUNDED;
+  /** number of threads parsing the resources of a deployment in parallel. One or less means the resources are parsed sequentially. */
+  protected int deploymentParseParallelism = 1;
+  protected DeploymentParseExecutor deploymentParseExecutor;
+  /** directory of the snapshots of parsed BPMN resources which speed up the redeployment after a restart. No snapshots are used if not set. */
+  protected String deploymentSnapshotDirectory;
 
   // JOB EXECUTOR /////////////////////////////////////////////////////////////
 
@@ -305,6 +340,9 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
   protected Map<String, JobHandler> jobHandlers;
   protected JobExecutor jobExecutor;
 
+  /** If true, the job executor acquires jobs ordered by priority and due date. */
+  protected boolean jobExecutorAcquireByPriority = false;
+
   // MYBATIS SQL SESSION FACTORY //////////////////////////////////////////////
 
   protected SqlSessionFactory sqlSessionFactory;
@@ -347,6 +385,13 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
   protected ScriptFactory scriptFactory;
   protected boolean autoStoreScriptVariables = false;
   protected boolean enableScriptCompilation = true;
+
+  /** the maximum number of idle instances kept per language for script engines which are not threadsafe */
+  protected int scriptEnginePoolSize = ScriptingEngines.DEFAULT_SCRIPT_ENGINE_POOL_SIZE;
+
+  /** the maximum number of compiled scripts shared by all scripts with the same language and source */
+  protected int compiledScriptCacheCapacity = ScriptingEngines.DEFAULT_COMPILED_SCRIPT_CACHE_CAPACITY;
+
   protected boolean cmmnEnabled = true;
 
   protected BusinessCalendarManager businessCalendarManager;
@@ -415,6 +460,20 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
 
   protected ResourceAuthorizationProvider resourceAuthorizationProvider;
 
+  /** If true, the outcome of authorization checks is cached across commands. The cache is
+   * invalidated whenever authorizations are modified through this process engine. It must
+   * not be enabled if other process engines modify the authorizations of the same database.
+   */
+  protected boolean isAuthorizationDecisionCacheEnabled = false;
+  protected int authorizationDecisionCacheCapacity = AuthorizationDecisionCache.DEFAULT_CAPACITY;
+  protected AuthorizationDecisionCache authorizationDecisionCache;
+
+  /** If true, queries first check whether the user may read all resources of the queried
+   * type. In that case, the authorization check of the individual resources is omitted
+   * from the query.
+   */
+  protected boolean isAuthorizationPreResolutionEnabled = false;
+
   protected List<ProcessEnginePlugin> processEnginePlugins = new ArrayList<ProcessEnginePlugin>();
 
   protected HistoryEventProducer historyEventProducer;
@@ -423,8 +482,23 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
 
   protected HistoryEventHandler historyEventHandler;
 
+  /** Controls when the default history event handler writes history events, see
+   * {@link #HISTORY_EVENT_DURABILITY_SYNC} and {@link #HISTORY_EVENT_DURABILITY_ASYNC_AFTER_COMMIT}.
+   * The queue capacity and batch size only apply to asynchronous writing.
+   */
+  protected String historyEventDurability = HISTORY_EVENT_DURABILITY_SYNC;
+  protected int historyEventQueueCapacity = AsyncDbHistoryEventHandler.DEFAULT_QUEUE_CAPACITY;
+  protected int historyEventBatchSize = AsyncDbHistoryEventHandler.DEFAULT_BATCH_SIZE;
+
   protected boolean isExecutionTreePrefetchEnabled = true;
 
+  /** If true, the variables, event subscriptions, jobs and tasks of all executions
+   * of a process instance are fetched together with its execution tree, using one
+   * query per relation instead of one query per execution and relation. Only
+   * applies if execution tree prefetching is enabled.
+   */
+  protected boolean isExecutionTreeRelationsPrefetchEnabled = false;
+
   /** If true the process engine will attempt to acquire an exclusive lock before
    * creating a deployment.
    */
@@ -435,6 +509,38 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
    */
   protected boolean isDbEntityCacheReuseEnabled = false;
 
+  /** If true, the entities of the {@link #dbSecondLevelCacheEntityTypes} are cached across
+   * commands by the {@link DbSecondLevelCache}. The cache is intended for a single process engine:
+   * modifications made by other process engines sharing the same database are not detected, they
+   * have to invalidate the cache, for example using a {@link DbSecondLevelCacheListener}.
+   */
+  protected boolean isDbSecondLevelCacheEnabled = false;
+  protected int dbSecondLevelCacheCapacity = DbSecondLevelCache.DEFAULT_CAPACITY;
+  protected Set<Class<? extends DbEntity>> dbSecondLevelCacheEntityTypes = DbSecondLevelCache.defaultEntityTypes();
+  protected DbSecondLevelCache dbSecondLevelCache;
+
+  /** If true, the INSERT, UPDATE and DELETE statements of a flush are sent to the
+   * database as JDBC batches. Requires a JDBC driver which reports the update count
+   * of every batched statement.
+   */
+  protected boolean isJdbcBatchProcessing = false;
+
+  /** If true, the default id generator fetches the next id blocks in the background
+   * before the current block is exhausted. The number of blocks which are fetched
+   * ahead of time is controlled by {@link #idBlocksInFlight}.
+   */
+  protected boolean isIdBlockPrefetchEnabled = false;
+
+  protected int idBlocksInFlight = 1;
+
+  /** Byte arrays which are at least as large as the threshold are stored compressed by the
+   * default {@link ByteArrayCodec}. A negative threshold disables compression, compressed
+   * byte arrays are still read then.
+   */
+  protected int byteArrayCompressionThreshold = DeflateByteArrayCodec.COMPRESSION_DISABLED;
+
+  protected ByteArrayCodec byteArrayCodec;
+
   protected boolean isInvokeCustomVariableListeners = true;
 
   /**
@@ -445,6 +551,13 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
   /** used to create instances for listeners, JavaDelegates, etc */
   protected ArtifactFactory artifactFactory;
 
+  /**
+   * If true, the instances of class delegates without field injections are created once
+   * and shared by all invocations, so the delegate classes must be threadsafe. The shared
+   * instance is only weakly referenced and created again once it was garbage collected.
+   */
+  protected boolean enableSharedDelegateInstances = false;
+
   protected DbEntityCacheKeyMapping dbEntityCacheKeyMapping = DbEntityCacheKeyMapping.defaultEntityCacheKeyMapping();
 
   // buildProcessEngine ///////////////////////////////////////////////////////
@@ -497,6 +610,9 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
     initPasswordDigest();
     initDeploymentRegistration();
     initResourceAuthorizationProvider();
+    initAuthorizationDecisionCache();
+    initDbSecondLevelCache();
+    initByteArrayCodec();
 
     invokePostInit();
   }
@@ -888,6 +1004,10 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
         addSessionFactory(sessionFactory);
       }
     }
+    // history event handlers may buffer events in a session
+    if (historyEventHandler instanceof SessionFactory) {
+      addSessionFactory((SessionFactory) historyEventHandler);
+    }
   }
 
   protected void initPersistenceProviders() {
@@ -900,6 +1020,7 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
     dbSqlSessionFactory.setCmmnEnabled(cmmnEnabled);
     dbSqlSessionFactory.setDatabaseTablePrefix(databaseTablePrefix);
     dbSqlSessionFactory.setDatabaseSchema(databaseSchema);
+    dbSqlSessionFactory.setJdbcBatchProcessing(isJdbcBatchProcessing);
     addSessionFactory(dbSqlSessionFactory);
     addSessionFactory(new DbSqlPersistenceProviderFactory());
   }
@@ -911,6 +1032,7 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
   // deployers ////////////////////////////////////////////////////////////////
 
   protected void initDeployers() {
+    initDeploymentParseExecutor();
     if (this.deployers==null) {
       this.deployers = new ArrayList<Deployer>();
       if (customPreDeployers!=null) {
@@ -933,6 +1055,35 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
 
       deploymentCache = new DeploymentCache();
       deploymentCache.setDeployers(deployers);
+      initDeploymentCaches();
+    }
+    initDeploymentSnapshotStore();
+  }
+
+  protected void initDeploymentCaches() {
+    if (deploymentCacheProvider == null) {
+      deploymentCacheProvider = new DefaultDeploymentCacheProvider();
+    }
+
+    deploymentCache.setProcessDefinitionCache(deploymentCacheProvider.<ProcessDefinitionEntity>createCache(
+        DeploymentCache.PROCESS_DEFINITION_CACHE, processDefinitionCacheLimit));
+    deploymentCache.setCaseDefinitionCache(deploymentCacheProvider.<CaseDefinitionEntity>createCache(
+        DeploymentCache.CASE_DEFINITION_CACHE, caseDefinitionCacheLimit));
+    deploymentCache.setBpmnModelInstanceCache(deploymentCacheProvider.<BpmnModelInstance>createCache(
+        DeploymentCache.BPMN_MODEL_INSTANCE_CACHE, bpmnModelInstanceCacheLimit));
+    deploymentCache.setCmmnModelInstanceCache(deploymentCacheProvider.<CmmnModelInstance>createCache(
+        DeploymentCache.CMMN_MODEL_INSTANCE_CACHE, cmmnModelInstanceCacheLimit));
+  }
+
+  protected void initDeploymentSnapshotStore() {
+    if (deploymentSnapshotDirectory != null && deploymentCache.getSnapshotStore() == null) {
+      deploymentCache.setSnapshotStore(new DeploymentSnapshotStore(new File(deploymentSnapshotDirectory)));
+    }
+  }
+
+  protected void initDeploymentParseExecutor() {
+    if (deploymentParseExecutor == null) {
+      deploymentParseExecutor = new DeploymentParseExecutor(deploymentParseParallelism);
     }
   }
 
@@ -954,6 +1105,7 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
     BpmnDeployer bpmnDeployer = new BpmnDeployer();
     bpmnDeployer.setExpressionManager(expressionManager);
     bpmnDeployer.setIdGenerator(idGenerator);
+    bpmnDeployer.setParseExecutor(deploymentParseExecutor);
 
     if (bpmnParseFactory == null) {
       bpmnParseFactory = new DefaultBpmnParseFactory();
@@ -986,6 +1138,7 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
     CmmnDeployer cmmnDeployer = new CmmnDeployer();
 
     cmmnDeployer.setIdGenerator(idGenerator);
+    cmmnDeployer.setParseExecutor(deploymentParseExecutor);
 
     if (cmmnTransformFactory == null) {
       cmmnTransformFactory = new DefaultCmmnTransformFactory();
@@ -1133,7 +1286,14 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
         idGeneratorCommandExecutor = commandExecutorTxRequiresNew;
       }
 
-      DbIdGenerator dbIdGenerator = new DbIdGenerator();
+      DbIdGenerator dbIdGenerator;
+      if (isIdBlockPrefetchEnabled) {
+        PrefetchingDbIdGenerator prefetchingDbIdGenerator = new PrefetchingDbIdGenerator();
+        prefetchingDbIdGenerator.setMaxBlocksInFlight(idBlocksInFlight);
+        dbIdGenerator = prefetchingDbIdGenerator;
+      } else {
+        dbIdGenerator = new DbIdGenerator();
+      }
       dbIdGenerator.setIdBlockSize(idBlockSize);
       dbIdGenerator.setCommandExecutor(idGeneratorCommandExecutor);
       idGenerator = dbIdGenerator;
@@ -1191,6 +1351,7 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
       variableSerializers.addSerializer(new DateValueSerializer());
       variableSerializers.addSerializer(new DoubleValueSerializer());
       variableSerializers.addSerializer(new ByteArrayValueSerializer());
+      variableSerializers.addSerializer(new StreamValueSerializer());
       variableSerializers.addSerializer(new JavaObjectSerializer());
 
       if (customPostVariableSerializers!=null) {
@@ -1261,6 +1422,8 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
     }
     if (scriptingEngines==null) {
       scriptingEngines = new ScriptingEngines(new ScriptBindingsFactory(resolverFactories));
+      scriptingEngines.setScriptEnginePoolSize(scriptEnginePoolSize);
+      scriptingEngines.setCompiledScriptCacheCapacity(compiledScriptCacheCapacity);
     }
     if(scriptFactory == null) {
       scriptFactory = new ScriptFactory();
@@ -1386,7 +1549,18 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
 
   protected void initHistoryEventHandler() {
     if(historyEventHandler == null) {
-      historyEventHandler = new DbHistoryEventHandler();
+      if (HISTORY_EVENT_DURABILITY_ASYNC_AFTER_COMMIT.equals(historyEventDurability)) {
+        AsyncDbHistoryEventHandler asyncHistoryEventHandler = new AsyncDbHistoryEventHandler();
+        asyncHistoryEventHandler.setQueueCapacity(historyEventQueueCapacity);
+        asyncHistoryEventHandler.setBatchSize(historyEventBatchSize);
+        historyEventHandler = asyncHistoryEventHandler;
+
+      } else if (HISTORY_EVENT_DURABILITY_SYNC.equals(historyEventDurability)) {
+        historyEventHandler = new DbHistoryEventHandler();
+
+      } else {
+        throw new ProcessEngineException("Unknown history event durability '" + historyEventDurability + "'");
+      }
     }
   }
 
@@ -1413,6 +1587,28 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
     }
   }
 
+  protected void initAuthorizationDecisionCache() {
+    if(isAuthorizationDecisionCacheEnabled && authorizationDecisionCache == null) {
+      authorizationDecisionCache = new AuthorizationDecisionCache(authorizationDecisionCacheCapacity);
+    }
+  }
+
+  // second level cache ///////////////////////////////////////////////////////
+
+  protected void initDbSecondLevelCache() {
+    if(isDbSecondLevelCacheEnabled && dbSecondLevelCache == null) {
+      dbSecondLevelCache = new DbSecondLevelCache(dbSecondLevelCacheEntityTypes, dbSecondLevelCacheCapacity);
+    }
+  }
+
+  // byte array codec /////////////////////////////////////////////////////////
+
+  protected void initByteArrayCodec() {
+    if(byteArrayCodec == null) {
+      byteArrayCodec = new DeflateByteArrayCodec(byteArrayCompressionThreshold);
+    }
+  }
+
   // getters and setters //////////////////////////////////////////////////////
 
   public String getProcessEngineName() {
@@ -2496,4 +2692,265 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
     return this;
   }
 
+  public boolean isJobExecutorAcquireByPriority() {
+    return jobExecutorAcquireByPriority;
+  }
+
+  public ProcessEngineConfigurationImpl setJobExecutorAcquireByPriority(boolean jobExecutorAcquireByPriority) {
+    this.jobExecutorAcquireByPriority = jobExecutorAcquireByPriority;
+    return this;
+  }
+
+  public boolean isJdbcBatchProcessing() {
+    return isJdbcBatchProcessing;
+  }
+
+  public ProcessEngineConfigurationImpl setJdbcBatchProcessing(boolean isJdbcBatchProcessing) {
+    this.isJdbcBatchProcessing = isJdbcBatchProcessing;
+    return this;
+  }
+
+  public DeploymentCacheProvider getDeploymentCacheProvider() {
+    return deploymentCacheProvider;
+  }
+
+  public ProcessEngineConfigurationImpl setDeploymentCacheProvider(DeploymentCacheProvider deploymentCacheProvider) {
+    this.deploymentCacheProvider = deploymentCacheProvider;
+    return this;
+  }
+
+  public int getProcessDefinitionCacheLimit() {
+    return processDefinitionCacheLimit;
+  }
+
+  public ProcessEngineConfigurationImpl setProcessDefinitionCacheLimit(int processDefinitionCacheLimit) {
+    this.processDefinitionCacheLimit = processDefinitionCacheLimit;
+    return this;
+  }
+
+  public int getCaseDefinitionCacheLimit() {
+    return caseDefinitionCacheLimit;
+  }
+
+  public ProcessEngineConfigurationImpl setCaseDefinitionCacheLimit(int caseDefinitionCacheLimit) {
+    this.caseDefinitionCacheLimit = caseDefinitionCacheLimit;
+    return this;
+  }
+
+  public int getBpmnModelInstanceCacheLimit() {
+    return bpmnModelInstanceCacheLimit;
+  }
+
+  public ProcessEngineConfigurationImpl setBpmnModelInstanceCacheLimit(int bpmnModelInstanceCacheLimit) {
+    this.bpmnModelInstanceCacheLimit = bpmnModelInstanceCacheLimit;
+    return this;
+  }
+
+  public int getCmmnModelInstanceCacheLimit() {
+    return cmmnModelInstanceCacheLimit;
+  }
+
+  public ProcessEngineConfigurationImpl setCmmnModelInstanceCacheLimit(int cmmnModelInstanceCacheLimit) {
+    this.cmmnModelInstanceCacheLimit = cmmnModelInstanceCacheLimit;
+    return this;
+  }
+
+  public int getDeploymentParseParallelism() {
+    return deploymentParseParallelism;
+  }
+
+  public ProcessEngineConfigurationImpl setDeploymentParseParallelism(int deploymentParseParallelism) {
+    this.deploymentParseParallelism = deploymentParseParallelism;
+    return this;
+  }
+
+  public String getDeploymentSnapshotDirectory() {
+    return deploymentSnapshotDirectory;
+  }
+
+  public ProcessEngineConfigurationImpl setDeploymentSnapshotDirectory(String deploymentSnapshotDirectory) {
+    this.deploymentSnapshotDirectory = deploymentSnapshotDirectory;
+    return this;
+  }
+
+  public DeploymentParseExecutor getDeploymentParseExecutor() {
+    return deploymentParseExecutor;
+  }
+
+  public ProcessEngineConfigurationImpl setDeploymentParseExecutor(DeploymentParseExecutor deploymentParseExecutor) {
+    this.deploymentParseExecutor = deploymentParseExecutor;
+    return this;
+  }
+
+  public boolean isIdBlockPrefetchEnabled() {
+    return isIdBlockPrefetchEnabled;
+  }
+
+  public ProcessEngineConfigurationImpl setIdBlockPrefetchEnabled(boolean isIdBlockPrefetchEnabled) {
+    this.isIdBlockPrefetchEnabled = isIdBlockPrefetchEnabled;
+    return this;
+  }
+
+  public int getIdBlocksInFlight() {
+    return idBlocksInFlight;
+  }
+
+  public ProcessEngineConfigurationImpl setIdBlocksInFlight(int idBlocksInFlight) {
+    this.idBlocksInFlight = idBlocksInFlight;
+    return this;
+  }
+
+  public String getHistoryEventDurability() {
+    return historyEventDurability;
+  }
+
+  public ProcessEngineConfigurationImpl setHistoryEventDurability(String historyEventDurability) {
+    this.historyEventDurability = historyEventDurability;
+    return this;
+  }
+
+  public int getHistoryEventQueueCapacity() {
+    return historyEventQueueCapacity;
+  }
+
+  public ProcessEngineConfigurationImpl setHistoryEventQueueCapacity(int historyEventQueueCapacity) {
+    this.historyEventQueueCapacity = historyEventQueueCapacity;
+    return this;
+  }
+
+  public int getHistoryEventBatchSize() {
+    return historyEventBatchSize;
+  }
+
+  public ProcessEngineConfigurationImpl setHistoryEventBatchSize(int historyEventBatchSize) {
+    this.historyEventBatchSize = historyEventBatchSize;
+    return this;
+  }
+
+  public boolean isExecutionTreeRelationsPrefetchEnabled() {
+    return isExecutionTreeRelationsPrefetchEnabled;
+  }
+
+  public ProcessEngineConfigurationImpl setExecutionTreeRelationsPrefetchEnabled(boolean isExecutionTreeRelationsPrefetchEnabled) {
+    this.isExecutionTreeRelationsPrefetchEnabled = isExecutionTreeRelationsPrefetchEnabled;
+    return this;
+  }
+
+  public boolean isAuthorizationDecisionCacheEnabled() {
+    return isAuthorizationDecisionCacheEnabled;
+  }
+
+  public ProcessEngineConfigurationImpl setAuthorizationDecisionCacheEnabled(boolean isAuthorizationDecisionCacheEnabled) {
+    this.isAuthorizationDecisionCacheEnabled = isAuthorizationDecisionCacheEnabled;
+    return this;
+  }
+
+  public int getAuthorizationDecisionCacheCapacity() {
+    return authorizationDecisionCacheCapacity;
+  }
+
+  public ProcessEngineConfigurationImpl setAuthorizationDecisionCacheCapacity(int authorizationDecisionCacheCapacity) {
+    this.authorizationDecisionCacheCapacity = authorizationDecisionCacheCapacity;
+    return this;
+  }
+
+  public AuthorizationDecisionCache getAuthorizationDecisionCache() {
+    return authorizationDecisionCache;
+  }
+
+  public ProcessEngineConfigurationImpl setAuthorizationDecisionCache(AuthorizationDecisionCache authorizationDecisionCache) {
+    this.authorizationDecisionCache = authorizationDecisionCache;
+    return this;
+  }
+
+  public boolean isAuthorizationPreResolutionEnabled() {
+    return isAuthorizationPreResolutionEnabled;
+  }
+
+  public ProcessEngineConfigurationImpl setAuthorizationPreResolutionEnabled(boolean isAuthorizationPreResolutionEnabled) {
+    this.isAuthorizationPreResolutionEnabled = isAuthorizationPreResolutionEnabled;
+    return this;
+  }
+
+  public int getByteArrayCompressionThreshold() {
+    return byteArrayCompressionThreshold;
+  }
+
+  public ProcessEngineConfigurationImpl setByteArrayCompressionThreshold(int byteArrayCompressionThreshold) {
+    this.byteArrayCompressionThreshold = byteArrayCompressionThreshold;
+    return this;
+  }
+
+  public ByteArrayCodec getByteArrayCodec() {
+    return byteArrayCodec;
+  }
+
+  public ProcessEngineConfigurationImpl setByteArrayCodec(ByteArrayCodec byteArrayCodec) {
+    this.byteArrayCodec = byteArrayCodec;
+    return this;
+  }
+
+  public boolean isDbSecondLevelCacheEnabled() {
+    return isDbSecondLevelCacheEnabled;
+  }
+
+  public ProcessEngineConfigurationImpl setDbSecondLevelCacheEnabled(boolean isDbSecondLevelCacheEnabled) {
+    this.isDbSecondLevelCacheEnabled = isDbSecondLevelCacheEnabled;
+    return this;
+  }
+
+  public int getDbSecondLevelCacheCapacity() {
+    return dbSecondLevelCacheCapacity;
+  }
+
+  public ProcessEngineConfigurationImpl setDbSecondLevelCacheCapacity(int dbSecondLevelCacheCapacity) {
+    this.dbSecondLevelCacheCapacity = dbSecondLevelCacheCapacity;
+    return this;
+  }
+
+  public Set<Class<? extends DbEntity>> getDbSecondLevelCacheEntityTypes() {
+    return dbSecondLevelCacheEntityTypes;
+  }
+
+  public ProcessEngineConfigurationImpl setDbSecondLevelCacheEntityTypes(Set<Class<? extends DbEntity>> dbSecondLevelCacheEntityTypes) {
+    this.dbSecondLevelCacheEntityTypes = dbSecondLevelCacheEntityTypes;
+    return this;
+  }
+
+  public DbSecondLevelCache getDbSecondLevelCache() {
+    return dbSecondLevelCache;
+  }
+
+  public ProcessEngineConfigurationImpl setDbSecondLevelCache(DbSecondLevelCache dbSecondLevelCache) {
+    this.dbSecondLevelCache = dbSecondLevelCache;
+    return this;
+  }
+
+  public int getScriptEnginePoolSize() {
+    return scriptEnginePoolSize;
+  }
+
+  public ProcessEngineConfigurationImpl setScriptEnginePoolSize(int scriptEnginePoolSize) {
+    this.scriptEnginePoolSize = scriptEnginePoolSize;
+    return this;
+  }
+
+  public int getCompiledScriptCacheCapacity() {
+    return compiledScriptCacheCapacity;
+  }
+
+  public ProcessEngineConfigurationImpl setCompiledScriptCacheCapacity(int compiledScriptCacheCapacity) {
+    this.compiledScriptCacheCapacity = compiledScriptCacheCapacity;
+    return this;
+  }
+
+  public boolean isEnableSharedDelegateInstances() {
+    return enableSharedDelegateInstances;
+  }
+
+  public ProcessEngineConfigurationImpl setEnableSharedDelegateInstances(boolean enableSharedDelegateInstances) {
+    this.enableSharedDelegateInstances = enableSharedDelegateInstances;
+    return this;
+  }
+
 }
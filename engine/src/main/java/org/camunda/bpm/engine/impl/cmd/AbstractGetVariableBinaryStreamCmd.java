@@ -0,0 +1,65 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.cmd;
+
+import java.io.InputStream;
+import java.io.Serializable;
+
+import org.camunda.bpm.engine.impl.core.variable.CoreVariableInstance;
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.persistence.entity.VariableInstanceEntity;
+import org.camunda.bpm.engine.variable.type.ValueType;
+
+/**
+ * Returns a stream on the value of a variable of type {@link ValueType#BYTES} or
+ * {@link ValueType#STREAM} which reads the value from the database while it is consumed.
+ */
+public abstract class AbstractGetVariableBinaryStreamCmd implements Command<InputStream>, Serializable {
+
+  private static final long serialVersionUID = 1L;
+
+  protected String variableName;
+  protected boolean isLocal;
+
+  public AbstractGetVariableBinaryStreamCmd(String variableName, boolean isLocal) {
+    this.variableName = variableName;
+    this.isLocal = isLocal;
+  }
+
+  /**
+   * @return a stream on the value of the variable or null if the variable is not
+   * a persistent byte array or stream variable or its value is null
+   */
+  protected InputStream getBinaryStream(CommandContext commandContext, CoreVariableInstance variableInstance) {
+    if (!(variableInstance instanceof VariableInstanceEntity)) {
+      return null;
+    }
+
+    VariableInstanceEntity variableInstanceEntity = (VariableInstanceEntity) variableInstance;
+    String typeName = variableInstanceEntity.getTypeName();
+    if (!ValueType.BYTES.getName().equals(typeName) && !ValueType.STREAM.getName().equals(typeName)) {
+      return null;
+    }
+
+    String byteArrayId = variableInstanceEntity.getByteArrayValueId();
+    if (byteArrayId == null) {
+      return null;
+    }
+
+    return commandContext
+      .getByteArrayManager()
+      .openByteArrayStream(byteArrayId);
+  }
+
+}
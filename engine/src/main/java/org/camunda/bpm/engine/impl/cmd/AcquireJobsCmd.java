@@ -14,13 +14,21 @@ package org.camunda.bpm.engine.impl.cmd;
 
 import java.util.ArrayList;
 import java.util.Calendar;
+import java.util.Collection;
+import java.util.Date;
 import java.util.GregorianCalendar;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
 
 import org.camunda.bpm.engine.impl.Page;
 import org.camunda.bpm.engine.impl.context.Context;
 import org.camunda.bpm.engine.impl.db.DbEntity;
 import org.camunda.bpm.engine.impl.db.entitymanager.OptimisticLockingListener;
+import org.camunda.bpm.engine.impl.db.entitymanager.operation.DbBulkOperation;
 import org.camunda.bpm.engine.impl.db.entitymanager.operation.DbEntityOperation;
 import org.camunda.bpm.engine.impl.db.entitymanager.operation.DbOperation;
 import org.camunda.bpm.engine.impl.interceptor.Command;
@@ -28,6 +36,7 @@ import org.camunda.bpm.engine.impl.interceptor.CommandContext;
 import org.camunda.bpm.engine.impl.jobexecutor.AcquiredJobs;
 import org.camunda.bpm.engine.impl.jobexecutor.JobExecutor;
 import org.camunda.bpm.engine.impl.persistence.entity.JobEntity;
+import org.camunda.bpm.engine.impl.persistence.entity.JobManager;
 import org.camunda.bpm.engine.impl.util.ClockUtil;
 
 
@@ -40,21 +49,33 @@ public class AcquireJobsCmd implements Command<AcquiredJobs>, OptimisticLockingL
   private final JobExecutor jobExecutor;
 
   protected AcquiredJobs acquiredJobs;
+  protected Map<Integer, Set<String>> jobIdsToLockByRevision;
+  /** if null, the job executor's maxJobsPerAcquisition is used */
+  protected Integer numJobsToAcquire;
 
   public AcquireJobsCmd(JobExecutor jobExecutor) {
+    this(jobExecutor, null);
+  }
+
+  public AcquireJobsCmd(JobExecutor jobExecutor, Integer numJobsToAcquire) {
     this.jobExecutor = jobExecutor;
+    this.numJobsToAcquire = numJobsToAcquire;
   }
 
   public AcquiredJobs execute(CommandContext commandContext) {
 
     String lockOwner = jobExecutor.getLockOwner();
     int lockTimeInMillis = jobExecutor.getLockTimeInMillis();
-    int maxNonExclusiveJobsPerAcquisition = jobExecutor.getMaxJobsPerAcquisition();
+    int maxNonExclusiveJobsPerAcquisition = numJobsToAcquire != null ? numJobsToAcquire : jobExecutor.getMaxJobsPerAcquisition();
 
     acquiredJobs = new AcquiredJobs();
+    jobIdsToLockByRevision = new LinkedHashMap<Integer, Set<String>>();
+
     List<JobEntity> jobs = commandContext
       .getJobManager()
-      .findNextJobsToExecute(new Page(0, maxNonExclusiveJobsPerAcquisition));
+      .findNextJobsToExecute(new Page(0, maxNonExclusiveJobsPerAcquisition),
+          jobExecutor.getAcquisitionPriorityMin(),
+          jobExecutor.getAcquisitionPriorityMax());
 
     for (JobEntity job: jobs) {
       List<String> jobIds = new ArrayList<String>();
@@ -67,12 +88,12 @@ public class AcquireJobsCmd implements Command<AcquiredJobs>, OptimisticLockingL
             .findExclusiveJobsToExecute(job.getProcessInstanceId());
           for (JobEntity exclusiveJob : exclusiveJobs) {
             if(exclusiveJob != null) {
-              lockJob(exclusiveJob, lockOwner, lockTimeInMillis);
+              lockJob(exclusiveJob);
               jobIds.add(exclusiveJob.getId());
             }
           }
         } else {
-          lockJob(job, lockOwner, lockTimeInMillis);
+          lockJob(job);
           jobIds.add(job.getId());
         }
 
@@ -81,6 +102,8 @@ public class AcquireJobsCmd implements Command<AcquiredJobs>, OptimisticLockingL
       acquiredJobs.addJobIdBatch(jobIds);
     }
 
+    lockJobs(commandContext, lockOwner, lockTimeInMillis);
+
     // register an OptimisticLockingListener which is notified about jobs which cannot be acquired.
     // the listener removes them from the list of acquired jobs.
     Context.getCommandContext()
@@ -90,18 +113,40 @@ public class AcquireJobsCmd implements Command<AcquiredJobs>, OptimisticLockingL
     return acquiredJobs;
   }
 
-  protected void lockJob(JobEntity job, String lockOwner, int lockTimeInMillis) {
-    job.setLockOwner(lockOwner);
+  /**
+   * Registers the job to be locked. The job entity itself is not modified,
+   * the lock is applied by {@link #lockJobs(CommandContext, String, int)}.
+   */
+  protected void lockJob(JobEntity job) {
+    Set<String> jobIds = jobIdsToLockByRevision.get(job.getRevision());
+    if (jobIds == null) {
+      jobIds = new LinkedHashSet<String>();
+      jobIdsToLockByRevision.put(job.getRevision(), jobIds);
+    }
+    jobIds.add(job.getId());
+  }
+
+  /**
+   * Locks the registered jobs using one UPDATE statement per revision
+   * instead of one optimistic UPDATE per job.
+   */
+  protected void lockJobs(CommandContext commandContext, String lockOwner, int lockTimeInMillis) {
     GregorianCalendar gregorianCalendar = new GregorianCalendar();
     gregorianCalendar.setTime(ClockUtil.getCurrentTime());
     gregorianCalendar.add(Calendar.MILLISECOND, lockTimeInMillis);
-    job.setLockExpirationTime(gregorianCalendar.getTime());
+    Date lockExpirationTime = gregorianCalendar.getTime();
+
+    JobManager jobManager = commandContext.getJobManager();
+    for (Entry<Integer, Set<String>> jobIdsForRevision : jobIdsToLockByRevision.entrySet()) {
+      jobManager.lockJobs(jobIdsForRevision.getValue(), jobIdsForRevision.getKey(), lockOwner, lockExpirationTime);
+    }
   }
 
   public Class<? extends DbEntity> getEntityType() {
     return JobEntity.class;
   }
 
+  @SuppressWarnings("unchecked")
   public void failedOperation(DbOperation operation) {
     if (operation instanceof DbEntityOperation) {
 
@@ -111,6 +156,28 @@ public class AcquireJobsCmd implements Command<AcquiredJobs>, OptimisticLockingL
         acquiredJobs.removeJobId(entityOperation.getEntity().getId());
       }
 
+    } else if (operation instanceof DbBulkOperation) {
+
+      DbBulkOperation bulkOperation = (DbBulkOperation) operation;
+      if (JobManager.LOCK_JOBS_STATEMENT.equals(bulkOperation.getStatement())) {
+        // some of the jobs could not be locked -> find out which ones and
+        // remove them from the list of acquired jobs
+        Map<String, Object> parameters = (Map<String, Object>) bulkOperation.getParameter();
+        Collection<String> jobIds = (Collection<String>) parameters.get("jobIds");
+        int revision = (Integer) parameters.get("revision");
+        String lockOwner = (String) parameters.get("lockOwner");
+
+        List<String> lockedJobIds = Context.getCommandContext()
+          .getJobManager()
+          .findLockedJobIds(jobIds, revision, lockOwner);
+
+        for (String jobId : jobIds) {
+          if (!lockedJobIds.contains(jobId)) {
+            acquiredJobs.removeJobId(jobId);
+          }
+        }
+      }
+
     }
   }
 
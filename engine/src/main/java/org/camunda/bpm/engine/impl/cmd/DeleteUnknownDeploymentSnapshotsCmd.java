@@ -0,0 +1,45 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.cmd;
+
+import java.util.logging.Logger;
+
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.persistence.deploy.DeploymentSnapshotStore;
+
+/**
+ * Deletes the snapshots of deployments which do not exist in the database anymore,
+ * e.g. since they were deleted by another process engine sharing the database.
+ */
+public class DeleteUnknownDeploymentSnapshotsCmd implements Command<Void> {
+
+  private static final Logger LOG = Logger.getLogger(DeleteUnknownDeploymentSnapshotsCmd.class.getName());
+
+  protected DeploymentSnapshotStore snapshotStore;
+
+  public DeleteUnknownDeploymentSnapshotsCmd(DeploymentSnapshotStore snapshotStore) {
+    this.snapshotStore = snapshotStore;
+  }
+
+  public Void execute(CommandContext commandContext) {
+    for (String deploymentId : snapshotStore.getDeploymentIds()) {
+      if (commandContext.getDeploymentManager().findDeploymentById(deploymentId) == null) {
+        LOG.fine("Deleting snapshots of unknown deployment " + deploymentId);
+        snapshotStore.delete(deploymentId);
+      }
+    }
+    return null;
+  }
+
+}
@@ -0,0 +1,55 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.cmd;
+
+import static org.camunda.bpm.engine.impl.util.EnsureUtil.ensureNotNull;
+
+import java.io.InputStream;
+
+import org.camunda.bpm.engine.impl.core.variable.CoreVariableInstance;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.persistence.entity.ExecutionEntity;
+
+public class GetExecutionVariableBinaryStreamCmd extends AbstractGetVariableBinaryStreamCmd {
+
+  private static final long serialVersionUID = 1L;
+
+  protected String executionId;
+
+  public GetExecutionVariableBinaryStreamCmd(String executionId, String variableName, boolean isLocal) {
+    super(variableName, isLocal);
+    this.executionId = executionId;
+  }
+
+  public InputStream execute(CommandContext commandContext) {
+    ensureNotNull("executionId", executionId);
+    ensureNotNull("variableName", variableName);
+
+    ExecutionEntity execution = commandContext
+      .getExecutionManager()
+      .findExecutionById(executionId);
+
+    ensureNotNull("execution " + executionId + " doesn't exist", "execution", execution);
+
+    CoreVariableInstance variableInstance;
+
+    if (isLocal) {
+      variableInstance = execution.getVariableInstanceLocal(variableName);
+    } else {
+      variableInstance = execution.getVariableInstance(variableName);
+    }
+
+    return getBinaryStream(commandContext, variableInstance);
+  }
+
+}
@@ -33,7 +33,7 @@ public class GetNextIdBlockCmd implements Command<IdBlock> {
   public IdBlock execute(CommandContext commandContext) {
     PropertyEntity property = commandContext
       .getPropertyManager()
-      .findPropertyById("next.dbid");
+      .findPropertyByIdUncached("next.dbid");
     long oldValue = Long.parseLong(property.getValue());
     long newValue = oldValue+idBlockSize;
     property.setValue(Long.toString(newValue));
@@ -0,0 +1,52 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.cmd;
+
+import static org.camunda.bpm.engine.impl.util.EnsureUtil.ensureNotNull;
+
+import java.io.Serializable;
+
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.persistence.entity.JobDefinitionEntity;
+
+/**
+ * Sets the priority of jobs created from a job definition. Jobs which
+ * already exist keep their priority.
+ */
+public class SetJobDefinitionPriorityCmd implements Command<Void>, Serializable {
+
+  private static final long serialVersionUID = 1L;
+
+  protected final String jobDefinitionId;
+  protected final Long priority;
+
+  public SetJobDefinitionPriorityCmd(String jobDefinitionId, Long priority) {
+    this.jobDefinitionId = jobDefinitionId;
+    this.priority = priority;
+  }
+
+  public Void execute(CommandContext commandContext) {
+    ensureNotNull("jobDefinitionId", jobDefinitionId);
+
+    JobDefinitionEntity jobDefinition = commandContext
+        .getJobDefinitionManager()
+        .findById(jobDefinitionId);
+    ensureNotNull("No job definition found with id '" + jobDefinitionId + "'", "jobDefinition", jobDefinition);
+
+    jobDefinition.setJobPriority(priority);
+
+    return null;
+  }
+
+}
@@ -0,0 +1,48 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.cmd;
+
+import static org.camunda.bpm.engine.impl.util.EnsureUtil.ensureNotNull;
+
+import java.io.Serializable;
+
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.persistence.entity.JobEntity;
+
+public class SetJobPriorityCmd implements Command<Void>, Serializable {
+
+  private static final long serialVersionUID = 1L;
+
+  protected final String jobId;
+  protected final long priority;
+
+  public SetJobPriorityCmd(String jobId, long priority) {
+    this.jobId = jobId;
+    this.priority = priority;
+  }
+
+  public Void execute(CommandContext commandContext) {
+    ensureNotNull("jobId", jobId);
+
+    JobEntity job = commandContext
+        .getJobManager()
+        .findJobById(jobId);
+    ensureNotNull("No job found with id '" + jobId + "'", "job", job);
+
+    job.setPriority(priority);
+
+    return null;
+  }
+
+}
@@ -16,6 +16,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
 import java.util.logging.Logger;
 
 import org.camunda.bpm.engine.ProcessEngineException;
@@ -26,6 +27,7 @@ import org.camunda.bpm.engine.impl.cmmn.transformer.CmmnTransformer;
 import org.camunda.bpm.engine.impl.context.Context;
 import org.camunda.bpm.engine.impl.el.ExpressionManager;
 import org.camunda.bpm.engine.impl.persistence.deploy.Deployer;
+import org.camunda.bpm.engine.impl.persistence.deploy.DeploymentParseExecutor;
 import org.camunda.bpm.engine.impl.persistence.entity.DeploymentEntity;
 import org.camunda.bpm.engine.impl.persistence.entity.ResourceEntity;
 
@@ -47,22 +49,27 @@ public class CmmnDeployer implements Deployer {
   protected ExpressionManager expressionManager;
   protected CmmnTransformer transformer;
   protected IdGenerator idGenerator;
+  protected DeploymentParseExecutor parseExecutor;
 
   public void deploy(DeploymentEntity deployment) {
     List<CaseDefinitionEntity> caseDefinitions = new ArrayList<CaseDefinitionEntity>();
     Map<String, ResourceEntity> resources = deployment.getResources();
 
     // iterates the list of resources
+    List<ResourceEntity> cmmnResources = new ArrayList<ResourceEntity>();
     for (ResourceEntity resource : resources.values()) {
 
       // if the current resource is a cmmn resource
       // then start to transform the resource
       if (isCmmnResource(resource)) {
-        List<CaseDefinitionEntity> result = transformResource(deployment, resource);
-        caseDefinitions.addAll(result);
+        cmmnResources.add(resource);
       }
     }
 
+    for (List<CaseDefinitionEntity> result : transformResources(deployment, cmmnResources)) {
+      caseDefinitions.addAll(result);
+    }
+
     // check if there are case definitions with the same
     // key to prevent database unique index violation
     List<String> keys = new ArrayList<String>();
@@ -100,6 +107,28 @@ public class CmmnDeployer implements Deployer {
     return false;
   }
 
+  /**
+   * Transforms the CMMN resources, in parallel if a {@link DeploymentParseExecutor} is configured.
+   *
+   * @return the case definitions of each resource in the order of the resources
+   */
+  protected List<List<CaseDefinitionEntity>> transformResources(final DeploymentEntity deployment, List<ResourceEntity> resources) {
+    List<Callable<List<CaseDefinitionEntity>>> transformTasks = new ArrayList<Callable<List<CaseDefinitionEntity>>>();
+    for (final ResourceEntity resource : resources) {
+      transformTasks.add(new Callable<List<CaseDefinitionEntity>>() {
+        public List<CaseDefinitionEntity> call() {
+          return transformResource(deployment, resource);
+        }
+      });
+    }
+
+    if (parseExecutor != null) {
+      return parseExecutor.execute(transformTasks);
+    } else {
+      return DeploymentParseExecutor.executeSequentially(transformTasks);
+    }
+  }
+
   protected List<CaseDefinitionEntity> transformResource(DeploymentEntity deployment, ResourceEntity resource) {
 
     List<CaseDefinitionEntity> caseDefinitions = transformer
@@ -286,6 +315,14 @@ public class CmmnDeployer implements Deployer {
     this.idGenerator = idGenerator;
   }
 
+  public DeploymentParseExecutor getParseExecutor() {
+    return parseExecutor;
+  }
+
+  public void setParseExecutor(DeploymentParseExecutor parseExecutor) {
+    this.parseExecutor = parseExecutor;
+  }
+
   public CmmnTransformer getTransformer() {
     return transformer;
   }
@@ -17,8 +17,10 @@ import static org.camunda.bpm.engine.impl.cmmn.handler.ItemHandler.PROPERTY_ACTI
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.camunda.bpm.engine.ProcessEngineException;
 import org.camunda.bpm.engine.ProcessEngineServices;
@@ -720,6 +722,19 @@ public class CaseExecutionEntity extends CmmnExecution implements CaseExecution,
 
   }
 
+  public Set<String> getReferencedEntityIds() {
+    Set<String> referencedEntityIds = new HashSet<String>();
+
+    if(parentId != null) {
+      referencedEntityIds.add(parentId);
+    }
+    if(superCaseExecutionId != null) {
+      referencedEntityIds.add(superCaseExecutionId);
+    }
+
+    return referencedEntityIds;
+  }
+
   public Object getPersistentState() {
     Map<String, Object> persistentState = new HashMap<String, Object>();
     persistentState.put("caseDefinitionId", caseDefinitionId);
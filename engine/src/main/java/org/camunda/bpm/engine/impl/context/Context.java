@@ -13,7 +13,8 @@
 
 package org.camunda.bpm.engine.impl.context;
 
-import java.util.Stack;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.concurrent.Callable;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -40,16 +41,16 @@ public class Context {
 
   private final static Logger LOGGER = Logger.getLogger(Context.class.getName());
 
-  protected static ThreadLocal<Stack<CommandContext>> commandContextThreadLocal = new ThreadLocal<Stack<CommandContext>>();
-  protected static ThreadLocal<Stack<CommandInvocationContext>> commandInvocationContextThreadLocal = new ThreadLocal<Stack<CommandInvocationContext>>();
+  protected static ThreadLocal<Deque<CommandContext>> commandContextThreadLocal = new ThreadLocal<Deque<CommandContext>>();
+  protected static ThreadLocal<Deque<CommandInvocationContext>> commandInvocationContextThreadLocal = new ThreadLocal<Deque<CommandInvocationContext>>();
 
-  protected static ThreadLocal<Stack<ProcessEngineConfigurationImpl>> processEngineConfigurationStackThreadLocal = new ThreadLocal<Stack<ProcessEngineConfigurationImpl>>();
-  protected static ThreadLocal<Stack<CoreExecutionContext<? extends CoreExecution>>> executionContextStackThreadLocal = new ThreadLocal<Stack<CoreExecutionContext<? extends CoreExecution>>>();
+  protected static ThreadLocal<Deque<ProcessEngineConfigurationImpl>> processEngineConfigurationStackThreadLocal = new ThreadLocal<Deque<ProcessEngineConfigurationImpl>>();
+  protected static ThreadLocal<Deque<CoreExecutionContext<? extends CoreExecution>>> executionContextStackThreadLocal = new ThreadLocal<Deque<CoreExecutionContext<? extends CoreExecution>>>();
   protected static ThreadLocal<JobExecutorContext> jobExecutorContextThreadLocal = new ThreadLocal<JobExecutorContext>();
-  protected static ThreadLocal<Stack<ProcessApplicationReference>> processApplicationContext = new ThreadLocal<Stack<ProcessApplicationReference>>();
+  protected static ThreadLocal<Deque<ProcessApplicationReference>> processApplicationContext = new ThreadLocal<Deque<ProcessApplicationReference>>();
 
   public static CommandContext getCommandContext() {
-    Stack<CommandContext> stack = getStack(commandContextThreadLocal);
+    Deque<CommandContext> stack = getStack(commandContextThreadLocal);
     if (stack.isEmpty()) {
       return null;
     }
@@ -65,7 +66,7 @@ public class Context {
   }
 
   public static CommandInvocationContext getCommandInvocationContext() {
-    Stack<CommandInvocationContext> stack = getStack(commandInvocationContextThreadLocal);
+    Deque<CommandInvocationContext> stack = getStack(commandInvocationContextThreadLocal);
     if (stack.isEmpty()) {
       return null;
     }
@@ -81,7 +82,7 @@ public class Context {
   }
 
   public static ProcessEngineConfigurationImpl getProcessEngineConfiguration() {
-    Stack<ProcessEngineConfigurationImpl> stack = getStack(processEngineConfigurationStackThreadLocal);
+    Deque<ProcessEngineConfigurationImpl> stack = getStack(processEngineConfigurationStackThreadLocal);
     if (stack.isEmpty()) {
       return null;
     }
@@ -113,7 +114,7 @@ public class Context {
   }
 
   public static CoreExecutionContext<? extends CoreExecution> getCoreExecutionContext() {
-    Stack<CoreExecutionContext<? extends CoreExecution>> stack = getStack(executionContextStackThreadLocal);
+    Deque<CoreExecutionContext<? extends CoreExecution>> stack = getStack(executionContextStackThreadLocal);
     if(stack == null || stack.isEmpty()) {
       return null;
     } else {
@@ -134,10 +135,14 @@ public class Context {
     getStack(executionContextStackThreadLocal).pop();
   }
 
-  protected static <T> Stack<T> getStack(ThreadLocal<Stack<T>> threadLocal) {
-    Stack<T> stack = threadLocal.get();
+  /**
+   * The stacks are confined to the current thread, so an unsynchronized {@link ArrayDeque} is used
+   * instead of a {@link java.util.Stack}.
+   */
+  protected static <T> Deque<T> getStack(ThreadLocal<Deque<T>> threadLocal) {
+    Deque<T> stack = threadLocal.get();
     if (stack==null) {
-      stack = new Stack<T>();
+      stack = new ArrayDeque<T>();
       threadLocal.set(stack);
     }
     return stack;
@@ -157,7 +162,7 @@ public class Context {
 
 
   public static ProcessApplicationReference getCurrentProcessApplication() {
-    Stack<ProcessApplicationReference> stack = getStack(processApplicationContext);
+    Deque<ProcessApplicationReference> stack = getStack(processApplicationContext);
     if(stack.isEmpty()) {
       return null;
     } else {
@@ -166,12 +171,12 @@ public class Context {
   }
 
   public static void setCurrentProcessApplication(ProcessApplicationReference reference) {
-    Stack<ProcessApplicationReference> stack = getStack(processApplicationContext);
+    Deque<ProcessApplicationReference> stack = getStack(processApplicationContext);
     stack.push(reference);
   }
 
   public static void removeCurrentProcessApplication() {
-    Stack<ProcessApplicationReference> stack = getStack(processApplicationContext);
+    Deque<ProcessApplicationReference> stack = getStack(processApplicationContext);
     stack.pop();
   }
 
@@ -12,6 +12,7 @@
  */
 package org.camunda.bpm.engine.impl.core.variable.value;
 
+import java.io.InputStream;
 import java.util.Date;
 
 import org.camunda.bpm.engine.variable.type.PrimitiveValueType;
@@ -25,6 +26,7 @@ import org.camunda.bpm.engine.variable.value.LongValue;
 import org.camunda.bpm.engine.variable.value.NumberValue;
 import org.camunda.bpm.engine.variable.value.PrimitiveValue;
 import org.camunda.bpm.engine.variable.value.ShortValue;
+import org.camunda.bpm.engine.variable.value.StreamValue;
 import org.camunda.bpm.engine.variable.value.StringValue;
 
 /**
@@ -95,6 +97,15 @@ public class PrimitiveTypeValueImpl<T> extends AbstractTypedValue<T> implements
     }
   }
 
+  public static class StreamValueImpl extends PrimitiveTypeValueImpl<InputStream> implements StreamValue {
+
+    private static final long serialVersionUID = 1L;
+
+    public StreamValueImpl(InputStream value) {
+      super(value, ValueType.STREAM);
+    }
+  }
+
   public static class DateValueImpl extends PrimitiveTypeValueImpl<Date> implements DateValue {
 
     private static final long serialVersionUID = 1L;
@@ -0,0 +1,190 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.db;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.camunda.bpm.engine.impl.persistence.deploy.cache.Cache;
+import org.camunda.bpm.engine.impl.persistence.deploy.cache.LruCache;
+
+/**
+ * <p>Caches the outcome of authorization checks across commands.</p>
+ *
+ * <p>The cache is invalidated as a whole whenever a transaction which inserted,
+ * updated or deleted authorizations commits. Changes made to the authorization
+ * table by other process engines sharing the same database are not detected, the
+ * cache should therefore only be used if authorizations are managed by this
+ * process engine.</p>
+ *
+ * <p>A decision may only be added to the cache if no invalidation happened since
+ * the decision was looked up in the database. Callers therefore obtain the current
+ * {@link #getVersion() version} before querying the database and pass it to
+ * {@link #put(Key, boolean, long)}.</p>
+ */
+public class AuthorizationDecisionCache {
+
+  public static final int DEFAULT_CAPACITY = 1000;
+
+  protected final Cache<Key, Boolean> decisions;
+  protected final AtomicLong version = new AtomicLong();
+
+  public AuthorizationDecisionCache() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  public AuthorizationDecisionCache(int capacity) {
+    decisions = new LruCache<Key, Boolean>(capacity);
+  }
+
+  /**
+   * @return the cached decision or null if the decision is not cached
+   */
+  public Boolean get(Key key) {
+    return decisions.get(key);
+  }
+
+  public long getVersion() {
+    return version.get();
+  }
+
+  /**
+   * Adds the decision to the cache unless the cache was invalidated after
+   * the given version was obtained.
+   */
+  public synchronized void put(Key key, boolean decision, long lookupVersion) {
+    if (version.get() == lookupVersion) {
+      decisions.put(key, decision);
+    }
+  }
+
+  public synchronized void invalidate() {
+    version.incrementAndGet();
+    decisions.clear();
+  }
+
+  public int size() {
+    return decisions.size();
+  }
+
+  public long getHitCount() {
+    return decisions.getHitCount();
+  }
+
+  public long getMissCount() {
+    return decisions.getMissCount();
+  }
+
+  /**
+   * Identifies an authorization decision. If {@link #isAllResources()} is true, the
+   * decision states whether the user is authorized for every resource of the
+   * resource type, regardless of the resource id.
+   */
+  public static class Key {
+
+    protected final String userId;
+    protected final List<String> groupIds;
+    protected final int resourceType;
+    protected final String resourceId;
+    protected final int permissions;
+    protected final boolean allResources;
+
+    protected final int hashCode;
+
+    public Key(String userId, List<String> groupIds, int resourceType, String resourceId, int permissions, boolean allResources) {
+      this.userId = userId;
+      this.groupIds = groupIds != null ? new ArrayList<String>(groupIds) : Collections.<String>emptyList();
+      this.resourceType = resourceType;
+      this.resourceId = resourceId;
+      this.permissions = permissions;
+      this.allResources = allResources;
+      this.hashCode = computeHashCode();
+    }
+
+    public static Key forResource(String userId, List<String> groupIds, int resourceType, String resourceId, int permissions) {
+      return new Key(userId, groupIds, resourceType, resourceId, permissions, false);
+    }
+
+    public static Key forAllResources(String userId, List<String> groupIds, int resourceType, int permissions) {
+      return new Key(userId, groupIds, resourceType, null, permissions, true);
+    }
+
+    protected int computeHashCode() {
+      final int prime = 31;
+      int result = 1;
+      result = prime * result + ((userId == null) ? 0 : userId.hashCode());
+      result = prime * result + groupIds.hashCode();
+      result = prime * result + resourceType;
+      result = prime * result + ((resourceId == null) ? 0 : resourceId.hashCode());
+      result = prime * result + permissions;
+      result = prime * result + (allResources ? 1231 : 1237);
+      return result;
+    }
+
+    public String getUserId() {
+      return userId;
+    }
+
+    public List<String> getGroupIds() {
+      return groupIds;
+    }
+
+    public int getResourceType() {
+      return resourceType;
+    }
+
+    public String getResourceId() {
+      return resourceId;
+    }
+
+    public int getPermissions() {
+      return permissions;
+    }
+
+    public boolean isAllResources() {
+      return allResources;
+    }
+
+    public int hashCode() {
+      return hashCode;
+    }
+
+    public boolean equals(Object obj) {
+      if (this == obj) {
+        return true;
+      }
+      if (obj == null || getClass() != obj.getClass()) {
+        return false;
+      }
+      Key other = (Key) obj;
+      return hashCode == other.hashCode
+          && resourceType == other.resourceType
+          && permissions == other.permissions
+          && allResources == other.allResources
+          && (userId == null ? other.userId == null : userId.equals(other.userId))
+          && (resourceId == null ? other.resourceId == null : resourceId.equals(other.resourceId))
+          && groupIds.equals(other.groupIds);
+    }
+
+    public String toString() {
+      return "Key[userId=" + userId
+          + ", groupIds=" + groupIds
+          + ", resourceType=" + resourceType
+          + ", resourceId=" + (allResources ? "<all>" : resourceId)
+          + ", permissions=" + permissions + "]";
+    }
+  }
+
+}
@@ -0,0 +1,32 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.db;
+
+import org.camunda.bpm.engine.impl.db.entitymanager.cache.DbSecondLevelCache;
+
+/**
+ * <p>Implemented by {@link DbEntity DbEntities} which may be kept in the
+ * {@link DbSecondLevelCache} shared by all commands.</p>
+ *
+ * <p>Since every command modifies its own instances, the second level cache only
+ * hands out copies of the cached entities.</p>
+ */
+public interface CacheableDbEntity extends DbEntity, HasDbRevision {
+
+  /**
+   * @return a copy of the entity with the same id, revision and persistent state which
+   * does not share any mutable state with this entity
+   */
+  CacheableDbEntity copy();
+
+}
@@ -0,0 +1,44 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.db;
+
+/**
+ * <p>Implemented by {@link DbEntity DbEntities} which track changes of their
+ * {@link DbEntity#getPersistentState() persistent state} themselves, for example by
+ * keeping the values of the persistent fields as of the last flush in additional fields.</p>
+ *
+ * <p>The entity cache then decides whether such an entity is dirty by asking the
+ * entity instead of comparing a copy of the persistent state, which avoids building
+ * the persistent state for every cached entity on flush.</p>
+ *
+ * <p>{@link #isModified()} must return true exactly if {@link DbEntity#getPersistentState()}
+ * would not be equal to the persistent state at the time {@link #resetModified()} was called.</p>
+ */
+public interface HasDbModificationTracking {
+
+  /**
+   * Implementations compare the fields of the persistent state with their values as of
+   * the last call to {@link #resetModified()}, which they keep in transient fields,
+   * without building the persistent state.
+   *
+   * @return true if the persistent state has changed since {@link #resetModified()} was called
+   */
+  boolean isModified();
+
+  /**
+   * Called by the entity cache once the current persistent state is known to be
+   * in sync with the database, i.e. after the entity was loaded or flushed.
+   */
+  void resetModified();
+
+}
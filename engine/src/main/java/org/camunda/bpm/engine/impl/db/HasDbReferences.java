@@ -12,6 +12,8 @@
  */
 package org.camunda.bpm.engine.impl.db;
 
+import java.util.Set;
+
 /**
  * @author Daniel Meyer
  *
@@ -20,4 +22,10 @@ public interface HasDbReferences {
 
   boolean hasReferenceTo(DbEntity entity);
 
+  /**
+   * @return the ids of the entities of the same type which are referenced by this entity,
+   * i.e. the ids of all entities for which {@link #hasReferenceTo(DbEntity)} returns true.
+   */
+  Set<String> getReferencedEntityIds();
+
 }
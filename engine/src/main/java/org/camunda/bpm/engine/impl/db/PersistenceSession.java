@@ -28,6 +28,14 @@ public interface PersistenceSession extends Session {
 
   void executeDbOperation(DbOperation operation);
 
+  /**
+   * Executes operations which were deferred by {@link #executeDbOperation(DbOperation)}
+   * (e.g. because they are part of a JDBC batch) and determines their outcome.
+   *
+   * @return the operations whose outcome was determined by this flush
+   */
+  List<DbOperation> flushOperations();
+
   List<?> selectList(String statement, Object parameter);
 
   <T extends DbEntity> T selectById(Class<T> type, String id);
@@ -0,0 +1,196 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.db;
+
+import java.util.LinkedList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.camunda.bpm.engine.ProcessEngineException;
+import org.camunda.bpm.engine.impl.cmd.GetNextIdBlockCmd;
+
+/**
+ * <p>A {@link DbIdGenerator} which hands out ids from the current block through an
+ * atomic counter and fetches the next blocks in the background before the current
+ * block runs out.</p>
+ *
+ * <p>Up to {@link #getMaxBlocksInFlight()} blocks are fetched ahead of time. All
+ * fetches of a node are serialized on a single daemon thread so that they do not
+ * compete with each other for the <code>next.dbid</code> property. If no prefetched
+ * block is available when the current block is exhausted, the next block is fetched
+ * synchronously.</p>
+ */
+public class PrefetchingDbIdGenerator extends DbIdGenerator {
+
+  private static Logger log = Logger.getLogger(PrefetchingDbIdGenerator.class.getName());
+
+  protected int maxBlocksInFlight = 1;
+
+  protected final AtomicReference<IdRange> currentRange = new AtomicReference<IdRange>();
+
+  /** guarded by this */
+  protected final LinkedList<Future<IdBlock>> prefetchedBlocks = new LinkedList<Future<IdBlock>>();
+
+  /** guarded by this */
+  protected ExecutorService prefetchExecutor;
+
+  /** guarded by this */
+  protected boolean closed = false;
+
+  public String getNextId() {
+    while (true) {
+      IdRange range = currentRange.get();
+      if (range != null) {
+        long id = range.next.getAndIncrement();
+        if (id <= range.lastId) {
+          return Long.toString(id);
+        }
+      }
+      switchToNextBlock(range);
+    }
+  }
+
+  protected synchronized void getNewBlock() {
+    switchToNextBlock(currentRange.get());
+  }
+
+  /**
+   * Replaces the exhausted range with the next block and schedules the fetch of
+   * its successors. Does nothing if another thread has already switched to a new
+   * block.
+   */
+  protected synchronized void switchToNextBlock(IdRange exhaustedRange) {
+    if (currentRange.get() != exhaustedRange) {
+      return;
+    }
+
+    IdBlock idBlock = takePrefetchedBlock();
+    if (idBlock == null) {
+      idBlock = fetchBlock();
+    }
+    currentRange.set(new IdRange(idBlock));
+
+    prefetchBlocks();
+  }
+
+  /**
+   * Returns the oldest prefetched block, waiting for its fetch to complete, or
+   * <code>null</code> if no fetch succeeded. Since the fetches are serialized, no
+   * fetch is in flight anymore once this returns <code>null</code>.
+   */
+  protected synchronized IdBlock takePrefetchedBlock() {
+    Future<IdBlock> prefetchedBlock;
+    while ((prefetchedBlock = prefetchedBlocks.poll()) != null) {
+      try {
+        return prefetchedBlock.get();
+
+      } catch (ExecutionException e) {
+        log.log(Level.WARNING, "Could not prefetch id block", e.getCause());
+
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new ProcessEngineException("Interrupted while waiting for id block", e);
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Schedules background fetches until {@link #maxBlocksInFlight} blocks are
+   * prefetched or being fetched.
+   */
+  protected synchronized void prefetchBlocks() {
+    if (closed) {
+      return;
+    }
+
+    if (prefetchExecutor == null) {
+      prefetchExecutor = createPrefetchExecutor();
+    }
+
+    while (prefetchedBlocks.size() < maxBlocksInFlight) {
+      prefetchedBlocks.add(prefetchExecutor.submit(new Callable<IdBlock>() {
+        public IdBlock call() throws Exception {
+          return fetchBlock();
+        }
+      }));
+    }
+  }
+
+  protected IdBlock fetchBlock() {
+    return commandExecutor.execute(new GetNextIdBlockCmd(idBlockSize));
+  }
+
+  protected ExecutorService createPrefetchExecutor() {
+    return Executors.newSingleThreadExecutor(new ThreadFactory() {
+      public Thread newThread(Runnable runnable) {
+        Thread thread = new Thread(runnable, "camunda-id-block-prefetch");
+        thread.setDaemon(true);
+        return thread;
+      }
+    });
+  }
+
+  /**
+   * Stops prefetching blocks. Ids of blocks which were prefetched but not used
+   * are lost, as are the remaining ids of the current block.
+   */
+  public synchronized void close() {
+    closed = true;
+    prefetchedBlocks.clear();
+
+    if (prefetchExecutor != null) {
+      prefetchExecutor.shutdown();
+      try {
+        if (!prefetchExecutor.awaitTermination(10L, TimeUnit.SECONDS)) {
+          log.log(Level.WARNING, "Timed out while waiting for the id block prefetch to finish");
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      prefetchExecutor = null;
+    }
+  }
+
+  public int getMaxBlocksInFlight() {
+    return maxBlocksInFlight;
+  }
+
+  public void setMaxBlocksInFlight(int maxBlocksInFlight) {
+    this.maxBlocksInFlight = maxBlocksInFlight;
+  }
+
+  /**
+   * The ids of an {@link IdBlock} which are handed out through an atomic counter.
+   */
+  protected static class IdRange {
+
+    protected final AtomicLong next;
+    protected final long lastId;
+
+    public IdRange(IdBlock idBlock) {
+      this.next = new AtomicLong(idBlock.getNextId());
+      this.lastId = idBlock.getLastId();
+    }
+  }
+
+}
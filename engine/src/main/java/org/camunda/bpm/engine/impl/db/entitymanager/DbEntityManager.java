@@ -27,7 +27,11 @@ import static org.camunda.bpm.engine.impl.db.entitymanager.operation.DbOperation
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -49,6 +53,9 @@ import org.camunda.bpm.engine.impl.TaskQueryImpl;
 import org.camunda.bpm.engine.impl.UserQueryImpl;
 import org.camunda.bpm.engine.impl.cfg.IdGenerator;
 import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.cfg.TransactionContext;
+import org.camunda.bpm.engine.impl.cfg.TransactionListener;
+import org.camunda.bpm.engine.impl.cfg.TransactionState;
 import org.camunda.bpm.engine.impl.cmmn.entity.repository.CaseDefinitionQueryImpl;
 import org.camunda.bpm.engine.impl.context.Context;
 import org.camunda.bpm.engine.impl.db.DbEntity;
@@ -58,6 +65,7 @@ import org.camunda.bpm.engine.impl.db.PersistenceSession;
 import org.camunda.bpm.engine.impl.db.entitymanager.cache.CachedDbEntity;
 import org.camunda.bpm.engine.impl.db.entitymanager.cache.DbEntityCache;
 import org.camunda.bpm.engine.impl.db.entitymanager.cache.DbEntityState;
+import org.camunda.bpm.engine.impl.db.entitymanager.cache.DbSecondLevelCache;
 import org.camunda.bpm.engine.impl.db.entitymanager.operation.DbBulkOperation;
 import org.camunda.bpm.engine.impl.db.entitymanager.operation.DbEntityOperation;
 import org.camunda.bpm.engine.impl.db.entitymanager.operation.DbOperation;
@@ -65,6 +73,7 @@ import org.camunda.bpm.engine.impl.db.entitymanager.operation.DbOperationManager
 import org.camunda.bpm.engine.impl.db.entitymanager.operation.DbOperationType;
 import org.camunda.bpm.engine.impl.identity.db.DbGroupQueryImpl;
 import org.camunda.bpm.engine.impl.identity.db.DbUserQueryImpl;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
 import org.camunda.bpm.engine.impl.interceptor.Session;
 import org.camunda.bpm.engine.impl.jobexecutor.JobExecutorContext;
 
@@ -88,11 +97,20 @@ public class DbEntityManager implements Session {
 
   protected PersistenceSession persistenceSession;
 
+  protected DbSecondLevelCache secondLevelCache;
+
+  /** the ids of the entities cached by the second level cache which were updated or deleted in this command */
+  protected Map<Class<?>, Set<String>> secondLevelCacheModifiedEntityIds;
+
+  /** the entity types cached by the second level cache which were modified by bulk operations in this command */
+  protected Set<Class<?>> secondLevelCacheModifiedEntityTypes;
+
   public DbEntityManager(IdGenerator idGenerator, PersistenceSession persistenceSession) {
     this.idGenerator = idGenerator;
     this.persistenceSession = persistenceSession;
     initializeEntityCache();
     initializeOperationManager();
+    initializeSecondLevelCache();
   }
 
   protected void initializeOperationManager() {
@@ -125,6 +143,13 @@ public class DbEntityManager implements Session {
 
   }
 
+  protected void initializeSecondLevelCache() {
+    ProcessEngineConfigurationImpl processEngineConfiguration = Context.getProcessEngineConfiguration();
+    if(processEngineConfiguration != null) {
+      secondLevelCache = processEngineConfiguration.getDbSecondLevelCache();
+    }
+  }
+
   // selects /////////////////////////////////////////////////
 
   public List selectList(String statement) {
@@ -160,8 +185,11 @@ public class DbEntityManager implements Session {
     if(firstResult == -1 ||  maxResults==-1) {
       return Collections.EMPTY_LIST;
     }
+    long secondLevelCacheVersion = getSecondLevelCacheVersion();
     List loadedObjects = persistenceSession.selectList(statement, parameter);
-    return filterLoadedObjects(loadedObjects);
+    List filteredObjects = filterLoadedObjects(loadedObjects);
+    putIntoSecondLevelCache(loadedObjects, filteredObjects, secondLevelCacheVersion);
+    return filteredObjects;
   }
 
   public Object selectOne(String statement, Object parameter) {
@@ -184,19 +212,73 @@ public class DbEntityManager implements Session {
   }
 
   public <T extends DbEntity> T selectById(Class<T> entityClass, String id) {
+    return selectById(entityClass, id, true);
+  }
+
+  /**
+   * @param useSecondLevelCache false if the entity must be selected from the database even if its
+   *   type is held by the second level cache, e.g. since it is modified by other process engines
+   *   sharing the database and a stale copy would cause an optimistic locking failure
+   */
+  public <T extends DbEntity> T selectById(Class<T> entityClass, String id, boolean useSecondLevelCache) {
     T persistentObject = dbEntityCache.get(entityClass, id);
     if (persistentObject!=null) {
       return persistentObject;
     }
+
+    boolean isSecondLevelCacheUsed = useSecondLevelCache && isSecondLevelCacheUsed(entityClass);
+    if (isSecondLevelCacheUsed) {
+      persistentObject = secondLevelCache.get(entityClass, id);
+      if (persistentObject != null) {
+        dbEntityCache.putPersistent(persistentObject);
+        return persistentObject;
+      }
+    }
+
+    long secondLevelCacheVersion = getSecondLevelCacheVersion();
     persistentObject = persistenceSession.selectById(entityClass, id);
 
     if (persistentObject==null) {
       return null;
     }
     dbEntityCache.putPersistent(persistentObject);
+
+    if (isSecondLevelCacheUsed) {
+      secondLevelCache.put(persistentObject, secondLevelCacheVersion);
+    }
     return persistentObject;
   }
 
+  /**
+   * The second level cache is not used for the rest of the command once modifications of
+   * cached entities were flushed, since the modifications are not committed yet.
+   */
+  protected boolean isSecondLevelCacheUsed(Class<?> entityType) {
+    return secondLevelCache != null
+        && secondLevelCacheModifiedEntityIds == null
+        && secondLevelCache.isCached(entityType);
+  }
+
+  protected long getSecondLevelCacheVersion() {
+    return secondLevelCache != null ? secondLevelCache.getVersion() : 0;
+  }
+
+  /**
+   * Adds the loaded entities of cached types to the second level cache unless this
+   * command already held another instance of the entity.
+   */
+  protected void putIntoSecondLevelCache(List<Object> loadedObjects, List<Object> filteredObjects, long secondLevelCacheVersion) {
+    if (loadedObjects.isEmpty() || !isSecondLevelCacheUsed(loadedObjects.get(0).getClass())) {
+      return;
+    }
+    for (int i = 0; i < loadedObjects.size(); i++) {
+      Object loadedObject = loadedObjects.get(i);
+      if (loadedObject == filteredObjects.get(i)) {
+        secondLevelCache.put((DbEntity) loadedObject, secondLevelCacheVersion);
+      }
+    }
+  }
+
   public <T extends DbEntity> T getCachedEntity(Class<T> type, String id) {
     return dbEntityCache.get(type, id);
   }
@@ -268,9 +350,78 @@ public class DbEntityManager implements Session {
       }
     }
 
+    // execute deferred (batched) operations and check their outcome
+    List<DbOperation> batchedOperations = persistenceSession.flushOperations();
+    for (DbOperation dbOperation : batchedOperations) {
+      if(dbOperation.isFailed()) {
+        handleOptimisticLockingException(dbOperation);
+      }
+    }
+
+    if(secondLevelCache != null) {
+      collectSecondLevelCacheModifications(operationsToFlush);
+    }
+  }
+
+  /**
+   * Remembers the flushed modifications of entities cached by the second level cache.
+   * They are invalidated once the transaction is committed.
+   */
+  protected void collectSecondLevelCacheModifications(List<DbOperation> flushedOperations) {
+    for (DbOperation dbOperation : flushedOperations) {
+      Class<? extends DbEntity> entityType = dbOperation.getEntityType();
+      if(dbOperation.getOperationType() == INSERT || !secondLevelCache.isCached(entityType)) {
+        continue;
+      }
+
+      if(secondLevelCacheModifiedEntityIds == null) {
+        secondLevelCacheModifiedEntityIds = new HashMap<Class<?>, Set<String>>();
+        secondLevelCacheModifiedEntityTypes = new HashSet<Class<?>>();
+        registerSecondLevelCacheInvalidation();
+      }
+
+      if(dbOperation instanceof DbEntityOperation) {
+        Set<String> modifiedIds = secondLevelCacheModifiedEntityIds.get(entityType);
+        if(modifiedIds == null) {
+          modifiedIds = new HashSet<String>();
+          secondLevelCacheModifiedEntityIds.put(entityType, modifiedIds);
+        }
+        modifiedIds.add(((DbEntityOperation) dbOperation).getEntity().getId());
+
+      } else {
+        secondLevelCacheModifiedEntityTypes.add(entityType);
+
+      }
+    }
+  }
+
+  protected void registerSecondLevelCacheInvalidation() {
+    CommandContext commandContext = Context.getCommandContext();
+    if(commandContext == null) {
+      return;
+    }
+
+    final DbSecondLevelCache cache = secondLevelCache;
+    final Map<Class<?>, Set<String>> modifiedEntityIds = secondLevelCacheModifiedEntityIds;
+    final Set<Class<?>> modifiedEntityTypes = secondLevelCacheModifiedEntityTypes;
+    TransactionListener invalidation = new TransactionListener() {
+      public void execute(CommandContext commandContext) {
+        cache.invalidateModifications(modifiedEntityIds, modifiedEntityTypes);
+      }
+    };
+
+    TransactionContext transactionContext = commandContext.getTransactionContext();
+    transactionContext.addTransactionListener(TransactionState.COMMITTED, invalidation);
+    // other commands sharing the transaction may have cached the modifications before they were rolled back
+    transactionContext.addTransactionListener(TransactionState.ROLLED_BACK, invalidation);
   }
 
   protected void handleOptimisticLockingException(DbOperation dbOperation) {
+    if(secondLevelCache != null && dbOperation instanceof DbEntityOperation) {
+      // the entity may have been updated using an outdated copy from the second level cache
+      secondLevelCache.invalidate(dbOperation.getEntityType(), ((DbEntityOperation) dbOperation).getEntity().getId());
+    }
+
     boolean isHandled = false;
 
     if(optimisticLockingListeners != null) {
@@ -376,12 +527,12 @@ public class DbEntityManager implements Session {
     dbEntityCache.setDeleted(dbEntity);
   }
 
-  public void update(Class<? extends DbEntity> entityType, String statement, Object parameter) {
-    performBulkOperation(entityType, statement, parameter, UPDATE_BULK);
+  public DbBulkOperation update(Class<? extends DbEntity> entityType, String statement, Object parameter) {
+    return performBulkOperation(entityType, statement, parameter, UPDATE_BULK);
   }
 
-  public void delete(Class<? extends DbEntity> entityType, String statement, Object parameter) {
-    performBulkOperation(entityType, statement, parameter, DELETE_BULK);
+  public DbBulkOperation delete(Class<? extends DbEntity> entityType, String statement, Object parameter) {
+    return performBulkOperation(entityType, statement, parameter, DELETE_BULK);
   }
 
   protected DbBulkOperation performBulkOperation(Class<? extends DbEntity> entityType, String statement, Object parameter, DbOperationType operationType) {
@@ -19,7 +19,8 @@ import org.camunda.bpm.engine.impl.db.entitymanager.operation.DbOperationType;
 /**
  * Allows registering a listener which is notified when an
  * {@link DbOperationType#UPDATE} or {@link DbOperationType#DELETE}
- * could not be performed.
+ * could not be performed. Bulk operations are reported if they declare an
+ * expected row count which does not match the number of affected rows.
  *
  * @author Daniel Meyer
  *
@@ -13,6 +13,7 @@
 package org.camunda.bpm.engine.impl.db.entitymanager.cache;
 
 import org.camunda.bpm.engine.impl.db.DbEntity;
+import org.camunda.bpm.engine.impl.db.HasDbModificationTracking;
 import org.camunda.bpm.engine.impl.db.entitymanager.Recyclable;
 
 /**
@@ -29,11 +30,14 @@ public class CachedDbEntity implements Recyclable {
 
   protected DbEntityState entityState;
 
+  protected boolean isForcedDirty = false;
+
   public void recycle() {
     // clean out state
     dbEntity = null;
     copy = null;
     entityState = null;
+    isForcedDirty = false;
   }
 
   /**
@@ -41,16 +45,27 @@ public class CachedDbEntity implements Recyclable {
    * @return true if the entity is dirty (state has changed since it was put into the cache)
    */
   public boolean isDirty() {
-    return !dbEntity.getPersistentState().equals(copy);
+    if (dbEntity instanceof HasDbModificationTracking) {
+      return isForcedDirty || ((HasDbModificationTracking) dbEntity).isModified();
+    } else {
+      return !dbEntity.getPersistentState().equals(copy);
+    }
   }
 
   public void forceSetDirty() {
+    isForcedDirty = true;
     // set the value of the copy to some value which will always be different from the new entity state.
     this.copy = -1;
   }
 
   public void makeCopy() {
-    copy = dbEntity.getPersistentState();
+    isForcedDirty = false;
+    if (dbEntity instanceof HasDbModificationTracking) {
+      // the entity tracks its modifications, no copy required
+      ((HasDbModificationTracking) dbEntity).resetModified();
+    } else {
+      copy = dbEntity.getPersistentState();
+    }
   }
 
   public String toString() {
@@ -0,0 +1,220 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.db.entitymanager.cache;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.camunda.bpm.engine.ProcessEngineException;
+import org.camunda.bpm.engine.impl.db.CacheableDbEntity;
+import org.camunda.bpm.engine.impl.db.DbEntity;
+import org.camunda.bpm.engine.impl.persistence.deploy.cache.Cache;
+import org.camunda.bpm.engine.impl.persistence.deploy.cache.LruCache;
+import org.camunda.bpm.engine.impl.persistence.entity.AuthorizationEntity;
+import org.camunda.bpm.engine.impl.persistence.entity.FilterEntity;
+import org.camunda.bpm.engine.impl.persistence.entity.GroupEntity;
+import org.camunda.bpm.engine.impl.persistence.entity.JobDefinitionEntity;
+
+/**
+ * <p>Caches read-mostly entities across commands, so that they are not selected by id
+ * from the database in every command. Only the configured entity types are cached,
+ * each of them in a separate bounded {@link LruCache}.</p>
+ *
+ * <p>The cache keeps private copies of the entities and hands out a new
+ * {@link CacheableDbEntity#copy() copy} on every lookup, so that the {@link DbEntityCache
+ * first level cache} of a command owns its entities as if they were selected from the
+ * database.</p>
+ *
+ * <p>The {@link org.camunda.bpm.engine.impl.db.entitymanager.DbEntityManager} invalidates
+ * updated and deleted entities once the modifying transaction is committed, and all cached
+ * entities of a type if a bulk operation is performed on the type. An entity is only added
+ * to the cache if no invalidation happened since it was looked up in the database and if
+ * the cache does not already hold a higher revision. If an update fails because the cached
+ * revision is outdated, the entity is invalidated as well.</p>
+ *
+ * <p>The revision of a cached entity is not validated against the database when it is
+ * looked up, so the cache is meant for a single process engine. Modifications made by other
+ * process engines sharing the same database are not detected and updating a stale copy fails
+ * with an {@link org.camunda.bpm.engine.OptimisticLockingException}. In a cluster,
+ * {@link DbSecondLevelCacheListener listeners} can be used to propagate the local invalidations
+ * to the other nodes, which in turn call {@link #invalidate(Class, String)} or
+ * {@link #invalidate(Class)}. Entities which are frequently updated by all nodes, like the
+ * <code>next.dbid</code> property used for id generation, must not be read from the cache.</p>
+ */
+public class DbSecondLevelCache {
+
+  public static final int DEFAULT_CAPACITY = 1000;
+
+  protected final Map<Class<?>, Cache<String, CacheableDbEntity>> entitiesByType = new HashMap<Class<?>, Cache<String, CacheableDbEntity>>();
+  protected final AtomicLong version = new AtomicLong();
+
+  protected final AtomicLong hitCount = new AtomicLong();
+  protected final AtomicLong missCount = new AtomicLong();
+
+  protected final List<DbSecondLevelCacheListener> listeners = new CopyOnWriteArrayList<DbSecondLevelCacheListener>();
+
+  public DbSecondLevelCache(Collection<Class<? extends DbEntity>> entityTypes) {
+    this(entityTypes, DEFAULT_CAPACITY);
+  }
+
+  /**
+   * @param entityTypes the types of the cached entities, every type must implement {@link CacheableDbEntity}
+   * @param capacity the maximum number of cached entities per type
+   */
+  public DbSecondLevelCache(Collection<Class<? extends DbEntity>> entityTypes, int capacity) {
+    for (Class<? extends DbEntity> entityType : entityTypes) {
+      if (!CacheableDbEntity.class.isAssignableFrom(entityType)) {
+        throw new ProcessEngineException("Entity type " + entityType.getName() + " cannot be cached in the second level cache, "
+            + "it does not implement " + CacheableDbEntity.class.getName());
+      }
+      entitiesByType.put(entityType, new LruCache<String, CacheableDbEntity>(capacity));
+    }
+  }
+
+  public static Set<Class<? extends DbEntity>> defaultEntityTypes() {
+    Set<Class<? extends DbEntity>> entityTypes = new HashSet<Class<? extends DbEntity>>();
+    entityTypes.add(AuthorizationEntity.class);
+    entityTypes.add(FilterEntity.class);
+    entityTypes.add(GroupEntity.class);
+    entityTypes.add(JobDefinitionEntity.class);
+    return entityTypes;
+  }
+
+  public boolean isCached(Class<?> entityType) {
+    return entitiesByType.containsKey(entityType);
+  }
+
+  /**
+   * @return a copy of the cached entity or null if the entity is not cached
+   */
+  @SuppressWarnings("unchecked")
+  public <T extends DbEntity> T get(Class<T> entityType, String id) {
+    Cache<String, CacheableDbEntity> entities = entitiesByType.get(entityType);
+    if (entities == null || id == null) {
+      return null;
+    }
+
+    CacheableDbEntity cachedEntity = entities.get(id);
+    if (cachedEntity != null) {
+      hitCount.incrementAndGet();
+      return (T) cachedEntity.copy();
+    } else {
+      missCount.incrementAndGet();
+      return null;
+    }
+  }
+
+  public long getVersion() {
+    return version.get();
+  }
+
+  /**
+   * Adds a copy of the entity loaded from the database to the cache unless the cache
+   * was invalidated after the given version was obtained.
+   *
+   * @param lookupVersion the {@link #getVersion() version} obtained before the entity was selected
+   */
+  public synchronized void put(DbEntity entity, long lookupVersion) {
+    Cache<String, CacheableDbEntity> entities = entitiesByType.get(entity.getClass());
+    if (entities == null || version.get() != lookupVersion) {
+      return;
+    }
+
+    CacheableDbEntity cacheableEntity = (CacheableDbEntity) entity;
+    CacheableDbEntity cachedEntity = entities.get(entity.getId());
+    if (cachedEntity == null || cachedEntity.getRevision() < cacheableEntity.getRevision()) {
+      entities.put(entity.getId(), cacheableEntity.copy());
+    }
+  }
+
+  /**
+   * Removes the entity from the cache.
+   */
+  public synchronized void invalidate(Class<?> entityType, String id) {
+    Cache<String, CacheableDbEntity> entities = entitiesByType.get(entityType);
+    if (entities != null) {
+      version.incrementAndGet();
+      entities.remove(id);
+    }
+  }
+
+  /**
+   * Removes all entities of the given type from the cache.
+   */
+  public synchronized void invalidate(Class<?> entityType) {
+    Cache<String, CacheableDbEntity> entities = entitiesByType.get(entityType);
+    if (entities != null) {
+      version.incrementAndGet();
+      entities.clear();
+    }
+  }
+
+  /**
+   * Invalidates the entities which were updated or deleted by a committed transaction of
+   * this process engine and notifies the {@link DbSecondLevelCacheListener listeners}.
+   *
+   * @param modifiedEntityIds the ids of the updated or deleted entities by type
+   * @param modifiedEntityTypes the types which were modified by bulk operations
+   */
+  public void invalidateModifications(Map<Class<?>, Set<String>> modifiedEntityIds, Set<Class<?>> modifiedEntityTypes) {
+    for (Map.Entry<Class<?>, Set<String>> modifiedEntities : modifiedEntityIds.entrySet()) {
+      for (String id : modifiedEntities.getValue()) {
+        invalidate(modifiedEntities.getKey(), id);
+      }
+    }
+    for (Class<?> entityType : modifiedEntityTypes) {
+      invalidate(entityType);
+    }
+
+    for (DbSecondLevelCacheListener listener : listeners) {
+      listener.entitiesModified(modifiedEntityIds, modifiedEntityTypes);
+    }
+  }
+
+  public void clear() {
+    for (Class<?> entityType : entitiesByType.keySet()) {
+      invalidate(entityType);
+    }
+  }
+
+  public void addListener(DbSecondLevelCacheListener listener) {
+    listeners.add(listener);
+  }
+
+  public void removeListener(DbSecondLevelCacheListener listener) {
+    listeners.remove(listener);
+  }
+
+  public int size() {
+    int size = 0;
+    for (Cache<String, CacheableDbEntity> entities : entitiesByType.values()) {
+      size += entities.size();
+    }
+    return size;
+  }
+
+  public long getHitCount() {
+    return hitCount.get();
+  }
+
+  public long getMissCount() {
+    return missCount.get();
+  }
+
+}
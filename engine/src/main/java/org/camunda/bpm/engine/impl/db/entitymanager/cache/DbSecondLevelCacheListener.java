@@ -0,0 +1,33 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.db.entitymanager.cache;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Notified by the {@link DbSecondLevelCache} after a transaction of this process engine
+ * modified cached entity types. Can be used to invalidate the second level caches of the
+ * other process engines of a cluster.
+ */
+public interface DbSecondLevelCacheListener {
+
+  /**
+   * Called after the transaction modifying the entities was committed.
+   *
+   * @param modifiedEntityIds the ids of the updated or deleted entities by type
+   * @param modifiedEntityTypes the types which were modified by bulk operations, i.e. any entity of these types may have changed
+   */
+  void entitiesModified(Map<Class<?>, Set<String>> modifiedEntityIds, Set<Class<?>> modifiedEntityTypes);
+
+}
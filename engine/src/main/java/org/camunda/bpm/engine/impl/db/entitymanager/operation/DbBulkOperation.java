@@ -23,15 +23,29 @@ public class DbBulkOperation extends DbOperation {
   protected String statement;
   protected Object parameter;
 
+  /**
+   * The number of rows the operation is expected to affect.
+   * If negative (default), the number of affected rows is not checked.
+   */
+  protected int expectedRowCount = -1;
+
+  /**
+   * The number of rows actually affected by the operation.
+   * Negative as long as the operation has not been executed.
+   */
+  protected int rowsAffected = -1;
+
   @Override
   public void recycle() {
     statement = null;
     parameter = null;
+    expectedRowCount = -1;
+    rowsAffected = -1;
     super.recycle();
   }
 
   public boolean isFailed() {
-    return false;
+    return expectedRowCount >= 0 && rowsAffected >= 0 && rowsAffected != expectedRowCount;
   }
 
   public Object getParameter() {
@@ -50,6 +64,22 @@ public class DbBulkOperation extends DbOperation {
     this.statement = statement;
   }
 
+  public int getExpectedRowCount() {
+    return expectedRowCount;
+  }
+
+  public void setExpectedRowCount(int expectedRowCount) {
+    this.expectedRowCount = expectedRowCount;
+  }
+
+  public int getRowsAffected() {
+    return rowsAffected;
+  }
+
+  public void setRowsAffected(int rowsAffected) {
+    this.rowsAffected = rowsAffected;
+  }
+
   public String toString() {
     return operationType + " "+ statement +" " +parameter;
   }
@@ -16,12 +16,16 @@ import static org.camunda.bpm.engine.impl.db.entitymanager.operation.DbOperation
 import static org.camunda.bpm.engine.impl.db.entitymanager.operation.DbOperationType.INSERT;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Map.Entry;
-import java.util.SortedMap;
+import java.util.Map;
+import java.util.Set;
 import java.util.SortedSet;
-import java.util.TreeMap;
 import java.util.TreeSet;
 
 import org.camunda.bpm.engine.impl.db.DbEntity;
@@ -34,6 +38,12 @@ import org.camunda.bpm.engine.impl.db.entitymanager.operation.comparator.EntityT
 /**
  * Manages a set of {@link DbOperation database operations}.
  *
+ * <p>Operations are collected in unordered buckets per entity type. The total order of the
+ * flush is calculated once in {@link #calculateFlush()}: the (few) entity types are ordered
+ * by their type order, the operations of each type are ordered by id and operations on
+ * entities which reference entities of the same type are then ordered topologically
+ * in linear time.</p>
+ *
  * @author Daniel Meyer
  *
  */
@@ -47,61 +57,64 @@ public class DbOperationManager {
   public static Comparator<DbEntityOperation> MODIFICATION_OPERATION_COMPARATOR  = new DbEntityOperationComparator();
   public static Comparator<DbBulkOperation> BULK_OPERATION_COMPARATOR = new DbBulkOperationComparator();
 
-  // pre-sorted operation maps //////////////
+  // operations by entity type //////////////
 
   /** INSERTs */
-  public SortedMap<Class<?>, SortedSet<DbEntityOperation>> inserts = new TreeMap<Class<?>, SortedSet<DbEntityOperation>>(INSERT_TYPE_COMPARATOR);
+  public Map<Class<?>, List<DbEntityOperation>> inserts = new HashMap<Class<?>, List<DbEntityOperation>>();
 
   /** UPDATEs of a single entity */
-  public SortedMap<Class<?>, SortedSet<DbEntityOperation>> updates = new TreeMap<Class<?>, SortedSet<DbEntityOperation>>(MODIFICATION_TYPE_COMPARATOR);
+  public Map<Class<?>, List<DbEntityOperation>> updates = new HashMap<Class<?>, List<DbEntityOperation>>();
 
   /** DELETEs of a single entity */
-  public SortedMap<Class<?>, SortedSet<DbEntityOperation>> deletes = new TreeMap<Class<?>, SortedSet<DbEntityOperation>>(MODIFICATION_TYPE_COMPARATOR);
+  public Map<Class<?>, List<DbEntityOperation>> deletes = new HashMap<Class<?>, List<DbEntityOperation>>();
 
   /** bulk modifications (DELETE, UPDATE) on an entity collection */
-  public SortedMap<Class<?>, SortedSet<DbBulkOperation>> bulkOperations = new TreeMap<Class<?>, SortedSet<DbBulkOperation>>(MODIFICATION_TYPE_COMPARATOR);
+  public Map<Class<?>, SortedSet<DbBulkOperation>> bulkOperations = new HashMap<Class<?>, SortedSet<DbBulkOperation>>();
+
+  protected int operationCount = 0;
 
+  /**
+   * Adds an operation on a single entity. The entity cache guarantees that there is
+   * at most one operation per entity.
+   */
   public boolean addOperation(DbEntityOperation newOperation) {
     if(newOperation.getOperationType() == INSERT) {
-      return getInsertsForType(newOperation.getEntityType(), true)
+      getInsertsForType(newOperation.getEntityType(), true)
           .add(newOperation);
 
     } else if(newOperation.getOperationType() == DELETE) {
-      return getDeletesByType(newOperation.getEntityType(), true)
+      getDeletesByType(newOperation.getEntityType(), true)
           .add(newOperation);
 
     } else { // UPDATE
-      return getUpdatesByType(newOperation.getEntityType(), true)
+      getUpdatesByType(newOperation.getEntityType(), true)
           .add(newOperation);
 
     }
+
+    operationCount++;
+    return true;
   }
 
-  protected SortedSet<DbEntityOperation> getDeletesByType(Class<? extends DbEntity> type, boolean create) {
-    SortedSet<DbEntityOperation> deletesByType = deletes.get(type);
-    if(deletesByType == null && create) {
-      deletesByType = new TreeSet<DbEntityOperation>(MODIFICATION_OPERATION_COMPARATOR);
-      deletes.put(type, deletesByType);
-    }
-    return deletesByType;
+  protected List<DbEntityOperation> getDeletesByType(Class<? extends DbEntity> type, boolean create) {
+    return getOperationsByType(deletes, type, create);
   }
 
-  protected SortedSet<DbEntityOperation> getUpdatesByType(Class<? extends DbEntity> type, boolean create) {
-    SortedSet<DbEntityOperation> updatesByType = updates.get(type);
-    if(updatesByType == null && create) {
-      updatesByType = new TreeSet<DbEntityOperation>(MODIFICATION_OPERATION_COMPARATOR);
-      updates.put(type, updatesByType);
-    }
-    return updatesByType;
+  protected List<DbEntityOperation> getUpdatesByType(Class<? extends DbEntity> type, boolean create) {
+    return getOperationsByType(updates, type, create);
   }
 
-  protected SortedSet<DbEntityOperation> getInsertsForType(Class<? extends DbEntity> type, boolean create) {
-    SortedSet<DbEntityOperation> insertsByType = inserts.get(type);
-    if(insertsByType == null && create) {
-      insertsByType = new TreeSet<DbEntityOperation>(INSERT_OPERATION_COMPARATOR);
-      inserts.put(type, insertsByType);
+  protected List<DbEntityOperation> getInsertsForType(Class<? extends DbEntity> type, boolean create) {
+    return getOperationsByType(inserts, type, create);
+  }
+
+  protected List<DbEntityOperation> getOperationsByType(Map<Class<?>, List<DbEntityOperation>> operations, Class<? extends DbEntity> type, boolean create) {
+    List<DbEntityOperation> operationsByType = operations.get(type);
+    if(operationsByType == null && create) {
+      operationsByType = new ArrayList<DbEntityOperation>();
+      operations.put(type, operationsByType);
     }
-    return insertsByType;
+    return operationsByType;
   }
 
   public boolean addOperation(DbBulkOperation newOperation) {
@@ -111,11 +124,15 @@ public class DbOperationManager {
       bulkOperations.put(newOperation.getEntityType(), bulksByType);
     }
 
-    return bulksByType.add(newOperation);
+    boolean isAdded = bulksByType.add(newOperation);
+    if(isAdded) {
+      operationCount++;
+    }
+    return isAdded;
   }
 
   public List<DbOperation> calculateFlush() {
-    List<DbOperation> flush = new ArrayList<DbOperation>();
+    List<DbOperation> flush = new ArrayList<DbOperation>(operationCount);
     // first INSERTs
     addSortedInserts(flush);
     // then UPDATEs + DELETEs
@@ -126,15 +143,8 @@ public class DbOperationManager {
   /** Adds the insert operations to the flush (in correct order).
    * @param operationsForFlush */
   protected void addSortedInserts(List<DbOperation> flush) {
-    for (Entry<Class<?>, SortedSet<DbEntityOperation>> operationsForType : inserts.entrySet()) {
-
-      // add inserts to flush
-      if(HasDbReferences.class.isAssignableFrom(operationsForType.getKey())) {
-        // if this type has self references, we need to resolve the reference order
-        flush.addAll(sortByReferences(operationsForType.getValue()));
-      } else {
-        flush.addAll(operationsForType.getValue());
-      }
+    for (Class<?> type : sortTypes(inserts.keySet(), INSERT_TYPE_COMPARATOR)) {
+      addSortedOperationsForType(type, inserts.get(type), INSERT_OPERATION_COMPARATOR, flush);
     }
   }
 
@@ -142,17 +152,17 @@ public class DbOperationManager {
    * @param flush */
   protected void addSortedModifications(List<DbOperation> flush) {
 
-    // calculate sorted set of all modified entity types
-    SortedSet<Class<?>> modifiedEntityTypes = new TreeSet<Class<?>>(MODIFICATION_TYPE_COMPARATOR);
+    // calculate sorted list of all modified entity types
+    Set<Class<?>> modifiedEntityTypes = new HashSet<Class<?>>();
     modifiedEntityTypes.addAll(updates.keySet());
     modifiedEntityTypes.addAll(deletes.keySet());
     modifiedEntityTypes.addAll(bulkOperations.keySet());
 
-    for (Class<?> type : modifiedEntityTypes) {
+    for (Class<?> type : sortTypes(modifiedEntityTypes, MODIFICATION_TYPE_COMPARATOR)) {
       // first perform entity UPDATES
-      addSortedModificationsForType(type, updates.get(type), flush);
+      addSortedOperationsForType(type, updates.get(type), MODIFICATION_OPERATION_COMPARATOR, flush);
       // next perform entity DELETES
-      addSortedModificationsForType(type, deletes.get(type), flush);
+      addSortedOperationsForType(type, deletes.get(type), MODIFICATION_OPERATION_COMPARATOR, flush);
       // last perform bulk operations
       SortedSet<DbBulkOperation> bulkOperationsForType = bulkOperations.get(type);
       if(bulkOperationsForType != null) {
@@ -162,61 +172,129 @@ public class DbOperationManager {
     }
   }
 
-  protected void addSortedModificationsForType(Class<?> type, SortedSet<DbEntityOperation> preSortedOperations, List<DbOperation> flush) {
-    if(preSortedOperations != null) {
+  protected List<Class<?>> sortTypes(Collection<Class<?>> types, Comparator<Class<?>> typeComparator) {
+    List<Class<?>> sortedTypes = new ArrayList<Class<?>>(types);
+    Collections.sort(sortedTypes, typeComparator);
+    return sortedTypes;
+  }
+
+  protected void addSortedOperationsForType(Class<?> type, List<DbEntityOperation> operations, Comparator<DbEntityOperation> operationComparator, List<DbOperation> flush) {
+    if(operations != null) {
+      // order by id
+      Collections.sort(operations, operationComparator);
+
       if(HasDbReferences.class.isAssignableFrom(type)) {
         // if this type has self references, we need to resolve the reference order
-        flush.addAll(sortByReferences(preSortedOperations));
+        flush.addAll(sortByReferences(operations));
       } else {
-        flush.addAll(preSortedOperations);
+        flush.addAll(operations);
       }
     }
   }
 
-
   /**
+   * Orders the operations such that an INSERT happens after the INSERTs of the entities it references
+   * and an UPDATE or DELETE happens after the UPDATEs or DELETEs of the entities which reference it.
+   * Apart from that, the order of the pre-sorted operations is retained.
+   *
+   * The operations are ordered by a depth-first traversal of the references which visits every
+   * operation and every reference once.
+   *
    * Assumptions:
-   * a) all operations in the set work on entities such that the entities implement {@link HasDbReferences}.
-   * b) all operations in the set work on the same type (ie. all operations are INSERTs or DELETEs).
+   * a) all operations in the list work on entities such that the entities implement {@link HasDbReferences}.
+   * b) all operations in the list work on the same type (ie. all operations are INSERTs or DELETEs).
    *
    */
-  protected List<DbEntityOperation> sortByReferences(SortedSet<DbEntityOperation> preSorted) {
-    // copy the pre-sorted set and apply final sorting to list
-    List<DbEntityOperation> opList = new ArrayList<DbEntityOperation>(preSorted);
-
-    for (int i = 0; i < opList.size(); i++) {
-
-      DbEntityOperation currentOperation = opList.get(i);
-      DbEntity currentEntity = currentOperation.getEntity();
-
-      // check whether this operation must be placed after another operation
-      int moveTo = i;
-      for(int k = i+1; k < opList.size(); k++) {
-        DbEntityOperation otherOperation = opList.get(k);
-        DbEntity otherEntity = otherOperation.getEntity();
-
-        if(currentOperation.getOperationType() == INSERT) {
-          // if we reference the other entity, we need to be inserted after that entity
-          if(((HasDbReferences) currentEntity).hasReferenceTo(otherEntity)) {
-            moveTo = k;
-            break; // we can only reference a single entity
-          }
+  protected List<DbEntityOperation> sortByReferences(List<DbEntityOperation> preSorted) {
+    int size = preSorted.size();
+    if(size < 2) {
+      return preSorted;
+    }
 
-        } else { // UPDATE or DELETE
+    Map<String, Integer> operationIndexes = new HashMap<String, Integer>(size * 2);
+    for (int i = 0; i < size; i++) {
+      operationIndexes.put(preSorted.get(i).getEntity().getId(), i);
+    }
 
-          // if the other entity has a reference to us, we must be placed after the other entity
-          if(((HasDbReferences) otherEntity).hasReferenceTo(currentEntity)) {
-            moveTo = k;
-            // cannot break, there may be another entity further to the right which also references us
-          }
+    // the operations which must be performed before an operation, as linked lists of edges
+    int[] firstEdge = new int[size];
+    int[] lastEdge = new int[size];
+    Arrays.fill(firstEdge, -1);
+    int[] edgeTargets = new int[size];
+    int[] nextEdges = new int[size];
+    int edgeCount = 0;
+
+    boolean isInsert = preSorted.get(0).getOperationType() == INSERT;
 
+    for (int i = 0; i < size; i++) {
+      HasDbReferences entity = (HasDbReferences) preSorted.get(i).getEntity();
+
+      for (String referencedEntityId : entity.getReferencedEntityIds()) {
+        Integer referencedIndex = operationIndexes.get(referencedEntityId);
+        if(referencedIndex == null || referencedIndex == i) {
+          continue;
+        }
+
+        // an INSERT must be performed after the INSERT of the referenced entity,
+        // an UPDATE or DELETE before the UPDATE or DELETE of the referenced entity
+        int operation = isInsert ? i : referencedIndex;
+        int requiredOperation = isInsert ? referencedIndex : i;
+
+        if(edgeCount == edgeTargets.length) {
+          edgeTargets = Arrays.copyOf(edgeTargets, edgeCount * 2);
+          nextEdges = Arrays.copyOf(nextEdges, edgeCount * 2);
+        }
+        edgeTargets[edgeCount] = requiredOperation;
+        nextEdges[edgeCount] = -1;
+        if(firstEdge[operation] == -1) {
+          firstEdge[operation] = edgeCount;
+        } else {
+          nextEdges[lastEdge[operation]] = edgeCount;
         }
+        lastEdge[operation] = edgeCount;
+        edgeCount++;
       }
+    }
+
+    if(edgeCount == 0) {
+      return preSorted;
+    }
+
+    // post-order depth-first traversal: an operation is added once all required operations are added
+    List<DbEntityOperation> opList = new ArrayList<DbEntityOperation>(size);
+    boolean[] visited = new boolean[size];
+    int[] stack = new int[size];
+    int[] currentEdge = new int[size];
+
+    for (int i = 0; i < size; i++) {
+      if(visited[i]) {
+        continue;
+      }
+
+      int stackSize = 0;
+      stack[stackSize++] = i;
+      visited[i] = true;
+      currentEdge[i] = firstEdge[i];
+
+      while(stackSize > 0) {
+        int operation = stack[stackSize - 1];
+        int edge = currentEdge[operation];
+
+        if(edge != -1) {
+          currentEdge[operation] = nextEdges[edge];
+          int requiredOperation = edgeTargets[edge];
+          // visited operations are either added already or part of a reference cycle
+          if(!visited[requiredOperation]) {
+            visited[requiredOperation] = true;
+            currentEdge[requiredOperation] = firstEdge[requiredOperation];
+            stack[stackSize++] = requiredOperation;
+          }
 
-      if(moveTo > i) {
-        opList.remove(i);
-        opList.add(moveTo, currentOperation);
-        i--;
+        } else {
+          stackSize--;
+          opList.add(preSorted.get(operation));
+
+        }
       }
     }
 
@@ -26,10 +26,15 @@ import java.sql.Connection;
 import java.sql.DatabaseMetaData;
 import java.sql.ResultSet;
 import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import org.apache.ibatis.executor.BatchResult;
+import org.apache.ibatis.session.ExecutorType;
 import org.apache.ibatis.session.SqlSession;
 import org.camunda.bpm.engine.ProcessEngine;
 import org.camunda.bpm.engine.ProcessEngineException;
@@ -39,6 +44,8 @@ import org.camunda.bpm.engine.impl.db.DbEntity;
 import org.camunda.bpm.engine.impl.db.HasDbRevision;
 import org.camunda.bpm.engine.impl.db.entitymanager.operation.DbBulkOperation;
 import org.camunda.bpm.engine.impl.db.entitymanager.operation.DbEntityOperation;
+import org.camunda.bpm.engine.impl.db.entitymanager.operation.DbOperation;
+import org.camunda.bpm.engine.impl.db.entitymanager.operation.DbOperationType;
 import org.camunda.bpm.engine.impl.util.ClassNameUtil;
 import org.camunda.bpm.engine.impl.util.IoUtil;
 import org.camunda.bpm.engine.impl.util.ReflectUtil;
@@ -63,20 +70,44 @@ public class DbSqlSession extends AbstractPersistenceSession {
   protected String connectionMetadataDefaultCatalog = null;
   protected String connectionMetadataDefaultSchema = null;
 
+  /** operations sent to the database as part of the current JDBC batch, in execution order.
+   * null if JDBC batch processing is disabled. */
+  protected List<DbOperation> batchedOperations;
+
   public DbSqlSession(DbSqlSessionFactory dbSqlSessionFactory) {
     this.dbSqlSessionFactory = dbSqlSessionFactory;
     this.sqlSession = dbSqlSessionFactory
       .getSqlSessionFactory()
-      .openSession();
+      .openSession(getExecutorType());
+    initializeBatchProcessing();
   }
 
   public DbSqlSession(DbSqlSessionFactory dbSqlSessionFactory, Connection connection, String catalog, String schema) {
     this.dbSqlSessionFactory = dbSqlSessionFactory;
     this.sqlSession = dbSqlSessionFactory
       .getSqlSessionFactory()
-      .openSession(connection);
+      .openSession(getExecutorType(), connection);
     this.connectionMetadataDefaultCatalog = catalog;
     this.connectionMetadataDefaultSchema = schema;
+    initializeBatchProcessing();
+  }
+
+  protected ExecutorType getExecutorType() {
+    if (dbSqlSessionFactory.isJdbcBatchProcessing()) {
+      return ExecutorType.BATCH;
+    } else {
+      return ExecutorType.SIMPLE;
+    }
+  }
+
+  protected void initializeBatchProcessing() {
+    if (dbSqlSessionFactory.isJdbcBatchProcessing()) {
+      batchedOperations = new ArrayList<DbOperation>();
+    }
+  }
+
+  protected boolean isBatchProcessing() {
+    return batchedOperations != null;
   }
 
   // select ////////////////////////////////////////////
@@ -108,6 +139,10 @@ public class DbSqlSession extends AbstractPersistenceSession {
     if (!"h2".equals(dbSqlSessionFactory.getDatabaseType())) {
       String mappedStatement = dbSqlSessionFactory.mapStatement(statement);
       sqlSession.update(mappedStatement);
+      if (isBatchProcessing()) {
+        // the lock must be acquired immediately
+        sqlSession.flushStatements();
+      }
     }
   }
 
@@ -124,6 +159,7 @@ public class DbSqlSession extends AbstractPersistenceSession {
 
     // execute the insert
     executeInsertEntity(insertStatement, dbEntity);
+    addBatchedOperation(operation);
 
     // perform post insert actions on entity
     entityInserted(dbEntity);
@@ -163,6 +199,17 @@ public class DbSqlSession extends AbstractPersistenceSession {
     // execute the delete
     int nrOfRowsDeleted = executeDelete(deleteStatement, dbEntity);
 
+    if (isBatchProcessing()) {
+      // the result is checked when the batch is flushed
+      addBatchedOperation(operation);
+    } else {
+      entityDeleteExecuted(operation, nrOfRowsDeleted);
+    }
+  }
+
+  protected void entityDeleteExecuted(DbEntityOperation operation, int nrOfRowsDeleted) {
+    DbEntity dbEntity = operation.getEntity();
+
     // It only makes sense to check for optimistic locking exceptions for objects that actually have a revision
     if (dbEntity instanceof HasDbRevision && nrOfRowsDeleted == 0) {
       operation.setFailed(true);
@@ -191,7 +238,13 @@ public class DbSqlSession extends AbstractPersistenceSession {
       log.fine("deleting (bulk): " + statement + " " + parameter);
     }
 
-    executeDelete(statement, parameter);
+    int numOfRowsDeleted = executeDelete(statement, parameter);
+
+    if (isBatchProcessing()) {
+      addBatchedOperation(operation);
+    } else {
+      operation.setRowsAffected(numOfRowsDeleted);
+    }
   }
 
   // update ////////////////////////////////////////
@@ -210,6 +263,17 @@ public class DbSqlSession extends AbstractPersistenceSession {
     // execute update
     int numOfRowsUpdated = executeUpdate(updateStatement, dbEntity);
 
+    if (isBatchProcessing()) {
+      // the result is checked when the batch is flushed
+      addBatchedOperation(operation);
+    } else {
+      entityUpdateExecuted(operation, numOfRowsUpdated);
+    }
+  }
+
+  protected void entityUpdateExecuted(DbEntityOperation operation, int numOfRowsUpdated) {
+    DbEntity dbEntity = operation.getEntity();
+
     if (dbEntity instanceof HasDbRevision) {
       if(numOfRowsUpdated != 1) {
         // failed with optimistic locking
@@ -243,7 +307,95 @@ public class DbSqlSession extends AbstractPersistenceSession {
       log.fine("updating (bulk): " + statement + " " + parameter);
     }
 
-    executeUpdate(statement, parameter);
+    int numOfRowsUpdated = executeUpdate(statement, parameter);
+
+    if (isBatchProcessing()) {
+      addBatchedOperation(operation);
+    } else {
+      operation.setRowsAffected(numOfRowsUpdated);
+    }
+  }
+
+  // batch processing //////////////////////////////
+
+  protected void addBatchedOperation(DbOperation operation) {
+    if (isBatchProcessing()) {
+      batchedOperations.add(operation);
+    }
+  }
+
+  public List<DbOperation> flushOperations() {
+    if (!isBatchProcessing()) {
+      return Collections.emptyList();
+    }
+
+    List<DbOperation> executedOperations = new ArrayList<DbOperation>(batchedOperations);
+    batchedOperations.clear();
+
+    List<BatchResult> batchResults = sqlSession.flushStatements();
+
+    // batch results are reported in execution order. Statements which were not issued through
+    // this session (and therefore have no operation) are skipped.
+    Iterator<DbOperation> operationIt = executedOperations.iterator();
+    DbOperation currentOperation = operationIt.hasNext() ? operationIt.next() : null;
+
+    for (BatchResult batchResult : batchResults) {
+      List<Object> parameterObjects = batchResult.getParameterObjects();
+      int[] updateCounts = batchResult.getUpdateCounts();
+
+      for (int i = 0; i < parameterObjects.size() && currentOperation != null; i++) {
+        if (parameterObjects.get(i) == getBatchParameter(currentOperation)) {
+          batchedOperationExecuted(currentOperation, updateCounts[i]);
+          currentOperation = operationIt.hasNext() ? operationIt.next() : null;
+        }
+      }
+    }
+
+    if (currentOperation != null) {
+      throw new ProcessEngineException("Could not determine the result of batched operation " + currentOperation);
+    }
+
+    return executedOperations;
+  }
+
+  protected Object getBatchParameter(DbOperation operation) {
+    if (operation instanceof DbEntityOperation) {
+      return ((DbEntityOperation) operation).getEntity();
+    } else {
+      return ((DbBulkOperation) operation).getParameter();
+    }
+  }
+
+  protected void batchedOperationExecuted(DbOperation operation, int updateCount) {
+    if (updateCount == Statement.SUCCESS_NO_INFO && requiresUpdateCount(operation)) {
+      throw new ProcessEngineException("The JDBC driver did not report the update count of batched operation " + operation
+          + ". Optimistic locking cannot be checked; disable jdbcBatchProcessing for this database.");
+    }
+
+    switch (operation.getOperationType()) {
+      case UPDATE:
+        entityUpdateExecuted((DbEntityOperation) operation, updateCount);
+        break;
+      case DELETE:
+        entityDeleteExecuted((DbEntityOperation) operation, updateCount);
+        break;
+      case UPDATE_BULK:
+      case DELETE_BULK:
+        ((DbBulkOperation) operation).setRowsAffected(updateCount);
+        break;
+      default:
+        // nothing to check for inserts
+        break;
+    }
+  }
+
+  protected boolean requiresUpdateCount(DbOperation operation) {
+    if (operation instanceof DbEntityOperation) {
+      return operation.getOperationType() != DbOperationType.INSERT
+          && ((DbEntityOperation) operation).getEntity() instanceof HasDbRevision;
+    } else {
+      return ((DbBulkOperation) operation).getExpectedRowCount() >= 0;
+    }
   }
 
   // utils /////////////////////////////////////////
@@ -247,6 +247,7 @@ public class DbSqlSessionFactory implements SessionFactory {
   protected boolean isDbIdentityUsed = true;
   protected boolean isDbHistoryUsed = true;
   protected boolean cmmnEnabled = true;
+  protected boolean jdbcBatchProcessing = false;
 
   public Class< ? > getSessionType() {
     return DbSqlSession.class;
@@ -408,6 +409,14 @@ public class DbSqlSessionFactory implements SessionFactory {
     this.cmmnEnabled = cmmnEnabled;
   }
 
+  public boolean isJdbcBatchProcessing() {
+    return jdbcBatchProcessing;
+  }
+
+  public void setJdbcBatchProcessing(boolean jdbcBatchProcessing) {
+    this.jdbcBatchProcessing = jdbcBatchProcessing;
+  }
+
   public void setDatabaseTablePrefix(String databaseTablePrefix) {
     this.databaseTablePrefix = databaseTablePrefix;
   }
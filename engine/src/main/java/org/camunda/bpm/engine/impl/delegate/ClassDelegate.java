@@ -15,6 +15,7 @@ package org.camunda.bpm.engine.impl.delegate;
 import java.util.List;
 
 import org.camunda.bpm.engine.impl.bpmn.parser.FieldDeclaration;
+import org.camunda.bpm.engine.impl.util.ClassDelegateUtil;
 
 /**
  * @author Roman Smirnov
@@ -25,6 +26,9 @@ public abstract class ClassDelegate {
   protected String className;
   protected List<FieldDeclaration> fieldDeclarations;
 
+  /** the metadata of the last invocation */
+  protected volatile ClassDelegateMetadata metadata;
+
   public ClassDelegate(String className, List<FieldDeclaration> fieldDeclarations) {
     this.className = className;
     this.fieldDeclarations = fieldDeclarations;
@@ -34,6 +38,15 @@ public abstract class ClassDelegate {
     this(clazz.getName(), fieldDeclarations);
   }
 
+  /**
+   * @return an instance of the delegate class with the field declarations applied
+   */
+  protected Object getDelegateInstance() {
+    ClassDelegateMetadata currentMetadata = ClassDelegateUtil.getMetadata(className, metadata);
+    metadata = currentMetadata;
+    return ClassDelegateUtil.instantiateDelegate(currentMetadata, fieldDeclarations);
+  }
+
   public String getClassName() {
     return className;
   }
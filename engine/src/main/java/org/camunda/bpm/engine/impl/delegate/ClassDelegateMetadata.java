@@ -0,0 +1,116 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.delegate;
+
+import java.lang.ref.WeakReference;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.camunda.bpm.engine.impl.bpmn.parser.FieldDeclaration;
+import org.camunda.bpm.engine.impl.util.ClassDelegateUtil;
+import org.camunda.bpm.engine.impl.util.ClassDelegateUtil.FieldInjection;
+
+/**
+ * <p>The class of a class delegate and the accessors used to inject its fields, resolved
+ * with the class loaders of the current process engine and thread.</p>
+ *
+ * <p>Class delegates keep the metadata of the last invocation, so that the class is not
+ * loaded and the setters and fields are not looked up again on every invocation. The
+ * metadata is only reused if the invocation happens with the same class loaders, i.e.
+ * in the context of the same process application.</p>
+ *
+ * <p>The class loaders, the class, the accessors and the shared instance are only weakly
+ * referenced, so that the metadata kept by a class delegate of the engine does not keep
+ * an undeployed process application from being garbage collected. Accessors and shared
+ * instances which were garbage collected are created again on the next invocation.</p>
+ *
+ * @see ClassDelegateUtil#getMetadata(String, ClassDelegateMetadata)
+ */
+public class ClassDelegateMetadata {
+
+  protected final WeakReference<ClassLoader> customClassLoader;
+  protected final WeakReference<ClassLoader> contextClassLoader;
+  protected final WeakReference<Class<?>> delegateClass;
+
+  /** the field injections by the class of the delegate instance, which may be a proxy of the delegate class */
+  protected volatile WeakReference<ConcurrentMap<Class<?>, List<FieldInjection>>> fieldInjections;
+
+  protected volatile WeakReference<Object> sharedInstance;
+
+  public ClassDelegateMetadata(ClassLoader customClassLoader, ClassLoader contextClassLoader, Class<?> delegateClass) {
+    this.customClassLoader = weakReference(customClassLoader);
+    this.contextClassLoader = weakReference(contextClassLoader);
+    this.delegateClass = new WeakReference<Class<?>>(delegateClass);
+  }
+
+  /**
+   * @return true if the metadata was resolved with the given class loaders and its class
+   *   was not garbage collected
+   */
+  public boolean isResolvedWith(ClassLoader customClassLoader, ClassLoader contextClassLoader) {
+    return isSame(this.customClassLoader, customClassLoader)
+        && isSame(this.contextClassLoader, contextClassLoader)
+        && delegateClass.get() != null;
+  }
+
+  /**
+   * @return the delegate class, which is not garbage collected as long as the class
+   *   loaders the metadata {@link #isResolvedWith(ClassLoader, ClassLoader) was resolved with} are in use
+   */
+  public Class<?> getDelegateClass() {
+    return delegateClass.get();
+  }
+
+  /**
+   * @return the injections of the given field declarations into instances of the given class
+   */
+  public List<FieldInjection> getFieldInjections(Class<?> instanceClass, List<FieldDeclaration> fieldDeclarations) {
+    ConcurrentMap<Class<?>, List<FieldInjection>> injectionsByClass = fieldInjections != null ? fieldInjections.get() : null;
+    if (injectionsByClass == null) {
+      injectionsByClass = new ConcurrentHashMap<Class<?>, List<FieldInjection>>();
+      fieldInjections = new WeakReference<ConcurrentMap<Class<?>, List<FieldInjection>>>(injectionsByClass);
+    }
+
+    List<FieldInjection> injections = injectionsByClass.get(instanceClass);
+    if (injections == null) {
+      injections = ClassDelegateUtil.resolveFieldInjections(fieldDeclarations, instanceClass);
+      injectionsByClass.put(instanceClass, injections);
+    }
+    return injections;
+  }
+
+  /**
+   * @return the instance shared by all invocations or null if no instance is shared (yet)
+   */
+  public Object getSharedInstance() {
+    return sharedInstance != null ? sharedInstance.get() : null;
+  }
+
+  public void setSharedInstance(Object sharedInstance) {
+    this.sharedInstance = new WeakReference<Object>(sharedInstance);
+  }
+
+  protected static WeakReference<ClassLoader> weakReference(ClassLoader classLoader) {
+    return classLoader != null ? new WeakReference<ClassLoader>(classLoader) : null;
+  }
+
+  protected static boolean isSame(WeakReference<ClassLoader> reference, ClassLoader classLoader) {
+    if (reference == null) {
+      return classLoader == null;
+    } else {
+      return classLoader != null && reference.get() == classLoader;
+    }
+  }
+
+}
@@ -0,0 +1,411 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.history.handler;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.camunda.bpm.engine.impl.cfg.TransactionListener;
+import org.camunda.bpm.engine.impl.cfg.TransactionState;
+import org.camunda.bpm.engine.impl.context.Context;
+import org.camunda.bpm.engine.impl.history.event.HistoricScopeInstanceEvent;
+import org.camunda.bpm.engine.impl.history.event.HistoricVariableUpdateEventEntity;
+import org.camunda.bpm.engine.impl.history.event.HistoryEvent;
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.interceptor.CommandExecutor;
+import org.camunda.bpm.engine.impl.interceptor.Session;
+import org.camunda.bpm.engine.impl.interceptor.SessionFactory;
+
+/**
+ * <p>History event handler which writes history events to the process engine
+ * database after the transaction producing them has committed.</p>
+ *
+ * <p>The events of a command are collected in a {@link HistoryEventBuffer} session.
+ * Once the transaction is committed, they are added to a bounded queue. If the queue
+ * is full, the committing thread waits for the writer thread to make room
+ * (backpressure). Committing threads get room in the queue in the order in which
+ * they started to wait, so that the events of an entity are never written out of
+ * order. The writer thread takes up to {@link #getBatchSize()} events from the queue
+ * and writes them in a single transaction, so that they are flushed together (and
+ * as JDBC batches if jdbc batch processing is enabled).</p>
+ *
+ * <p>History is eventually consistent in this mode: history queries may not see the
+ * events of a command right after it completed, and events which are queued when
+ * the process is terminated abnormally are lost. Events of transactions which roll
+ * back are discarded. Once the handler is {@link #close() closed}, events are written
+ * synchronously.</p>
+ *
+ * <p>Since the handler registers the {@link HistoryEventBuffer} session, it has to be
+ * added to the session factories of the process engine configuration.</p>
+ */
+public class AsyncDbHistoryEventHandler extends DbHistoryEventHandler implements SessionFactory {
+
+  private static Logger log = Logger.getLogger(AsyncDbHistoryEventHandler.class.getName());
+
+  public static final int DEFAULT_QUEUE_CAPACITY = 10000;
+  public static final int DEFAULT_BATCH_SIZE = 500;
+
+  protected int queueCapacity = DEFAULT_QUEUE_CAPACITY;
+  protected int batchSize = DEFAULT_BATCH_SIZE;
+
+  protected CommandExecutor commandExecutor;
+
+  protected BlockingQueue<HistoryEvent> queue;
+  /** the free capacity of the queue, acquired for all events of a transaction at once
+   * and handed out in FIFO order */
+  protected Semaphore queuePermits;
+  protected final AtomicLong pendingEvents = new AtomicLong();
+
+  protected Thread writerThread;
+  protected volatile boolean closed = false;
+
+  /** held while queueing events, so that {@link #close()} cannot miss events being queued
+   * and events are not written synchronously before the queued events */
+  protected final ReadWriteLock closeLock = new ReentrantReadWriteLock();
+
+  // buffering ////////////////////////////////////////////////////////////////
+
+  public void handleEvent(HistoryEvent historyEvent) {
+    if (closed) {
+      // the writer is gone, write to the current transaction instead
+      super.handleEvent(historyEvent);
+
+    } else {
+      Context.getCommandContext()
+        .getSession(HistoryEventBuffer.class)
+        .add(historyEvent);
+
+    }
+  }
+
+  public Class<?> getSessionType() {
+    return HistoryEventBuffer.class;
+  }
+
+  public Session openSession() {
+    HistoryEventBuffer buffer = new HistoryEventBuffer();
+    Context.getCommandContext()
+      .getTransactionContext()
+      .addTransactionListener(TransactionState.COMMITTED, buffer);
+    return buffer;
+  }
+
+  /**
+   * Adds the events to the queue. If the handler is closed, they are written
+   * synchronously instead.
+   */
+  protected void enqueue(List<HistoryEvent> historyEvents) {
+    closeLock.readLock().lock();
+    try {
+      if (closed) {
+        // close() has written the queued events already
+        writeSynchronously(historyEvents);
+
+      } else {
+        ensureWriterStarted();
+        put(historyEvents);
+
+      }
+    } finally {
+      closeLock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Adds all events of a transaction to the queue at once, waiting for the writer
+   * thread to make room if the queue is full. A transaction with more events than fit
+   * into the queue waits until all queued events are written and writes its events
+   * synchronously.
+   */
+  protected void put(List<HistoryEvent> historyEvents) {
+    int numEvents = historyEvents.size();
+
+    if (numEvents <= queueCapacity) {
+      queuePermits.acquireUninterruptibly(numEvents);
+      pendingEvents.addAndGet(numEvents);
+      queue.addAll(historyEvents);
+
+    } else {
+      queuePermits.acquireUninterruptibly(queueCapacity);
+      try {
+        writeSynchronously(historyEvents);
+      } finally {
+        queuePermits.release(queueCapacity);
+      }
+
+    }
+  }
+
+  protected void writeSynchronously(List<HistoryEvent> historyEvents) {
+    ensureCommandExecutorInitialized();
+    pendingEvents.addAndGet(historyEvents.size());
+    writeEvents(historyEvents);
+  }
+
+  // writing //////////////////////////////////////////////////////////////////
+
+  protected synchronized void ensureWriterStarted() {
+    if (writerThread == null) {
+      ensureCommandExecutorInitialized();
+      queue = new LinkedBlockingQueue<HistoryEvent>();
+      queuePermits = new Semaphore(queueCapacity, true);
+
+      writerThread = new Thread(new HistoryEventWriter(), "camunda-history-event-writer");
+      writerThread.setDaemon(true);
+      writerThread.start();
+    }
+  }
+
+  protected synchronized void ensureCommandExecutorInitialized() {
+    if (commandExecutor == null) {
+      // synchronous writes happen after the transaction of the current command has committed
+      commandExecutor = Context.getProcessEngineConfiguration().getCommandExecutorTxRequiresNew();
+    }
+  }
+
+  /**
+   * Writes the events in a single transaction. If this fails, every event is
+   * written in a separate transaction so that a single event cannot cause the loss
+   * of the whole batch.
+   */
+  protected void writeEvents(final List<HistoryEvent> historyEvents) {
+    try {
+      commandExecutor.execute(new WriteHistoryEventsCmd(historyEvents));
+
+    } catch (Exception e) {
+      log.log(Level.WARNING, "Could not write batch of " + historyEvents.size() + " history events, writing them one by one", e);
+
+      for (HistoryEvent historyEvent : historyEvents) {
+        try {
+          commandExecutor.execute(new WriteHistoryEventsCmd(Collections.singletonList(historyEvent)));
+        } catch (Exception ex) {
+          log.log(Level.SEVERE, "Could not write history event " + historyEvent, ex);
+        }
+      }
+    } finally {
+      pendingEvents.addAndGet(-historyEvents.size());
+    }
+  }
+
+  /**
+   * Writes events taken from the queue and returns their room in the queue.
+   */
+  protected void writeQueuedEvents(List<HistoryEvent> historyEvents) {
+    try {
+      writeEvents(historyEvents);
+    } finally {
+      queuePermits.release(historyEvents.size());
+    }
+  }
+
+  /**
+   * Writes the events using the current command context. An event which updates an
+   * entity inserted earlier in the same batch replaces the inserted event since it
+   * carries the complete state of the entity.
+   */
+  protected void writeEventsInCommand(List<HistoryEvent> historyEvents) {
+    Map<String, Integer> insertIndexes = new HashMap<String, Integer>();
+    Set<HistoryEvent> inserts = Collections.newSetFromMap(new IdentityHashMap<HistoryEvent, Boolean>());
+    List<HistoryEvent> eventsToWrite = new ArrayList<HistoryEvent>(historyEvents.size());
+
+    for (HistoryEvent historyEvent : historyEvents) {
+      if (historyEvent instanceof HistoricVariableUpdateEventEntity || historyEvent.getId() == null) {
+        eventsToWrite.add(historyEvent);
+        continue;
+      }
+
+      String key = historyEvent.getClass().getName() + "#" + historyEvent.getId();
+      String eventType = historyEvent.getEventType();
+      Integer insertIndex = insertIndexes.get(key);
+
+      if (eventType == null || isInitialEvent(eventType)) {
+        insertIndexes.put(key, eventsToWrite.size());
+        eventsToWrite.add(historyEvent);
+
+      } else if (insertIndex != null) {
+        HistoryEvent insertedEvent = eventsToWrite.get(insertIndex);
+        if (historyEvent instanceof HistoricScopeInstanceEvent) {
+          ((HistoricScopeInstanceEvent) historyEvent).setStartTime(((HistoricScopeInstanceEvent) insertedEvent).getStartTime());
+        }
+        inserts.remove(insertedEvent);
+        inserts.add(historyEvent);
+        eventsToWrite.set(insertIndex, historyEvent);
+
+      } else {
+        eventsToWrite.add(historyEvent);
+
+      }
+    }
+
+    for (HistoryEvent historyEvent : eventsToWrite) {
+      if (inserts.contains(historyEvent)) {
+        getDbEntityManager().insert(historyEvent);
+      } else {
+        super.handleEvent(historyEvent);
+      }
+    }
+  }
+
+  /**
+   * Stops accepting events, writes the queued events and stops the writer thread.
+   * Events produced afterwards are written synchronously.
+   */
+  public void close() {
+    // waits for committing threads which are queueing events right now and keeps
+    // committing threads from writing synchronously until the queued events are written
+    closeLock.writeLock().lock();
+    try {
+      closed = true;
+
+      if (writerThread != null) {
+        try {
+          writerThread.join(TimeUnit.SECONDS.toMillis(60));
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+
+        // events which were queued while the writer was shutting down
+        List<HistoryEvent> remainingEvents = new ArrayList<HistoryEvent>();
+        queue.drainTo(remainingEvents);
+        if (!remainingEvents.isEmpty()) {
+          writeQueuedEvents(remainingEvents);
+        }
+
+        synchronized (this) {
+          writerThread = null;
+        }
+      }
+    } finally {
+      closeLock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * @return the number of events which were queued but are not written yet
+   */
+  public long getPendingEventCount() {
+    return pendingEvents.get();
+  }
+
+  // getters / setters ////////////////////////////////////////////////////////
+
+  public int getQueueCapacity() {
+    return queueCapacity;
+  }
+
+  public void setQueueCapacity(int queueCapacity) {
+    this.queueCapacity = queueCapacity;
+  }
+
+  public int getBatchSize() {
+    return batchSize;
+  }
+
+  public void setBatchSize(int batchSize) {
+    this.batchSize = batchSize;
+  }
+
+  public CommandExecutor getCommandExecutor() {
+    return commandExecutor;
+  }
+
+  public void setCommandExecutor(CommandExecutor commandExecutor) {
+    this.commandExecutor = commandExecutor;
+  }
+
+  /**
+   * Collects the history events of a command and queues them once its
+   * transaction has committed.
+   */
+  public class HistoryEventBuffer implements Session, TransactionListener {
+
+    protected List<HistoryEvent> historyEvents = new ArrayList<HistoryEvent>();
+
+    public void add(HistoryEvent historyEvent) {
+      historyEvents.add(historyEvent);
+    }
+
+    public void execute(CommandContext commandContext) {
+      if (!historyEvents.isEmpty()) {
+        enqueue(historyEvents);
+        historyEvents = new ArrayList<HistoryEvent>();
+      }
+    }
+
+    public void flush() {
+    }
+
+    public void close() {
+    }
+  }
+
+  protected class HistoryEventWriter implements Runnable {
+
+    public void run() {
+      List<HistoryEvent> batch = new ArrayList<HistoryEvent>(batchSize);
+
+      while (true) {
+        HistoryEvent historyEvent;
+        try {
+          historyEvent = queue.poll(100, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+          log.log(Level.WARNING, "History event writer interrupted");
+          return;
+        }
+
+        if (historyEvent == null) {
+          if (closed) {
+            return;
+          }
+
+        } else {
+          batch.add(historyEvent);
+          queue.drainTo(batch, batchSize - 1);
+          writeQueuedEvents(batch);
+          batch = new ArrayList<HistoryEvent>(batchSize);
+
+        }
+      }
+    }
+  }
+
+  protected class WriteHistoryEventsCmd implements Command<Void> {
+
+    protected List<HistoryEvent> historyEvents;
+
+    public WriteHistoryEventsCmd(List<HistoryEvent> historyEvents) {
+      this.historyEvents = historyEvents;
+    }
+
+    public Void execute(CommandContext commandContext) {
+      writeEventsInCommand(historyEvents);
+      return null;
+    }
+  }
+
+}
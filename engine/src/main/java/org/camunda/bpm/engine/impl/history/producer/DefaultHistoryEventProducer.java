@@ -42,6 +42,7 @@ import org.camunda.bpm.engine.impl.persistence.entity.VariableInstanceEntity;
 import org.camunda.bpm.engine.impl.pvm.PvmScope;
 import org.camunda.bpm.engine.impl.util.ClockUtil;
 import org.camunda.bpm.engine.runtime.Incident;
+import org.camunda.bpm.engine.variable.type.ValueType;
 
 /**
  * @author Daniel Meyer
@@ -153,7 +154,8 @@ public class DefaultHistoryEventProducer implements HistoryEventProducer {
     evt.setTextValue2(variableInstance.getTextValue2());
     evt.setDoubleValue(variableInstance.getDoubleValue());
     evt.setLongValue(variableInstance.getLongValue());
-    if (variableInstance.getByteArrayValueId() != null) {
+    // the content of stream values is not copied since it is never loaded into memory
+    if (variableInstance.getByteArrayValueId() != null && !ValueType.STREAM.getName().equals(variableInstance.getSerializerName())) {
       ByteArrayEntity byteArrayValue = variableInstance.getByteArrayValue();
       evt.setByteValue(byteArrayValue.getBytes());
     }
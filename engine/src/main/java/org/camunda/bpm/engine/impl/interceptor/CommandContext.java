@@ -95,6 +95,12 @@ public class CommandContext {
 
   protected List<CommandContextListener> commandContextListeners = new LinkedList<CommandContextListener>();
 
+  /** the number of atomic operations which are currently executed */
+  protected int executingOperations = 0;
+
+  /** the continuations queued by the atomic operation which is currently executed, created lazily */
+  protected List<AtomicOperationInvocation> queuedContinuations;
+
   public CommandContext(ProcessEngineConfigurationImpl processEngineConfiguration) {
     this(processEngineConfiguration, processEngineConfiguration.getTransactionContextFactory());
   }
@@ -121,17 +127,74 @@ public class CommandContext {
       }, targetProcessApplication);
 
     } else {
+      List<AtomicOperationInvocation> enclosingContinuations = queuedContinuations;
       try {
-        Context.setExecutionContext(execution);
-        if (log.isLoggable(Level.FINEST)) {
-          log.finest("AtomicOperation: " + executionOperation + " on " + this);
-        }
-        executionOperation.execute(execution);
+        executeOperation(executionOperation, execution);
+        performContinuations();
       } finally {
-        Context.removeExecutionContext();
+        queuedContinuations = enclosingContinuations;
+      }
+    }
+
+  }
+
+  /**
+   * Queues an operation which is invoked as the last statement of the currently executed
+   * operation. The queued operation is performed once the current operation returned, so that
+   * long sequences of operations do not nest their invocations.
+   */
+  public void performContinuation(AtomicOperation executionOperation, ExecutionEntity execution) {
+    if (executingOperations == 0) {
+      performOperation(executionOperation, execution);
+
+    } else {
+      if (queuedContinuations == null) {
+        queuedContinuations = new ArrayList<AtomicOperationInvocation>(1);
+      }
+      queuedContinuations.add(new AtomicOperationInvocation(executionOperation, execution));
+    }
+  }
+
+  protected void executeOperation(AtomicOperation executionOperation, ExecutionEntity execution) {
+    queuedContinuations = null;
+    executingOperations++;
+    try {
+      Context.setExecutionContext(execution);
+      if (log.isLoggable(Level.FINEST)) {
+        log.finest("AtomicOperation: " + executionOperation + " on " + this);
       }
+      executionOperation.execute(execution);
+    } finally {
+      Context.removeExecutionContext();
+      executingOperations--;
     }
+  }
 
+  /**
+   * Performs the continuations queued by the last executed operation in a loop. The continuations
+   * queued by a continuation are performed before the remaining ones, i.e. in the same order as if
+   * the operations invoked each other.
+   */
+  protected void performContinuations() {
+    if (queuedContinuations == null) {
+      return;
+    }
+
+    LinkedList<AtomicOperationInvocation> pendingContinuations = new LinkedList<AtomicOperationInvocation>(queuedContinuations);
+    while (!pendingContinuations.isEmpty()) {
+      AtomicOperationInvocation continuation = pendingContinuations.removeFirst();
+
+      if (requiresContextSwitch(getTargetProcessApplication(continuation.execution))) {
+        // performs the continuation and the continuations queued by it within the process application
+        performOperation(continuation.operation, continuation.execution);
+
+      } else {
+        executeOperation(continuation.operation, continuation.execution);
+        if (queuedContinuations != null) {
+          pendingContinuations.addAll(0, queuedContinuations);
+        }
+      }
+    }
   }
 
   public void performOperation(final CmmnAtomicOperation executionOperation, final CaseExecutionEntity execution) {
@@ -494,4 +557,17 @@ public class CommandContext {
       return currentAuthentication.getGroupIds();
     }
   }
+
+  protected static class AtomicOperationInvocation {
+
+    protected final AtomicOperation operation;
+    protected final ExecutionEntity execution;
+
+    public AtomicOperationInvocation(AtomicOperation operation, ExecutionEntity execution) {
+      this.operation = operation;
+      this.execution = execution;
+    }
+
+  }
+
 }
@@ -126,8 +126,41 @@ public class BeanELResolver extends ELResolver {
 		return method;
 	}
 
+	/**
+	 * Key of a resolved method, i.e. the method name and the number of actual parameters.
+	 */
+	private static final class MethodKey {
+		private final String name;
+		private final int paramCount;
+		private final int hashCode;
+
+		MethodKey(String name, int paramCount) {
+			this.name = name;
+			this.paramCount = paramCount;
+			this.hashCode = 31 * name.hashCode() + paramCount;
+		}
+
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof MethodKey)) {
+				return false;
+			}
+			MethodKey other = (MethodKey) obj;
+			return paramCount == other.paramCount && name.equals(other.name);
+		}
+	}
+
 	private final boolean readOnly;
 	private final ConcurrentHashMap<Class<?>, BeanProperties> cache;
+	private final ConcurrentHashMap<Class<?>, ConcurrentHashMap<MethodKey, Method>> methodCache;
 	
 	private ExpressionFactory defaultFactory;
 
@@ -144,6 +177,7 @@ public class BeanELResolver extends ELResolver {
 	public BeanELResolver(boolean readOnly) {
 		this.readOnly = readOnly;
 		this.cache = new ConcurrentHashMap<Class<?>, BeanProperties>();
+		this.methodCache = new ConcurrentHashMap<Class<?>, ConcurrentHashMap<MethodKey, Method>>();
 	}
 
 	/**
@@ -495,8 +529,32 @@ public class BeanELResolver extends ELResolver {
 				return null;
 			}
 		}
+		ConcurrentHashMap<MethodKey, Method> methods = methodCache.get(base.getClass());
+		if (methods == null) {
+			ConcurrentHashMap<MethodKey, Method> newMethods = new ConcurrentHashMap<MethodKey, Method>();
+			methods = methodCache.putIfAbsent(base.getClass(), newMethods);
+			if (methods == null) { // put succeeded, use new value
+				methods = newMethods;
+			}
+		}
+		MethodKey key = new MethodKey(name, paramCount);
+		Method method = methods.get(key);
+		if (method == null) {
+			method = resolveMethod(base.getClass(), name, paramCount);
+			if (method != null) {
+				methods.putIfAbsent(key, method);
+			}
+		}
+		return method;
+	}
+
+	/**
+	 * Resolve the public method to invoke for the given name and number of actual parameters,
+	 * preferring a method with a matching number of formal parameters over a varargs method.
+	 */
+	private Method resolveMethod(Class<?> type, String name, int paramCount) {
 		Method varArgsMethod = null;
-		for (Method method : base.getClass().getMethods()) {
+		for (Method method : type.getMethods()) {
 			if (method.getName().equals(name)) {
 				int formalParamCount = method.getParameterTypes().length;
 				if (method.isVarArgs() && paramCount >= formalParamCount - 1) {
@@ -641,5 +699,11 @@ public class BeanELResolver extends ELResolver {
 				classes.remove();
 			}
 		}
+		classes = methodCache.keySet().iterator();
+		while (classes.hasNext()) {
+			if (loader == classes.next().getClassLoader()) {
+				classes.remove();
+			}
+		}
 	}
 }
@@ -0,0 +1,200 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.jobexecutor;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.camunda.bpm.engine.impl.ProcessEngineImpl;
+
+/**
+ * <p>Adapts the number of acquired jobs to the amount of available jobs and
+ * to the free capacity of the {@link JobExecutor}:</p>
+ *
+ * <ul>
+ *   <li>If an acquisition returns as many jobs as requested, the next acquisition
+ *   requests more jobs (up to {@link #getMaxJobsPerAcquisition()}). Otherwise the
+ *   number shrinks back towards {@link JobExecutor#getMaxJobsPerAcquisition()}.</li>
+ *   <li>No more jobs are acquired than the job executor is able to accept
+ *   (see {@link JobExecutor#getRemainingCapacity()}).</li>
+ *   <li>If jobs could not be locked because another acquisition locked them
+ *   concurrently, the next acquisition is delayed by an exponentially increasing,
+ *   randomized backoff time so that competing nodes do not keep colliding.</li>
+ *   <li>If no engine has jobs, the acquisition waits
+ *   {@link JobExecutor#getWaitTimeInMillis()}.</li>
+ * </ul>
+ */
+public class BackoffJobAcquisitionStrategy implements JobAcquisitionStrategy {
+
+  protected final JobExecutor jobExecutor;
+
+  protected int maxJobsPerAcquisition = 50;
+  protected int jobsPerAcquisitionIncreaseFactor = 2;
+
+  protected long backoffTimeInMillis = 50;
+  protected long maxBackoffTimeInMillis = 2000;
+  protected int backoffIncreaseFactor = 2;
+
+  protected Random random = new Random();
+
+  protected Map<String, EngineAcquisitionState> engineStates = new HashMap<String, EngineAcquisitionState>();
+
+  public BackoffJobAcquisitionStrategy(JobExecutor jobExecutor) {
+    this.jobExecutor = jobExecutor;
+  }
+
+  public int getNumJobsToAcquire(String processEngineName) {
+    int numJobs = getEngineState(processEngineName).numJobsToAcquire;
+    int remainingCapacity = jobExecutor.getRemainingCapacity();
+    return Math.max(0, Math.min(numJobs, remainingCapacity));
+  }
+
+  public void jobsAcquired(String processEngineName, int numJobsRequested, AcquiredJobs acquiredJobs) {
+    EngineAcquisitionState state = getEngineState(processEngineName);
+
+    int numJobsFailedToLock = acquiredJobs.getNumberOfJobsFailedToLock();
+    // the jobs we could not lock exist as well, so they count as found
+    int numJobsFound = acquiredJobs.getJobIdBatches().size() + numJobsFailedToLock;
+
+    if (numJobsFound >= numJobsRequested) {
+      // there are probably more jobs => acquire more next time
+      long increased = (long) numJobsRequested * jobsPerAcquisitionIncreaseFactor;
+      state.numJobsToAcquire = (int) Math.min(increased, getMaxJobsPerAcquisition());
+      state.isIdle = false;
+
+    } else {
+      state.numJobsToAcquire = Math.max(getMinJobsPerAcquisition(), numJobsRequested / jobsPerAcquisitionIncreaseFactor);
+      state.isIdle = numJobsFailedToLock == 0;
+    }
+
+    if (numJobsFailedToLock > 0) {
+      state.backoffLevel++;
+      state.backoffTime = calculateBackoffTime(state.backoffLevel);
+    } else {
+      state.backoffLevel = 0;
+      state.backoffTime = 0;
+    }
+  }
+
+  public long getWaitTime() {
+    boolean allEnginesIdle = true;
+    long waitTime = Long.MAX_VALUE;
+
+    for (String processEngineName : getProcessEngineNames()) {
+      EngineAcquisitionState state = getEngineState(processEngineName);
+      if (!state.isIdle) {
+        allEnginesIdle = false;
+        waitTime = Math.min(waitTime, state.backoffTime);
+      }
+    }
+
+    if (allEnginesIdle) {
+      return jobExecutor.getWaitTimeInMillis();
+    }
+    else if (jobExecutor.getRemainingCapacity() <= 0) {
+      // give the executing threads time to complete some jobs
+      return Math.max(waitTime, backoffTimeInMillis);
+    }
+    else {
+      return waitTime;
+    }
+  }
+
+  protected long calculateBackoffTime(int backoffLevel) {
+    long backoffTime = backoffTimeInMillis;
+    for (int i = 1; i < backoffLevel && backoffTime < maxBackoffTimeInMillis; i++) {
+      backoffTime *= backoffIncreaseFactor;
+    }
+    backoffTime = Math.min(backoffTime, maxBackoffTimeInMillis);
+
+    // randomize the backoff time in the interval [backoffTime / 2, backoffTime]
+    // so that competing acquisitions do not retry at the same time
+    long halfBackoffTime = backoffTime / 2;
+    return halfBackoffTime + (long) (random.nextDouble() * (backoffTime - halfBackoffTime));
+  }
+
+  protected List<String> getProcessEngineNames() {
+    List<String> processEngineNames = new ArrayList<String>();
+    for (ProcessEngineImpl processEngine : jobExecutor.getProcessEngines()) {
+      processEngineNames.add(processEngine.getName());
+    }
+    return processEngineNames;
+  }
+
+  protected EngineAcquisitionState getEngineState(String processEngineName) {
+    EngineAcquisitionState state = engineStates.get(processEngineName);
+    if (state == null) {
+      state = new EngineAcquisitionState();
+      state.numJobsToAcquire = getMinJobsPerAcquisition();
+      engineStates.put(processEngineName, state);
+    }
+    return state;
+  }
+
+  protected int getMinJobsPerAcquisition() {
+    return Math.max(1, jobExecutor.getMaxJobsPerAcquisition());
+  }
+
+  // getters / setters ////////////////////////////////////
+
+  public int getMaxJobsPerAcquisition() {
+    return Math.max(maxJobsPerAcquisition, getMinJobsPerAcquisition());
+  }
+
+  public void setMaxJobsPerAcquisition(int maxJobsPerAcquisition) {
+    this.maxJobsPerAcquisition = maxJobsPerAcquisition;
+  }
+
+  public int getJobsPerAcquisitionIncreaseFactor() {
+    return jobsPerAcquisitionIncreaseFactor;
+  }
+
+  public void setJobsPerAcquisitionIncreaseFactor(int jobsPerAcquisitionIncreaseFactor) {
+    this.jobsPerAcquisitionIncreaseFactor = jobsPerAcquisitionIncreaseFactor;
+  }
+
+  public long getBackoffTimeInMillis() {
+    return backoffTimeInMillis;
+  }
+
+  public void setBackoffTimeInMillis(long backoffTimeInMillis) {
+    this.backoffTimeInMillis = backoffTimeInMillis;
+  }
+
+  public long getMaxBackoffTimeInMillis() {
+    return maxBackoffTimeInMillis;
+  }
+
+  public void setMaxBackoffTimeInMillis(long maxBackoffTimeInMillis) {
+    this.maxBackoffTimeInMillis = maxBackoffTimeInMillis;
+  }
+
+  public int getBackoffIncreaseFactor() {
+    return backoffIncreaseFactor;
+  }
+
+  public void setBackoffIncreaseFactor(int backoffIncreaseFactor) {
+    this.backoffIncreaseFactor = backoffIncreaseFactor;
+  }
+
+  protected static class EngineAcquisitionState {
+    protected int numJobsToAcquire;
+    protected boolean isIdle = false;
+    protected int backoffLevel = 0;
+    protected long backoffTime = 0;
+  }
+
+}
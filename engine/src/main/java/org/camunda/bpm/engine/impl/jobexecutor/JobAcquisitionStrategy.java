@@ -0,0 +1,49 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.jobexecutor;
+
+/**
+ * <p>Decides how many jobs the {@link SequentialJobAcquisitionRunnable} acquires
+ * per acquisition and how long it waits between two acquisitions.</p>
+ *
+ * <p>The acquisition thread asks the strategy for the number of jobs to acquire
+ * before each acquisition, reports the result back and then asks for the time to
+ * wait. All methods are invoked by the acquisition thread only.</p>
+ *
+ * @see BackoffJobAcquisitionStrategy
+ */
+public interface JobAcquisitionStrategy {
+
+  /**
+   * @param processEngineName the name of the process engine to acquire jobs for
+   * @return the number of jobs to acquire in the next acquisition for the given engine,
+   *   0 if no jobs should be acquired right now.
+   */
+  int getNumJobsToAcquire(String processEngineName);
+
+  /**
+   * Reports the result of an acquisition.
+   *
+   * @param processEngineName the name of the process engine jobs were acquired for
+   * @param numJobsRequested the number of jobs which was requested
+   * @param acquiredJobs the jobs that were acquired, including the number of jobs which
+   *   could not be locked due to concurrent acquisition
+   */
+  void jobsAcquired(String processEngineName, int numJobsRequested, AcquiredJobs acquiredJobs);
+
+  /**
+   * @return the time in milliseconds to wait before the next acquisition.
+   */
+  long getWaitTime();
+
+}
@@ -72,6 +72,11 @@ public abstract class JobDeclaration<T extends JobEntity> implements Serializabl
         job.setSuspensionState(jobDefinition.getSuspensionState());
         job.setProcessDefinitionKey(jobDefinition.getProcessDefinitionKey());
         job.setProcessDefinitionId(jobDefinition.getProcessDefinitionId());
+
+        Long jobPriority = jobDefinition.getJobPriority();
+        if(jobPriority != null) {
+          job.setPriority(jobPriority);
+        }
       }
 
     }
@@ -45,7 +45,9 @@ public abstract class JobExecutor {
   protected String name = "JobExecutor["+getClass().getName()+"]";
   protected List<ProcessEngineImpl> processEngines = new CopyOnWriteArrayList<ProcessEngineImpl>();
   protected Command<AcquiredJobs> acquireJobsCmd;
+  protected boolean isCustomAcquireJobsCmd = false;
   protected AcquireJobsRunnable acquireJobsRunnable;
+  protected JobAcquisitionStrategy acquisitionStrategy;
   protected RejectedJobsHandler rejectedJobsHandler;
   protected Thread jobAcquisitionThread;
 
@@ -57,6 +59,14 @@ public abstract class JobExecutor {
   protected String lockOwner = UUID.randomUUID().toString();
   protected int lockTimeInMillis = 5 * 60 * 1000;
 
+  /**
+   * Restricts acquisition to jobs with a priority in the given range (both bounds inclusive).
+   * If a bound is null, the range is unbounded on that side. Allows to dedicate
+   * job executors to high priority jobs so that they are not starved by bulk jobs.
+   */
+  protected Long acquisitionPriorityMin;
+  protected Long acquisitionPriorityMax;
+
   public void start() {
     if (isActive) {
       return;
@@ -79,12 +89,19 @@ public abstract class JobExecutor {
   }
 
   protected void ensureInitialization() {
-    acquireJobsCmd = new AcquireJobsCmd(this);
+    if (!isCustomAcquireJobsCmd) {
+      acquireJobsCmd = new AcquireJobsCmd(this);
+    }
+    if (acquisitionStrategy == null) {
+      acquisitionStrategy = new BackoffJobAcquisitionStrategy(this);
+    }
     acquireJobsRunnable = new SequentialJobAcquisitionRunnable(this);
   }
 
   protected void ensureCleanup() {
-    acquireJobsCmd = null;
+    if (!isCustomAcquireJobsCmd) {
+      acquireJobsCmd = null;
+    }
     acquireJobsRunnable = null;
   }
 
@@ -116,6 +133,27 @@ public abstract class JobExecutor {
   protected abstract void stopExecutingJobs();
   public abstract void executeJobs(List<String> jobIds, ProcessEngineImpl processEngine);
 
+  /**
+   * @return the number of job batches this job executor is able to accept for
+   *   execution without rejecting them. Used to limit the number of jobs acquired at once.
+   */
+  public int getRemainingCapacity() {
+    return Integer.MAX_VALUE;
+  }
+
+  /**
+   * @return the command to acquire the given number of jobs. If a custom command
+   *   was configured using {@link #setAcquireJobsCmd(Command)}, that command is
+   *   returned and decides itself how many jobs it acquires.
+   */
+  public Command<AcquiredJobs> getAcquireJobsCmd(int numJobs) {
+    if (isCustomAcquireJobsCmd) {
+      return acquireJobsCmd;
+    } else {
+      return new AcquireJobsCmd(this, numJobs);
+    }
+  }
+
   /**
    * Deprecated: use {@link #executeJobs(List, ProcessEngineImpl)} instead
    * @param jobIds
@@ -198,6 +236,22 @@ public abstract class JobExecutor {
     this.maxJobsPerAcquisition = maxJobsPerAcquisition;
   }
 
+  public Long getAcquisitionPriorityMin() {
+    return acquisitionPriorityMin;
+  }
+
+  public void setAcquisitionPriorityMin(Long acquisitionPriorityMin) {
+    this.acquisitionPriorityMin = acquisitionPriorityMin;
+  }
+
+  public Long getAcquisitionPriorityMax() {
+    return acquisitionPriorityMax;
+  }
+
+  public void setAcquisitionPriorityMax(Long acquisitionPriorityMax) {
+    this.acquisitionPriorityMax = acquisitionPriorityMax;
+  }
+
   public String getName() {
     return name;
   }
@@ -206,8 +260,29 @@ public abstract class JobExecutor {
     return acquireJobsCmd;
   }
 
+  /**
+   * Configures a custom command used to acquire jobs instead of the default
+   * {@link AcquireJobsCmd}. Note that a custom command is not sized by the
+   * {@link JobAcquisitionStrategy}. Set to null to use the default command again.
+   */
   public void setAcquireJobsCmd(Command<AcquiredJobs> acquireJobsCmd) {
+    if (acquireJobsCmd != null) {
+      log.info(getName() + " uses the custom acquire jobs command " + acquireJobsCmd.getClass().getName()
+          + "; the number of jobs to acquire is not adapted by the acquisition strategy.");
+    }
     this.acquireJobsCmd = acquireJobsCmd;
+    this.isCustomAcquireJobsCmd = acquireJobsCmd != null;
+    if (!isCustomAcquireJobsCmd && isActive) {
+      this.acquireJobsCmd = new AcquireJobsCmd(this);
+    }
+  }
+
+  public JobAcquisitionStrategy getAcquisitionStrategy() {
+    return acquisitionStrategy;
+  }
+
+  public void setAcquisitionStrategy(JobAcquisitionStrategy acquisitionStrategy) {
+    this.acquisitionStrategy = acquisitionStrategy;
   }
 
   public boolean isActive() {
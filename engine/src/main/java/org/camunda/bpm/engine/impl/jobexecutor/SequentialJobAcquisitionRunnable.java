@@ -1,6 +1,5 @@
 package org.camunda.bpm.engine.impl.jobexecutor;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -26,12 +25,11 @@ public class SequentialJobAcquisitionRunnable extends AcquireJobsRunnable {
     log.info(jobExecutor.getName() + " starting to acquire jobs");
 
     int processEngineLoopCounter = 0;
-    List<String> idleEngines = new ArrayList<String>();
-    boolean jobExecutionFailed = false;
+    boolean jobAcquisitionFailed = false;
 
     while (!isInterrupted) {
       ProcessEngineImpl currentProcessEngine = null;
-      int maxJobsPerAcquisition = jobExecutor.getMaxJobsPerAcquisition();
+      JobAcquisitionStrategy acquisitionStrategy = jobExecutor.getAcquisitionStrategy();
 
       try {
 
@@ -42,7 +40,6 @@ public class SequentialJobAcquisitionRunnable extends AcquireJobsRunnable {
             if (registeredProcessEngines.size() <= processEngineLoopCounter) {
               processEngineLoopCounter = 0;
               isJobAdded = false;
-              idleEngines.clear();
             }
             currentProcessEngine = registeredProcessEngines.get(processEngineLoopCounter);
             processEngineLoopCounter++;
@@ -53,30 +50,32 @@ public class SequentialJobAcquisitionRunnable extends AcquireJobsRunnable {
         log.log(Level.SEVERE, "exception while determining next process engine: " + e.getMessage(), e);
       }
 
-      jobExecutionFailed = false;
+      jobAcquisitionFailed = false;
 
       if (currentProcessEngine != null) {
 
         try {
-          final CommandExecutor commandExecutor = currentProcessEngine.getProcessEngineConfiguration()
-              .getCommandExecutorTxRequired();
+          String processEngineName = currentProcessEngine.getName();
+          int numJobsToAcquire = acquisitionStrategy.getNumJobsToAcquire(processEngineName);
 
-          AcquiredJobs acquiredJobs = commandExecutor.execute(jobExecutor.getAcquireJobsCmd());
+          // if the job executor cannot accept any jobs, acquiring them would only lock them for nothing
+          if (numJobsToAcquire > 0) {
+            final CommandExecutor commandExecutor = currentProcessEngine.getProcessEngineConfiguration()
+                .getCommandExecutorTxRequired();
 
-          for (List<String> jobIds : acquiredJobs.getJobIdBatches()) {
-            jobExecutor.executeJobs(jobIds, currentProcessEngine);
-          }
+            AcquiredJobs acquiredJobs = commandExecutor.execute(jobExecutor.getAcquireJobsCmd(numJobsToAcquire));
+
+            for (List<String> jobIds : acquiredJobs.getJobIdBatches()) {
+              jobExecutor.executeJobs(jobIds, currentProcessEngine);
+            }
 
-          // add number of jobs which we attempted to acquire but could not obtain a lock for -> do not wait if we could not acquire jobs.
-          int jobsAcquired = acquiredJobs.getJobIdBatches().size() + acquiredJobs.getNumberOfJobsFailedToLock();
-          if (jobsAcquired < maxJobsPerAcquisition) {
-            idleEngines.add(currentProcessEngine.getName());
+            acquisitionStrategy.jobsAcquired(processEngineName, numJobsToAcquire, acquiredJobs);
           }
 
         } catch (Exception e) {
           log.log(Level.SEVERE, "exception during job acquisition: " + e.getMessage(), e);
 
-          jobExecutionFailed = true;
+          jobAcquisitionFailed = true;
 
           // if one of the engines fails: increase the wait time
           if(millisToWait == 0) {
@@ -90,14 +89,8 @@ public class SequentialJobAcquisitionRunnable extends AcquireJobsRunnable {
         }
       }
 
-      int numOfEngines = jobExecutor.getProcessEngines().size();
-      if(idleEngines.size() == numOfEngines) {
-        // if we have determined that none of the registered engines currently have jobs -> wait
-        millisToWait = jobExecutor.getWaitTimeInMillis();
-      } else {
-        if(!jobExecutionFailed) {
-          millisToWait = 0;
-        }
+      if (!jobAcquisitionFailed) {
+        millisToWait = acquisitionStrategy.getWaitTime();
       }
 
       if (millisToWait > 0 && (!isJobAdded)) {
@@ -44,6 +44,16 @@ public class ThreadPoolJobExecutor extends JobExecutor {
     }
   }
   
+  public int getRemainingCapacity() {
+    if (threadPoolExecutor == null) {
+      return 0;
+    }
+    long remainingQueueCapacity = threadPoolExecutor.getQueue().remainingCapacity();
+    long idleThreads = threadPoolExecutor.getMaximumPoolSize() - threadPoolExecutor.getActiveCount();
+    long remainingCapacity = remainingQueueCapacity + Math.max(0, idleThreads);
+    return (int) Math.min(remainingCapacity, Integer.MAX_VALUE);
+  }
+
   // getters / setters
 
   public ThreadPoolExecutor getThreadPoolExecutor() {
@@ -16,23 +16,35 @@
 package org.camunda.bpm.engine.impl.juel;
 
 import java.util.Collections;
-import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 
 
 /**
- * Simple (thread-safe) LRU cache.
+ * Thread-safe LRU cache.
  * After the cache size reached a certain limit, the least recently used entry is removed,
  * when adding a new entry.
  *
+ * The cache is split into segments by the hash code of the expression. Lookups do not lock,
+ * every entry records its last access from the logical clock of its segment. Only adding an
+ * entry to a full segment locks the segment in order to evict its least recently used entry.
+ * Since the segments evict independently, entries may be evicted before the cache holds
+ * the maximum number of entries in total.
+ *
  * @author Christoph Beck
  */
 public final class Cache implements TreeCache {
-  private final Map<String,Tree> primary;
-  private final Map<String,Tree> secondary;
+	/** maximum number of segments */
+	private static final int MAX_SEGMENTS = 16;
+	/** minimum number of entries per segment */
+	private static final int MIN_SEGMENT_SIZE = 16;
+
+	private final Segment[] segments;
+	private final Map<String,Tree> secondary;
 
   /**
    * Constructor.
@@ -50,36 +62,129 @@ public final class Cache implements TreeCache {
    * @param size maximum primary cache size
 	 * @param secondary the secondary map (may be <code>null</code>)
 	 */
-	@SuppressWarnings("serial")
-	public Cache(final int size, Map<String,Tree> secondary) {
-		this.primary = Collections.synchronizedMap(new LinkedHashMap<String,Tree>(16, 0.75f, true) {
-			@Override
-			protected boolean removeEldestEntry(Entry<String,Tree> eldest) {
-				if (size() > size) {
-					if (Cache.this.secondary != null) { // move to secondary cache
-						Cache.this.secondary.put(eldest.getKey(), eldest.getValue());
-					}
-					return true;
-				}
-				return false;
-			}
-		});
+	public Cache(int size, Map<String,Tree> secondary) {
+		int segmentCount = 1;
+		while (segmentCount < MAX_SEGMENTS && size / (segmentCount * 2) >= MIN_SEGMENT_SIZE) {
+			segmentCount *= 2;
+		}
+		this.segments = new Segment[segmentCount];
+		for (int i = 0; i < segmentCount; i++) {
+			// distribute the remainder, so that the segments hold exactly size entries
+			segments[i] = new Segment(size / segmentCount + (i < size % segmentCount ? 1 : 0));
+		}
 		this.secondary = secondary == null ? null : Collections.synchronizedMap(secondary);
 	}
 
 	public Tree get(String expression) {
-		if (secondary == null) {
-			return primary.get(expression);
+		Segment segment = segmentFor(expression);
+		Tree tree = segment.get(expression);
+		if (tree == null && secondary != null) {
+			tree = secondary.get(expression);
+		}
+		if (tree == null) {
+			segment.missCount.incrementAndGet();
 		} else {
-			Tree tree = primary.get(expression);
-			if (tree == null) {
-				tree = secondary.get(expression);
-			}
-			return tree;
+			segment.hitCount.incrementAndGet();
 		}
+		return tree;
 	}
 
 	public void put(String expression, Tree tree) {
-		primary.put(expression, tree);
+		segmentFor(expression).put(expression, tree);
+	}
+
+	/**
+	 * @return the number of entries in the primary cache
+	 */
+	public int size() {
+		int size = 0;
+		for (Segment segment : segments) {
+			size += segment.entries.size();
+		}
+		return size;
+	}
+
+	/**
+	 * @return the number of lookups which found a tree in the primary or the secondary cache
+	 */
+	public long getHitCount() {
+		long hitCount = 0;
+		for (Segment segment : segments) {
+			hitCount += segment.hitCount.get();
+		}
+		return hitCount;
+	}
+
+	/**
+	 * @return the number of lookups which did not find a tree
+	 */
+	public long getMissCount() {
+		long missCount = 0;
+		for (Segment segment : segments) {
+			missCount += segment.missCount.get();
+		}
+		return missCount;
+	}
+
+	private Segment segmentFor(String expression) {
+		int hash = expression.hashCode();
+		// spread the higher bits, the segment is selected by the lowest bits
+		hash ^= (hash >>> 16);
+		return segments[hash & (segments.length - 1)];
+	}
+
+	private final class Segment {
+		private final int capacity;
+		private final ConcurrentHashMap<String,CacheEntry> entries = new ConcurrentHashMap<String,CacheEntry>();
+		private final AtomicLong clock = new AtomicLong();
+		private final AtomicLong hitCount = new AtomicLong();
+		private final AtomicLong missCount = new AtomicLong();
+
+		Segment(int capacity) {
+			this.capacity = Math.max(capacity, 1);
+		}
+
+		Tree get(String expression) {
+			CacheEntry entry = entries.get(expression);
+			if (entry == null) {
+				return null;
+			}
+			entry.lastAccess = clock.incrementAndGet();
+			return entry.tree;
+		}
+
+		void put(String expression, Tree tree) {
+			entries.put(expression, new CacheEntry(tree, clock.incrementAndGet()));
+			if (entries.size() > capacity) {
+				evict();
+			}
+		}
+
+		synchronized void evict() {
+			while (entries.size() > capacity) {
+				Entry<String,CacheEntry> eldest = null;
+				for (Entry<String,CacheEntry> entry : entries.entrySet()) {
+					if (eldest == null || entry.getValue().lastAccess < eldest.getValue().lastAccess) {
+						eldest = entry;
+					}
+				}
+				if (eldest == null) {
+					return;
+				}
+				if (entries.remove(eldest.getKey(), eldest.getValue()) && secondary != null) { // move to secondary cache
+					secondary.put(eldest.getKey(), eldest.getValue().tree);
+				}
+			}
+		}
+	}
+
+	private static final class CacheEntry {
+		private final Tree tree;
+		private volatile long lastAccess;
+
+		CacheEntry(Tree tree, long lastAccess) {
+			this.tree = tree;
+			this.lastAccess = lastAccess;
+		}
 	}
 }
@@ -241,6 +241,13 @@ public class ExpressionFactoryImpl extends org.camunda.bpm.engine.impl.javax.el.
 		this.converter = converter;
 	}
 
+	/**
+	 * @return the tree store used to parse and cache parse trees
+	 */
+	public TreeStore getTreeStore() {
+		return store;
+	}
+
 	private Properties loadDefaultProperties() {
 		String home = System.getProperty("java.home");
 		String path = home + File.separator + "lib" + File.separator + "el.properties";
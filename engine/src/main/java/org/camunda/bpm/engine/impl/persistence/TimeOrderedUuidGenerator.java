@@ -0,0 +1,56 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.persistence;
+
+import java.util.UUID;
+
+import org.camunda.bpm.engine.impl.cfg.IdGenerator;
+
+/**
+ * <p>{@link IdGenerator} implementation producing time ordered UUIDs.</p>
+ *
+ * <p>The ids are time based UUIDs like the ones of the {@link StrongUuidGenerator}
+ * but the timestamp is moved to the front, starting with its most significant
+ * bits. As a result, ids generated by one process engine increase monotonically,
+ * also when compared as strings. New rows are therefore appended to the end of the
+ * primary key indexes instead of being inserted at random positions.</p>
+ *
+ * <p>Like the {@link StrongUuidGenerator}, this generator does not need to access
+ * the database and the ids are unique across machines.</p>
+ */
+public class TimeOrderedUuidGenerator extends StrongUuidGenerator {
+
+  protected static final long VERSION_6 = 0x6000L;
+
+  public String getNextId() {
+    UUID uuid = timeBasedGenerator.generate();
+    return toTimeOrderedUuid(uuid).toString();
+  }
+
+  /**
+   * Reorders the timestamp of a time based UUID so that its most significant bits
+   * come first. The 60 bit timestamp occupies the upper 48 bits and the lowest 12
+   * bits of the most significant long, the version nibble is set to 6. The clock
+   * sequence and the node are kept.
+   */
+  protected UUID toTimeOrderedUuid(UUID uuid) {
+    long timestamp = uuid.timestamp();
+
+    long mostSigBits = ((timestamp << 4) & 0xFFFFFFFFFFFF0000L)
+      | VERSION_6
+      | (timestamp & 0x0FFFL);
+
+    return new UUID(mostSigBits, uuid.getLeastSignificantBits());
+  }
+
+}
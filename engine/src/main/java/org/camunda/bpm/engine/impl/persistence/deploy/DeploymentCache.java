@@ -14,9 +14,7 @@
 package org.camunda.bpm.engine.impl.persistence.deploy;
 
 import java.io.InputStream;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import org.camunda.bpm.engine.ProcessEngineException;
@@ -27,6 +25,8 @@ import org.camunda.bpm.engine.impl.cmmn.entity.repository.CaseDefinitionEntity;
 import org.camunda.bpm.engine.impl.cmmn.entity.repository.CaseDefinitionQueryImpl;
 import org.camunda.bpm.engine.impl.context.Context;
 import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.persistence.deploy.cache.Cache;
+import org.camunda.bpm.engine.impl.persistence.deploy.cache.LruCache;
 import org.camunda.bpm.engine.impl.persistence.entity.DeploymentEntity;
 import org.camunda.bpm.engine.impl.persistence.entity.ProcessDefinitionEntity;
 import org.camunda.bpm.engine.repository.CaseDefinition;
@@ -47,12 +47,29 @@ public class DeploymentCache {
 
   private Logger LOGGER = Logger.getLogger(DeploymentCache.class.getName());
 
-  protected Map<String, ProcessDefinitionEntity> processDefinitionCache = new HashMap<String, ProcessDefinitionEntity>();
-  protected Map<String, CaseDefinitionEntity> caseDefinitionCache = new HashMap<String, CaseDefinitionEntity>();
-  protected Map<String, BpmnModelInstance> bpmnModelInstanceCache = new HashMap<String, BpmnModelInstance>();
-  protected Map<String, CmmnModelInstance> cmmnModelInstanceCache = new HashMap<String, CmmnModelInstance>();
+  public static final String PROCESS_DEFINITION_CACHE = "processDefinitionCache";
+  public static final String CASE_DEFINITION_CACHE = "caseDefinitionCache";
+  public static final String BPMN_MODEL_INSTANCE_CACHE = "bpmnModelInstanceCache";
+  public static final String CMMN_MODEL_INSTANCE_CACHE = "cmmnModelInstanceCache";
+
+  protected static final int LOAD_LOCK_STRIPES = 64;
+
+  protected Cache<String, ProcessDefinitionEntity> processDefinitionCache = new LruCache<String, ProcessDefinitionEntity>();
+  protected Cache<String, CaseDefinitionEntity> caseDefinitionCache = new LruCache<String, CaseDefinitionEntity>();
+  protected Cache<String, BpmnModelInstance> bpmnModelInstanceCache = new LruCache<String, BpmnModelInstance>();
+  protected Cache<String, CmmnModelInstance> cmmnModelInstanceCache = new LruCache<String, CmmnModelInstance>();
+
+  protected DeploymentSnapshotStore snapshotStore;
   protected List<Deployer> deployers;
 
+  /**
+   * Locks serializing the loading of missing cache entries. Definitions are loaded
+   * per deployment, model instances per definition. A thread loading a model instance
+   * may load the definition as well, never the other way around.
+   */
+  protected final Object[] definitionLoadLocks = createLoadLocks();
+  protected final Object[] modelInstanceLoadLocks = createLoadLocks();
+
   public void deploy(DeploymentEntity deployment) {
     for (Deployer deployer: deployers) {
       deployer.deploy(deployment);
@@ -110,15 +127,13 @@ public class DeploymentCache {
     String deploymentId = processDefinition.getDeploymentId();
     ProcessDefinitionEntity cachedProcessDefinition = processDefinitionCache.get(processDefinitionId);
     if (cachedProcessDefinition==null) {
-      DeploymentEntity deployment = Context
-        .getCommandContext()
-        .getDeploymentManager()
-        .findDeploymentById(deploymentId);
-      deployment.setNew(false);
-      deploy(deployment);
-      cachedProcessDefinition = processDefinitionCache.get(processDefinitionId);
-
-      ensureNotNull("deployment '" + deploymentId + "' didn't put process definition '" + processDefinitionId + "' in the cache", "cachedProcessDefinition", cachedProcessDefinition);
+      // concurrent misses for the same deployment wait for a single parse
+      synchronized (getLoadLock(definitionLoadLocks, deploymentId)) {
+        cachedProcessDefinition = processDefinitionCache.get(processDefinitionId);
+        if (cachedProcessDefinition == null) {
+          cachedProcessDefinition = loadProcessDefinition(processDefinitionId, deploymentId);
+        }
+      }
     } else {
       // update cached process definition
       cachedProcessDefinition.updateModifiedFieldsFromEntity(processDefinition);
@@ -126,27 +141,68 @@ public class DeploymentCache {
     return cachedProcessDefinition;
   }
 
-  public BpmnModelInstance findBpmnModelInstanceForProcessDefinition(String processDefinitionId) {
-    BpmnModelInstance bpmnModelInstance = bpmnModelInstanceCache.get(processDefinitionId);
-    if(bpmnModelInstance == null) {
+  protected ProcessDefinitionEntity loadProcessDefinition(String processDefinitionId, String deploymentId) {
+    DeploymentEntity deployment = Context
+      .getCommandContext()
+      .getDeploymentManager()
+      .findDeploymentById(deploymentId);
+    deployment.setNew(false);
+    deploy(deployment);
+    ProcessDefinitionEntity cachedProcessDefinition = processDefinitionCache.get(processDefinitionId);
 
-      ProcessDefinitionEntity processDefinition = findDeployedProcessDefinitionById(processDefinitionId);
-      String deploymentId = processDefinition.getDeploymentId();
-      String resourceName = processDefinition.getResourceName();
+    if (cachedProcessDefinition == null) {
+      // the definition may have been evicted again by the other definitions of the deployment
+      cachedProcessDefinition = findDeployedProcessDefinition(deployment, processDefinitionId);
+    }
 
-      InputStream bpmnResourceInputStream = new GetDeploymentResourceCmd(deploymentId, resourceName)
-        .execute(Context.getCommandContext());
+    ensureNotNull("deployment '" + deploymentId + "' didn't put process definition '" + processDefinitionId + "' in the cache", "cachedProcessDefinition", cachedProcessDefinition);
+    return cachedProcessDefinition;
+  }
 
-      try {
-        bpmnModelInstance = Bpmn.readModelFromStream(bpmnResourceInputStream);
-      }catch(Exception e) {
-        throw new ProcessEngineException("Could not load Bpmn Model for process definition "+processDefinitionId, e);
+  protected ProcessDefinitionEntity findDeployedProcessDefinition(DeploymentEntity deployment, String processDefinitionId) {
+    List<ProcessDefinitionEntity> deployedProcessDefinitions = deployment.getDeployedArtifacts(ProcessDefinitionEntity.class);
+    if (deployedProcessDefinitions != null) {
+      for (ProcessDefinitionEntity deployedProcessDefinition : deployedProcessDefinitions) {
+        if (processDefinitionId.equals(deployedProcessDefinition.getId())) {
+          addProcessDefinition(deployedProcessDefinition);
+          return deployedProcessDefinition;
+        }
+      }
+    }
+    return null;
+  }
+
+  public BpmnModelInstance findBpmnModelInstanceForProcessDefinition(String processDefinitionId) {
+    BpmnModelInstance bpmnModelInstance = bpmnModelInstanceCache.get(processDefinitionId);
+    if(bpmnModelInstance == null) {
+      // concurrent misses for the same process definition wait for a single parse
+      synchronized (getLoadLock(modelInstanceLoadLocks, processDefinitionId)) {
+        bpmnModelInstance = bpmnModelInstanceCache.get(processDefinitionId);
+        if (bpmnModelInstance == null) {
+          bpmnModelInstance = loadBpmnModelInstance(processDefinitionId);
+        }
       }
+    }
+    return bpmnModelInstance;
+  }
 
-      // put model instance into cache.
-      bpmnModelInstanceCache.put(processDefinitionId, bpmnModelInstance);
+  protected BpmnModelInstance loadBpmnModelInstance(String processDefinitionId) {
+    ProcessDefinitionEntity processDefinition = findDeployedProcessDefinitionById(processDefinitionId);
+    String deploymentId = processDefinition.getDeploymentId();
+    String resourceName = processDefinition.getResourceName();
+
+    InputStream bpmnResourceInputStream = new GetDeploymentResourceCmd(deploymentId, resourceName)
+      .execute(Context.getCommandContext());
 
+    BpmnModelInstance bpmnModelInstance;
+    try {
+      bpmnModelInstance = Bpmn.readModelFromStream(bpmnResourceInputStream);
+    }catch(Exception e) {
+      throw new ProcessEngineException("Could not load Bpmn Model for process definition "+processDefinitionId, e);
     }
+
+    // put model instance into cache.
+    bpmnModelInstanceCache.put(processDefinitionId, bpmnModelInstance);
     return bpmnModelInstance;
   }
 
@@ -252,43 +308,81 @@ public class DeploymentCache {
     CaseDefinitionEntity cachedCaseDefinition = caseDefinitionCache.get(caseDefinitionId);
 
     if (cachedCaseDefinition==null) {
-      DeploymentEntity deployment = Context
-        .getCommandContext()
-        .getDeploymentManager()
-        .findDeploymentById(deploymentId);
+      // concurrent misses for the same deployment wait for a single parse
+      synchronized (getLoadLock(definitionLoadLocks, deploymentId)) {
+        cachedCaseDefinition = caseDefinitionCache.get(caseDefinitionId);
+        if (cachedCaseDefinition == null) {
+          cachedCaseDefinition = loadCaseDefinition(caseDefinitionId, deploymentId);
+        }
+      }
+    }
+    return cachedCaseDefinition;
+  }
 
-      deployment.setNew(false);
-      deploy(deployment);
+  protected CaseDefinitionEntity loadCaseDefinition(String caseDefinitionId, String deploymentId) {
+    DeploymentEntity deployment = Context
+      .getCommandContext()
+      .getDeploymentManager()
+      .findDeploymentById(deploymentId);
 
-      cachedCaseDefinition = caseDefinitionCache.get(caseDefinitionId);
+    deployment.setNew(false);
+    deploy(deployment);
 
-      ensureNotNull("deployment '" + deploymentId + "' didn't put case definition '" + caseDefinitionId + "' in the cache", "cachedCaseDefinition", cachedCaseDefinition);
+    CaseDefinitionEntity cachedCaseDefinition = caseDefinitionCache.get(caseDefinitionId);
 
+    if (cachedCaseDefinition == null) {
+      // the definition may have been evicted again by the other definitions of the deployment
+      cachedCaseDefinition = findDeployedCaseDefinition(deployment, caseDefinitionId);
     }
+
+    ensureNotNull("deployment '" + deploymentId + "' didn't put case definition '" + caseDefinitionId + "' in the cache", "cachedCaseDefinition", cachedCaseDefinition);
     return cachedCaseDefinition;
   }
 
+  protected CaseDefinitionEntity findDeployedCaseDefinition(DeploymentEntity deployment, String caseDefinitionId) {
+    List<CaseDefinitionEntity> deployedCaseDefinitions = deployment.getDeployedArtifacts(CaseDefinitionEntity.class);
+    if (deployedCaseDefinitions != null) {
+      for (CaseDefinitionEntity deployedCaseDefinition : deployedCaseDefinitions) {
+        if (caseDefinitionId.equals(deployedCaseDefinition.getId())) {
+          addCaseDefinition(deployedCaseDefinition);
+          return deployedCaseDefinition;
+        }
+      }
+    }
+    return null;
+  }
+
   public CmmnModelInstance findCmmnModelInstanceForCaseDefinition(String caseDefinitionId) {
     CmmnModelInstance cmmnModelInstance = cmmnModelInstanceCache.get(caseDefinitionId);
     if(cmmnModelInstance == null) {
-
-      CaseDefinitionEntity caseDefinition = findDeployedCaseDefinitionById(caseDefinitionId);
-      String deploymentId = caseDefinition.getDeploymentId();
-      String resourceName = caseDefinition.getResourceName();
-
-      InputStream cmmnResourceInputStream = new GetDeploymentResourceCmd(deploymentId, resourceName)
-        .execute(Context.getCommandContext());
-
-      try {
-        cmmnModelInstance = Cmmn.readModelFromStream(cmmnResourceInputStream);
-      }catch(Exception e) {
-        throw new ProcessEngineException("Could not load Cmmn Model for case definition " + caseDefinitionId, e);
+      // concurrent misses for the same case definition wait for a single parse
+      synchronized (getLoadLock(modelInstanceLoadLocks, caseDefinitionId)) {
+        cmmnModelInstance = cmmnModelInstanceCache.get(caseDefinitionId);
+        if (cmmnModelInstance == null) {
+          cmmnModelInstance = loadCmmnModelInstance(caseDefinitionId);
+        }
       }
+    }
+    return cmmnModelInstance;
+  }
+
+  protected CmmnModelInstance loadCmmnModelInstance(String caseDefinitionId) {
+    CaseDefinitionEntity caseDefinition = findDeployedCaseDefinitionById(caseDefinitionId);
+    String deploymentId = caseDefinition.getDeploymentId();
+    String resourceName = caseDefinition.getResourceName();
 
-      // put model instance into cache.
-      cmmnModelInstanceCache.put(caseDefinitionId, cmmnModelInstance);
+    InputStream cmmnResourceInputStream = new GetDeploymentResourceCmd(deploymentId, resourceName)
+      .execute(Context.getCommandContext());
 
+    CmmnModelInstance cmmnModelInstance;
+    try {
+      cmmnModelInstance = Cmmn.readModelFromStream(cmmnResourceInputStream);
+    }catch(Exception e) {
+      throw new ProcessEngineException("Could not load Cmmn Model for case definition " + caseDefinitionId, e);
     }
+
+    // put model instance into cache.
+    cmmnModelInstanceCache.put(caseDefinitionId, cmmnModelInstance);
     return cmmnModelInstance;
   }
 
@@ -304,29 +398,53 @@ public class DeploymentCache {
     caseDefinitionCache.clear();
   }
 
+  // load locks ///////////////////////////////////////////////////////////////
+
+  protected static Object[] createLoadLocks() {
+    Object[] locks = new Object[LOAD_LOCK_STRIPES];
+    for (int i = 0; i < locks.length; i++) {
+      locks[i] = new Object();
+    }
+    return locks;
+  }
+
+  protected Object getLoadLock(Object[] locks, String key) {
+    int hash = key.hashCode();
+    hash ^= (hash >>> 16);
+    return locks[(hash & 0x7fffffff) % locks.length];
+  }
+
   // getters and setters //////////////////////////////////////////////////////
 
-  public Map<String, BpmnModelInstance> getBpmnModelInstanceCache() {
+  public Cache<String, BpmnModelInstance> getBpmnModelInstanceCache() {
     return bpmnModelInstanceCache;
   }
 
-  public Map<String, CmmnModelInstance> getCmmnModelInstanceCache() {
+  public void setBpmnModelInstanceCache(Cache<String, BpmnModelInstance> bpmnModelInstanceCache) {
+    this.bpmnModelInstanceCache = bpmnModelInstanceCache;
+  }
+
+  public Cache<String, CmmnModelInstance> getCmmnModelInstanceCache() {
     return cmmnModelInstanceCache;
   }
 
-  public Map<String, ProcessDefinitionEntity> getProcessDefinitionCache() {
+  public void setCmmnModelInstanceCache(Cache<String, CmmnModelInstance> cmmnModelInstanceCache) {
+    this.cmmnModelInstanceCache = cmmnModelInstanceCache;
+  }
+
+  public Cache<String, ProcessDefinitionEntity> getProcessDefinitionCache() {
     return processDefinitionCache;
   }
 
-  public void setProcessDefinitionCache(Map<String, ProcessDefinitionEntity> processDefinitionCache) {
+  public void setProcessDefinitionCache(Cache<String, ProcessDefinitionEntity> processDefinitionCache) {
     this.processDefinitionCache = processDefinitionCache;
   }
 
-  public Map<String, CaseDefinitionEntity> getCaseDefinitionCache() {
+  public Cache<String, CaseDefinitionEntity> getCaseDefinitionCache() {
     return caseDefinitionCache;
   }
 
-  public void setCaseDefinitionCache(Map<String, CaseDefinitionEntity> caseDefinitionCache) {
+  public void setCaseDefinitionCache(Cache<String, CaseDefinitionEntity> caseDefinitionCache) {
     this.caseDefinitionCache = caseDefinitionCache;
   }
 
@@ -338,9 +456,20 @@ public class DeploymentCache {
     this.deployers = deployers;
   }
 
+  public DeploymentSnapshotStore getSnapshotStore() {
+    return snapshotStore;
+  }
+
+  public void setSnapshotStore(DeploymentSnapshotStore snapshotStore) {
+    this.snapshotStore = snapshotStore;
+  }
+
   public void removeDeployment(String deploymentId) {
     removeAllProcessDefinitionsByDeploymentId(deploymentId);
     removeAllCaseDefinitionsByDeploymentId(deploymentId);
+    if (snapshotStore != null) {
+      snapshotStore.delete(deploymentId);
+    }
   }
 
   protected void removeAllProcessDefinitionsByDeploymentId(String deploymentId) {
@@ -0,0 +1,220 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.persistence.deploy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.camunda.bpm.application.ProcessApplicationReference;
+import org.camunda.bpm.engine.ProcessEngineException;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.context.Context;
+import org.camunda.bpm.engine.impl.util.ClassLoaderUtil;
+
+/**
+ * <p>Parses the resources of a deployment on a bounded pool of threads. Used by the
+ * {@link org.camunda.bpm.engine.impl.bpmn.deployer.BpmnDeployer} and the
+ * {@link org.camunda.bpm.engine.impl.cmmn.deployer.CmmnDeployer}, both when a deployment
+ * is created and when the {@link DeploymentCache} redeploys a deployment after a miss.</p>
+ *
+ * <p>Only the parsing of the individual resources is performed in parallel. The parse tasks
+ * must not access the command context or modify the deployment, since both are confined to
+ * the deploying thread. The process engine configuration, the current process application
+ * and the context class loader of the deploying thread are available to the parse tasks.</p>
+ *
+ * <p>The results are returned in the order of the parse tasks, and if parse tasks fail, the
+ * exception of the first failed task in this order is rethrown. The outcome of a deployment
+ * therefore does not depend on the order in which the threads complete the tasks.</p>
+ */
+public class DeploymentParseExecutor {
+
+  private static final Logger LOG = Logger.getLogger(DeploymentParseExecutor.class.getName());
+
+  protected final int parallelism;
+
+  /** guarded by this */
+  protected ExecutorService executorService;
+
+  /** guarded by this */
+  protected boolean closed = false;
+
+  /**
+   * @param parallelism the maximum number of threads parsing resources, one or less
+   * means that all resources are parsed sequentially by the deploying thread
+   */
+  public DeploymentParseExecutor(int parallelism) {
+    this.parallelism = parallelism;
+  }
+
+  /**
+   * Executes the parse tasks and returns their results in the order of the tasks.
+   */
+  public <T> List<T> execute(List<? extends Callable<T>> parseTasks) {
+    ExecutorService executorService = parseTasks.size() > 1 ? getExecutorService() : null;
+    if (executorService == null) {
+      return executeSequentially(parseTasks);
+    }
+
+    List<Future<T>> futures = new ArrayList<Future<T>>();
+    try {
+      for (Callable<T> parseTask : parseTasks) {
+        futures.add(executorService.submit(new ContextAwareParseTask<T>(parseTask)));
+      }
+
+      List<T> results = new ArrayList<T>();
+      for (Future<T> future : futures) {
+        results.add(getResult(future));
+      }
+      return results;
+
+    } finally {
+      // does nothing if all tasks completed
+      for (Future<T> future : futures) {
+        future.cancel(true);
+      }
+    }
+  }
+
+  /**
+   * Executes the parse tasks one after another on the current thread.
+   */
+  public static <T> List<T> executeSequentially(List<? extends Callable<T>> parseTasks) {
+    List<T> results = new ArrayList<T>();
+    for (Callable<T> parseTask : parseTasks) {
+      try {
+        results.add(parseTask.call());
+      } catch (RuntimeException e) {
+        throw e;
+      } catch (Exception e) {
+        throw new ProcessEngineException("Could not parse deployment resource", e);
+      }
+    }
+    return results;
+  }
+
+  protected <T> T getResult(Future<T> future) {
+    try {
+      return future.get();
+
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      } else if (cause instanceof Error) {
+        throw (Error) cause;
+      } else {
+        throw new ProcessEngineException("Could not parse deployment resource", cause);
+      }
+
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new ProcessEngineException("Interrupted while waiting for the deployment resources to be parsed", e);
+    }
+  }
+
+  protected synchronized ExecutorService getExecutorService() {
+    if (closed || parallelism <= 1) {
+      return null;
+    }
+    if (executorService == null) {
+      executorService = createExecutorService();
+    }
+    return executorService;
+  }
+
+  protected ExecutorService createExecutorService() {
+    final AtomicInteger threadCount = new AtomicInteger();
+    return Executors.newFixedThreadPool(parallelism, new ThreadFactory() {
+      public Thread newThread(Runnable runnable) {
+        Thread thread = new Thread(runnable, "camunda-deployment-parser-" + threadCount.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+      }
+    });
+  }
+
+  /**
+   * Stops the threads. Resources of later deployments are parsed sequentially.
+   */
+  public synchronized void close() {
+    closed = true;
+
+    if (executorService != null) {
+      executorService.shutdown();
+      try {
+        if (!executorService.awaitTermination(10L, TimeUnit.SECONDS)) {
+          LOG.log(Level.WARNING, "Timed out while waiting for the deployment parser threads to finish");
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      executorService = null;
+    }
+  }
+
+  public int getParallelism() {
+    return parallelism;
+  }
+
+  /**
+   * Executes a parse task with the context of the deploying thread.
+   */
+  protected static class ContextAwareParseTask<T> implements Callable<T> {
+
+    protected final Callable<T> parseTask;
+    protected final ProcessEngineConfigurationImpl processEngineConfiguration;
+    protected final ProcessApplicationReference processApplication;
+    protected final ClassLoader contextClassLoader;
+
+    public ContextAwareParseTask(Callable<T> parseTask) {
+      this.parseTask = parseTask;
+      this.processEngineConfiguration = Context.getProcessEngineConfiguration();
+      this.processApplication = Context.getCurrentProcessApplication();
+      this.contextClassLoader = ClassLoaderUtil.getContextClassloader();
+    }
+
+    public T call() throws Exception {
+      ClassLoader workerClassLoader = ClassLoaderUtil.getContextClassloader();
+      ClassLoaderUtil.setContextClassloader(contextClassLoader);
+      if (processEngineConfiguration != null) {
+        Context.setProcessEngineConfiguration(processEngineConfiguration);
+      }
+      if (processApplication != null) {
+        Context.setCurrentProcessApplication(processApplication);
+      }
+      try {
+        return parseTask.call();
+
+      } finally {
+        if (processApplication != null) {
+          Context.removeCurrentProcessApplication();
+        }
+        if (processEngineConfiguration != null) {
+          Context.removeProcessEngineConfiguration();
+        }
+        ClassLoaderUtil.setContextClassloader(workerClassLoader);
+      }
+    }
+  }
+
+}
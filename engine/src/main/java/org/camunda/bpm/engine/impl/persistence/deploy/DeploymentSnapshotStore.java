@@ -0,0 +1,322 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.persistence.deploy;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+
+import org.camunda.bpm.engine.ProcessEngineException;
+import org.camunda.bpm.engine.impl.util.IoUtil;
+import org.camunda.bpm.engine.impl.util.xml.Element;
+import org.camunda.bpm.engine.impl.util.xml.ElementSerializer;
+
+/**
+ * <p>Keeps snapshots of parsed deployment resources in a directory, so that the
+ * {@link DeploymentCache} does not have to parse the XML of a resource again after
+ * a restart. A snapshot contains the parsed {@link Element} tree of one resource and
+ * is keyed by the deployment id and the resource name.</p>
+ *
+ * <p>A snapshot is only used if it was written in the current format version for the
+ * same deployment, resource name and resource checksum. Otherwise, or if it cannot be
+ * read, the resource is parsed and the snapshot is written again. Snapshots are
+ * written to a temporary file which is then renamed, so that concurrent readers never
+ * see a partially written snapshot.</p>
+ *
+ * <p>Since the snapshot replaces the XML parsing only, schema validation is skipped
+ * for resources restored from a snapshot. The resource was validated when it was
+ * deployed.</p>
+ *
+ * <p>Snapshots are written once the deploying transaction is committed. Deleting a
+ * deployment deletes its snapshots on the process engine which deletes it only, so the
+ * snapshots of deployments which no longer exist are deleted when a process engine
+ * using the directory is built, see {@link #getDeploymentIds()}.</p>
+ */
+public class DeploymentSnapshotStore {
+
+  private static final Logger LOG = Logger.getLogger(DeploymentSnapshotStore.class.getName());
+
+  public static final String FILE_SUFFIX = ".snapshot";
+
+  /** "CAMS" */
+  protected static final int MAGIC_NUMBER = 0x43414D53;
+  protected static final int FORMAT_VERSION = 1;
+
+  protected static final String CHECKSUM_ALGORITHM = "SHA-1";
+
+  protected final File directory;
+
+  public DeploymentSnapshotStore(File directory) {
+    this.directory = directory;
+  }
+
+  /**
+   * @return the parsed root element of the resource or <code>null</code> if there is no
+   * valid snapshot of the resource with the given content
+   */
+  public Element load(String deploymentId, String resourceName, byte[] resourceBytes) {
+    File file = getSnapshotFile(deploymentId, resourceName);
+    if (!file.isFile()) {
+      return null;
+    }
+
+    try {
+      byte[] snapshot = readFile(file);
+      DataInputStream in = new DataInputStream(new ByteArrayInputStream(snapshot));
+
+      if (in.readInt() != MAGIC_NUMBER || in.readInt() != FORMAT_VERSION) {
+        LOG.fine("Ignoring snapshot " + file + " written in a different format");
+        return null;
+      }
+      if (!deploymentId.equals(in.readUTF()) || !resourceName.equals(in.readUTF())) {
+        LOG.fine("Ignoring snapshot " + file + " of a different resource");
+        return null;
+      }
+
+      byte[] checksum = readBytes(in);
+      if (!Arrays.equals(checksum, checksum(resourceBytes))) {
+        LOG.fine("Ignoring outdated snapshot " + file);
+        return null;
+      }
+
+      long crc = in.readLong();
+      byte[] payload = readBytes(in);
+      if (crc != crc(payload)) {
+        LOG.warning("Ignoring corrupted snapshot " + file);
+        return null;
+      }
+
+      return ElementSerializer.readElement(new DataInputStream(new ByteArrayInputStream(payload)));
+
+    } catch (IOException e) {
+      LOG.log(Level.WARNING, "Could not read snapshot " + file, e);
+      return null;
+
+    } catch (ProcessEngineException e) {
+      LOG.log(Level.WARNING, "Could not read snapshot " + file, e);
+      return null;
+    }
+  }
+
+  /**
+   * Writes the snapshot of a parsed resource. A failure is logged only since the
+   * resource can still be parsed.
+   */
+  public void save(String deploymentId, String resourceName, byte[] resourceBytes, Element rootElement) {
+    File file = getSnapshotFile(deploymentId, resourceName);
+    try {
+      ByteArrayOutputStream payload = new ByteArrayOutputStream();
+      DataOutputStream payloadOut = new DataOutputStream(payload);
+      ElementSerializer.writeElement(payloadOut, rootElement);
+      payloadOut.flush();
+      byte[] payloadBytes = payload.toByteArray();
+
+      ByteArrayOutputStream snapshot = new ByteArrayOutputStream(payloadBytes.length + 256);
+      DataOutputStream out = new DataOutputStream(snapshot);
+      out.writeInt(MAGIC_NUMBER);
+      out.writeInt(FORMAT_VERSION);
+      out.writeUTF(deploymentId);
+      out.writeUTF(resourceName);
+      byte[] checksum = checksum(resourceBytes);
+      out.writeInt(checksum.length);
+      out.write(checksum);
+      out.writeLong(crc(payloadBytes));
+      out.writeInt(payloadBytes.length);
+      out.write(payloadBytes);
+      out.flush();
+
+      writeFile(file, snapshot.toByteArray());
+
+    } catch (IOException e) {
+      LOG.log(Level.WARNING, "Could not write snapshot " + file, e);
+    }
+  }
+
+  /**
+   * Deletes the snapshots of all resources of the deployment.
+   */
+  public void delete(String deploymentId) {
+    final String prefix = getFileNamePrefix(deploymentId);
+    File[] files = directory.listFiles(new FilenameFilter() {
+      public boolean accept(File dir, String name) {
+        return name.startsWith(prefix) && name.endsWith(FILE_SUFFIX);
+      }
+    });
+
+    if (files != null) {
+      for (File file : files) {
+        if (!file.delete()) {
+          LOG.warning("Could not delete snapshot " + file);
+        }
+      }
+    }
+  }
+
+  /**
+   * @return the ids of the deployments which have snapshots in the directory
+   */
+  public Set<String> getDeploymentIds() {
+    Set<String> deploymentIds = new HashSet<String>();
+    File[] files = directory.listFiles(new FilenameFilter() {
+      public boolean accept(File dir, String name) {
+        return name.endsWith(FILE_SUFFIX);
+      }
+    });
+
+    if (files != null) {
+      for (File file : files) {
+        String name = file.getName();
+        int prefixEnd = name.indexOf('-');
+        if (prefixEnd > 0) {
+          try {
+            deploymentIds.add(fromBytes(fromHex(name.substring(0, prefixEnd))));
+          } catch (IllegalArgumentException e) {
+            LOG.fine("Ignoring file " + file + " which is not named like a snapshot");
+          }
+        }
+      }
+    }
+    return deploymentIds;
+  }
+
+  public File getDirectory() {
+    return directory;
+  }
+
+  protected File getSnapshotFile(String deploymentId, String resourceName) {
+    // resource names may contain characters which are not allowed in file names
+    return new File(directory, getFileNamePrefix(deploymentId) + toHex(checksum(toBytes(resourceName))) + FILE_SUFFIX);
+  }
+
+  protected String getFileNamePrefix(String deploymentId) {
+    return toHex(toBytes(deploymentId)) + "-";
+  }
+
+  protected byte[] readFile(File file) throws IOException {
+    InputStream in = new FileInputStream(file);
+    try {
+      return IoUtil.readInputStream(in, file.getName());
+    } finally {
+      IoUtil.closeSilently(in);
+    }
+  }
+
+  protected byte[] readBytes(DataInputStream in) throws IOException {
+    int length = in.readInt();
+    // the stream reads from an array, so the number of remaining bytes is exact
+    if (length < 0 || length > in.available()) {
+      throw new IOException("Truncated snapshot");
+    }
+    byte[] bytes = new byte[length];
+    in.readFully(bytes);
+    return bytes;
+  }
+
+  protected void writeFile(File file, byte[] bytes) throws IOException {
+    if (!directory.isDirectory() && !directory.mkdirs() && !directory.isDirectory()) {
+      throw new IOException("Could not create snapshot directory " + directory);
+    }
+
+    File tempFile = File.createTempFile(file.getName(), ".tmp", directory);
+    try {
+      OutputStream out = new FileOutputStream(tempFile);
+      try {
+        out.write(bytes);
+      } finally {
+        out.close();
+      }
+
+      // replaces an existing snapshot on most platforms, otherwise the old one has to go first
+      if (!tempFile.renameTo(file) && !(file.delete() && tempFile.renameTo(file))) {
+        throw new IOException("Could not rename " + tempFile + " to " + file);
+      }
+
+    } finally {
+      if (tempFile.exists()) {
+        tempFile.delete();
+      }
+    }
+  }
+
+  protected byte[] checksum(byte[] bytes) {
+    try {
+      return MessageDigest.getInstance(CHECKSUM_ALGORITHM).digest(bytes);
+    } catch (NoSuchAlgorithmException e) {
+      throw new ProcessEngineException("Checksum algorithm " + CHECKSUM_ALGORITHM + " is not available", e);
+    }
+  }
+
+  protected long crc(byte[] bytes) {
+    CRC32 crc = new CRC32();
+    crc.update(bytes);
+    return crc.getValue();
+  }
+
+  protected byte[] toBytes(String value) {
+    try {
+      return value.getBytes("UTF-8");
+    } catch (IOException e) {
+      throw new ProcessEngineException(e);
+    }
+  }
+
+  protected String fromBytes(byte[] bytes) {
+    try {
+      return new String(bytes, "UTF-8");
+    } catch (IOException e) {
+      throw new ProcessEngineException(e);
+    }
+  }
+
+  protected byte[] fromHex(String hex) {
+    if (hex.length() % 2 != 0) {
+      throw new IllegalArgumentException("Odd number of hex digits in " + hex);
+    }
+    byte[] bytes = new byte[hex.length() / 2];
+    for (int i = 0; i < bytes.length; i++) {
+      int high = Character.digit(hex.charAt(2 * i), 16);
+      int low = Character.digit(hex.charAt(2 * i + 1), 16);
+      if (high < 0 || low < 0) {
+        throw new IllegalArgumentException("Invalid hex digit in " + hex);
+      }
+      bytes[i] = (byte) ((high << 4) + low);
+    }
+    return bytes;
+  }
+
+  protected String toHex(byte[] bytes) {
+    StringBuilder hex = new StringBuilder(bytes.length * 2);
+    for (byte b : bytes) {
+      hex.append(Character.forDigit((b >> 4) & 0xF, 16));
+      hex.append(Character.forDigit(b & 0xF, 16));
+    }
+    return hex.toString();
+  }
+
+}
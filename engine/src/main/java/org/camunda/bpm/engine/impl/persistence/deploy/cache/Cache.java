@@ -0,0 +1,57 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.persistence.deploy.cache;
+
+/**
+ * A cache used by the {@link org.camunda.bpm.engine.impl.persistence.deploy.DeploymentCache}
+ * to hold parsed definitions and model instances.
+ *
+ * <p>Implementations may evict entries at any time. Callers must be prepared
+ * to rebuild an entry on a miss.</p>
+ *
+ * @param <K> the type of the keys
+ * @param <V> the type of the cached values
+ */
+public interface Cache<K, V> {
+
+  /**
+   * @return the value cached for the key or null if no value is cached.
+   */
+  V get(K key);
+
+  void put(K key, V value);
+
+  void remove(K key);
+
+  void clear();
+
+  int size();
+
+  boolean isEmpty();
+
+  /**
+   * @return the number of {@link #get(Object)} invocations which returned a cached value.
+   */
+  long getHitCount();
+
+  /**
+   * @return the number of {@link #get(Object)} invocations which did not find a cached value.
+   */
+  long getMissCount();
+
+  /**
+   * @return the number of entries which were removed from the cache to make room for new entries.
+   */
+  long getEvictionCount();
+
+}
@@ -0,0 +1,33 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.persistence.deploy.cache;
+
+/**
+ * SPI for providing the caches used by the
+ * {@link org.camunda.bpm.engine.impl.persistence.deploy.DeploymentCache}.
+ *
+ * <p>Can be configured using
+ * {@link org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl#setDeploymentCacheProvider(DeploymentCacheProvider)}.</p>
+ */
+public interface DeploymentCacheProvider {
+
+  /**
+   * Creates a new cache.
+   *
+   * @param cacheName the name of the cache, one of the <code>*_CACHE</code> constants
+   *   of {@link org.camunda.bpm.engine.impl.persistence.deploy.DeploymentCache}
+   * @param maxSize the configured maximum number of entries, zero or less if the cache is unbounded
+   */
+  <V> Cache<String, V> createCache(String cacheName, int maxSize);
+
+}
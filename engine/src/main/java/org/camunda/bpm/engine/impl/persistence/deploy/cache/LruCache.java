@@ -0,0 +1,166 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.persistence.deploy.cache;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A thread-safe {@link Cache} which evicts the least recently used entry once it
+ * holds more than the configured maximum number of entries.
+ *
+ * <p>The entries are kept in a {@link ConcurrentHashMap}, so that lookups and
+ * insertions do not lock. A lookup records the time of the access by stamping the
+ * entry with the value of a global counter. Once an insertion exceeds the maximum
+ * size, the entries with the oldest stamps are searched and removed while holding an
+ * eviction lock. Evicting takes time linear in the size of the cache, which is
+ * cheap compared to loading the value of the cache miss which caused it.</p>
+ *
+ * @param <K> the type of the keys
+ * @param <V> the type of the cached values
+ */
+public class LruCache<K, V> implements Cache<K, V> {
+
+  /** a maximum size of zero or less means that the cache is unbounded */
+  public static final int UNBOUNDED = -1;
+
+  protected final int maxSize;
+  protected final ConcurrentMap<K, CacheEntry<V>> entries = new ConcurrentHashMap<K, CacheEntry<V>>();
+
+  protected final AtomicLong accessClock = new AtomicLong();
+  protected final Lock evictionLock = new ReentrantLock();
+
+  protected final AtomicLong hitCount = new AtomicLong();
+  protected final AtomicLong missCount = new AtomicLong();
+  protected final AtomicLong evictionCount = new AtomicLong();
+
+  public LruCache() {
+    this(UNBOUNDED);
+  }
+
+  public LruCache(int maxSize) {
+    this.maxSize = maxSize;
+  }
+
+  public V get(K key) {
+    CacheEntry<V> entry = entries.get(key);
+    if (entry != null) {
+      hitCount.incrementAndGet();
+      if (isBounded()) {
+        entry.lastAccess = accessClock.incrementAndGet();
+      }
+      return entry.value;
+    } else {
+      missCount.incrementAndGet();
+      return null;
+    }
+  }
+
+  public void put(K key, V value) {
+    entries.put(key, new CacheEntry<V>(value, accessClock.incrementAndGet()));
+    if (isBounded() && entries.size() > maxSize) {
+      evict();
+    }
+  }
+
+  /**
+   * Removes the least recently used entries until the cache does not exceed its
+   * maximum size. Entries put or accessed concurrently may or may not be considered.
+   */
+  protected void evict() {
+    evictionLock.lock();
+    try {
+      while (entries.size() > maxSize) {
+        Map.Entry<K, CacheEntry<V>> eldest = null;
+        for (Map.Entry<K, CacheEntry<V>> candidate : entries.entrySet()) {
+          if (eldest == null || candidate.getValue().lastAccess < eldest.getValue().lastAccess) {
+            eldest = candidate;
+          }
+        }
+
+        if (eldest == null) {
+          // cleared concurrently
+          return;
+        }
+        if (entries.remove(eldest.getKey(), eldest.getValue())) {
+          evictionCount.incrementAndGet();
+        }
+      }
+    } finally {
+      evictionLock.unlock();
+    }
+  }
+
+  public void remove(K key) {
+    entries.remove(key);
+  }
+
+  public void clear() {
+    entries.clear();
+  }
+
+  public int size() {
+    return entries.size();
+  }
+
+  public boolean isEmpty() {
+    return entries.isEmpty();
+  }
+
+  public int getMaxSize() {
+    return maxSize;
+  }
+
+  protected boolean isBounded() {
+    return maxSize > 0;
+  }
+
+  public long getHitCount() {
+    return hitCount.get();
+  }
+
+  public long getMissCount() {
+    return missCount.get();
+  }
+
+  public long getEvictionCount() {
+    return evictionCount.get();
+  }
+
+  public String toString() {
+    return "LruCache[size=" + entries.size()
+        + ", maxSize=" + maxSize
+        + ", hits=" + hitCount
+        + ", misses=" + missCount
+        + ", evictions=" + evictionCount + "]";
+  }
+
+  /**
+   * A cached value and the time of its last access.
+   */
+  protected static class CacheEntry<V> {
+
+    protected final V value;
+    protected volatile long lastAccess;
+
+    public CacheEntry(V value, long lastAccess) {
+      this.value = value;
+      this.lastAccess = lastAccess;
+    }
+  }
+
+}
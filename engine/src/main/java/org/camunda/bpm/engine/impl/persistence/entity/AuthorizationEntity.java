@@ -22,6 +22,7 @@ import org.camunda.bpm.engine.authorization.Authorization;
 import org.camunda.bpm.engine.authorization.Permission;
 import org.camunda.bpm.engine.authorization.Permissions;
 import org.camunda.bpm.engine.authorization.Resource;
+import org.camunda.bpm.engine.impl.db.CacheableDbEntity;
 import org.camunda.bpm.engine.impl.db.HasDbRevision;
 import org.camunda.bpm.engine.impl.db.DbEntity;
 
@@ -29,7 +30,7 @@ import org.camunda.bpm.engine.impl.db.DbEntity;
  * @author Daniel Meyer
  *
  */
-public class AuthorizationEntity implements Authorization, DbEntity, HasDbRevision, Serializable {
+public class AuthorizationEntity implements Authorization, DbEntity, HasDbRevision, CacheableDbEntity, Serializable {
 
   private static final long serialVersionUID = 1L;
   
@@ -237,6 +238,19 @@ public class AuthorizationEntity implements Authorization, DbEntity, HasDbRevisi
     return state;
   }
 
+  public AuthorizationEntity copy() {
+    AuthorizationEntity copy = new AuthorizationEntity();
+    copy.id = id;
+    copy.revision = revision;
+    copy.authorizationType = authorizationType;
+    copy.permissions = permissions;
+    copy.userId = userId;
+    copy.groupId = groupId;
+    copy.resourceType = resourceType;
+    copy.resourceId = resourceId;
+    return copy;
+  }
+
   @Override
   public String toString() {
     return this.getClass().getSimpleName()
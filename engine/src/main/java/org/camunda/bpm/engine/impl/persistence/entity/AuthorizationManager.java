@@ -29,10 +29,15 @@ import org.camunda.bpm.engine.authorization.Resource;
 import org.camunda.bpm.engine.impl.AbstractQuery;
 import org.camunda.bpm.engine.impl.AuthorizationQueryImpl;
 import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.cfg.TransactionListener;
+import org.camunda.bpm.engine.impl.cfg.TransactionState;
 import org.camunda.bpm.engine.impl.context.Context;
 import org.camunda.bpm.engine.impl.db.AuthorizationCheck;
+import org.camunda.bpm.engine.impl.db.AuthorizationDecisionCache;
+import org.camunda.bpm.engine.impl.db.AuthorizationDecisionCache.Key;
 import org.camunda.bpm.engine.impl.db.DbEntity;
 import org.camunda.bpm.engine.impl.identity.Authentication;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
 import org.camunda.bpm.engine.impl.persistence.AbstractManager;
 
 /**
@@ -42,6 +47,12 @@ import org.camunda.bpm.engine.impl.persistence.AbstractManager;
 @SuppressWarnings({"unchecked", "rawtypes"})
 public class AuthorizationManager extends AbstractManager {
 
+  /** the decisions made in the current command */
+  protected Map<Key, Boolean> decisions = new HashMap<Key, Boolean>();
+
+  /** true if authorizations were inserted, updated or deleted in the current command */
+  protected boolean isAuthorizationModified = false;
+
   public Authorization createNewAuthorization(int type) {
     checkAuthorization(CREATE, AUTHORIZATION, null);
     return new AuthorizationEntity(type);
@@ -50,6 +61,7 @@ public class AuthorizationManager extends AbstractManager {
   public void insert(DbEntity authorization) {
     checkAuthorization(CREATE, AUTHORIZATION, null);
     getDbEntityManager().insert(authorization);
+    invalidateDecisions();
   }
 
   public List<Authorization> selectAuthorizationByQueryCriteria(AuthorizationQueryImpl authorizationQuery) {
@@ -65,12 +77,14 @@ public class AuthorizationManager extends AbstractManager {
   public void update(AuthorizationEntity authorization) {
     checkAuthorization(UPDATE, AUTHORIZATION, authorization.getId());
     getDbEntityManager().merge(authorization);
+    invalidateDecisions();
   }
 
   public void delete(DbEntity authorization) {
     checkAuthorization(DELETE, AUTHORIZATION, authorization.getId());
     deleteAuthorizationsByResourceId(AUTHORIZATION, authorization.getId());
     super.delete(authorization);
+    invalidateDecisions();
   }
 
   // authorization checks ///////////////////////////////////////////
@@ -80,6 +94,13 @@ public class AuthorizationManager extends AbstractManager {
     final Authentication currentAuthentication = Context.getCommandContext().getAuthentication();
 
     if(processEngineConfiguration.isAuthorizationEnabled() && currentAuthentication != null) {
+
+      if(processEngineConfiguration.isAuthorizationPreResolutionEnabled()
+          && isAuthorizedForAllResources(currentAuthentication.getUserId(), currentAuthentication.getGroupIds(), Permissions.READ, resource)) {
+        // the user may read every resource of the type, no need to check the individual resources
+        return;
+      }
+
       query.setAuthorizationCheckEnabled(true);
       query.setAuthUserId(currentAuthentication.getUserId());
       query.setAuthGroupIds(currentAuthentication.getGroupIds());
@@ -107,6 +128,11 @@ public class AuthorizationManager extends AbstractManager {
 
   public boolean isAuthorized(String userId, List<String> groupIds, Permission permission, Resource resource, String resourceId) {
 
+    Boolean allResourcesDecision = decisions.get(Key.forAllResources(userId, groupIds, resource.resourceType(), permission.getValue()));
+    if(Boolean.TRUE.equals(allResourcesDecision)) {
+      return true;
+    }
+
     AuthorizationCheck authCheck = new AuthorizationCheck();
     authCheck.setAuthUserId(userId);
     authCheck.setAuthGroupIds(groupIds);
@@ -114,7 +140,92 @@ public class AuthorizationManager extends AbstractManager {
     authCheck.setAuthResourceId(resourceId);
     authCheck.setAuthPerms(permission.getValue());
 
-    return getDbEntityManager().selectBoolean("isUserAuthorizedForResource", authCheck);
+    Key key = Key.forResource(userId, groupIds, resource.resourceType(), resourceId, permission.getValue());
+    return getDecision(key, "isUserAuthorizedForResource", authCheck);
+  }
+
+  /**
+   * Checks whether the user is authorized for every resource of the given type. This is the case if
+   * <ul>
+   *   <li>the user has a grant for all resources of the type or</li>
+   *   <li>one of the groups of the user or all users have a grant for all resources of the type
+   *   and neither the user nor one of its groups has a revoke for the type.</li>
+   * </ul>
+   * Other resource specific authorizations cannot change the outcome of an authorization check then.
+   */
+  public boolean isAuthorizedForAllResources(String userId, List<String> groupIds, Permission permission, Resource resource) {
+
+    AuthorizationCheck authCheck = new AuthorizationCheck();
+    authCheck.setAuthUserId(userId);
+    authCheck.setAuthGroupIds(groupIds);
+    authCheck.setAuthResourceType(resource.resourceType());
+    authCheck.setAuthPerms(permission.getValue());
+
+    Key key = Key.forAllResources(userId, groupIds, resource.resourceType(), permission.getValue());
+    return getDecision(key, "isUserAuthorizedForAllResources", authCheck);
+  }
+
+  /**
+   * Returns the decision made earlier in the current command or, if enabled, cached
+   * across commands. Otherwise the decision is selected using the given statement.
+   */
+  protected boolean getDecision(Key key, String statement, AuthorizationCheck authCheck) {
+    Boolean decision = decisions.get(key);
+
+    if(decision == null) {
+      AuthorizationDecisionCache decisionCache = getSharedDecisionCache();
+
+      if(decisionCache != null) {
+        decision = decisionCache.get(key);
+      }
+
+      if(decision == null) {
+        long cacheVersion = decisionCache != null ? decisionCache.getVersion() : 0;
+        decision = getDbEntityManager().selectBoolean(statement, authCheck);
+
+        if(decisionCache != null) {
+          decisionCache.put(key, decision, cacheVersion);
+        }
+      }
+
+      decisions.put(key, decision);
+    }
+
+    return decision;
+  }
+
+  /**
+   * @return the decision cache shared by all commands or null if it is disabled or must not be
+   * used since authorizations were modified in the current command.
+   */
+  protected AuthorizationDecisionCache getSharedDecisionCache() {
+    if(isAuthorizationModified) {
+      return null;
+    }
+    return Context.getProcessEngineConfiguration().getAuthorizationDecisionCache();
+  }
+
+  /**
+   * Discards the decisions made in the current command. The shared decision cache is
+   * invalidated once the modifications are committed.
+   */
+  protected void invalidateDecisions() {
+    decisions.clear();
+
+    if(!isAuthorizationModified) {
+      isAuthorizationModified = true;
+
+      final AuthorizationDecisionCache decisionCache = Context.getProcessEngineConfiguration().getAuthorizationDecisionCache();
+      if(decisionCache != null) {
+        Context.getCommandContext()
+          .getTransactionContext()
+          .addTransactionListener(TransactionState.COMMITTED, new TransactionListener() {
+            public void execute(CommandContext commandContext) {
+              decisionCache.invalidate();
+            }
+          });
+      }
+    }
   }
 
   public boolean isAuthorized(Permission permission, Resource resource, String resourceId) {
@@ -143,6 +254,7 @@ public class AuthorizationManager extends AbstractManager {
       deleteParams.put("resourceType", resource.resourceType());
       deleteParams.put("resourceId", resourceId);
       getDbEntityManager().delete(AuthorizationEntity.class, "deleteAuthorizationsForResourceId", deleteParams);
+      invalidateDecisions();
     }
 
   }
@@ -12,10 +12,15 @@
  */
 package org.camunda.bpm.engine.impl.persistence.entity;
 
+import java.io.InputStream;
 import java.io.Serializable;
 
+import org.camunda.bpm.engine.ProcessEngineException;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.context.Context;
 import org.camunda.bpm.engine.impl.db.HasDbRevision;
 import org.camunda.bpm.engine.impl.db.DbEntity;
+import org.camunda.bpm.engine.impl.persistence.entity.util.ByteArrayCodec;
 
 /**
  * @author Tom Baeyens
@@ -32,6 +37,15 @@ public class ByteArrayEntity implements Serializable, DbEntity, HasDbRevision {
   protected byte[] bytes;
   protected String deploymentId;
 
+  /** the bytes as they are stored in the database, see {@link ByteArrayCodec} */
+  protected byte[] persistentBytes;
+  /** the encoding of the persistent bytes or null if they equal the bytes */
+  protected String encoding;
+  /** true if the persistent bytes and the encoding reflect the current bytes */
+  protected boolean isEncoded = false;
+  /** content of a new byte array which is read by the driver when inserting it, see {@link #setContentStream(InputStream)} */
+  protected transient InputStream contentStream;
+
   public ByteArrayEntity() {
   }
 
@@ -56,6 +70,75 @@ public class ByteArrayEntity implements Serializable, DbEntity, HasDbRevision {
     return revision+1;
   }
 
+  /**
+   * @return the bytes as they are stored in the database, see {@link ByteArrayCodec}
+   */
+  public byte[] getPersistentBytes() {
+    ensureEncoded();
+    return persistentBytes;
+  }
+
+  public void setPersistentBytes(byte[] persistentBytes) {
+    this.persistentBytes = persistentBytes;
+    this.isEncoded = true;
+    decodePersistentBytes();
+  }
+
+  /**
+   * @return the encoding of the bytes stored in the database or null if they are
+   *   stored unchanged
+   */
+  public String getEncoding() {
+    ensureEncoded();
+    return encoding;
+  }
+
+  public void setEncoding(String encoding) {
+    this.encoding = encoding;
+    this.isEncoded = true;
+    decodePersistentBytes();
+  }
+
+  protected void ensureEncoded() {
+    if (!isEncoded) {
+      ByteArrayCodec codec = getByteArrayCodec();
+      byte[] encodedBytes = codec != null ? codec.encode(bytes) : null;
+
+      if (encodedBytes != null) {
+        persistentBytes = encodedBytes;
+        encoding = codec.getEncoding();
+      } else {
+        persistentBytes = bytes;
+        encoding = null;
+      }
+      isEncoded = true;
+    }
+  }
+
+  /**
+   * Called when the persistent bytes or their encoding are read from the database.
+   * The order in which both are set is not defined, so this is invoked for each.
+   */
+  protected void decodePersistentBytes() {
+    if (persistentBytes == null || encoding == null) {
+      bytes = persistentBytes;
+
+    } else {
+      ByteArrayCodec codec = getByteArrayCodec();
+      if (codec == null || !encoding.equals(codec.getEncoding())) {
+        throw new ProcessEngineException("Cannot decode byte array '" + id + "' with encoding '" + encoding
+            + "' using byte array codec " + codec);
+      }
+      bytes = codec.decode(persistentBytes);
+
+    }
+  }
+
+  protected ByteArrayCodec getByteArrayCodec() {
+    ProcessEngineConfigurationImpl processEngineConfiguration = Context.getProcessEngineConfiguration();
+    return processEngineConfiguration != null ? processEngineConfiguration.getByteArrayCodec() : null;
+  }
+
   // getters and setters //////////////////////////////////////////////////////
 
   public String getId() {
@@ -84,6 +167,25 @@ public class ByteArrayEntity implements Serializable, DbEntity, HasDbRevision {
 
   public void setBytes(byte[] bytes) {
     this.bytes = bytes;
+    this.contentStream = null;
+    this.isEncoded = false;
+  }
+
+  public InputStream getContentStream() {
+    return contentStream;
+  }
+
+  /**
+   * Sets the content of a byte array which has not been inserted yet as a stream.
+   * The stream is consumed by the database driver when the entity is inserted and
+   * its content is stored without encoding it. The bytes of the entity remain null.
+   */
+  public void setContentStream(InputStream contentStream) {
+    this.contentStream = contentStream;
+    this.bytes = null;
+    this.persistentBytes = null;
+    this.encoding = null;
+    this.isEncoded = true;
   }
 
   public int getRevision() {
@@ -13,7 +13,14 @@
 
 package org.camunda.bpm.engine.impl.persistence.entity;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+
+import org.camunda.bpm.engine.ProcessEngineException;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.context.Context;
 import org.camunda.bpm.engine.impl.persistence.AbstractManager;
+import org.camunda.bpm.engine.impl.persistence.entity.util.LazyByteArrayInputStream;
 
 /**
  * @author Joram Barrez
@@ -30,4 +37,31 @@ public class ByteArrayManager extends AbstractManager {
     getDbEntityManager().delete(ByteArrayEntity.class, "deleteByteArrayNoRevisionCheck", byteArrayEntityId);
   }
 
+  /**
+   * Returns a stream on the bytes of the {@link ByteArrayEntity} with the given id. If the entity
+   * is present in the entity cache, its bytes are returned from memory. Otherwise the bytes are
+   * read from the database while the stream is consumed, see {@link LazyByteArrayInputStream}.
+   */
+  public InputStream openByteArrayStream(String byteArrayEntityId) {
+    ByteArrayEntity cachedByteArray = getDbEntityManager().getCachedEntity(ByteArrayEntity.class, byteArrayEntityId);
+
+    if (cachedByteArray != null) {
+      if (cachedByteArray.getContentStream() != null) {
+        throw new ProcessEngineException("Cannot read byte array '" + byteArrayEntityId
+            + "' before the command which set its content from a stream has completed");
+      }
+      // the bytes are already in memory or were modified in the current transaction
+      byte[] bytes = cachedByteArray.getBytes();
+      return new ByteArrayInputStream(bytes != null ? bytes : new byte[0]);
+
+    } else {
+      ProcessEngineConfigurationImpl processEngineConfiguration = Context.getProcessEngineConfiguration();
+      return new LazyByteArrayInputStream(processEngineConfiguration.getDataSource(),
+          processEngineConfiguration.getDatabaseTablePrefix(),
+          byteArrayEntityId,
+          processEngineConfiguration.getByteArrayCodec());
+
+    }
+  }
+
 }
@@ -19,6 +19,7 @@ import java.util.HashMap;
 
 import org.camunda.bpm.engine.ProcessEngineException;
 import org.camunda.bpm.engine.impl.context.Context;
+import org.camunda.bpm.engine.impl.db.HasDbModificationTracking;
 import org.camunda.bpm.engine.impl.db.HasDbRevision;
 import org.camunda.bpm.engine.impl.db.DbEntity;
 import org.camunda.bpm.engine.impl.event.EventHandler;
@@ -27,6 +28,7 @@ import org.camunda.bpm.engine.impl.jobexecutor.ProcessEventJobHandler;
 import org.camunda.bpm.engine.impl.pvm.process.ActivityImpl;
 import org.camunda.bpm.engine.impl.pvm.process.ProcessDefinitionImpl;
 import org.camunda.bpm.engine.impl.util.ClockUtil;
+import org.camunda.bpm.engine.impl.util.CompareUtil;
 import org.camunda.bpm.engine.runtime.EventSubscription;
 
 import static org.camunda.bpm.engine.impl.util.EnsureUtil.ensureNotNull;
@@ -34,7 +36,7 @@ import static org.camunda.bpm.engine.impl.util.EnsureUtil.ensureNotNull;
 /**
  * @author Daniel Meyer
  */
-public abstract class EventSubscriptionEntity implements EventSubscription, DbEntity, HasDbRevision, Serializable {
+public abstract class EventSubscriptionEntity implements EventSubscription, DbEntity, HasDbRevision, HasDbModificationTracking, Serializable {
 
   private static final long serialVersionUID = 1L;
   
@@ -52,6 +54,10 @@ public abstract class EventSubscriptionEntity implements EventSubscription, DbEn
   // runtime state /////////////////////////////
   protected ExecutionEntity execution;
   protected ActivityImpl activity;  
+
+  protected transient boolean isPersistentStateTracked = false;
+  protected transient String persistedExecutionId;
+  protected transient String persistedConfiguration;
   
   /////////////////////////////////////////////
   
@@ -138,6 +144,18 @@ public abstract class EventSubscriptionEntity implements EventSubscription, DbEn
     persistentState.put("configuration", configuration);
     return persistentState;
   }
+
+  public boolean isModified() {
+    return !isPersistentStateTracked
+        || !CompareUtil.areEqual(executionId, persistedExecutionId)
+        || !CompareUtil.areEqual(configuration, persistedConfiguration);
+  }
+
+  public void resetModified() {
+    isPersistentStateTracked = true;
+    persistedExecutionId = executionId;
+    persistedConfiguration = configuration;
+  }
   
   // getters & setters ////////////////////////////
     
@@ -125,6 +125,11 @@ public class EventSubscriptionManager extends AbstractManager {
     return getDbEntityManager().selectList(query, executionId);
   }
   
+  public List<EventSubscriptionEntity> findEventSubscriptionsByProcessInstanceId(String processInstanceId) {
+    final String query = "selectEventSubscriptionsByProcessInstanceId";
+    return getDbEntityManager().selectList(query, processInstanceId);
+  }
+
   public List<EventSubscriptionEntity> findEventSubscriptions(String executionId, String type, String activityId) {
     final String query = "selectEventSubscriptionsByExecutionTypeAndActivity";    
     Map<String,String> params = new HashMap<String, String>();
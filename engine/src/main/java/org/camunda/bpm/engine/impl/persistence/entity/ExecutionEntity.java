@@ -15,9 +15,11 @@ package org.camunda.bpm.engine.impl.persistence.entity;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -37,6 +39,7 @@ import org.camunda.bpm.engine.impl.core.operation.CoreAtomicOperation;
 import org.camunda.bpm.engine.impl.core.variable.CoreVariableInstance;
 import org.camunda.bpm.engine.impl.core.variable.scope.CoreVariableStore;
 import org.camunda.bpm.engine.impl.db.DbEntity;
+import org.camunda.bpm.engine.impl.db.HasDbModificationTracking;
 import org.camunda.bpm.engine.impl.db.HasDbReferences;
 import org.camunda.bpm.engine.impl.db.HasDbRevision;
 import org.camunda.bpm.engine.impl.db.entitymanager.DbEntityManager;
@@ -63,6 +66,7 @@ import org.camunda.bpm.engine.impl.pvm.runtime.PvmExecutionImpl;
 import org.camunda.bpm.engine.impl.pvm.runtime.operation.FoxAtomicOperationDeleteCascadeFireActivityEnd;
 import org.camunda.bpm.engine.impl.pvm.runtime.operation.PvmAtomicOperation;
 import org.camunda.bpm.engine.impl.util.BitMaskUtil;
+import org.camunda.bpm.engine.impl.util.CompareUtil;
 import org.camunda.bpm.engine.impl.variable.VariableDeclaration;
 import org.camunda.bpm.engine.runtime.Execution;
 import org.camunda.bpm.engine.runtime.Job;
@@ -85,7 +89,8 @@ public class ExecutionEntity extends PvmExecutionImpl implements
       ProcessInstance,
       DbEntity,
       HasDbRevision,
-      HasDbReferences {
+      HasDbReferences,
+      HasDbModificationTracking {
 
   private static final long serialVersionUID = 1L;
 
@@ -139,6 +144,22 @@ public class ExecutionEntity extends PvmExecutionImpl implements
 
   protected transient ExecutionEntityVariableStore variableStore = new ExecutionEntityVariableStore(this);
 
+  protected transient boolean isPersistentStateTracked = false;
+  protected transient String persistedProcessDefinitionId;
+  protected transient String persistedBusinessKey;
+  protected transient String persistedActivityId;
+  protected transient String persistedActivityInstanceId;
+  protected transient boolean persistedIsActive;
+  protected transient boolean persistedIsConcurrent;
+  protected transient boolean persistedIsScope;
+  protected transient boolean persistedIsEventScope;
+  protected transient String persistedParentId;
+  protected transient String persistedSuperExecutionId;
+  protected transient String persistedSuperCaseExecutionId;
+  protected transient String persistedCaseInstanceId;
+  protected transient int persistedSuspensionState;
+  protected transient int persistedCachedEntityState;
+
   // replaced by //////////////////////////////////////////////////////////////
 
   /** when execution structure is pruned during a takeAll, then
@@ -509,6 +530,25 @@ public class ExecutionEntity extends PvmExecutionImpl implements
       .performOperation(executionOperation, this);
   }
 
+  /**
+   * Queues the operation in the {@link CommandContext}, which performs it once the
+   * currently executed operation returned instead of nesting the invocations.
+   */
+  @Override
+  public void continueOperation(PvmAtomicOperation operation) {
+    if(operation.isAsync(this)) {
+      scheduleAtomicOperationAsync(operation);
+    } else {
+      if (requiresUnsuspendedExecution(operation)) {
+        ensureNotSuspended();
+      }
+
+      Context
+        .getCommandContext()
+        .performContinuation(operation, this);
+    }
+  }
+
   protected void ensureNotSuspended() {
     if (isSuspended()) {
       throw new SuspendedEntityInteractionException("Execution " + id + " is suspended.");
@@ -1123,6 +1163,109 @@ public class ExecutionEntity extends PvmExecutionImpl implements
         execution.processInstance = execution;
       }
     }
+
+    if(isExecutionTreeRelationsPrefetchEnabled()) {
+      prefetchExecutionTreeRelations(executionMap);
+    }
+  }
+
+  /**
+   * @return true if the relations of the executions are fetched together with the execution tree
+   */
+  protected boolean isExecutionTreeRelationsPrefetchEnabled() {
+    return Context.getProcessEngineConfiguration()
+      .isExecutionTreeRelationsPrefetchEnabled();
+  }
+
+  /**
+   * Fetches the variables, event subscriptions, jobs and tasks of all executions of the
+   * process instance with one query per relation and initializes the relations of the
+   * given executions which are not initialized yet. A relation is only queried if at
+   * least one execution may have related entities (see {@link #setCachedEntityState(int)}).
+   */
+  protected void prefetchExecutionTreeRelations(Map<String, ExecutionEntity> executionMap) {
+    CommandContext commandContext = Context.getCommandContext();
+
+    Map<String, ExecutionEntity> withoutVariables = new HashMap<String, ExecutionEntity>();
+    Map<String, ExecutionEntity> withoutEventSubscriptions = new HashMap<String, ExecutionEntity>();
+    Map<String, ExecutionEntity> withoutJobs = new HashMap<String, ExecutionEntity>();
+    Map<String, ExecutionEntity> withoutTasks = new HashMap<String, ExecutionEntity>();
+
+    for (ExecutionEntity execution : executionMap.values()) {
+      if(execution.variableStore.getVariableInstancesWithoutInitialization() == null) {
+        withoutVariables.put(execution.getId(), execution);
+      }
+      if(execution.eventSubscriptions == null) {
+        withoutEventSubscriptions.put(execution.getId(), execution);
+      }
+      if(execution.jobs == null) {
+        withoutJobs.put(execution.getId(), execution);
+      }
+      if(execution.tasks == null) {
+        withoutTasks.put(execution.getId(), execution);
+      }
+    }
+
+    if(!withoutVariables.isEmpty()) {
+      for (ExecutionEntity execution : withoutVariables.values()) {
+        execution.variableStore.setVariableInstances(new HashMap<String, VariableInstanceEntity>());
+      }
+      List<VariableInstanceEntity> variableInstances = commandContext
+        .getVariableInstanceManager()
+        .findVariableInstancesByProcessInstanceId(processInstanceId);
+      for (VariableInstanceEntity variableInstance : variableInstances) {
+        ExecutionEntity execution = withoutVariables.get(variableInstance.getExecutionId());
+        if(execution != null) {
+          execution.variableStore.getVariableInstancesWithoutInitialization()
+            .put(variableInstance.getName(), variableInstance);
+        }
+      }
+    }
+
+    if(!withoutEventSubscriptions.isEmpty()) {
+      for (ExecutionEntity execution : withoutEventSubscriptions.values()) {
+        execution.eventSubscriptions = new ArrayList<EventSubscriptionEntity>();
+      }
+      List<EventSubscriptionEntity> eventSubscriptions = commandContext
+        .getEventSubscriptionManager()
+        .findEventSubscriptionsByProcessInstanceId(processInstanceId);
+      for (EventSubscriptionEntity eventSubscription : eventSubscriptions) {
+        ExecutionEntity execution = withoutEventSubscriptions.get(eventSubscription.getExecutionId());
+        if(execution != null) {
+          execution.eventSubscriptions.add(eventSubscription);
+        }
+      }
+    }
+
+    if(!withoutJobs.isEmpty()) {
+      for (ExecutionEntity execution : withoutJobs.values()) {
+        execution.jobs = new ArrayList<JobEntity>();
+      }
+      List<JobEntity> jobs = commandContext
+        .getJobManager()
+        .findJobsByProcessInstanceId(processInstanceId);
+      for (JobEntity job : jobs) {
+        ExecutionEntity execution = withoutJobs.get(job.getExecutionId());
+        if(execution != null) {
+          execution.jobs.add(job);
+        }
+      }
+    }
+
+    if(!withoutTasks.isEmpty()) {
+      for (ExecutionEntity execution : withoutTasks.values()) {
+        execution.tasks = new ArrayList<TaskEntity>();
+      }
+      List<TaskEntity> tasks = commandContext
+        .getTaskManager()
+        .findTasksByProcessInstanceId(processInstanceId);
+      for (TaskEntity task : tasks) {
+        ExecutionEntity execution = withoutTasks.get(task.getExecutionId());
+        if(execution != null) {
+          execution.tasks.add(task);
+        }
+      }
+    }
   }
 
   // persistent state /////////////////////////////////////////////////////////
@@ -1146,6 +1289,42 @@ public class ExecutionEntity extends PvmExecutionImpl implements
     return persistentState;
   }
 
+  public boolean isModified() {
+    return !isPersistentStateTracked
+        || isActive != persistedIsActive
+        || isConcurrent != persistedIsConcurrent
+        || isScope != persistedIsScope
+        || isEventScope != persistedIsEventScope
+        || suspensionState != persistedSuspensionState
+        || !CompareUtil.areEqual(activityId, persistedActivityId)
+        || !CompareUtil.areEqual(activityInstanceId, persistedActivityInstanceId)
+        || !CompareUtil.areEqual(parentId, persistedParentId)
+        || !CompareUtil.areEqual(processDefinitionId, persistedProcessDefinitionId)
+        || !CompareUtil.areEqual(businessKey, persistedBusinessKey)
+        || !CompareUtil.areEqual(superExecutionId, persistedSuperExecutionId)
+        || !CompareUtil.areEqual(superCaseExecutionId, persistedSuperCaseExecutionId)
+        || !CompareUtil.areEqual(caseInstanceId, persistedCaseInstanceId)
+        || getCachedEntityState() != persistedCachedEntityState;
+  }
+
+  public void resetModified() {
+    isPersistentStateTracked = true;
+    persistedProcessDefinitionId = processDefinitionId;
+    persistedBusinessKey = businessKey;
+    persistedActivityId = activityId;
+    persistedActivityInstanceId = activityInstanceId;
+    persistedIsActive = isActive;
+    persistedIsConcurrent = isConcurrent;
+    persistedIsScope = isScope;
+    persistedIsEventScope = isEventScope;
+    persistedParentId = parentId;
+    persistedSuperExecutionId = superExecutionId;
+    persistedSuperCaseExecutionId = superCaseExecutionId;
+    persistedCaseInstanceId = caseInstanceId;
+    persistedSuspensionState = suspensionState;
+    persistedCachedEntityState = getCachedEntityState();
+  }
+
   public void insert() {
     Context
       .getCommandContext()
@@ -1443,6 +1622,19 @@ public class ExecutionEntity extends PvmExecutionImpl implements
     return false;
   }
 
+  public Set<String> getReferencedEntityIds() {
+    Set<String> referencedEntityIds = new HashSet<String>();
+
+    if(parentId != null) {
+      referencedEntityIds.add(parentId);
+    }
+    if(superExecutionId != null) {
+      referencedEntityIds.add(superExecutionId);
+    }
+
+    return referencedEntityIds;
+  }
+
   public int getSuspensionState() {
     return suspensionState;
   }
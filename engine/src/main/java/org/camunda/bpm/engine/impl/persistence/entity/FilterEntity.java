@@ -26,6 +26,7 @@ import org.camunda.bpm.engine.ProcessEngineException;
 import org.camunda.bpm.engine.exception.NotValidException;
 import org.camunda.bpm.engine.filter.Filter;
 import org.camunda.bpm.engine.impl.AbstractQuery;
+import org.camunda.bpm.engine.impl.db.CacheableDbEntity;
 import org.camunda.bpm.engine.impl.db.DbEntity;
 import org.camunda.bpm.engine.impl.db.HasDbRevision;
 import org.camunda.bpm.engine.impl.json.JsonObjectConverter;
@@ -37,7 +38,7 @@ import org.camunda.bpm.engine.query.Query;
 /**
  * @author Sebastian Menski
  */
-public class FilterEntity implements Filter, Serializable, DbEntity, HasDbRevision {
+public class FilterEntity implements Filter, Serializable, DbEntity, HasDbRevision, CacheableDbEntity {
 
   private static final long serialVersionUID = 1L;
 
@@ -208,4 +209,18 @@ public class FilterEntity implements Filter, Serializable, DbEntity, HasDbRevisi
     return copy;
   }
 
+  public FilterEntity copy() {
+    FilterEntity copy = new FilterEntity();
+    copy.id = id;
+    copy.revision = revision;
+    copy.resourceType = resourceType;
+    copy.name = name;
+    copy.owner = owner;
+    copy.setQueryInternal(getQueryInternal());
+    if (properties != null) {
+      copy.setPropertiesInternal(getPropertiesInternal());
+    }
+    return copy;
+  }
+
 }
@@ -17,6 +17,7 @@ import java.util.HashMap;
 import java.util.Map;
 
 import org.camunda.bpm.engine.identity.Group;
+import org.camunda.bpm.engine.impl.db.CacheableDbEntity;
 import org.camunda.bpm.engine.impl.db.HasDbRevision;
 import org.camunda.bpm.engine.impl.db.DbEntity;
 
@@ -24,7 +25,7 @@ import org.camunda.bpm.engine.impl.db.DbEntity;
 /**
  * @author Tom Baeyens
  */
-public class GroupEntity implements Group, Serializable, DbEntity, HasDbRevision {
+public class GroupEntity implements Group, Serializable, DbEntity, HasDbRevision, CacheableDbEntity {
 
   private static final long serialVersionUID = 1L;
 
@@ -51,6 +52,14 @@ public class GroupEntity implements Group, Serializable, DbEntity, HasDbRevision
     return revision+1;
   }
 
+  public GroupEntity copy() {
+    GroupEntity copy = new GroupEntity(id);
+    copy.revision = revision;
+    copy.name = name;
+    copy.type = type;
+    return copy;
+  }
+
   public String getId() {
     return id;
   }
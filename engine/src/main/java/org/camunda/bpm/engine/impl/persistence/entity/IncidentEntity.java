@@ -14,6 +14,7 @@ package org.camunda.bpm.engine.impl.persistence.entity;
 
 import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
 import org.camunda.bpm.engine.impl.context.Context;
+import org.camunda.bpm.engine.impl.db.HasDbModificationTracking;
 import org.camunda.bpm.engine.impl.db.HasDbReferences;
 import org.camunda.bpm.engine.impl.db.HasDbRevision;
 import org.camunda.bpm.engine.impl.db.DbEntity;
@@ -24,6 +25,7 @@ import org.camunda.bpm.engine.impl.history.event.HistoryEventTypes;
 import org.camunda.bpm.engine.impl.history.handler.HistoryEventHandler;
 import org.camunda.bpm.engine.impl.history.producer.HistoryEventProducer;
 import org.camunda.bpm.engine.impl.util.ClockUtil;
+import org.camunda.bpm.engine.impl.util.CompareUtil;
 import org.camunda.bpm.engine.runtime.Incident;
 
 import java.util.*;
@@ -31,7 +33,7 @@ import java.util.*;
 /**
  * @author roman.smirnov
  */
-public class IncidentEntity implements Incident, DbEntity, HasDbRevision, HasDbReferences {
+public class IncidentEntity implements Incident, DbEntity, HasDbRevision, HasDbReferences, HasDbModificationTracking {
 
   protected int revision;
 
@@ -47,6 +49,10 @@ public class IncidentEntity implements Incident, DbEntity, HasDbRevision, HasDbR
   protected String configuration;
   protected String incidentMessage;
 
+  protected transient boolean isPersistentStateTracked = false;
+  protected transient String persistedExecutionId;
+  protected transient String persistedProcessDefinitionId;
+
   public List<IncidentEntity> createRecursiveIncidents() {
     List<IncidentEntity> createdIncidents = new ArrayList<IncidentEntity>();
     createRecursiveIncidents(id, createdIncidents);
@@ -242,6 +248,16 @@ public class IncidentEntity implements Incident, DbEntity, HasDbRevision, HasDbR
     return false;
   }
 
+  public Set<String> getReferencedEntityIds() {
+    Set<String> referencedEntityIds = new HashSet<String>();
+
+    if(causeIncidentId != null) {
+      referencedEntityIds.add(causeIncidentId);
+    }
+
+    return referencedEntityIds;
+  }
+
   public String getId() {
     return id;
   }
@@ -355,6 +371,18 @@ public class IncidentEntity implements Incident, DbEntity, HasDbRevision, HasDbR
     return persistentState;
   }
 
+  public boolean isModified() {
+    return !isPersistentStateTracked
+        || !CompareUtil.areEqual(executionId, persistedExecutionId)
+        || !CompareUtil.areEqual(processDefinitionId, persistedProcessDefinitionId);
+  }
+
+  public void resetModified() {
+    isPersistentStateTracked = true;
+    persistedExecutionId = executionId;
+    persistedProcessDefinitionId = processDefinitionId;
+  }
+
   public void setRevision(int revision) {
     this.revision = revision;
   }
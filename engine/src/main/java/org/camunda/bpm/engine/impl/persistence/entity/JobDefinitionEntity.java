@@ -15,6 +15,7 @@ package org.camunda.bpm.engine.impl.persistence.entity;
 import java.io.Serializable;
 import java.util.HashMap;
 
+import org.camunda.bpm.engine.impl.db.CacheableDbEntity;
 import org.camunda.bpm.engine.impl.db.HasDbRevision;
 import org.camunda.bpm.engine.impl.db.DbEntity;
 import org.camunda.bpm.engine.impl.jobexecutor.JobDeclaration;
@@ -25,7 +26,7 @@ import org.camunda.bpm.engine.management.JobDefinition;
  * @author Daniel Meyer
  *
  */
-public class JobDefinitionEntity implements JobDefinition, HasDbRevision, DbEntity, Serializable {
+public class JobDefinitionEntity implements JobDefinition, HasDbRevision, DbEntity, CacheableDbEntity, Serializable {
 
   private static final long serialVersionUID = 1L;
 
@@ -54,6 +55,9 @@ public class JobDefinitionEntity implements JobDefinition, HasDbRevision, DbEnti
   // job definition is active by default
   protected int suspensionState = SuspensionState.ACTIVE.getStateCode();
 
+  /** the priority of jobs created from this definition, null for the default priority */
+  protected Long jobPriority;
+
   public JobDefinitionEntity() {
   }
 
@@ -71,9 +75,24 @@ public class JobDefinitionEntity implements JobDefinition, HasDbRevision, DbEnti
     state.put("jobType", jobType);
     state.put("jobConfiguration", jobConfiguration);
     state.put("suspensionState", suspensionState);
+    state.put("jobPriority", jobPriority);
     return state;
   }
 
+  public JobDefinitionEntity copy() {
+    JobDefinitionEntity copy = new JobDefinitionEntity();
+    copy.id = id;
+    copy.revision = revision;
+    copy.processDefinitionId = processDefinitionId;
+    copy.processDefinitionKey = processDefinitionKey;
+    copy.activityId = activityId;
+    copy.jobType = jobType;
+    copy.jobConfiguration = jobConfiguration;
+    copy.suspensionState = suspensionState;
+    copy.jobPriority = jobPriority;
+    return copy;
+  }
+
   // getters / setters /////////////////////////////////
 
   public int getRevisionNext() {
@@ -154,4 +173,12 @@ public class JobDefinitionEntity implements JobDefinition, HasDbRevision, DbEnti
     this.suspensionState = state;
   }
 
+  public Long getJobPriority() {
+    return jobPriority;
+  }
+
+  public void setJobPriority(Long jobPriority) {
+    this.jobPriority = jobPriority;
+  }
+
 }
@@ -51,6 +51,7 @@ public abstract class JobEntity implements Serializable, Job, DbEntity, HasDbRev
 
   public static final boolean DEFAULT_EXCLUSIVE = true;
   public static final int DEFAULT_RETRIES = 3;
+  public static final long DEFAULT_PRIORITY = 0;
 
   /**
    * Note: {@link String#length()} counts Unicode supplementary
@@ -94,6 +95,8 @@ public abstract class JobEntity implements Serializable, Job, DbEntity, HasDbRev
 
   protected String jobDefinitionId;
 
+  protected long priority = DEFAULT_PRIORITY;
+
 
   public void execute(CommandContext commandContext) {
     ExecutionEntity execution = null;
@@ -163,6 +166,7 @@ public abstract class JobEntity implements Serializable, Job, DbEntity, HasDbRev
     persistentState.put("jobDefinitionId", jobDefinitionId);
     persistentState.put("deploymentId", deploymentId);
     persistentState.put("jobHandlerConfiguration", jobHandlerConfiguration);
+    persistentState.put("priority", priority);
     if(exceptionByteArrayId != null) {
       persistentState.put("exceptionByteArrayId", exceptionByteArrayId);
     }
@@ -412,6 +416,14 @@ public abstract class JobEntity implements Serializable, Job, DbEntity, HasDbRev
     this.jobDefinitionId = jobDefinitionId;
   }
 
+  public long getPriority() {
+    return priority;
+  }
+
+  public void setPriority(long priority) {
+    this.priority = priority;
+  }
+
   public void setExceptionMessage(String exceptionMessage) {
     if(exceptionMessage != null && exceptionMessage.length() > MAX_EXCEPTION_MESSAGE_LENGTH) {
       this.exceptionMessage = exceptionMessage.substring(0, MAX_EXCEPTION_MESSAGE_LENGTH);
@@ -490,6 +502,7 @@ public abstract class JobEntity implements Serializable, Job, DbEntity, HasDbRev
            + ", isExclusive=" + isExclusive
            + ", isExclusive=" + isExclusive
            + ", jobDefinitionId=" + jobDefinitionId
+           + ", priority=" + priority
            + ", jobHandlerType=" + jobHandlerType
            + ", jobHandlerConfiguration=" + jobHandlerConfiguration
            + ", exceptionByteArray=" + exceptionByteArray
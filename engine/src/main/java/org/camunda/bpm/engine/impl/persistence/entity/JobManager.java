@@ -17,6 +17,7 @@ import static org.camunda.bpm.engine.impl.jobexecutor.TimerEventJobHandler.JOB_H
 import static org.camunda.bpm.engine.impl.jobexecutor.TimerEventJobHandler.JOB_HANDLER_CONFIG_PROPERTY_FOLLOW_UP_JOB_CREATED;
 import static org.camunda.bpm.engine.impl.util.EnsureUtil.ensureNotNull;
 
+import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
@@ -25,9 +26,12 @@ import java.util.Set;
 
 import org.camunda.bpm.engine.impl.JobQueryImpl;
 import org.camunda.bpm.engine.impl.Page;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
 import org.camunda.bpm.engine.impl.cfg.TransactionListener;
 import org.camunda.bpm.engine.impl.cfg.TransactionState;
 import org.camunda.bpm.engine.impl.context.Context;
+import org.camunda.bpm.engine.impl.db.ListQueryParameterObject;
+import org.camunda.bpm.engine.impl.db.entitymanager.operation.DbBulkOperation;
 import org.camunda.bpm.engine.impl.jobexecutor.ExclusiveJobAddedNotification;
 import org.camunda.bpm.engine.impl.jobexecutor.JobExecutor;
 import org.camunda.bpm.engine.impl.jobexecutor.JobExecutorContext;
@@ -47,6 +51,12 @@ import org.camunda.bpm.engine.runtime.Job;
  */
 public class JobManager extends AbstractManager {
 
+  /** jobs with a higher priority are acquired first, jobs of the same priority by due date */
+  public static final String JOB_ACQUISITION_ORDER_BY = "RES.PRIORITY_ desc, RES.DUEDATE_ asc";
+
+  /** locks a set of jobs of the same revision in a single statement */
+  public static final String LOCK_JOBS_STATEMENT = "updateJobLocksByParameters";
+
   public void send(MessageEntity message) {
     message.insert();
     if (Context.getProcessEngineConfiguration().isHintJobExecutor()) {
@@ -108,19 +118,43 @@ public class JobManager extends AbstractManager {
     return (JobEntity) getDbEntityManager().selectOne("selectJob", jobId);
   }
 
-  @SuppressWarnings("unchecked")
   public List<JobEntity> findNextJobsToExecute(Page page) {
+    return findNextJobsToExecute(page, null, null);
+  }
+
+  /**
+   * Selects the next jobs to be acquired by the job executor.
+   *
+   * @param page the maximum number of jobs to select
+   * @param priorityMin if not null, only jobs with a priority greater than or equal to this value are selected
+   * @param priorityMax if not null, only jobs with a priority lower than or equal to this value are selected
+   */
+  @SuppressWarnings("unchecked")
+  public List<JobEntity> findNextJobsToExecute(Page page, Long priorityMin, Long priorityMax) {
+    ProcessEngineConfigurationImpl processEngineConfiguration = Context.getProcessEngineConfiguration();
+
     Map<String,Object> params = new HashMap<String, Object>();
     Date now = ClockUtil.getCurrentTime();
     params.put("now", now);
-    params.put("deploymentAware", Context.getProcessEngineConfiguration().isJobExecutorDeploymentAware());
-    if (Context.getProcessEngineConfiguration().isJobExecutorDeploymentAware()) {
-      Set<String> registeredDeployments = Context.getProcessEngineConfiguration().getRegisteredDeployments();
+    params.put("deploymentAware", processEngineConfiguration.isJobExecutorDeploymentAware());
+    if (processEngineConfiguration.isJobExecutorDeploymentAware()) {
+      Set<String> registeredDeployments = processEngineConfiguration.getRegisteredDeployments();
       if (!registeredDeployments.isEmpty()) {
         params.put("deploymentIds", registeredDeployments);
       }
     }
-    return getDbEntityManager().selectList("selectNextJobsToExecute", params, page);
+    params.put("priorityMin", priorityMin);
+    params.put("priorityMax", priorityMax);
+
+    boolean acquireByPriority = processEngineConfiguration.isJobExecutorAcquireByPriority();
+    params.put("acquireByPriority", acquireByPriority);
+
+    ListQueryParameterObject parameter = new ListQueryParameterObject(params, page.getFirstResult(), page.getMaxResults());
+    if (acquireByPriority) {
+      parameter.setOrderBy(JOB_ACQUISITION_ORDER_BY);
+    }
+
+    return getDbEntityManager().selectList("selectNextJobsToExecute", parameter);
   }
 
   @SuppressWarnings("unchecked")
@@ -142,6 +176,15 @@ public class JobManager extends AbstractManager {
   }
 
 
+  @SuppressWarnings("unchecked")
+  public List<String> findLockedJobIds(Collection<String> jobIds, int revision, String lockOwner) {
+    Map<String, Object> params = new HashMap<String, Object>();
+    params.put("jobIds", jobIds);
+    params.put("revisionNext", revision + 1);
+    params.put("lockOwner", lockOwner);
+    return getDbEntityManager().selectList("selectLockedJobIds", params);
+  }
+
   @SuppressWarnings("unchecked")
   public List<TimerEntity> findUnlockedTimersByDuedate(Date duedate, Page page) {
     final String query = "selectUnlockedTimersByDuedate";
@@ -239,4 +282,22 @@ public class JobManager extends AbstractManager {
     getDbEntityManager().update(JobEntity.class, "updateFailedJobRetriesByParameters", parameters);
   }
 
+  /**
+   * Locks all given jobs which currently have the given revision using a single
+   * UPDATE statement. If fewer rows than job ids are updated, the returned operation
+   * is marked as failed on flush and registered {@link org.camunda.bpm.engine.impl.db.entitymanager.OptimisticLockingListener}s
+   * are notified.
+   */
+  public DbBulkOperation lockJobs(Collection<String> jobIds, int revision, String lockOwner, Date lockExpirationTime) {
+    Map<String, Object> parameters = new HashMap<String, Object>();
+    parameters.put("jobIds", jobIds);
+    parameters.put("revision", revision);
+    parameters.put("lockOwner", lockOwner);
+    parameters.put("lockExpirationTime", lockExpirationTime);
+
+    DbBulkOperation lockOperation = getDbEntityManager().update(JobEntity.class, LOCK_JOBS_STATEMENT, parameters);
+    lockOperation.setExpectedRowCount(jobIds.size());
+    return lockOperation;
+  }
+
 }
@@ -15,6 +15,7 @@ package org.camunda.bpm.engine.impl.persistence.entity;
 import java.io.Serializable;
 
 import org.camunda.bpm.engine.ProcessEngineException;
+import org.camunda.bpm.engine.impl.db.CacheableDbEntity;
 import org.camunda.bpm.engine.impl.db.HasDbRevision;
 import org.camunda.bpm.engine.impl.db.DbEntity;
 
@@ -23,7 +24,7 @@ import org.camunda.bpm.engine.impl.db.DbEntity;
 /**
  * @author Tom Baeyens
  */
-public class PropertyEntity implements DbEntity, HasDbRevision, Serializable {
+public class PropertyEntity implements DbEntity, HasDbRevision, CacheableDbEntity, Serializable {
 
   private static final long serialVersionUID = 1L;
 
@@ -81,6 +82,12 @@ public class PropertyEntity implements DbEntity, HasDbRevision, Serializable {
     return revision+1;
   }
 
+  public PropertyEntity copy() {
+    PropertyEntity copy = new PropertyEntity(name, value);
+    copy.revision = revision;
+    return copy;
+  }
+
   @Override
   public String toString() {
     return this.getClass().getSimpleName()
@@ -26,6 +26,14 @@ public class PropertyManager extends AbstractManager {
     return getDbEntityManager().selectById(PropertyEntity.class, propertyId);
   }
 
+  /**
+   * Selects the property from the database without consulting the second level cache. Used for
+   * properties which are updated concurrently by all process engines sharing the database.
+   */
+  public PropertyEntity findPropertyByIdUncached(String propertyId) {
+    return getDbEntityManager().selectById(PropertyEntity.class, propertyId, false);
+  }
+
   public void acquireExclusiveLock() {
     // We lock a special deployment lock property
     getDbEntityManager().lock("lockDeploymentLockProperty");
@@ -12,6 +12,7 @@
  */
 package org.camunda.bpm.engine.impl.persistence.entity;
 
+import java.io.InputStream;
 import java.io.Serializable;
 import java.util.Arrays;
 import java.util.HashMap;
@@ -23,9 +24,11 @@ import org.camunda.bpm.engine.impl.core.variable.CoreVariableInstance;
 import org.camunda.bpm.engine.impl.core.variable.value.UntypedValueImpl;
 import org.camunda.bpm.engine.impl.db.DbEntity;
 import org.camunda.bpm.engine.impl.db.DbEntityLifecycleAware;
+import org.camunda.bpm.engine.impl.db.HasDbModificationTracking;
 import org.camunda.bpm.engine.impl.db.HasDbRevision;
 import org.camunda.bpm.engine.impl.interceptor.CommandContext;
 import org.camunda.bpm.engine.impl.interceptor.CommandContextListener;
+import org.camunda.bpm.engine.impl.util.CompareUtil;
 import org.camunda.bpm.engine.impl.variable.serializer.ByteArrayValueSerializer;
 import org.camunda.bpm.engine.impl.variable.serializer.TypedValueSerializer;
 import org.camunda.bpm.engine.impl.variable.serializer.ValueFields;
@@ -38,8 +41,8 @@ import org.camunda.bpm.engine.variable.value.TypedValue;
 /**
  * @author Tom Baeyens
  */
-public class VariableInstanceEntity implements VariableInstance, CoreVariableInstance, ValueFields, DbEntity, DbEntityLifecycleAware, HasDbRevision, Serializable,
-  CommandContextListener {
+public class VariableInstanceEntity implements VariableInstance, CoreVariableInstance, ValueFields, DbEntity, DbEntityLifecycleAware, HasDbRevision, HasDbModificationTracking,
+  Serializable, CommandContextListener {
 
   private static final long serialVersionUID = 1L;
 
@@ -75,6 +78,15 @@ public class VariableInstanceEntity implements VariableInstance, CoreVariableIns
 
   protected String configuration;
 
+  protected transient boolean isPersistentStateTracked = false;
+  protected transient String persistedSerializerName;
+  protected transient Long persistedLongValue;
+  protected transient Double persistedDoubleValue;
+  protected transient String persistedTextValue;
+  protected transient String persistedTextValue2;
+  protected transient String persistedByteArrayValueId;
+  protected transient boolean persistedForcedUpdate;
+
   // Default constructor for SQL mapping
   public VariableInstanceEntity() {
   }
@@ -145,6 +157,28 @@ public class VariableInstanceEntity implements VariableInstance, CoreVariableIns
     return persistentState;
   }
 
+  public boolean isModified() {
+    return !isPersistentStateTracked
+        || forcedUpdate != persistedForcedUpdate
+        || !CompareUtil.areEqual(serializerName, persistedSerializerName)
+        || !CompareUtil.areEqual(longValue, persistedLongValue)
+        || !CompareUtil.areEqual(doubleValue, persistedDoubleValue)
+        || !CompareUtil.areEqual(textValue, persistedTextValue)
+        || !CompareUtil.areEqual(textValue2, persistedTextValue2)
+        || !CompareUtil.areEqual(byteArrayValueId, persistedByteArrayValueId);
+  }
+
+  public void resetModified() {
+    isPersistentStateTracked = true;
+    persistedSerializerName = serializerName;
+    persistedLongValue = longValue;
+    persistedDoubleValue = doubleValue;
+    persistedTextValue = textValue;
+    persistedTextValue2 = textValue2;
+    persistedByteArrayValueId = byteArrayValueId;
+    persistedForcedUpdate = forcedUpdate;
+  }
+
   public int getRevisionNext() {
     return revision+1;
   }
@@ -219,11 +253,38 @@ public class VariableInstanceEntity implements VariableInstance, CoreVariableIns
     }
   }
 
+  /**
+   * Stores the content of the stream in a new byte array. The stream is consumed by the
+   * database driver when the byte array is inserted, so the content is never held in memory.
+   */
+  public void setByteArrayValueFromStream(InputStream stream) {
+    ByteArrayEntity byteArrayValue = null;
+    if (this.byteArrayValueId != null) {
+      deleteByteArrayValue();
+    }
+    if (stream != null) {
+      byteArrayValue = new ByteArrayEntity();
+      byteArrayValue.setContentStream(stream);
+      Context
+        .getCommandContext()
+        .getDbEntityManager()
+        .insert(byteArrayValue);
+    }
+    this.byteArrayValue = byteArrayValue;
+    if (byteArrayValue != null) {
+      this.byteArrayValueId = byteArrayValue.getId();
+    } else {
+      this.byteArrayValueId = null;
+    }
+  }
+
   protected void deleteByteArrayValue() {
     if (byteArrayValueId != null) {
-      // the next apparently useless line is probably to ensure consistency in the DbSqlSession
-      // cache, but should be checked and docced here (or removed if it turns out to be unnecessary)
-      getByteArrayValue();
+      if (!isStreamValue()) {
+        // the next apparently useless line is probably to ensure consistency in the DbSqlSession
+        // cache, but should be checked and docced here (or removed if it turns out to be unnecessary)
+        getByteArrayValue();
+      }
       Context
         .getCommandContext()
         .getByteArrayManager()
@@ -306,6 +367,14 @@ public class VariableInstanceEntity implements VariableInstance, CoreVariableIns
   }
 
 
+  /**
+   * @return true if the byte array of this variable holds the content of a stream value,
+   * which must not be loaded into memory
+   */
+  protected boolean isStreamValue() {
+    return ValueType.STREAM.getName().equals(serializerName);
+  }
+
   public void clearValueFields() {
     this.longValue = null;
     this.doubleValue = null;
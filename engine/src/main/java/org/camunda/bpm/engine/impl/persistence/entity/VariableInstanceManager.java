@@ -38,6 +38,14 @@ public class VariableInstanceManager extends AbstractManager {
     return getDbEntityManager().selectList("selectVariablesByExecutionId", executionId);
   }
 
+  /**
+   * @return the variables of all executions of the process instance, without task variables
+   */
+  @SuppressWarnings("unchecked")
+  public List<VariableInstanceEntity> findVariableInstancesByProcessInstanceId(String processInstanceId) {
+    return getDbEntityManager().selectList("selectVariablesByProcessInstanceId", processInstanceId);
+  }
+
   @SuppressWarnings("unchecked")
   public List<VariableInstanceEntity> findVariableInstancesByCaseExecutionId(String caseExecutionId) {
     return getDbEntityManager().selectList("selectVariablesByCaseExecutionId", caseExecutionId);
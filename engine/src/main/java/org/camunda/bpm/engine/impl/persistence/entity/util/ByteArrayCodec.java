@@ -0,0 +1,57 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.persistence.entity.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.camunda.bpm.engine.impl.persistence.entity.ByteArrayEntity;
+
+/**
+ * Transforms the bytes of a {@link ByteArrayEntity} before they are written to
+ * the database and after they are read from the database.
+ *
+ * <p>The name of the {@link #getEncoding() encoding} is stored together with the
+ * bytes it encoded (<code>ACT_GE_BYTEARRAY.ENCODING_</code>). Bytes which are stored
+ * unchanged have no encoding and are never passed to the codec for decoding, so
+ * the codec does not have to recognize encoded bytes by their content.</p>
+ */
+public interface ByteArrayCodec {
+
+  /**
+   * @return the name of the encoding applied by this codec
+   */
+  String getEncoding();
+
+  /**
+   * @param bytes the bytes of the entity, may be null
+   * @return the encoded bytes to store in the database or null if the bytes are
+   *   stored unchanged
+   */
+  byte[] encode(byte[] bytes);
+
+  /**
+   * @param encodedBytes bytes which were encoded by this codec
+   * @return the bytes of the entity
+   */
+  byte[] decode(byte[] encodedBytes);
+
+  /**
+   * Decodes the bytes stored in the database while they are read.
+   *
+   * @param encodedBytes a stream on bytes which were encoded by this codec
+   * @return a stream on the bytes of the entity
+   */
+  InputStream decode(InputStream encodedBytes) throws IOException;
+
+}
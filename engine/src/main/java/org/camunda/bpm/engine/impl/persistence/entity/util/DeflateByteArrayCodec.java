@@ -0,0 +1,137 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.persistence.entity.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+import org.camunda.bpm.engine.ProcessEngineException;
+
+/**
+ * <p>{@link ByteArrayCodec} compressing the bytes with the deflate algorithm.</p>
+ *
+ * <p>Bytes are only compressed if they are at least as long as the compression
+ * threshold and if compressing them saves space, all other bytes are stored
+ * unchanged. A negative threshold disables compression, decoding compressed bytes
+ * is always possible.</p>
+ */
+public class DeflateByteArrayCodec implements ByteArrayCodec {
+
+  public static final String ENCODING = "deflate";
+
+  public static final int COMPRESSION_DISABLED = -1;
+
+  protected int compressionThreshold;
+  protected int compressionLevel;
+
+  public DeflateByteArrayCodec() {
+    this(COMPRESSION_DISABLED);
+  }
+
+  public DeflateByteArrayCodec(int compressionThreshold) {
+    this(compressionThreshold, Deflater.BEST_SPEED);
+  }
+
+  public DeflateByteArrayCodec(int compressionThreshold, int compressionLevel) {
+    this.compressionThreshold = compressionThreshold;
+    this.compressionLevel = compressionLevel;
+  }
+
+  public String getEncoding() {
+    return ENCODING;
+  }
+
+  public byte[] encode(byte[] bytes) {
+    if (bytes == null || compressionThreshold < 0 || bytes.length < compressionThreshold) {
+      return null;
+    }
+
+    byte[] compressed = compress(bytes);
+    if (compressed.length < bytes.length) {
+      return compressed;
+    } else {
+      return null;
+    }
+  }
+
+  public byte[] decode(byte[] encodedBytes) {
+    if (encodedBytes == null) {
+      return null;
+    }
+    return decompress(encodedBytes);
+  }
+
+  public InputStream decode(InputStream encodedBytes) throws IOException {
+    if (encodedBytes == null) {
+      return null;
+    }
+    return new InflaterInputStream(encodedBytes);
+  }
+
+  protected byte[] compress(byte[] bytes) {
+    Deflater deflater = new Deflater(compressionLevel);
+    try {
+      deflater.setInput(bytes);
+      deflater.finish();
+
+      ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 2 + 16);
+      byte[] buffer = new byte[Math.min(bytes.length + 16, 8192)];
+      while (!deflater.finished()) {
+        int length = deflater.deflate(buffer);
+        out.write(buffer, 0, length);
+      }
+      return out.toByteArray();
+
+    } finally {
+      deflater.end();
+    }
+  }
+
+  protected byte[] decompress(byte[] compressedBytes) {
+    Inflater inflater = new Inflater();
+    try {
+      inflater.setInput(compressedBytes);
+
+      ByteArrayOutputStream out = new ByteArrayOutputStream(compressedBytes.length * 4);
+      byte[] buffer = new byte[8192];
+      while (!inflater.finished()) {
+        int length = inflater.inflate(buffer);
+        if (length == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+          throw new ProcessEngineException("Cannot decompress byte array: the compressed bytes are truncated");
+        }
+        out.write(buffer, 0, length);
+      }
+      return out.toByteArray();
+
+    } catch (DataFormatException e) {
+      throw new ProcessEngineException("Cannot decompress byte array: " + e.getMessage(), e);
+
+    } finally {
+      inflater.end();
+    }
+  }
+
+  public int getCompressionThreshold() {
+    return compressionThreshold;
+  }
+
+  public int getCompressionLevel() {
+    return compressionLevel;
+  }
+
+}
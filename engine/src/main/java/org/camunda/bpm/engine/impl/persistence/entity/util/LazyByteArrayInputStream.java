@@ -0,0 +1,167 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.persistence.entity.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.sql.DataSource;
+
+import org.camunda.bpm.engine.impl.persistence.entity.ByteArrayEntity;
+
+/**
+ * <p>Stream on the bytes of a {@link ByteArrayEntity} which are read from the database
+ * while the stream is consumed, without loading them into memory as a whole.</p>
+ *
+ * <p>The stream is opened lazily on the first read. It uses a separate database
+ * connection which is held until the stream is closed, so it has to be closed by the
+ * caller. Since the bytes are read outside of the transaction which created the
+ * stream, the stream returns the committed state of the byte array.</p>
+ */
+public class LazyByteArrayInputStream extends InputStream {
+
+  private static Logger log = Logger.getLogger(LazyByteArrayInputStream.class.getName());
+
+  protected final DataSource dataSource;
+  protected final String tablePrefix;
+  protected final String byteArrayId;
+  protected final ByteArrayCodec codec;
+
+  protected Connection connection;
+  protected PreparedStatement statement;
+  protected ResultSet resultSet;
+  protected InputStream bytes;
+
+  protected boolean closed = false;
+
+  public LazyByteArrayInputStream(DataSource dataSource, String tablePrefix, String byteArrayId, ByteArrayCodec codec) {
+    this.dataSource = dataSource;
+    this.tablePrefix = tablePrefix != null ? tablePrefix : "";
+    this.byteArrayId = byteArrayId;
+    this.codec = codec;
+  }
+
+  public int read() throws IOException {
+    return getBytes().read();
+  }
+
+  public int read(byte[] b, int off, int len) throws IOException {
+    return getBytes().read(b, off, len);
+  }
+
+  public long skip(long n) throws IOException {
+    return getBytes().skip(n);
+  }
+
+  public int available() throws IOException {
+    return getBytes().available();
+  }
+
+  public void close() throws IOException {
+    if (!closed) {
+      closed = true;
+      try {
+        if (bytes != null) {
+          bytes.close();
+        }
+      } finally {
+        releaseResources();
+      }
+    }
+  }
+
+  protected InputStream getBytes() throws IOException {
+    if (closed) {
+      throw new IOException("Stream on byte array '" + byteArrayId + "' is closed");
+    }
+    if (bytes == null) {
+      open();
+    }
+    return bytes;
+  }
+
+  protected void open() throws IOException {
+    try {
+      connection = dataSource.getConnection();
+      statement = connection.prepareStatement("select ENCODING_, BYTES_ from " + tablePrefix + "ACT_GE_BYTEARRAY where ID_ = ?");
+      statement.setString(1, byteArrayId);
+      resultSet = statement.executeQuery();
+
+      if (!resultSet.next()) {
+        throw new IOException("Byte array '" + byteArrayId + "' does not exist");
+      }
+
+      // columns are read in the order of the select clause
+      String encoding = resultSet.getString(1);
+      InputStream persistentBytes = resultSet.getBinaryStream(2);
+
+      if (persistentBytes == null) {
+        bytes = new ByteArrayInputStream(new byte[0]);
+
+      } else if (encoding == null) {
+        bytes = persistentBytes;
+
+      } else if (codec != null && encoding.equals(codec.getEncoding())) {
+        bytes = codec.decode(persistentBytes);
+
+      } else {
+        throw new IOException("Cannot decode byte array '" + byteArrayId + "' with encoding '" + encoding
+            + "' using byte array codec " + codec);
+
+      }
+
+    } catch (SQLException e) {
+      releaseResources();
+      throw new IOException("Could not read byte array '" + byteArrayId + "'", e);
+
+    } catch (IOException e) {
+      releaseResources();
+      throw e;
+
+    }
+  }
+
+  protected void releaseResources() {
+    try {
+      if (resultSet != null) {
+        resultSet.close();
+      }
+      if (statement != null) {
+        statement.close();
+      }
+    } catch (SQLException e) {
+      log.log(Level.FINE, "Could not close statement reading byte array '" + byteArrayId + "'", e);
+
+    } finally {
+      resultSet = null;
+      statement = null;
+
+      if (connection != null) {
+        try {
+          connection.close();
+        } catch (SQLException e) {
+          log.log(Level.WARNING, "Could not close connection reading byte array '" + byteArrayId + "'", e);
+        }
+        connection = null;
+      }
+    }
+  }
+
+}
@@ -245,6 +245,15 @@ public abstract class PvmExecutionImpl extends CoreExecution implements Activity
     performOperation(new FoxAtomicOperationDeleteCascadeFireActivityEnd());
   }
 
+  /**
+   * Performs the operation as the continuation of the atomic operation which is currently
+   * executed. Must only be invoked as the last statement of an atomic operation, since the
+   * operation may be performed after the current operation returned.
+   */
+  public void continueOperation(PvmAtomicOperation operation) {
+    performOperation(operation);
+  }
+
   // tree compaction & expansion ///////////////////////////////////////////
 
   public abstract PvmExecutionImpl getReplacedBy();
@@ -52,7 +52,7 @@ public class PvmAtomicOperationTransitionCreateScope implements PvmAtomicOperati
       propagatingExecution = execution;
     }
 
-    propagatingExecution.performOperation(TRANSITION_NOTIFY_LISTENER_START);
+    propagatingExecution.continueOperation(TRANSITION_NOTIFY_LISTENER_START);
   }
 
   public String getCanonicalName() {
@@ -113,9 +113,9 @@ public class PvmAtomicOperationTransitionDestroyScope implements PvmAtomicOperat
     ActivityImpl destination = transition.getDestination();
     if (transitionLeavesNextOuterScope(nextOuterScopeElement, activity, destination)) {
       propagatingExecution.setActivity((ActivityImpl) nextOuterScopeElement);
-      propagatingExecution.performOperation(TRANSITION_NOTIFY_LISTENER_END);
+      propagatingExecution.continueOperation(TRANSITION_NOTIFY_LISTENER_END);
     } else {
-      propagatingExecution.performOperation(TRANSITION_NOTIFY_LISTENER_TAKE);
+      propagatingExecution.continueOperation(TRANSITION_NOTIFY_LISTENER_TAKE);
     }
   }
 
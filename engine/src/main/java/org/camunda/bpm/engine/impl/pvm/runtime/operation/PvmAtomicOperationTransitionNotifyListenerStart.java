@@ -49,7 +49,7 @@ public class PvmAtomicOperationTransitionNotifyListenerStart extends PvmAtomicOp
     if (activity!=destination) {
       ActivityImpl nextScope = PvmAtomicOperationTransitionNotifyListenerTake.findNextScope(activity, destination);
       execution.setActivity(nextScope);
-      execution.performOperation(TRANSITION_CREATE_SCOPE);
+      execution.continueOperation(TRANSITION_CREATE_SCOPE);
     } else {
       execution.setTransition(null);
       execution.setActivity(destination);
@@ -60,7 +60,7 @@ public class PvmAtomicOperationTransitionNotifyListenerStart extends PvmAtomicOp
         execution.disposeExecutionStartContext();
       }
 
-      execution.performOperation(ACTIVITY_EXECUTE);
+      execution.continueOperation(ACTIVITY_EXECUTE);
     }
   }
 
@@ -71,9 +71,9 @@ public class PvmAtomicOperationTransitionNotifyListenerTake implements PvmAtomic
       execution.setActivity(nextScope);
 
       if (nextScope.isCancelScope()) {
-        execution.performOperation(TRANSITION_CANCEL_SCOPE);
+        execution.continueOperation(TRANSITION_CANCEL_SCOPE);
       } else {
-        execution.performOperation(TRANSITION_CREATE_SCOPE);
+        execution.continueOperation(TRANSITION_CREATE_SCOPE);
       }
     }
   }
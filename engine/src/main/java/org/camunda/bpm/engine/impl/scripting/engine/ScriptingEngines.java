@@ -15,9 +15,13 @@ package org.camunda.bpm.engine.impl.scripting.engine;
 import org.camunda.bpm.engine.ProcessEngineException;
 import org.camunda.bpm.engine.ScriptCompilationException;
 import org.camunda.bpm.engine.delegate.VariableScope;
+import org.camunda.bpm.engine.impl.persistence.deploy.cache.LruCache;
 
 import javax.script.*;
 import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -30,7 +34,14 @@ import static org.camunda.bpm.engine.impl.util.EnsureUtil.ensureNotNull;
  * This class supports resolving a script engine for a given 'language name' (eg. 'groovy').
  * If the configuration option {@link #enableScriptEngineCaching} is set to true,
  * the class will attempt to cache 'cachable' script engines. We assume a {@link ScriptEngine} is
- * 'cachable' if it declares to be threadsafe (see {@link #isCachable(ScriptEngine)})</p>
+ * 'cachable' if it declares to be threadsafe (see {@link #isCachable(ScriptEngine)}). Script engines which
+ * are not cachable are pooled instead: up to {@link #scriptEnginePoolSize} idle instances per language are kept
+ * and handed out to one caller at a time. Callers return them using {@link #releaseScriptEngine(String, ScriptEngine)},
+ * which replaces the engine scope bindings of the engine before it is pooled again.</p>
+ *
+ * <p><strong>Compiled scripts:</strong> if script engine caching is enabled, {@link #compile(String, String)}
+ * caches the compiled scripts by language and source in a bounded {@link LruCache}, so that scripts with the
+ * same source are only compiled once.</p>
  *
  * <p><strong>Custom Bindings:</strong> this class supports custom {@link Bindings}
  * implementations through the {@link #scriptBindingsFactory}. See {@link ScriptBindingsFactory}.</p>
@@ -49,10 +60,20 @@ public class ScriptingEngines {
   private final ScriptEngineManager scriptEngineManager;
   protected ScriptBindingsFactory scriptBindingsFactory;
 
-  protected Map<String, ScriptEngine> cachedEngines = new HashMap<String, ScriptEngine>();
+  public static final int DEFAULT_SCRIPT_ENGINE_POOL_SIZE = 10;
+  public static final int DEFAULT_COMPILED_SCRIPT_CACHE_CAPACITY = 1000;
+
+  protected Map<String, ScriptEngine> cachedEngines = new ConcurrentHashMap<String, ScriptEngine>();
+
+  /** idle instances of script engines which are not threadsafe, by language */
+  protected ConcurrentHashMap<String, BlockingQueue<ScriptEngine>> pooledEngines = new ConcurrentHashMap<String, BlockingQueue<ScriptEngine>>();
+
+  protected LruCache<CompiledScriptKey, CompiledScript> compiledScriptCache = new LruCache<CompiledScriptKey, CompiledScript>(DEFAULT_COMPILED_SCRIPT_CACHE_CAPACITY);
 
   protected boolean enableScriptEngineCaching = true;
 
+  protected int scriptEnginePoolSize = DEFAULT_SCRIPT_ENGINE_POOL_SIZE;
+
   public ScriptingEngines(ScriptBindingsFactory scriptBindingsFactory) {
     this(new ScriptEngineManager());
     this.scriptBindingsFactory = scriptBindingsFactory;
@@ -70,6 +91,33 @@ public class ScriptingEngines {
     return enableScriptEngineCaching;
   }
 
+  /**
+   * @param scriptEnginePoolSize the maximum number of idle script engines kept per language
+   *        for script engines which are not threadsafe, zero disables pooling
+   */
+  public void setScriptEnginePoolSize(int scriptEnginePoolSize) {
+    this.scriptEnginePoolSize = scriptEnginePoolSize;
+    pooledEngines.clear();
+  }
+
+  public int getScriptEnginePoolSize() {
+    return scriptEnginePoolSize;
+  }
+
+  /**
+   * @param capacity the maximum number of cached compiled scripts
+   */
+  public void setCompiledScriptCacheCapacity(int capacity) {
+    compiledScriptCache = new LruCache<CompiledScriptKey, CompiledScript>(capacity);
+  }
+
+  /**
+   * @return the cache of compiled scripts, provides the hit and miss counts
+   */
+  public LruCache<CompiledScriptKey, CompiledScript> getCompiledScriptCache() {
+    return compiledScriptCache;
+  }
+
   public ScriptingEngines addScriptEngineFactory(ScriptEngineFactory scriptEngineFactory) {
     scriptEngineManager.registerEngineName(scriptEngineFactory.getEngineName(), scriptEngineFactory);
     return this;
@@ -88,7 +136,9 @@ public class ScriptingEngines {
    *
    * <p><strong>Note on caching of compiled scripts:</strong> only cache the returned script if
    * {@link #enableScriptEngineCaching} is set to 'true'. Depending on the implementation, the compiled
-   * script will keep references to the script engine which created it.</p>
+   * script will keep references to the script engine which created it. If caching is enabled, the
+   * compiled script is cached by language and source and returned to every caller compiling the same
+   * source. A pooled script engine used for compilation is not returned to the pool.</p>
    *
    * @param language the script language in which the script is written
    * @param src a string of the source of the script
@@ -97,6 +147,15 @@ public class ScriptingEngines {
    *         if the script cannot be compiled (syntax error ...).
    */
   public CompiledScript compile(String language, String src) {
+    CompiledScriptKey key = null;
+    if (enableScriptEngineCaching && language != null) {
+      key = new CompiledScriptKey(language.toLowerCase(), src);
+      CompiledScript cachedScript = compiledScriptCache.get(key);
+      if (cachedScript != null) {
+        return cachedScript;
+      }
+    }
+
     ScriptEngine scriptEngine = getScriptEngineForLanguage(language);
 
     if(scriptEngine instanceof Compilable && !scriptEngine.getFactory().getLanguageName().equalsIgnoreCase("ecmascript")) {
@@ -107,6 +166,10 @@ public class ScriptingEngines {
 
         LOG.fine("Compiled script using " + language + " script engine");
 
+        if (key != null) {
+          compiledScriptCache.put(key, compiledScript);
+        }
+
         return compiledScript;
 
       } catch (ScriptException e) {
@@ -124,6 +187,7 @@ public class ScriptingEngines {
 
   /**
    * Loads the given script engine by language name. Will throw an exception if no script engine can be loaded for the given language name.
+   * The caller should {@link #releaseScriptEngine(String, ScriptEngine) release} the engine once it is not used anymore.
    *
    * @param language the name of the script language to lookup an implementation for
    * @return the script engine
@@ -151,6 +215,43 @@ public class ScriptingEngines {
 
   }
 
+  /**
+   * Returns a script engine obtained from {@link #getScriptEngineForLanguage(String)} to the pool
+   * if it is a pooled script engine. Threadsafe script engines are shared and not affected.
+   *
+   * @param language the name of the script language the engine was resolved for
+   * @param scriptEngine the script engine which is not used anymore by the caller
+   */
+  public void releaseScriptEngine(String language, ScriptEngine scriptEngine) {
+    if (!enableScriptEngineCaching || scriptEngine == null || language == null) {
+      return;
+    }
+
+    language = language.toLowerCase();
+
+    BlockingQueue<ScriptEngine> idleEngines = pooledEngines.get(language);
+    if (idleEngines != null && !isCachable(scriptEngine)) {
+      resetScriptEngine(language, scriptEngine);
+      // drop the engine if the pool is full
+      idleEngines.offer(scriptEngine);
+    }
+  }
+
+  /**
+   * Resets the state of a pooled script engine before it is handed out to the next caller,
+   * so that no bindings of a previous evaluation leak into the next one.
+   *
+   * @param language the name of the script language the engine was resolved for
+   * @param scriptEngine the script engine which is returned to the pool
+   */
+  protected void resetScriptEngine(String language, ScriptEngine scriptEngine) {
+    scriptEngine.setBindings(scriptEngine.createBindings(), ScriptContext.ENGINE_SCOPE);
+
+    if(GROOVY_SCRIPTING_LANGUAGE.equals(language)) {
+      configureGroovyScriptEngine(scriptEngine);
+    }
+  }
+
   public Set<String> getAllSupportedLanguages() {
     Set<String> languages = new HashSet<String>();
     List<ScriptEngineFactory> engineFactories = scriptEngineManager.getEngineFactories();
@@ -161,7 +262,7 @@ public class ScriptingEngines {
   }
 
   /**
-   * Returns a cached script engine or creates a new script engine if no such engine is currently cached.
+   * Returns a cached or pooled script engine or creates a new script engine if no such engine is currently cached.
    *
    * @param language the language (such as 'groovy' for the script engine)
    * @return the cached engine or null if no script engine can be created for the given language
@@ -171,6 +272,14 @@ public class ScriptingEngines {
     ScriptEngine scriptEngine = cachedEngines.get(language);
 
     if(scriptEngine == null) {
+      BlockingQueue<ScriptEngine> idleEngines = pooledEngines.get(language);
+      if (idleEngines != null) {
+        scriptEngine = idleEngines.poll();
+        if (scriptEngine != null) {
+          return scriptEngine;
+        }
+      }
+
       scriptEngine = scriptEngineManager.getEngineByName(language);
 
       if(scriptEngine != null) {
@@ -182,6 +291,9 @@ public class ScriptingEngines {
         if(isCachable(scriptEngine)) {
           cachedEngines.put(language, scriptEngine);
         }
+        else if (idleEngines == null && scriptEnginePoolSize > 0) {
+          pooledEngines.putIfAbsent(language, new ArrayBlockingQueue<ScriptEngine>(scriptEnginePoolSize));
+        }
 
       }
 
@@ -226,4 +338,38 @@ public class ScriptingEngines {
   public void setScriptBindingsFactory(ScriptBindingsFactory scriptBindingsFactory) {
     this.scriptBindingsFactory = scriptBindingsFactory;
   }
+
+  /**
+   * Key of a compiled script in the {@link ScriptingEngines#compiledScriptCache}.
+   * The hash code of the script source is computed once.
+   */
+  public static class CompiledScriptKey {
+
+    protected final String language;
+    protected final String source;
+    protected final int hashCode;
+
+    public CompiledScriptKey(String language, String source) {
+      this.language = language;
+      this.source = source;
+      this.hashCode = 31 * language.hashCode() + source.hashCode();
+    }
+
+    public int hashCode() {
+      return hashCode;
+    }
+
+    public boolean equals(Object obj) {
+      if (this == obj) {
+        return true;
+      }
+      if (!(obj instanceof CompiledScriptKey)) {
+        return false;
+      }
+      CompiledScriptKey other = (CompiledScriptKey) obj;
+      return hashCode == other.hashCode
+          && language.equals(other.language)
+          && source.equals(other.source);
+    }
+  }
 }
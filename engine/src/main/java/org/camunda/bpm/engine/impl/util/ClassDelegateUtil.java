@@ -17,12 +17,16 @@ import static org.camunda.bpm.engine.impl.util.EnsureUtil.ensureNotNull;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import org.camunda.bpm.engine.ArtifactFactory;
 import org.camunda.bpm.engine.ProcessEngineException;
 import org.camunda.bpm.engine.impl.bpmn.parser.FieldDeclaration;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
 import org.camunda.bpm.engine.impl.context.Context;
+import org.camunda.bpm.engine.impl.delegate.ClassDelegateMetadata;
 
 /**
  * @author Roman Smirnov
@@ -50,6 +54,67 @@ public class ClassDelegateUtil {
 
   }
 
+  /**
+   * Instantiates the delegate using the given metadata. If
+   * {@link ProcessEngineConfigurationImpl#isEnableSharedDelegateInstances() shared delegate instances}
+   * are enabled and no fields are injected, the instance is created once and shared by all invocations.
+   *
+   * @param metadata the metadata returned by {@link #getMetadata(String, ClassDelegateMetadata)}
+   */
+  public static Object instantiateDelegate(ClassDelegateMetadata metadata, List<FieldDeclaration> fieldDeclarations) {
+    ProcessEngineConfigurationImpl processEngineConfiguration = Context.getProcessEngineConfiguration();
+
+    boolean shareInstance = processEngineConfiguration.isEnableSharedDelegateInstances()
+        && (fieldDeclarations == null || fieldDeclarations.isEmpty());
+    if (shareInstance) {
+      Object sharedInstance = metadata.getSharedInstance();
+      if (sharedInstance != null) {
+        return sharedInstance;
+      }
+    }
+
+    Class<?> clazz = metadata.getDelegateClass();
+    try {
+      Object object = processEngineConfiguration.getArtifactFactory().getArtifact(clazz);
+
+      if (fieldDeclarations != null && !fieldDeclarations.isEmpty()) {
+        for (FieldInjection injection : metadata.getFieldInjections(object.getClass(), fieldDeclarations)) {
+          injection.inject(object);
+        }
+      }
+
+      if (shareInstance) {
+        metadata.setSharedInstance(object);
+      }
+      return object;
+    } catch (Exception e) {
+      throw new ProcessEngineException("couldn't instantiate class " + clazz.getName(), e);
+    }
+  }
+
+  /**
+   * Returns the given metadata if it was resolved with the class loaders of the current
+   * process engine and thread. Otherwise the delegate class is loaded and new metadata is returned.
+   *
+   * @param cachedMetadata the metadata of a previous invocation or null
+   */
+  public static ClassDelegateMetadata getMetadata(String className, ClassDelegateMetadata cachedMetadata) {
+    ProcessEngineConfigurationImpl processEngineConfiguration = Context.getProcessEngineConfiguration();
+    ClassLoader customClassLoader = processEngineConfiguration != null ? processEngineConfiguration.getClassLoader() : null;
+    ClassLoader contextClassLoader = ClassLoaderUtil.getContextClassloader();
+
+    if (cachedMetadata != null && cachedMetadata.isResolvedWith(customClassLoader, contextClassLoader)) {
+      return cachedMetadata;
+    }
+
+    try {
+      Class<?> clazz = ReflectUtil.loadClass(className);
+      return new ClassDelegateMetadata(customClassLoader, contextClassLoader, clazz);
+    } catch (Exception e) {
+      throw new ProcessEngineException("couldn't instantiate class " + className, e);
+    }
+  }
+
   public static void applyFieldDeclaration(List<FieldDeclaration> fieldDeclarations, Object target) {
     if(fieldDeclarations != null) {
       for(FieldDeclaration declaration : fieldDeclarations) {
@@ -59,30 +124,41 @@ public class ClassDelegateUtil {
   }
 
   public static void applyFieldDeclaration(FieldDeclaration declaration, Object target) {
+    resolveFieldInjection(declaration, target.getClass()).inject(target);
+  }
+
+  public static List<FieldInjection> resolveFieldInjections(List<FieldDeclaration> fieldDeclarations, Class<?> targetClass) {
+    List<FieldInjection> injections = new ArrayList<FieldInjection>();
+    if(fieldDeclarations != null) {
+      for(FieldDeclaration declaration : fieldDeclarations) {
+        injections.add(resolveFieldInjection(declaration, targetClass));
+      }
+    }
+    return Collections.unmodifiableList(injections);
+  }
+
+  /**
+   * Looks up the setter or, if no setter exists, the field used to inject the declared value
+   * into instances of the given class.
+   */
+  public static FieldInjection resolveFieldInjection(FieldDeclaration declaration, Class<?> targetClass) {
     Method setterMethod = ReflectUtil.getSetter(declaration.getName(),
-      target.getClass(), declaration.getValue().getClass());
+      targetClass, declaration.getValue().getClass());
 
     if(setterMethod != null) {
-      try {
-        setterMethod.invoke(target, declaration.getValue());
-      } catch (IllegalArgumentException e) {
-        throw new ProcessEngineException("Error while invoking '" + declaration.getName() + "' on class " + target.getClass().getName(), e);
-      } catch (IllegalAccessException e) {
-        throw new ProcessEngineException("Illegal acces when calling '" + declaration.getName() + "' on class " + target.getClass().getName(), e);
-      } catch (InvocationTargetException e) {
-        throw new ProcessEngineException("Exception while invoking '" + declaration.getName() + "' on class " + target.getClass().getName(), e);
-      }
+      return new FieldInjection(declaration, setterMethod, null);
+
     } else {
-      Field field = ReflectUtil.getField(declaration.getName(), target);
-      ensureNotNull("Field definition uses unexisting field '" + declaration.getName() + "' on class " + target.getClass().getName(), "field", field);
+      Field field = ReflectUtil.getField(declaration.getName(), targetClass);
+      ensureNotNull("Field definition uses unexisting field '" + declaration.getName() + "' on class " + targetClass.getName(), "field", field);
       // Check if the delegate field's type is correct
       if (!fieldTypeCompatible(declaration, field)) {
         throw new ProcessEngineException("Incompatible type set on field declaration '" + declaration.getName()
-          + "' for class " + target.getClass().getName()
+          + "' for class " + targetClass.getName()
           + ". Declared value has type " + declaration.getValue().getClass().getName()
           + ", while expecting " + field.getType().getName());
       }
-      ReflectUtil.setField(field, target, declaration.getValue());
+      return new FieldInjection(declaration, null, field);
     }
   }
 
@@ -95,4 +171,37 @@ public class ClassDelegateUtil {
     }
   }
 
+  /**
+   * Injects the value of a {@link FieldDeclaration} using either a setter or a field.
+   */
+  public static class FieldInjection {
+
+    protected final FieldDeclaration declaration;
+    protected final Method setterMethod;
+    protected final Field field;
+
+    public FieldInjection(FieldDeclaration declaration, Method setterMethod, Field field) {
+      this.declaration = declaration;
+      this.setterMethod = setterMethod;
+      this.field = field;
+    }
+
+    public void inject(Object target) {
+      if(setterMethod != null) {
+        try {
+          setterMethod.invoke(target, declaration.getValue());
+        } catch (IllegalArgumentException e) {
+          throw new ProcessEngineException("Error while invoking '" + declaration.getName() + "' on class " + target.getClass().getName(), e);
+        } catch (IllegalAccessException e) {
+          throw new ProcessEngineException("Illegal acces when calling '" + declaration.getName() + "' on class " + target.getClass().getName(), e);
+        } catch (InvocationTargetException e) {
+          throw new ProcessEngineException("Exception while invoking '" + declaration.getName() + "' on class " + target.getClass().getName(), e);
+        }
+      } else {
+        ReflectUtil.setField(field, target, declaration.getValue());
+      }
+    }
+
+  }
+
 }
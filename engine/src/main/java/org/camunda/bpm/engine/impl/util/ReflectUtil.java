@@ -13,6 +13,7 @@
 package org.camunda.bpm.engine.impl.util;
 
 import java.io.InputStream;
+import java.lang.ref.WeakReference;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
@@ -26,6 +27,8 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.logging.Logger;
 import org.camunda.bpm.engine.ClassLoadingException;
 import org.camunda.bpm.engine.ProcessEngineException;
@@ -44,6 +47,24 @@ public abstract class ReflectUtil {
 
   private static final Map<String, String> charEncodings = new HashMap<String, String>();
 
+  /** the maximum number of class names for which the resolution is cached per class loader */
+  protected static final int CLASS_RESOLUTION_CACHE_LIMIT = 4096;
+
+  /** the default time in milliseconds for which a class which cannot be found is not looked up again */
+  public static final long DEFAULT_CLASS_RESOLUTION_MISS_TIME_TO_LIVE = 60000;
+
+  /**
+   * Resolved classes and known misses by class name, per class loader. The class loaders are
+   * weakly referenced, as are the resolved classes since they may be defined by the class
+   * loader itself. A miss is cached as a {@link ClassResolutionMiss} which expires, since class
+   * loaders may gain classes later on. The array is copied on write while holding
+   * {@link #classResolutionCacheLock}, so that lookups do not lock.
+   */
+  private static volatile ClassResolutions[] classResolutionCache = new ClassResolutions[0];
+  private static final Object classResolutionCacheLock = new Object();
+
+  private static volatile long classResolutionMissTimeToLive = DEFAULT_CLASS_RESOLUTION_MISS_TIME_TO_LIVE;
+
   static {
     charEncodings.put("ä", "%C3%A4");
     charEncodings.put("ö", "%C3%B6");
@@ -71,7 +92,7 @@ public abstract class ReflectUtil {
    if(classLoader != null) {
      try {
        LOG.finest("Trying to load class with custom classloader: " + className);
-       clazz = Class.forName(className, true, classLoader);
+       clazz = forName(className, classLoader);
      } catch(Throwable t) {
        throwable = t;
      }
@@ -81,7 +102,7 @@ public abstract class ReflectUtil {
        ClassLoader contextClassloader = ClassLoaderUtil.getContextClassloader();
        if(contextClassloader != null) {
          LOG.finest("Trying to load class with current thread context classloader: " + className);
-         clazz = Class.forName(className, true, contextClassloader);
+         clazz = forName(className, contextClassloader);
        }
      } catch(Throwable t) {
        if(throwable == null) {
@@ -91,7 +112,7 @@ public abstract class ReflectUtil {
      if(clazz == null) {
        try {
          LOG.finest("Trying to load class with local classloader: " + className);
-         clazz = Class.forName(className, true, ClassLoaderUtil.getClassloader(ReflectUtil.class));
+         clazz = forName(className, ClassLoaderUtil.getClassloader(ReflectUtil.class));
        } catch(Throwable t) {
          if(throwable == null) {
            throwable = t;
@@ -106,6 +127,111 @@ public abstract class ReflectUtil {
    return clazz;
   }
 
+  /**
+   * Loads the class with the given class loader like {@link Class#forName(String, boolean, ClassLoader)}
+   * but remembers the result, so that neither a resolved class nor a class which cannot be found
+   * by the class loader is looked up again.
+   */
+  @SuppressWarnings("unchecked")
+  protected static Class<?> forName(String className, ClassLoader classLoader) throws ClassNotFoundException {
+    if (classLoader == null) {
+      // the bootstrap class loader cannot be referenced weakly
+      return Class.forName(className, true, null);
+    }
+
+    ConcurrentMap<String, Object> resolutions = getClassResolutions(classLoader);
+
+    Object resolution = resolutions.get(className);
+    if (resolution instanceof ClassResolutionMiss) {
+      if (!((ClassResolutionMiss) resolution).isExpired()) {
+        // a new exception per caller, so that no exception of another lookup is shared
+        throw new CachedClassNotFoundException(className);
+      }
+    } else if (resolution != null) {
+      Class<?> clazz = ((WeakReference<Class<?>>) resolution).get();
+      if (clazz != null) {
+        return clazz;
+      }
+    }
+
+    try {
+      Class<?> clazz = Class.forName(className, true, classLoader);
+      cacheClassResolution(resolutions, className, new WeakReference<Class<?>>(clazz));
+      return clazz;
+
+    } catch (ClassNotFoundException e) {
+      // other errors, e.g. a failing static initializer, are not cached
+      long timeToLive = classResolutionMissTimeToLive;
+      if (timeToLive > 0) {
+        cacheClassResolution(resolutions, className, new ClassResolutionMiss(System.currentTimeMillis() + timeToLive));
+      }
+      throw e;
+    }
+  }
+
+  protected static ConcurrentMap<String, Object> getClassResolutions(ClassLoader classLoader) {
+    ClassResolutions resolutions = findClassResolutions(classResolutionCache, classLoader);
+    if (resolutions != null) {
+      return resolutions.resolutions;
+    }
+
+    synchronized (classResolutionCacheLock) {
+      ClassResolutions[] cache = classResolutionCache;
+      resolutions = findClassResolutions(cache, classLoader);
+      if (resolutions == null) {
+        // copy the resolutions of the class loaders which were not garbage collected yet
+        List<ClassResolutions> newCache = new ArrayList<ClassResolutions>(cache.length + 1);
+        for (ClassResolutions cachedResolutions : cache) {
+          if (cachedResolutions.get() != null) {
+            newCache.add(cachedResolutions);
+          }
+        }
+        resolutions = new ClassResolutions(classLoader);
+        newCache.add(resolutions);
+        classResolutionCache = newCache.toArray(new ClassResolutions[newCache.size()]);
+      }
+      return resolutions.resolutions;
+    }
+  }
+
+  protected static ClassResolutions findClassResolutions(ClassResolutions[] cache, ClassLoader classLoader) {
+    for (ClassResolutions resolutions : cache) {
+      if (resolutions.get() == classLoader) {
+        return resolutions;
+      }
+    }
+    return null;
+  }
+
+  protected static void cacheClassResolution(ConcurrentMap<String, Object> resolutions, String className, Object resolution) {
+    // class names may come from serialized data, so the number of misses is not bounded otherwise
+    if (resolutions.size() < CLASS_RESOLUTION_CACHE_LIMIT || resolutions.containsKey(className)) {
+      resolutions.put(className, resolution);
+    }
+  }
+
+  /**
+   * @param timeToLive the time in milliseconds for which a class which cannot be found by a class
+   *   loader is not looked up again, zero disables caching of misses
+   */
+  public static void setClassResolutionMissTimeToLive(long timeToLive) {
+    classResolutionMissTimeToLive = timeToLive;
+  }
+
+  public static long getClassResolutionMissTimeToLive() {
+    return classResolutionMissTimeToLive;
+  }
+
+  /**
+   * Forgets all resolved classes and known misses, e.g. when a process application is
+   * undeployed and its classes may be deployed again with a new class loader.
+   */
+  public static void clearClassResolutionCache() {
+    synchronized (classResolutionCacheLock) {
+      classResolutionCache = new ClassResolutions[0];
+    }
+  }
+
   public static InputStream getResourceAsStream(String name) {
     InputStream resourceStream = null;
     ClassLoader classLoader = getCustomClassLoader();
@@ -382,4 +508,50 @@ public abstract class ReflectUtil {
   public static Method getMethod(Class declaringType, String methodName, Class<?>... parameterTypes) {
     return findMethod(declaringType, methodName, parameterTypes);
   }
+
+  /**
+   * The cached class resolutions of a weakly referenced class loader.
+   */
+  protected static class ClassResolutions extends WeakReference<ClassLoader> {
+
+    protected final ConcurrentMap<String, Object> resolutions = new ConcurrentHashMap<String, Object>();
+
+    public ClassResolutions(ClassLoader classLoader) {
+      super(classLoader);
+    }
+  }
+
+  /**
+   * Marks a class name which could not be resolved by a class loader until the given time.
+   */
+  protected static class ClassResolutionMiss {
+
+    protected final long expirationTime;
+
+    public ClassResolutionMiss(long expirationTime) {
+      this.expirationTime = expirationTime;
+    }
+
+    public boolean isExpired() {
+      return System.currentTimeMillis() >= expirationTime;
+    }
+  }
+
+  /**
+   * Thrown for a cached miss. The stack trace is not filled in, since the exception only
+   * replays the result of an earlier lookup and is wrapped by the caller anyway.
+   */
+  protected static class CachedClassNotFoundException extends ClassNotFoundException {
+
+    private static final long serialVersionUID = 1L;
+
+    public CachedClassNotFoundException(String className) {
+      super(className);
+    }
+
+    public synchronized Throwable fillInStackTrace() {
+      return this;
+    }
+  }
+
 }
@@ -0,0 +1,103 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.util.xml;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Writes an {@link Element} tree in a compact binary format and reads it back, so that a
+ * parsed document can be restored without parsing its XML again. Attribute values and
+ * texts, e.g. expressions and scripts, are kept as they are.
+ */
+public class ElementSerializer {
+
+  public static void writeElement(DataOutput out, Element element) throws IOException {
+    writeString(out, element.uri);
+    writeString(out, element.tagName);
+    out.writeInt(element.line);
+    out.writeInt(element.column);
+
+    out.writeInt(element.attributeMap.size());
+    for (Map.Entry<String, Attribute> attributeEntry : element.attributeMap.entrySet()) {
+      Attribute attribute = attributeEntry.getValue();
+      writeString(out, attributeEntry.getKey());
+      writeString(out, attribute.getName());
+      writeString(out, attribute.getValue());
+      writeString(out, attribute.getUri());
+    }
+
+    writeString(out, element.text.toString());
+
+    out.writeInt(element.elements.size());
+    for (Element childElement : element.elements) {
+      writeElement(out, childElement);
+    }
+  }
+
+  public static Element readElement(DataInput in) throws IOException {
+    String uri = readString(in);
+    String tagName = readString(in);
+
+    // the tag name is already resolved against the namespace
+    Element element = new Element(uri, tagName, tagName, null, null);
+    element.line = in.readInt();
+    element.column = in.readInt();
+
+    int attributeCount = in.readInt();
+    for (int i = 0; i < attributeCount; i++) {
+      String key = readString(in);
+      String name = readString(in);
+      String value = readString(in);
+      String attributeUri = readString(in);
+      element.attributeMap.put(key, new Attribute(name, value, attributeUri));
+    }
+
+    element.appendText(readString(in));
+
+    int elementCount = in.readInt();
+    for (int i = 0; i < elementCount; i++) {
+      element.add(readElement(in));
+    }
+
+    return element;
+  }
+
+  /**
+   * Unlike {@link DataOutput#writeUTF(String)}, supports <code>null</code> and strings
+   * longer than 64k, e.g. embedded scripts.
+   */
+  protected static void writeString(DataOutput out, String value) throws IOException {
+    if (value == null) {
+      out.writeInt(-1);
+    } else {
+      byte[] bytes = value.getBytes("UTF-8");
+      out.writeInt(bytes.length);
+      out.write(bytes);
+    }
+  }
+
+  protected static String readString(DataInput in) throws IOException {
+    int length = in.readInt();
+    if (length < 0) {
+      return null;
+    } else {
+      byte[] bytes = new byte[length];
+      in.readFully(bytes);
+      return new String(bytes, "UTF-8");
+    }
+  }
+
+}
@@ -114,16 +114,32 @@ public class Parse extends DefaultHandler {
     this.streamSource = streamSource;
   }
   
+  /**
+   * Uses an already parsed document, e.g. restored from a snapshot, instead of parsing a source.
+   */
+  public Parse sourceRootElement(Element rootElement) {
+    this.rootElement = rootElement;
+    return this;
+  }
+
   public Parse execute() {
+    if (rootElement != null) {
+      // already parsed
+      return this;
+    }
+
     try {
       InputStream inputStream = streamSource.getInputStream();
 
-      if (schemaResource == null) { // must be done before parser is created
-        parser.getSaxParserFactory().setNamespaceAware(false);
-        parser.getSaxParserFactory().setValidating(false);
+      SAXParser saxParser;
+      // the factory is shared by all parses which may be executed in parallel
+      synchronized (parser.getSaxParserFactory()) {
+        // must be done before parser is created
+        parser.getSaxParserFactory().setNamespaceAware(schemaResource != null);
+        parser.getSaxParserFactory().setValidating(schemaResource != null);
+        saxParser = parser.getSaxParser();
       }
 
-      SAXParser saxParser = parser.getSaxParser(); 
       if (schemaResource != null) { 
         saxParser.setProperty(JAXP_SCHEMA_LANGUAGE, W3C_XML_SCHEMA);
         saxParser.setProperty(JAXP_SCHEMA_SOURCE, schemaResource);
@@ -190,12 +206,14 @@ public class Parse extends DefaultHandler {
   
   public void setSchemaResource(String schemaResource) {
     SAXParserFactory saxParserFactory = parser.getSaxParserFactory();
-    saxParserFactory.setNamespaceAware(true);
-    saxParserFactory.setValidating(true);
-    try {
-      saxParserFactory.setFeature("http://xml.org/sax/features/namespace-prefixes", true);
-    } catch (Exception e) {
-      LOGGER.warning(e.getMessage());
+    synchronized (saxParserFactory) {
+      saxParserFactory.setNamespaceAware(true);
+      saxParserFactory.setValidating(true);
+      try {
+        saxParserFactory.setFeature("http://xml.org/sax/features/namespace-prefixes", true);
+      } catch (Exception e) {
+        LOGGER.warning(e.getMessage());
+      }
     }
     this.schemaResource = schemaResource;
   }
@@ -0,0 +1,65 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.variable.serializer;
+
+import java.io.InputStream;
+
+import org.camunda.bpm.engine.ProcessEngineException;
+import org.camunda.bpm.engine.impl.context.Context;
+import org.camunda.bpm.engine.impl.core.variable.value.UntypedValueImpl;
+import org.camunda.bpm.engine.impl.persistence.entity.VariableInstanceEntity;
+import org.camunda.bpm.engine.variable.Variables;
+import org.camunda.bpm.engine.variable.type.ValueType;
+import org.camunda.bpm.engine.variable.value.StreamValue;
+
+/**
+ * Stores the content of a {@link StreamValue} in a byte array without loading it into memory.
+ * The content is written by the database driver from the stream when the byte array is inserted
+ * and read from the database while the returned stream is consumed.
+ *
+ * <p>Only runtime variables can hold stream values. The content is not copied to the history,
+ * so historic stream values are always null, and stream values cannot be used in queries.</p>
+ */
+public class StreamValueSerializer extends PrimitiveValueSerializer<StreamValue> {
+
+  public StreamValueSerializer() {
+    super(ValueType.STREAM);
+  }
+
+  public StreamValue convertToTypedValue(UntypedValueImpl untypedValue) {
+    return Variables.streamValue( (InputStream) untypedValue.getValue() );
+  }
+
+  public StreamValue readValue(ValueFields valueFields) {
+    String byteArrayId = valueFields.getByteArrayValueId();
+    if (byteArrayId == null) {
+      return Variables.streamValue(null);
+    }
+
+    InputStream stream = Context
+      .getCommandContext()
+      .getByteArrayManager()
+      .openByteArrayStream(byteArrayId);
+
+    return Variables.streamValue(stream);
+  }
+
+  public void writeValue(StreamValue value, ValueFields valueFields) {
+    if (!(valueFields instanceof VariableInstanceEntity)) {
+      throw new ProcessEngineException("Stream values can only be stored in variables, not in '" + valueFields.getName() + "'");
+    }
+
+    ((VariableInstanceEntity) valueFields).setByteArrayValueFromStream(value.getValue());
+  }
+
+}
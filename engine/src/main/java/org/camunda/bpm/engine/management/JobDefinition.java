@@ -74,4 +74,11 @@ public interface JobDefinition {
    */
   boolean isSuspended();
 
+  /**
+   * The priority assigned to jobs which are created from this job definition.
+   *
+   * @return the job priority or null if jobs are created with the default priority.
+   */
+  Long getJobPriority();
+
 }
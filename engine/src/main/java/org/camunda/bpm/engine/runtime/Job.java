@@ -91,4 +91,11 @@ public interface Job {
    * @return true if this Job is currently suspended.
    */
   boolean isSuspended();
+
+  /**
+   * Returns the priority of this job. Jobs with a higher priority are acquired
+   * by the job executor before jobs with a lower priority if
+   * acquisition by priority is enabled.
+   */
+  long getPriority();
 }
@@ -12,6 +12,7 @@
  */
 package org.camunda.bpm.engine.variable;
 
+import java.io.InputStream;
 import java.io.Serializable;
 import java.util.Date;
 import java.util.Map;
@@ -26,6 +27,7 @@ import org.camunda.bpm.engine.impl.core.variable.value.PrimitiveTypeValueImpl.In
 import org.camunda.bpm.engine.impl.core.variable.value.PrimitiveTypeValueImpl.LongValueImpl;
 import org.camunda.bpm.engine.impl.core.variable.value.PrimitiveTypeValueImpl.NumberValueImpl;
 import org.camunda.bpm.engine.impl.core.variable.value.PrimitiveTypeValueImpl.ShortValueImpl;
+import org.camunda.bpm.engine.impl.core.variable.value.PrimitiveTypeValueImpl.StreamValueImpl;
 import org.camunda.bpm.engine.impl.core.variable.value.PrimitiveTypeValueImpl.StringValueImpl;
 import org.camunda.bpm.engine.impl.core.variable.value.UntypedValueImpl;
 import org.camunda.bpm.engine.impl.core.variable.value.builder.ObjectVariableBuilderImpl;
@@ -39,6 +41,7 @@ import org.camunda.bpm.engine.variable.value.LongValue;
 import org.camunda.bpm.engine.variable.value.NumberValue;
 import org.camunda.bpm.engine.variable.value.SerializationDataFormat;
 import org.camunda.bpm.engine.variable.value.ShortValue;
+import org.camunda.bpm.engine.variable.value.StreamValue;
 import org.camunda.bpm.engine.variable.value.StringValue;
 import org.camunda.bpm.engine.variable.value.TypedValue;
 import org.camunda.bpm.engine.variable.value.builder.ObjectValueBuilder;
@@ -158,6 +161,15 @@ public class Variables {
     return new BytesValueImpl(bytes);
   }
 
+  /**
+   * Creates a value whose content is written from the given stream when the variable is
+   * persisted, without loading it into memory. The stream is read when the command which
+   * sets the variable completes, so it must not be closed before.
+   */
+  public static StreamValue streamValue(InputStream stream) {
+    return new StreamValueImpl(stream);
+  }
+
   public static DateValue dateValue(Date date) {
     return new DateValueImpl(date);
   }
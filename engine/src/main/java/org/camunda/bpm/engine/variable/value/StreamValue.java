@@ -0,0 +1,28 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.variable.value;
+
+import java.io.InputStream;
+
+/**
+ * <p>A {@link PrimitiveValue} corresponding to binary content which is written and read
+ * as a Java {@link InputStream} without holding it in memory as a whole.</p>
+ *
+ * <p>A stream returned by the process engine reads the content from the database when
+ * it is consumed and has to be closed by the caller.</p>
+ *
+ * @since 7.3
+ */
+public interface StreamValue extends PrimitiveValue<InputStream> {
+
+}
@@ -24,6 +24,7 @@ create table ACT_GE_BYTEARRAY (
     DEPLOYMENT_ID_ NVARCHAR2(64),
     BYTES_ BLOB,
     GENERATED_ NUMBER(1,0) CHECK (GENERATED_ IN (1,0)),
+    ENCODING_ NVARCHAR2(64),
     primary key (ID_)
 );
 
@@ -76,6 +77,7 @@ create table ACT_RU_JOB (
     DEPLOYMENT_ID_ NVARCHAR2(64),
     SUSPENSION_STATE_ INTEGER,
     JOB_DEF_ID_ NVARCHAR2(64),
+    PRIORITY_ NUMBER(19,0) default 0 NOT NULL,
     primary key (ID_)
 );
 
@@ -88,6 +90,7 @@ create table ACT_RU_JOBDEF (
     JOB_TYPE_ NVARCHAR2(255) NOT NULL,
     JOB_CONFIGURATION_ NVARCHAR2(255),
     SUSPENSION_STATE_ INTEGER,
+    JOB_PRIORITY_ NUMBER(19,0),
     primary key (ID_)
 );
 
@@ -222,6 +225,7 @@ create index ACT_IDX_EVENT_SUBSCR_CONFIG_ on ACT_RU_EVENT_SUBSCR(CONFIGURATION_)
 create index ACT_IDX_VARIABLE_TASK_ID on ACT_RU_VARIABLE(TASK_ID_);
 create index ACT_IDX_INC_CONFIGURATION on ACT_RU_INCIDENT(CONFIGURATION_);
 create index ACT_IDX_JOB_PROCINST on ACT_RU_JOB(PROCESS_INSTANCE_ID_);
+create index ACT_IDX_JOB_PRIORITY on ACT_RU_JOB(PRIORITY_ desc, DUEDATE_);
 
 create index ACT_IDX_BYTEAR_DEPL on ACT_GE_BYTEARRAY(DEPLOYMENT_ID_);
 alter table ACT_GE_BYTEARRAY
@@ -12,7 +12,9 @@
  */
 package org.camunda.bpm.engine.impl.db.entitymanager;
 
+import java.util.Arrays;
 import java.util.List;
+
 import org.camunda.bpm.engine.impl.db.DbEntity;
 import org.camunda.bpm.engine.impl.db.entitymanager.operation.DbEntityOperation;
 import org.camunda.bpm.engine.impl.db.entitymanager.operation.DbOperation;
@@ -170,6 +172,34 @@ public class DbOperationsOrderingTest {
   }
 
 
+  @Test
+  public void testDeleteReferenceOrderingMultipleTrees() {
+
+    // tree1
+    execution3.setParent(execution4);
+    execution2.setParent(execution4);
+    execution5.setParent(execution3);
+
+    // tree2
+    execution1.setParent(execution8);
+
+    for (ExecutionEntity execution : Arrays.asList(execution8, execution6, execution2, execution5, execution1, execution4, execution7, execution3)) {
+      entityManager.getDbEntityCache().putPersistent(execution);
+      entityManager.delete(execution);
+    }
+
+    // the children are deleted before their parents
+    entityManager.flushEntityCache();
+    List<DbOperation> deleteOperations = entityManager.getDbOperationManager().calculateFlush();
+    assertEquals(8, deleteOperations.size());
+    assertHappensAfter(execution4, execution3, deleteOperations);
+    assertHappensAfter(execution4, execution2, deleteOperations);
+    assertHappensAfter(execution3, execution5, deleteOperations);
+    assertHappensAfter(execution8, execution1, deleteOperations);
+
+  }
+
+
   protected void assertHappensAfter(DbEntity entity1, DbEntity entity2, List<DbOperation> operations) {
     int idx1 = indexOfEntity(entity1, operations);
     int idx2 = indexOfEntity(entity2, operations);
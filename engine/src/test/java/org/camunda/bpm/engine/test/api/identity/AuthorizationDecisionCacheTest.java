@@ -0,0 +1,170 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.api.identity;
+
+import static org.camunda.bpm.engine.authorization.Authorization.ANY;
+import static org.camunda.bpm.engine.authorization.Authorization.AUTH_TYPE_GRANT;
+import static org.camunda.bpm.engine.authorization.Authorization.AUTH_TYPE_REVOKE;
+import static org.camunda.bpm.engine.authorization.Permissions.READ;
+import static org.camunda.bpm.engine.authorization.Resources.USER;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.camunda.bpm.engine.authorization.Authorization;
+import org.camunda.bpm.engine.identity.User;
+import org.camunda.bpm.engine.impl.db.AuthorizationDecisionCache;
+import org.camunda.bpm.engine.impl.test.PluggableProcessEngineTestCase;
+
+public class AuthorizationDecisionCacheTest extends PluggableProcessEngineTestCase {
+
+  protected static final String USER_ID = "jonny2";
+  protected static final List<String> GROUP_IDS = Arrays.asList("sales");
+
+  protected AuthorizationDecisionCache decisionCache;
+
+  protected void setUp() throws Exception {
+    super.setUp();
+    decisionCache = new AuthorizationDecisionCache();
+    processEngineConfiguration.setAuthorizationDecisionCache(decisionCache);
+  }
+
+  protected void tearDown() throws Exception {
+    processEngineConfiguration.setAuthorizationEnabled(false);
+    processEngineConfiguration.setAuthorizationPreResolutionEnabled(false);
+    processEngineConfiguration.setAuthorizationDecisionCache(null);
+    identityService.clearAuthentication();
+
+    for (User user : identityService.createUserQuery().list()) {
+      identityService.deleteUser(user.getId());
+    }
+    for (Authorization authorization : authorizationService.createAuthorizationQuery().list()) {
+      authorizationService.deleteAuthorization(authorization.getId());
+    }
+    super.tearDown();
+  }
+
+  public void testDecisionIsCachedAcrossCommands() {
+    createGrant(USER_ID, null, ANY);
+
+    assertTrue(authorizationService.isUserAuthorized(USER_ID, GROUP_IDS, READ, USER, "jonny1"));
+    assertEquals(1, decisionCache.size());
+    assertEquals(0, decisionCache.getHitCount());
+
+    assertTrue(authorizationService.isUserAuthorized(USER_ID, GROUP_IDS, READ, USER, "jonny1"));
+    assertEquals(1, decisionCache.size());
+    assertEquals(1, decisionCache.getHitCount());
+
+    // other groups result in a different decision
+    assertTrue(authorizationService.isUserAuthorized(USER_ID, Collections.<String>emptyList(), READ, USER, "jonny1"));
+    assertEquals(2, decisionCache.size());
+  }
+
+  public void testCacheIsInvalidatedWhenAuthorizationIsSaved() {
+    assertFalse(authorizationService.isUserAuthorized(USER_ID, GROUP_IDS, READ, USER, "jonny1"));
+    assertEquals(1, decisionCache.size());
+
+    Authorization authorization = createGrant(USER_ID, null, "jonny1");
+    assertEquals(0, decisionCache.size());
+    assertTrue(authorizationService.isUserAuthorized(USER_ID, GROUP_IDS, READ, USER, "jonny1"));
+
+    authorization.removePermission(READ);
+    authorizationService.saveAuthorization(authorization);
+    assertEquals(0, decisionCache.size());
+    assertFalse(authorizationService.isUserAuthorized(USER_ID, GROUP_IDS, READ, USER, "jonny1"));
+  }
+
+  public void testCacheIsInvalidatedWhenAuthorizationIsDeleted() {
+    Authorization authorization = createGrant(USER_ID, null, "jonny1");
+    assertTrue(authorizationService.isUserAuthorized(USER_ID, GROUP_IDS, READ, USER, "jonny1"));
+
+    authorizationService.deleteAuthorization(authorization.getId());
+    assertEquals(0, decisionCache.size());
+    assertFalse(authorizationService.isUserAuthorized(USER_ID, GROUP_IDS, READ, USER, "jonny1"));
+  }
+
+  public void testQueryWithUserGrantForAllResources() {
+    createUsers("jonny1", "jonny3");
+    createGrant(USER_ID, null, ANY);
+    // a user grant for all resources takes precedence over user revokes
+    createRevoke(USER_ID, null, "jonny1");
+
+    processEngineConfiguration.setAuthorizationPreResolutionEnabled(true);
+    processEngineConfiguration.setAuthorizationEnabled(true);
+    identityService.setAuthentication(USER_ID, GROUP_IDS);
+
+    assertEquals(2, identityService.createUserQuery().count());
+    assertEquals(2, identityService.createUserQuery().list().size());
+  }
+
+  public void testQueryWithGroupGrantForAllResources() {
+    createUsers("jonny1", "jonny3");
+    createGrant(null, "sales", ANY);
+
+    processEngineConfiguration.setAuthorizationPreResolutionEnabled(true);
+    processEngineConfiguration.setAuthorizationEnabled(true);
+    identityService.setAuthentication(USER_ID, GROUP_IDS);
+
+    assertEquals(2, identityService.createUserQuery().count());
+
+    // a revoke for a single user requires checking the individual resources
+    processEngineConfiguration.setAuthorizationEnabled(false);
+    createRevoke(USER_ID, null, "jonny1");
+    processEngineConfiguration.setAuthorizationEnabled(true);
+
+    assertEquals(1, identityService.createUserQuery().count());
+    assertEquals("jonny3", identityService.createUserQuery().singleResult().getId());
+  }
+
+  public void testQueryWithoutGrantForAllResources() {
+    createUsers("jonny1", "jonny3");
+    createGrant(USER_ID, null, "jonny1");
+
+    processEngineConfiguration.setAuthorizationPreResolutionEnabled(true);
+    processEngineConfiguration.setAuthorizationEnabled(true);
+    identityService.setAuthentication(USER_ID, GROUP_IDS);
+
+    assertEquals(1, identityService.createUserQuery().count());
+    assertEquals("jonny1", identityService.createUserQuery().singleResult().getId());
+  }
+
+  protected void createUsers(String... userIds) {
+    for (String userId : userIds) {
+      identityService.saveUser(identityService.newUser(userId));
+    }
+  }
+
+  protected Authorization createGrant(String userId, String groupId, String resourceId) {
+    Authorization authorization = authorizationService.createNewAuthorization(AUTH_TYPE_GRANT);
+    authorization.setUserId(userId);
+    authorization.setGroupId(groupId);
+    authorization.setResource(USER);
+    authorization.setResourceId(resourceId);
+    authorization.addPermission(READ);
+    authorizationService.saveAuthorization(authorization);
+    return authorization;
+  }
+
+  protected Authorization createRevoke(String userId, String groupId, String resourceId) {
+    Authorization authorization = authorizationService.createNewAuthorization(AUTH_TYPE_REVOKE);
+    authorization.setUserId(userId);
+    authorization.setGroupId(groupId);
+    authorization.setResource(USER);
+    authorization.setResourceId(resourceId);
+    authorization.removePermission(READ);
+    authorizationService.saveAuthorization(authorization);
+    return authorization;
+  }
+
+}
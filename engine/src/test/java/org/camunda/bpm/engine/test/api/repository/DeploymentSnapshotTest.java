@@ -0,0 +1,164 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.api.repository;
+
+import java.io.File;
+import java.util.Collections;
+
+import org.camunda.bpm.engine.ProcessEngineException;
+import org.camunda.bpm.engine.impl.cmd.DeleteUnknownDeploymentSnapshotsCmd;
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.persistence.deploy.DeploymentCache;
+import org.camunda.bpm.engine.impl.persistence.deploy.DeploymentSnapshotStore;
+import org.camunda.bpm.engine.impl.test.PluggableProcessEngineTestCase;
+import org.camunda.bpm.engine.impl.util.xml.Element;
+import org.camunda.bpm.engine.runtime.ProcessInstance;
+import org.camunda.bpm.model.bpmn.Bpmn;
+
+public class DeploymentSnapshotTest extends PluggableProcessEngineTestCase {
+
+  protected static final String RESOURCE_NAME = "process.bpmn";
+
+  protected File snapshotDirectory;
+  protected CountingSnapshotStore snapshotStore;
+  protected DeploymentSnapshotStore previousSnapshotStore;
+
+  protected String deploymentId;
+
+  protected void setUp() throws Exception {
+    super.setUp();
+    snapshotDirectory = File.createTempFile("camunda-snapshots", "");
+    snapshotDirectory.delete();
+
+    snapshotStore = new CountingSnapshotStore(snapshotDirectory);
+    DeploymentCache deploymentCache = processEngineConfiguration.getDeploymentCache();
+    previousSnapshotStore = deploymentCache.getSnapshotStore();
+    deploymentCache.setSnapshotStore(snapshotStore);
+
+    deploymentId = repositoryService.createDeployment()
+      .addModelInstance(RESOURCE_NAME, Bpmn.createExecutableProcess("process")
+        .startEvent()
+        .userTask()
+        .endEvent()
+        .done())
+      .deploy()
+      .getId();
+  }
+
+  protected void tearDown() throws Exception {
+    if (deploymentId != null) {
+      repositoryService.deleteDeployment(deploymentId, true);
+    }
+    processEngineConfiguration.getDeploymentCache().setSnapshotStore(previousSnapshotStore);
+
+    File[] files = snapshotDirectory.listFiles();
+    if (files != null) {
+      for (File file : files) {
+        file.delete();
+      }
+    }
+    snapshotDirectory.delete();
+    super.tearDown();
+  }
+
+  public void testSnapshotIsWrittenOnDeployment() {
+    assertEquals(1, snapshotDirectory.listFiles().length);
+    assertEquals(0, snapshotStore.hits);
+  }
+
+  public void testSnapshotIsUsedAfterCacheMiss() {
+    processEngineConfiguration.getDeploymentCache().discardProcessDefinitionCache();
+
+    ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("process");
+
+    assertEquals(1, snapshotStore.hits);
+    assertEquals(1, taskService.createTaskQuery().processInstanceId(processInstance.getId()).count());
+  }
+
+  public void testOutdatedSnapshotIsNotUsed() {
+    // a snapshot of a different content of the resource
+    snapshotStore.save(deploymentId, RESOURCE_NAME, "outdated".getBytes(), new Element("", "invalid", "invalid", null, null));
+    processEngineConfiguration.getDeploymentCache().discardProcessDefinitionCache();
+
+    ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("process");
+
+    assertEquals(0, snapshotStore.hits);
+    assertEquals(1, taskService.createTaskQuery().processInstanceId(processInstance.getId()).count());
+
+    // the snapshot was written again
+    processEngineConfiguration.getDeploymentCache().discardProcessDefinitionCache();
+    runtimeService.startProcessInstanceByKey("process");
+    assertEquals(1, snapshotStore.hits);
+  }
+
+  public void testSnapshotsAreDeletedWithDeployment() {
+    repositoryService.deleteDeployment(deploymentId, true);
+    deploymentId = null;
+
+    assertEquals(0, snapshotDirectory.listFiles().length);
+  }
+
+  public void testNoSnapshotIsWrittenIfDeploymentIsRolledBack() {
+    try {
+      processEngineConfiguration.getCommandExecutorTxRequired().execute(new Command<Void>() {
+        public Void execute(CommandContext commandContext) {
+          repositoryService.createDeployment()
+            .addModelInstance(RESOURCE_NAME, Bpmn.createExecutableProcess("otherProcess")
+              .startEvent()
+              .endEvent()
+              .done())
+            .deploy();
+          throw new ProcessEngineException("expected exception");
+        }
+      });
+      fail("exception expected");
+
+    } catch (ProcessEngineException e) {
+      assertTextPresent("expected exception", e.getMessage());
+    }
+    // the definitions of the rolled back deployment were added to the cache
+    processEngineConfiguration.getDeploymentCache().discardProcessDefinitionCache();
+
+    assertEquals(1, snapshotDirectory.listFiles().length);
+  }
+
+  public void testSnapshotsOfUnknownDeploymentsAreDeleted() {
+    // a snapshot of a deployment which was deleted by another process engine
+    snapshotStore.save("unknownDeployment", RESOURCE_NAME, "unknown".getBytes(), new Element("", "invalid", "invalid", null, null));
+    assertEquals(2, snapshotStore.getDeploymentIds().size());
+
+    processEngineConfiguration.getCommandExecutorTxRequired().execute(new DeleteUnknownDeploymentSnapshotsCmd(snapshotStore));
+
+    assertEquals(Collections.singleton(deploymentId), snapshotStore.getDeploymentIds());
+    assertEquals(1, snapshotDirectory.listFiles().length);
+  }
+
+  public static class CountingSnapshotStore extends DeploymentSnapshotStore {
+
+    protected int hits;
+
+    public CountingSnapshotStore(File directory) {
+      super(directory);
+    }
+
+    public Element load(String deploymentId, String resourceName, byte[] resourceBytes) {
+      Element rootElement = super.load(deploymentId, resourceName, resourceBytes);
+      if (rootElement != null) {
+        hits++;
+      }
+      return rootElement;
+    }
+  }
+
+}
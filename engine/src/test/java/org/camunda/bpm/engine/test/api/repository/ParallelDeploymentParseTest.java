@@ -0,0 +1,151 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.api.repository;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.camunda.bpm.engine.ProcessEngineException;
+import org.camunda.bpm.engine.impl.bpmn.deployer.BpmnDeployer;
+import org.camunda.bpm.engine.impl.cmmn.deployer.CmmnDeployer;
+import org.camunda.bpm.engine.impl.persistence.deploy.Deployer;
+import org.camunda.bpm.engine.impl.persistence.deploy.DeploymentParseExecutor;
+import org.camunda.bpm.engine.impl.test.PluggableProcessEngineTestCase;
+import org.camunda.bpm.engine.repository.DeploymentBuilder;
+import org.camunda.bpm.engine.runtime.ProcessInstance;
+import org.camunda.bpm.model.bpmn.Bpmn;
+
+public class ParallelDeploymentParseTest extends PluggableProcessEngineTestCase {
+
+  protected static final int NUMBER_OF_PROCESSES = 20;
+
+  protected DeploymentParseExecutor parseExecutor;
+  protected Map<Deployer, DeploymentParseExecutor> replacedParseExecutors = new IdentityHashMap<Deployer, DeploymentParseExecutor>();
+
+  protected List<String> deploymentIds = new ArrayList<String>();
+
+  protected void setUp() throws Exception {
+    super.setUp();
+    parseExecutor = new DeploymentParseExecutor(4);
+    replaceParseExecutors(processEngineConfiguration.getDeployers());
+    replaceParseExecutors(processEngineConfiguration.getDeploymentCache().getDeployers());
+  }
+
+  protected void tearDown() throws Exception {
+    for (Map.Entry<Deployer, DeploymentParseExecutor> replacedParseExecutor : replacedParseExecutors.entrySet()) {
+      Deployer deployer = replacedParseExecutor.getKey();
+      if (deployer instanceof BpmnDeployer) {
+        ((BpmnDeployer) deployer).setParseExecutor(replacedParseExecutor.getValue());
+      } else {
+        ((CmmnDeployer) deployer).setParseExecutor(replacedParseExecutor.getValue());
+      }
+    }
+    parseExecutor.close();
+
+    for (String deploymentId : deploymentIds) {
+      repositoryService.deleteDeployment(deploymentId, true);
+    }
+    super.tearDown();
+  }
+
+  public void testParallelDeployment() {
+    deploy(createDeployment());
+
+    assertEquals(NUMBER_OF_PROCESSES, repositoryService.createProcessDefinitionQuery().count());
+    assertEquals(2, repositoryService.createCaseDefinitionQuery().count());
+
+    for (int i = 0; i < NUMBER_OF_PROCESSES; i++) {
+      assertEquals(1, repositoryService.createProcessDefinitionQuery().processDefinitionKey("process" + i).count());
+    }
+    assertEquals(1, repositoryService.createCaseDefinitionQuery().caseDefinitionKey("oneTaskCase").count());
+    assertEquals(1, repositoryService.createCaseDefinitionQuery().caseDefinitionKey("twoTaskCase").count());
+  }
+
+  public void testParallelRedeploymentAfterCacheMiss() {
+    deploy(createDeployment());
+
+    processEngineConfiguration.getDeploymentCache().discardProcessDefinitionCache();
+    processEngineConfiguration.getDeploymentCache().discardCaseDefinitionCache();
+
+    for (int i = 0; i < NUMBER_OF_PROCESSES; i++) {
+      ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("process" + i);
+      assertEquals(1, taskService.createTaskQuery().processInstanceId(processInstance.getId()).count());
+    }
+    assertNotNull(caseService.createCaseInstanceByKey("oneTaskCase"));
+  }
+
+  public void testInvalidResourceFailsDeployment() {
+    DeploymentBuilder deployment = createDeployment()
+      .addString("invalid.bpmn", "this is not a BPMN 2.0 XML document");
+
+    try {
+      deploy(deployment);
+      fail("exception expected");
+    } catch (ProcessEngineException e) {
+      assertTextPresent("invalid.bpmn", e.getMessage());
+    }
+
+    assertEquals(0, repositoryService.createDeploymentQuery().count());
+    assertEquals(0, repositoryService.createProcessDefinitionQuery().count());
+  }
+
+  public void testDuplicateKeysInDifferentResourcesFailDeployment() {
+    DeploymentBuilder deployment = createDeployment()
+      .addModelInstance("duplicate.bpmn", Bpmn.createExecutableProcess("process0").startEvent().endEvent().done());
+
+    try {
+      deploy(deployment);
+      fail("exception expected");
+    } catch (ProcessEngineException e) {
+      assertTextPresent("same key 'process0'", e.getMessage());
+    }
+
+    assertEquals(0, repositoryService.createDeploymentQuery().count());
+  }
+
+  protected DeploymentBuilder createDeployment() {
+    DeploymentBuilder deployment = repositoryService.createDeployment();
+    for (int i = 0; i < NUMBER_OF_PROCESSES; i++) {
+      deployment.addModelInstance("process" + i + ".bpmn", Bpmn.createExecutableProcess("process" + i)
+        .startEvent()
+        .userTask()
+        .endEvent()
+        .done());
+    }
+    deployment.addClasspathResource("org/camunda/bpm/engine/test/api/cmmn/oneTaskCase.cmmn");
+    deployment.addClasspathResource("org/camunda/bpm/engine/test/api/cmmn/twoTaskCase.cmmn");
+    return deployment;
+  }
+
+  protected void deploy(DeploymentBuilder deployment) {
+    deploymentIds.add(deployment.deploy().getId());
+  }
+
+  protected void replaceParseExecutors(List<Deployer> deployers) {
+    for (Deployer deployer : deployers) {
+      if (deployer instanceof BpmnDeployer) {
+        BpmnDeployer bpmnDeployer = (BpmnDeployer) deployer;
+        replacedParseExecutors.put(deployer, bpmnDeployer.getParseExecutor());
+        bpmnDeployer.setParseExecutor(parseExecutor);
+
+      } else if (deployer instanceof CmmnDeployer) {
+        CmmnDeployer cmmnDeployer = (CmmnDeployer) deployer;
+        replacedParseExecutors.put(deployer, cmmnDeployer.getParseExecutor());
+        cmmnDeployer.setParseExecutor(parseExecutor);
+      }
+    }
+  }
+
+}
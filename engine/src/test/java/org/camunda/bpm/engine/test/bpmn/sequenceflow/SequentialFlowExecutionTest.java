@@ -0,0 +1,128 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.bpmn.sequenceflow;
+
+import static org.camunda.bpm.model.bpmn.impl.BpmnModelConstants.CAMUNDA_NS;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.camunda.bpm.engine.delegate.DelegateExecution;
+import org.camunda.bpm.engine.delegate.ExecutionListener;
+import org.camunda.bpm.engine.impl.test.PluggableProcessEngineTestCase;
+import org.camunda.bpm.engine.runtime.ProcessInstance;
+import org.camunda.bpm.model.bpmn.Bpmn;
+import org.camunda.bpm.model.bpmn.BpmnModelInstance;
+import org.camunda.bpm.model.bpmn.builder.AbstractFlowNodeBuilder;
+import org.camunda.bpm.model.bpmn.instance.BaseElement;
+import org.camunda.bpm.model.bpmn.instance.ExtensionElements;
+import org.camunda.bpm.model.xml.instance.ModelElementInstance;
+
+/**
+ * Executes processes which are completed in a single command without reaching a wait state,
+ * i.e. the atomic operations are continued by the command context.
+ */
+public class SequentialFlowExecutionTest extends PluggableProcessEngineTestCase {
+
+  protected static final String PROCESS_ID = "process";
+
+  protected String deploymentId;
+
+  protected void tearDown() throws Exception {
+    RecordingExecutionListener.clear();
+    if (deploymentId != null) {
+      repositoryService.deleteDeployment(deploymentId, true);
+    }
+    super.tearDown();
+  }
+
+  public void testLongSequenceOfActivities() {
+    AbstractFlowNodeBuilder<?, ?> builder = Bpmn.createExecutableProcess(PROCESS_ID).startEvent();
+    for (int i = 0; i < 1000; i++) {
+      builder = builder.manualTask("task" + i);
+    }
+    deploy(builder.endEvent().done());
+
+    ProcessInstance processInstance = runtimeService.startProcessInstanceByKey(PROCESS_ID);
+
+    assertProcessEnded(processInstance.getId());
+  }
+
+  public void testListenerInvocationOrder() {
+    BpmnModelInstance modelInstance = Bpmn.createExecutableProcess(PROCESS_ID)
+      .startEvent("start")
+        .sequenceFlowId("flow1")
+      .manualTask("task")
+        .sequenceFlowId("flow2")
+      .endEvent("end")
+      .done();
+
+    addExecutionListeners(modelInstance, "start", ExecutionListener.EVENTNAME_START, ExecutionListener.EVENTNAME_END);
+    addExecutionListeners(modelInstance, "flow1", ExecutionListener.EVENTNAME_TAKE);
+    addExecutionListeners(modelInstance, "task", ExecutionListener.EVENTNAME_START, ExecutionListener.EVENTNAME_END);
+    addExecutionListeners(modelInstance, "flow2", ExecutionListener.EVENTNAME_TAKE);
+    addExecutionListeners(modelInstance, "end", ExecutionListener.EVENTNAME_START, ExecutionListener.EVENTNAME_END);
+    deploy(modelInstance);
+
+    ProcessInstance processInstance = runtimeService.startProcessInstanceByKey(PROCESS_ID);
+
+    assertProcessEnded(processInstance.getId());
+    assertEquals(Arrays.asList(
+        "start:start", "start:end",
+        "flow1:take",
+        "task:start", "task:end",
+        "flow2:take",
+        "end:start", "end:end"),
+      RecordingExecutionListener.getRecordedEvents());
+  }
+
+  protected void addExecutionListeners(BpmnModelInstance modelInstance, String elementId, String... eventNames) {
+    BaseElement element = (BaseElement) modelInstance.getModelElementById(elementId);
+    ExtensionElements extensionElements = modelInstance.newInstance(ExtensionElements.class);
+    for (String eventName : eventNames) {
+      ModelElementInstance executionListener = extensionElements.addExtensionElement(CAMUNDA_NS, "executionListener");
+      executionListener.setAttributeValueNs(CAMUNDA_NS, "class", RecordingExecutionListener.class.getName());
+      executionListener.setAttributeValueNs(CAMUNDA_NS, "event", eventName);
+    }
+    element.setExtensionElements(extensionElements);
+  }
+
+  protected void deploy(BpmnModelInstance modelInstance) {
+    deploymentId = repositoryService.createDeployment()
+      .addModelInstance("process.bpmn", modelInstance)
+      .deploy()
+      .getId();
+  }
+
+  public static class RecordingExecutionListener implements ExecutionListener {
+
+    protected static List<String> recordedEvents = new ArrayList<String>();
+
+    public void notify(DelegateExecution execution) throws Exception {
+      String elementId = ExecutionListener.EVENTNAME_TAKE.equals(execution.getEventName())
+          ? execution.getCurrentTransitionId()
+          : execution.getCurrentActivityId();
+      recordedEvents.add(elementId + ":" + execution.getEventName());
+    }
+
+    public static List<String> getRecordedEvents() {
+      return recordedEvents;
+    }
+
+    public static void clear() {
+      recordedEvents.clear();
+    }
+  }
+
+}
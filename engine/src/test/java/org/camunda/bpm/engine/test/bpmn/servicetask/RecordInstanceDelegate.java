@@ -0,0 +1,36 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.bpmn.servicetask;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.camunda.bpm.engine.delegate.DelegateExecution;
+import org.camunda.bpm.engine.delegate.Expression;
+import org.camunda.bpm.engine.delegate.JavaDelegate;
+
+public class RecordInstanceDelegate implements JavaDelegate {
+
+  public static final List<RecordInstanceDelegate> INSTANCES = Collections.synchronizedList(new ArrayList<RecordInstanceDelegate>());
+
+  protected Expression text;
+
+  public void execute(DelegateExecution execution) throws Exception {
+    INSTANCES.add(this);
+    if (text != null) {
+      execution.setVariable("text", text.getValue(execution));
+    }
+  }
+
+}
@@ -0,0 +1,77 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.bpmn.servicetask;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.camunda.bpm.engine.impl.test.PluggableProcessEngineTestCase;
+import org.camunda.bpm.engine.test.Deployment;
+
+public class SharedDelegateInstanceTest extends PluggableProcessEngineTestCase {
+
+  protected static final String PROCESS_RESOURCE = "org/camunda/bpm/engine/test/bpmn/servicetask/SharedDelegateInstanceTest.bpmn20.xml";
+
+  protected void setUp() throws Exception {
+    super.setUp();
+    RecordInstanceDelegate.INSTANCES.clear();
+  }
+
+  protected void tearDown() throws Exception {
+    processEngineConfiguration.setEnableSharedDelegateInstances(false);
+    RecordInstanceDelegate.INSTANCES.clear();
+    super.tearDown();
+  }
+
+  @Deployment(resources = PROCESS_RESOURCE)
+  public void testInstancesAreNotSharedByDefault() {
+    runtimeService.startProcessInstanceByKey("withoutFieldInjection");
+    runtimeService.startProcessInstanceByKey("withoutFieldInjection");
+
+    assertEquals(2, RecordInstanceDelegate.INSTANCES.size());
+    assertNotSame(RecordInstanceDelegate.INSTANCES.get(0), RecordInstanceDelegate.INSTANCES.get(1));
+  }
+
+  @Deployment(resources = PROCESS_RESOURCE)
+  public void testInstancesAreShared() {
+    processEngineConfiguration.setEnableSharedDelegateInstances(true);
+
+    runtimeService.startProcessInstanceByKey("withoutFieldInjection");
+    runtimeService.startProcessInstanceByKey("withoutFieldInjection");
+
+    assertEquals(2, RecordInstanceDelegate.INSTANCES.size());
+    assertSame(RecordInstanceDelegate.INSTANCES.get(0), RecordInstanceDelegate.INSTANCES.get(1));
+  }
+
+  @Deployment(resources = PROCESS_RESOURCE)
+  public void testInstancesWithFieldInjectionAreNotShared() {
+    processEngineConfiguration.setEnableSharedDelegateInstances(true);
+
+    String firstProcessInstanceId = startWithFieldInjection("first");
+    String secondProcessInstanceId = startWithFieldInjection("second");
+
+    assertEquals(2, RecordInstanceDelegate.INSTANCES.size());
+    assertNotSame(RecordInstanceDelegate.INSTANCES.get(0), RecordInstanceDelegate.INSTANCES.get(1));
+
+    // the cached field injections are applied to every instance
+    assertEquals("first", runtimeService.getVariable(firstProcessInstanceId, "text"));
+    assertEquals("second", runtimeService.getVariable(secondProcessInstanceId, "text"));
+  }
+
+  protected String startWithFieldInjection(String value) {
+    Map<String, Object> variables = new HashMap<String, Object>();
+    variables.put("value", value);
+    return runtimeService.startProcessInstanceByKey("withFieldInjection", variables).getId();
+  }
+
+}
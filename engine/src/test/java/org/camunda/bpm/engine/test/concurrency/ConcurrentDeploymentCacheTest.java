@@ -0,0 +1,114 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.concurrency;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.persistence.deploy.Deployer;
+import org.camunda.bpm.engine.impl.persistence.deploy.DeploymentCache;
+import org.camunda.bpm.engine.impl.persistence.entity.DeploymentEntity;
+import org.camunda.bpm.engine.impl.persistence.entity.ProcessDefinitionEntity;
+import org.camunda.bpm.engine.impl.test.PluggableProcessEngineTestCase;
+import org.camunda.bpm.engine.repository.ProcessDefinition;
+import org.camunda.bpm.engine.test.Deployment;
+
+public class ConcurrentDeploymentCacheTest extends PluggableProcessEngineTestCase {
+
+  protected static final int NUMBER_OF_THREADS = 8;
+
+  protected CountingDeployer countingDeployer;
+
+  protected void setUp() throws Exception {
+    super.setUp();
+    countingDeployer = new CountingDeployer();
+    processEngineConfiguration.getDeploymentCache().getDeployers().add(countingDeployer);
+  }
+
+  protected void tearDown() throws Exception {
+    processEngineConfiguration.getDeploymentCache().getDeployers().remove(countingDeployer);
+    super.tearDown();
+  }
+
+  @Deployment(resources = "org/camunda/bpm/engine/test/api/oneTaskProcess.bpmn20.xml")
+  public void testConcurrentMissesShareOneParse() throws Exception {
+    final String processDefinitionId = repositoryService.createProcessDefinitionQuery().singleResult().getId();
+
+    DeploymentCache deploymentCache = processEngineConfiguration.getDeploymentCache();
+    deploymentCache.discardProcessDefinitionCache();
+    countingDeployer.deployments.set(0);
+
+    final List<ProcessDefinition> resolvedDefinitions = Collections.synchronizedList(new ArrayList<ProcessDefinition>());
+    final List<Throwable> exceptions = Collections.synchronizedList(new ArrayList<Throwable>());
+
+    List<Thread> threads = new ArrayList<Thread>();
+    for (int i = 0; i < NUMBER_OF_THREADS; i++) {
+      Thread thread = new Thread() {
+        public void run() {
+          try {
+            ProcessDefinitionEntity processDefinition = processEngineConfiguration
+              .getCommandExecutorTxRequired()
+              .execute(new Command<ProcessDefinitionEntity>() {
+                public ProcessDefinitionEntity execute(CommandContext commandContext) {
+                  return processEngineConfiguration
+                    .getDeploymentCache()
+                    .findDeployedProcessDefinitionById(processDefinitionId);
+                }
+              });
+            resolvedDefinitions.add(processDefinition);
+          } catch (Throwable t) {
+            exceptions.add(t);
+          }
+        }
+      };
+      thread.start();
+      threads.add(thread);
+    }
+
+    for (Thread thread : threads) {
+      thread.join();
+    }
+
+    assertTrue(exceptions.isEmpty());
+    assertEquals(NUMBER_OF_THREADS, resolvedDefinitions.size());
+
+    // the deployment was parsed only once and all threads got the same definition
+    assertEquals(1, countingDeployer.deployments.get());
+    for (ProcessDefinition processDefinition : resolvedDefinitions) {
+      assertSame(resolvedDefinitions.get(0), processDefinition);
+    }
+  }
+
+  /**
+   * Counts the number of (re-)deployments and makes them slow
+   * so that concurrent cache misses overlap.
+   */
+  public static class CountingDeployer implements Deployer {
+
+    protected AtomicInteger deployments = new AtomicInteger();
+
+    public void deploy(DeploymentEntity deployment) {
+      deployments.incrementAndGet();
+      try {
+        Thread.sleep(200);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+}
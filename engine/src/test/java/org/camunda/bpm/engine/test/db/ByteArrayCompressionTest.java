@@ -0,0 +1,149 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.db;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.camunda.bpm.engine.impl.persistence.entity.VariableInstanceEntity;
+import org.camunda.bpm.engine.impl.persistence.entity.util.ByteArrayCodec;
+import org.camunda.bpm.engine.impl.persistence.entity.util.DeflateByteArrayCodec;
+import org.camunda.bpm.engine.impl.test.PluggableProcessEngineTestCase;
+import org.camunda.bpm.engine.runtime.ProcessInstance;
+import org.camunda.bpm.engine.test.Deployment;
+import org.camunda.bpm.engine.variable.Variables;
+
+public class ByteArrayCompressionTest extends PluggableProcessEngineTestCase {
+
+  protected static final String ONE_TASK_PROCESS = "org/camunda/bpm/engine/test/api/oneTaskProcess.bpmn20.xml";
+
+  protected ByteArrayCodec byteArrayCodec;
+
+  protected void setUp() throws Exception {
+    super.setUp();
+    byteArrayCodec = processEngineConfiguration.getByteArrayCodec();
+    processEngineConfiguration.setByteArrayCodec(new DeflateByteArrayCodec(100));
+  }
+
+  protected void tearDown() throws Exception {
+    processEngineConfiguration.setByteArrayCodec(byteArrayCodec);
+    super.tearDown();
+  }
+
+  @Deployment(resources = ONE_TASK_PROCESS)
+  public void testLargeByteArrayIsStoredCompressed() throws Exception {
+    byte[] bytes = new byte[10000];
+    ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("oneTaskProcess",
+        Variables.createVariables().putValue("bytes", bytes));
+
+    assertTrue(Arrays.equals(bytes, (byte[]) runtimeService.getVariable(processInstance.getId(), "bytes")));
+
+    byte[] persistentBytes = selectPersistentBytes(processInstance.getId());
+    assertEquals(DeflateByteArrayCodec.ENCODING, selectEncoding(processInstance.getId()));
+    assertTrue(persistentBytes.length < bytes.length);
+
+    // compressed byte arrays can be read after compression is disabled
+    processEngineConfiguration.setByteArrayCodec(new DeflateByteArrayCodec());
+    assertTrue(Arrays.equals(bytes, (byte[]) runtimeService.getVariable(processInstance.getId(), "bytes")));
+  }
+
+  @Deployment(resources = ONE_TASK_PROCESS)
+  public void testSerializedVariableIsStoredCompressed() throws Exception {
+    List<String> list = new ArrayList<String>();
+    for (int i = 0; i < 100; i++) {
+      list.add("element " + i);
+    }
+
+    ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("oneTaskProcess",
+        Variables.createVariables().putValue("list", list));
+
+    assertEquals(DeflateByteArrayCodec.ENCODING, selectEncoding(processInstance.getId()));
+    assertEquals(list, runtimeService.getVariable(processInstance.getId(), "list"));
+
+    // update the variable
+    list.add("another element");
+    runtimeService.setVariable(processInstance.getId(), "list", list);
+    assertEquals(list, runtimeService.getVariable(processInstance.getId(), "list"));
+  }
+
+  @Deployment(resources = ONE_TASK_PROCESS)
+  public void testSmallByteArrayIsStoredUncompressed() throws Exception {
+    byte[] bytes = "some bytes".getBytes();
+    ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("oneTaskProcess",
+        Variables.createVariables().putValue("bytes", bytes));
+
+    assertTrue(Arrays.equals(bytes, selectPersistentBytes(processInstance.getId())));
+    assertNull(selectEncoding(processInstance.getId()));
+    assertTrue(Arrays.equals(bytes, (byte[]) runtimeService.getVariable(processInstance.getId(), "bytes")));
+  }
+
+  @Deployment(resources = ONE_TASK_PROCESS)
+  public void testUncompressedBytesLookingCompressedAreReturnedUnchanged() throws Exception {
+    // bytes which look like compressed bytes, stored while compression is disabled
+    processEngineConfiguration.setByteArrayCodec(new DeflateByteArrayCodec());
+    byte[] bytes = new DeflateByteArrayCodec(0).encode(new byte[10000]);
+
+    ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("oneTaskProcess",
+        Variables.createVariables().putValue("bytes", bytes));
+    assertNull(selectEncoding(processInstance.getId()));
+
+    processEngineConfiguration.setByteArrayCodec(new DeflateByteArrayCodec(100));
+    assertTrue(Arrays.equals(bytes, (byte[]) runtimeService.getVariable(processInstance.getId(), "bytes")));
+  }
+
+  protected byte[] selectPersistentBytes(String processInstanceId) throws Exception {
+    ResultSet resultSet = selectByteArray(processInstanceId);
+    try {
+      return resultSet.getBytes("BYTES_");
+    } finally {
+      closeResultSet(resultSet);
+    }
+  }
+
+  protected String selectEncoding(String processInstanceId) throws Exception {
+    ResultSet resultSet = selectByteArray(processInstanceId);
+    try {
+      return resultSet.getString("ENCODING_");
+    } finally {
+      closeResultSet(resultSet);
+    }
+  }
+
+  protected ResultSet selectByteArray(String processInstanceId) throws Exception {
+    VariableInstanceEntity variableInstance = (VariableInstanceEntity) runtimeService.createVariableInstanceQuery()
+      .processInstanceIdIn(processInstanceId)
+      .singleResult();
+
+    Connection connection = processEngineConfiguration.getDataSource().getConnection();
+    PreparedStatement statement = connection.prepareStatement("select BYTES_, ENCODING_ from "
+        + processEngineConfiguration.getDatabaseTablePrefix() + "ACT_GE_BYTEARRAY where ID_ = ?");
+    statement.setString(1, variableInstance.getByteArrayValueId());
+    ResultSet resultSet = statement.executeQuery();
+    assertTrue(resultSet.next());
+    return resultSet;
+  }
+
+  protected void closeResultSet(ResultSet resultSet) throws Exception {
+    Statement statement = resultSet.getStatement();
+    Connection connection = statement.getConnection();
+    resultSet.close();
+    statement.close();
+    connection.close();
+  }
+
+}
@@ -0,0 +1,109 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.db;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.camunda.bpm.engine.impl.db.entitymanager.cache.CachedDbEntity;
+import org.camunda.bpm.engine.impl.db.entitymanager.cache.DbEntityState;
+import org.camunda.bpm.engine.impl.persistence.entity.ExecutionEntity;
+import org.camunda.bpm.engine.impl.persistence.entity.VariableInstanceEntity;
+import org.camunda.bpm.engine.impl.test.PluggableProcessEngineTestCase;
+import org.camunda.bpm.engine.runtime.ProcessInstance;
+import org.camunda.bpm.engine.test.Deployment;
+import org.camunda.bpm.engine.variable.Variables;
+
+public class DbModificationTrackingTest extends PluggableProcessEngineTestCase {
+
+  protected static final String ONE_TASK_PROCESS = "org/camunda/bpm/engine/test/api/oneTaskProcess.bpmn20.xml";
+  protected static final String TWO_TASKS_PROCESS = "org/camunda/bpm/engine/test/api/twoTasksProcess.bpmn20.xml";
+
+  public void testCachedEntityIsDirty() {
+    VariableInstanceEntity variableInstance = new VariableInstanceEntity();
+    variableInstance.setTextValue("aValue");
+
+    CachedDbEntity cachedEntity = new CachedDbEntity();
+    cachedEntity.setEntity(variableInstance);
+    cachedEntity.setEntityState(DbEntityState.PERSISTENT);
+    assertTrue(cachedEntity.isDirty());
+
+    cachedEntity.makeCopy();
+    assertFalse(cachedEntity.isDirty());
+
+    // setting the same value does not make the entity dirty
+    variableInstance.setTextValue("aValue");
+    assertFalse(cachedEntity.isDirty());
+
+    variableInstance.setTextValue("anotherValue");
+    assertTrue(cachedEntity.isDirty());
+
+    cachedEntity.makeCopy();
+    assertFalse(cachedEntity.isDirty());
+
+    cachedEntity.forceSetDirty();
+    assertTrue(cachedEntity.isDirty());
+
+    cachedEntity.makeCopy();
+    assertFalse(cachedEntity.isDirty());
+  }
+
+  @Deployment(resources = ONE_TASK_PROCESS)
+  public void testReadingVariablesDoesNotUpdate() {
+    List<String> aList = new ArrayList<String>();
+    aList.add("anElement");
+
+    ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("oneTaskProcess",
+        Variables.createVariables()
+          .putValue("aString", "aValue")
+          .putValue("aList", aList));
+
+    int stringRevision = getVariableInstance("aString").getRevision();
+    int listRevision = getVariableInstance("aList").getRevision();
+    int executionRevision = getExecution(processInstance.getId()).getRevision();
+
+    runtimeService.getVariables(processInstance.getId());
+    runtimeService.setVariable(processInstance.getId(), "aString", "aValue");
+
+    assertEquals(stringRevision, getVariableInstance("aString").getRevision());
+    assertEquals(listRevision, getVariableInstance("aList").getRevision());
+    assertEquals(executionRevision, getExecution(processInstance.getId()).getRevision());
+  }
+
+  @Deployment(resources = TWO_TASKS_PROCESS)
+  public void testModifiedEntitiesAreUpdated() {
+    ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("twoTasksProcess",
+        Variables.createVariables().putValue("aString", "aValue"));
+
+    int variableRevision = getVariableInstance("aString").getRevision();
+    int executionRevision = getExecution(processInstance.getId()).getRevision();
+
+    runtimeService.setVariable(processInstance.getId(), "aString", "anotherValue");
+    assertEquals(variableRevision + 1, getVariableInstance("aString").getRevision());
+    assertEquals("anotherValue", runtimeService.getVariable(processInstance.getId(), "aString"));
+
+    taskService.complete(taskService.createTaskQuery().singleResult().getId());
+    ExecutionEntity execution = getExecution(processInstance.getId());
+    assertEquals(executionRevision + 1, execution.getRevision());
+    assertEquals("secondTask", execution.getActivityId());
+  }
+
+  protected VariableInstanceEntity getVariableInstance(String name) {
+    return (VariableInstanceEntity) runtimeService.createVariableInstanceQuery().variableName(name).singleResult();
+  }
+
+  protected ExecutionEntity getExecution(String executionId) {
+    return (ExecutionEntity) runtimeService.createExecutionQuery().executionId(executionId).singleResult();
+  }
+
+}
@@ -0,0 +1,217 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.db;
+
+import java.util.Map;
+import java.util.Set;
+
+import org.camunda.bpm.engine.ProcessEngineException;
+import org.camunda.bpm.engine.impl.cmd.GetNextIdBlockCmd;
+import org.camunda.bpm.engine.impl.db.DbEntity;
+import org.camunda.bpm.engine.impl.db.IdBlock;
+import org.camunda.bpm.engine.impl.db.PersistenceSession;
+import org.camunda.bpm.engine.impl.db.entitymanager.DbEntityManager;
+import org.camunda.bpm.engine.impl.db.entitymanager.cache.DbSecondLevelCache;
+import org.camunda.bpm.engine.impl.db.entitymanager.cache.DbSecondLevelCacheListener;
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.interceptor.CommandExecutor;
+import org.camunda.bpm.engine.impl.persistence.entity.JobDefinitionEntity;
+import org.camunda.bpm.engine.impl.persistence.entity.PropertyEntity;
+import org.camunda.bpm.engine.impl.test.PluggableProcessEngineTestCase;
+import org.camunda.bpm.engine.management.JobDefinition;
+import org.camunda.bpm.engine.test.Deployment;
+
+public class DbSecondLevelCacheTest extends PluggableProcessEngineTestCase {
+
+  protected static final String PROPERTY_NAME = "secondLevelCacheTestProperty";
+
+  protected DbSecondLevelCache secondLevelCache;
+
+  protected void setUp() throws Exception {
+    super.setUp();
+    Set<Class<? extends DbEntity>> entityTypes = DbSecondLevelCache.defaultEntityTypes();
+    entityTypes.add(PropertyEntity.class);
+    secondLevelCache = new DbSecondLevelCache(entityTypes);
+    processEngineConfiguration.setDbSecondLevelCache(secondLevelCache);
+  }
+
+  protected void tearDown() throws Exception {
+    processEngineConfiguration.setDbSecondLevelCache(null);
+    if (managementService.getProperties().containsKey(PROPERTY_NAME)) {
+      managementService.deleteProperty(PROPERTY_NAME);
+    }
+    super.tearDown();
+  }
+
+  public void testEntityIsCachedAcrossCommands() {
+    managementService.setProperty(PROPERTY_NAME, "aValue");
+
+    assertEquals("aValue", findProperty().getValue());
+    assertEquals(1, secondLevelCache.size());
+    long hitCount = secondLevelCache.getHitCount();
+
+    assertEquals("aValue", findProperty().getValue());
+    assertEquals(hitCount + 1, secondLevelCache.getHitCount());
+  }
+
+  public void testCachedEntityIsCopied() {
+    managementService.setProperty(PROPERTY_NAME, "aValue");
+    findProperty();
+
+    // modify the entity in a command which is rolled back
+    try {
+      processEngineConfiguration.getCommandExecutorTxRequired().execute(new Command<Void>() {
+        public Void execute(CommandContext commandContext) {
+          commandContext.getPropertyManager().findPropertyById(PROPERTY_NAME).setValue("anotherValue");
+          throw new ProcessEngineException("expected exception");
+        }
+      });
+      fail("exception expected");
+
+    } catch (ProcessEngineException e) {
+      assertTextPresent("expected exception", e.getMessage());
+    }
+
+    assertEquals("aValue", findProperty().getValue());
+  }
+
+  public void testCacheIsInvalidatedOnUpdate() {
+    managementService.setProperty(PROPERTY_NAME, "aValue");
+    PropertyEntity property = findProperty();
+
+    managementService.setProperty(PROPERTY_NAME, "anotherValue");
+
+    PropertyEntity updatedProperty = findProperty();
+    assertEquals("anotherValue", updatedProperty.getValue());
+    assertEquals(property.getRevision() + 1, updatedProperty.getRevision());
+  }
+
+  public void testCacheIsInvalidatedOnDelete() {
+    managementService.setProperty(PROPERTY_NAME, "aValue");
+    findProperty();
+
+    managementService.deleteProperty(PROPERTY_NAME);
+
+    assertNull(findProperty());
+    assertEquals(0, secondLevelCache.size());
+  }
+
+  @Deployment(resources = "org/camunda/bpm/engine/test/api/mgmt/SuspensionTest.testBase.bpmn")
+  public void testCacheIsInvalidatedOnBulkUpdate() {
+    String jobDefinitionId = managementService.createJobDefinitionQuery().singleResult().getId();
+    assertFalse(findJobDefinition(jobDefinitionId).isSuspended());
+
+    managementService.suspendJobDefinitionByProcessDefinitionKey("suspensionProcess");
+
+    assertTrue(findJobDefinition(jobDefinitionId).isSuspended());
+  }
+
+  public void testListenerIsNotifiedAfterCommit() {
+    managementService.setProperty(PROPERTY_NAME, "aValue");
+    findProperty();
+
+    final StringBuilder notifiedIds = new StringBuilder();
+    secondLevelCache.addListener(new DbSecondLevelCacheListener() {
+      public void entitiesModified(Map<Class<?>, Set<String>> modifiedEntityIds, Set<Class<?>> modifiedEntityTypes) {
+        notifiedIds.append(modifiedEntityIds.get(PropertyEntity.class));
+      }
+    });
+
+    managementService.setProperty(PROPERTY_NAME, "anotherValue");
+
+    assertEquals("[" + PROPERTY_NAME + "]", notifiedIds.toString());
+  }
+
+  public void testRemoteInvalidation() {
+    managementService.setProperty(PROPERTY_NAME, "aValue");
+    findProperty();
+    assertEquals(1, secondLevelCache.size());
+
+    secondLevelCache.invalidate(PropertyEntity.class, PROPERTY_NAME);
+
+    assertEquals(0, secondLevelCache.size());
+    assertEquals("aValue", findProperty().getValue());
+  }
+
+  public void testModificationsOfRolledBackSharedTransactionAreNotCached() {
+    managementService.setProperty(PROPERTY_NAME, "aValue");
+    findProperty();
+
+    try {
+      processEngineConfiguration.getCommandExecutorTxRequired().execute(new Command<Void>() {
+        public Void execute(CommandContext commandContext) {
+          // the first command modifies the entity
+          commandContext.getPropertyManager().findPropertyById(PROPERTY_NAME).setValue("anotherValue");
+          commandContext.getDbEntityManager().flush();
+
+          // a second command in the same transaction reads the uncommitted modification
+          // after the cached copy was invalidated, e.g. by another process engine
+          secondLevelCache.invalidate(PropertyEntity.class, PROPERTY_NAME);
+          DbEntityManager otherDbEntityManager = new DbEntityManager(processEngineConfiguration.getIdGenerator(),
+              commandContext.getSession(PersistenceSession.class));
+          assertEquals("anotherValue", otherDbEntityManager.selectById(PropertyEntity.class, PROPERTY_NAME).getValue());
+          assertEquals(1, secondLevelCache.size());
+
+          throw new ProcessEngineException("expected exception");
+        }
+      });
+      fail("exception expected");
+
+    } catch (ProcessEngineException e) {
+      assertTextPresent("expected exception", e.getMessage());
+    }
+
+    assertEquals("aValue", findProperty().getValue());
+  }
+
+  public void testPropertiesAreNotCachedByDefault() {
+    assertFalse(DbSecondLevelCache.defaultEntityTypes().contains(PropertyEntity.class));
+  }
+
+  public void testIdBlockIsNotFetchedFromCache() {
+    CommandExecutor commandExecutor = processEngineConfiguration.getCommandExecutorTxRequired();
+    assertNotNull(findProperty("next.dbid"));
+    assertEquals(1, secondLevelCache.size());
+
+    // another process engine fetches an id block without invalidating the cache
+    processEngineConfiguration.setDbSecondLevelCache(null);
+    IdBlock otherIdBlock = commandExecutor.execute(new GetNextIdBlockCmd(10));
+    processEngineConfiguration.setDbSecondLevelCache(secondLevelCache);
+
+    // does not fail with an optimistic locking exception due to the stale cached copy
+    IdBlock idBlock = commandExecutor.execute(new GetNextIdBlockCmd(10));
+    assertEquals(otherIdBlock.getLastId() + 1, idBlock.getNextId());
+  }
+
+  protected PropertyEntity findProperty() {
+    return findProperty(PROPERTY_NAME);
+  }
+
+  protected PropertyEntity findProperty(final String name) {
+    return processEngineConfiguration.getCommandExecutorTxRequired().execute(new Command<PropertyEntity>() {
+      public PropertyEntity execute(CommandContext commandContext) {
+        return commandContext.getPropertyManager().findPropertyById(name);
+      }
+    });
+  }
+
+  protected JobDefinition findJobDefinition(final String jobDefinitionId) {
+    return processEngineConfiguration.getCommandExecutorTxRequired().execute(new Command<JobDefinitionEntity>() {
+      public JobDefinitionEntity execute(CommandContext commandContext) {
+        return commandContext.getJobDefinitionManager().findById(jobDefinitionId);
+      }
+    });
+  }
+
+}
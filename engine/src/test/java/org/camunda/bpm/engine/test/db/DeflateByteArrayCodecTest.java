@@ -0,0 +1,119 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.db;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.camunda.bpm.engine.ProcessEngineException;
+import org.camunda.bpm.engine.impl.persistence.entity.util.DeflateByteArrayCodec;
+import org.junit.Test;
+
+public class DeflateByteArrayCodecTest {
+
+  @Test
+  public void testCompressesBytesAboveThreshold() {
+    DeflateByteArrayCodec codec = new DeflateByteArrayCodec(100);
+    byte[] bytes = repeatingBytes(1000);
+
+    byte[] encoded = codec.encode(bytes);
+    assertTrue(encoded.length < bytes.length);
+
+    assertArrayEquals(bytes, codec.decode(encoded));
+  }
+
+  @Test
+  public void testDoesNotCompressBytesBelowThreshold() {
+    DeflateByteArrayCodec codec = new DeflateByteArrayCodec(100);
+
+    assertNull(codec.encode(repeatingBytes(99)));
+  }
+
+  @Test
+  public void testDoesNotCompressIncompressibleBytes() {
+    DeflateByteArrayCodec codec = new DeflateByteArrayCodec(0);
+    byte[] bytes = new byte[1000];
+    new Random(42).nextBytes(bytes);
+
+    assertNull(codec.encode(bytes));
+  }
+
+  @Test
+  public void testDoesNotCompressIfDisabled() {
+    DeflateByteArrayCodec codec = new DeflateByteArrayCodec();
+    byte[] bytes = repeatingBytes(1000);
+
+    assertNull(codec.encode(bytes));
+
+    // compressed bytes can still be read
+    byte[] encoded = new DeflateByteArrayCodec(0).encode(bytes);
+    assertArrayEquals(bytes, codec.decode(encoded));
+  }
+
+  @Test
+  public void testDecodesStream() throws Exception {
+    DeflateByteArrayCodec codec = new DeflateByteArrayCodec(0);
+    byte[] bytes = repeatingBytes(100000);
+
+    InputStream in = codec.decode(new ByteArrayInputStream(codec.encode(bytes)));
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    byte[] buffer = new byte[1024];
+    int length;
+    while ((length = in.read(buffer)) >= 0) {
+      out.write(buffer, 0, length);
+    }
+
+    assertArrayEquals(bytes, out.toByteArray());
+  }
+
+  @Test
+  public void testFailsOnCorruptBytes() {
+    DeflateByteArrayCodec codec = new DeflateByteArrayCodec(0);
+    byte[] encoded = codec.encode(repeatingBytes(1000));
+    byte[] truncated = Arrays.copyOf(encoded, encoded.length / 2);
+
+    try {
+      codec.decode(truncated);
+      fail("exception expected");
+    } catch (ProcessEngineException e) {
+      assertTrue(e.getMessage().contains("truncated"));
+    }
+  }
+
+  @Test
+  public void testNull() {
+    DeflateByteArrayCodec codec = new DeflateByteArrayCodec(0);
+
+    assertEquals(DeflateByteArrayCodec.ENCODING, codec.getEncoding());
+    assertNull(codec.encode(null));
+    assertNull(codec.decode((byte[]) null));
+  }
+
+  protected byte[] repeatingBytes(int length) {
+    byte[] bytes = new byte[length];
+    for (int i = 0; i < length; i++) {
+      bytes[i] = (byte) (i % 10);
+    }
+    return bytes;
+  }
+
+}
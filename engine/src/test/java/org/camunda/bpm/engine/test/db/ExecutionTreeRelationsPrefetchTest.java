@@ -0,0 +1,85 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.db;
+
+import java.util.List;
+
+import org.camunda.bpm.engine.impl.db.entitymanager.DbEntityManager;
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.persistence.entity.EventSubscriptionEntity;
+import org.camunda.bpm.engine.impl.persistence.entity.ExecutionEntity;
+import org.camunda.bpm.engine.impl.persistence.entity.JobEntity;
+import org.camunda.bpm.engine.impl.persistence.entity.TaskEntity;
+import org.camunda.bpm.engine.impl.persistence.entity.VariableInstanceEntity;
+import org.camunda.bpm.engine.impl.test.PluggableProcessEngineTestCase;
+import org.camunda.bpm.engine.runtime.ProcessInstance;
+import org.camunda.bpm.engine.task.Task;
+import org.camunda.bpm.engine.test.Deployment;
+import org.camunda.bpm.engine.variable.Variables;
+
+public class ExecutionTreeRelationsPrefetchTest extends PluggableProcessEngineTestCase {
+
+  protected boolean executionTreePrefetchEnabled;
+
+  protected void setUp() throws Exception {
+    super.setUp();
+    executionTreePrefetchEnabled = processEngineConfiguration.isExecutionTreePrefetchEnabled();
+    processEngineConfiguration.setExecutionTreePrefetchEnabled(true);
+    processEngineConfiguration.setExecutionTreeRelationsPrefetchEnabled(true);
+  }
+
+  protected void tearDown() throws Exception {
+    processEngineConfiguration.setExecutionTreePrefetchEnabled(executionTreePrefetchEnabled);
+    processEngineConfiguration.setExecutionTreeRelationsPrefetchEnabled(false);
+    super.tearDown();
+  }
+
+  @Deployment(resources = "org/camunda/bpm/engine/test/db/ExecutionTreeRelationsPrefetchTest.parallelTasks.bpmn20.xml")
+  public void testRelationsAreFetchedWithExecutionTree() {
+    final ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("parallelTasks",
+        Variables.createVariables().putValue("aVariable", "aValue"));
+
+    processEngineConfiguration.getCommandExecutorTxRequired().execute(new Command<Void>() {
+      public Void execute(CommandContext commandContext) {
+        ExecutionEntity execution = commandContext.getExecutionManager()
+            .findExecutionById(processInstance.getId());
+
+        // fetches the execution tree
+        execution.getExecutions();
+
+        DbEntityManager dbEntityManager = commandContext.getDbEntityManager();
+        assertEquals(3, dbEntityManager.getCachedEntitiesByType(TaskEntity.class).size());
+        assertEquals(1, dbEntityManager.getCachedEntitiesByType(JobEntity.class).size());
+        assertEquals(1, dbEntityManager.getCachedEntitiesByType(EventSubscriptionEntity.class).size());
+
+        List<VariableInstanceEntity> variables = dbEntityManager.getCachedEntitiesByType(VariableInstanceEntity.class);
+        assertEquals(1, variables.size());
+        assertEquals("aValue", variables.get(0).getValue());
+
+        assertEquals("aValue", execution.getVariable("aVariable"));
+        return null;
+      }
+    });
+
+    // the prefetched relations are used when the process instance continues
+    runtimeService.correlateMessage("aMessage");
+
+    for (Task task : taskService.createTaskQuery().list()) {
+      taskService.complete(task.getId());
+    }
+
+    assertProcessEnded(processInstance.getId());
+  }
+
+}
@@ -0,0 +1,80 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.db;
+
+import org.camunda.bpm.engine.OptimisticLockingException;
+import org.camunda.bpm.engine.impl.test.ResourceProcessEngineTestCase;
+import org.camunda.bpm.engine.runtime.ProcessInstance;
+import org.camunda.bpm.engine.task.Task;
+import org.camunda.bpm.engine.test.Deployment;
+
+public class JdbcBatchProcessingTest extends ResourceProcessEngineTestCase {
+
+  public JdbcBatchProcessingTest() {
+    super("org/camunda/bpm/engine/test/db/JdbcBatchProcessingTest.camunda.cfg.xml");
+  }
+
+  @Override
+  protected void closeDownProcessEngine() {
+    processEngine.close();
+    super.closeDownProcessEngine();
+  }
+
+  public void testBatchProcessingEnabled() {
+    assertTrue(processEngineConfiguration.isJdbcBatchProcessing());
+    assertTrue(processEngineConfiguration.getDbSqlSessionFactory().isJdbcBatchProcessing());
+  }
+
+  @Deployment(resources = "org/camunda/bpm/engine/test/api/oneTaskProcess.bpmn20.xml")
+  public void testProcessInstanceLifecycle() {
+    ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("oneTaskProcess");
+    runtimeService.setVariable(processInstance.getId(), "aVariable", "aValue");
+
+    Task task = taskService.createTaskQuery().singleResult();
+    assertNotNull(task);
+    assertEquals("aValue", runtimeService.getVariable(processInstance.getId(), "aVariable"));
+
+    // the update is flushed as part of a batch and the revision is incremented
+    task.setDescription("a description");
+    taskService.saveTask(task);
+    task = taskService.createTaskQuery().singleResult();
+    assertEquals("a description", task.getDescription());
+
+    taskService.complete(task.getId());
+
+    assertEquals(0, runtimeService.createProcessInstanceQuery().count());
+    assertEquals(1, historyService.createHistoricProcessInstanceQuery().finished().count());
+    assertEquals(1, historyService.createHistoricVariableInstanceQuery().count());
+  }
+
+  @Deployment(resources = "org/camunda/bpm/engine/test/api/oneTaskProcess.bpmn20.xml")
+  public void testOptimisticLockingIsDetected() {
+    runtimeService.startProcessInstanceByKey("oneTaskProcess");
+
+    Task task1 = taskService.createTaskQuery().singleResult();
+    Task task2 = taskService.createTaskQuery().singleResult();
+
+    task1.setDescription("test description one");
+    taskService.saveTask(task1);
+
+    try {
+      task2.setDescription("test description two");
+      taskService.saveTask(task2);
+
+      fail("Expecting exception");
+    } catch(OptimisticLockingException e) {
+      // expected
+    }
+  }
+
+}
@@ -0,0 +1,146 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.db;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.camunda.bpm.engine.ProcessEngineException;
+import org.camunda.bpm.engine.impl.cmd.GetNextIdBlockCmd;
+import org.camunda.bpm.engine.impl.db.IdBlock;
+import org.camunda.bpm.engine.impl.db.PrefetchingDbIdGenerator;
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandExecutor;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class PrefetchingDbIdGeneratorTest {
+
+  protected static final int ID_BLOCK_SIZE = 10;
+
+  protected IdBlockCommandExecutor commandExecutor;
+  protected PrefetchingDbIdGenerator idGenerator;
+
+  @Before
+  public void setUp() {
+    commandExecutor = new IdBlockCommandExecutor();
+
+    idGenerator = new PrefetchingDbIdGenerator();
+    idGenerator.setIdBlockSize(ID_BLOCK_SIZE);
+    idGenerator.setMaxBlocksInFlight(2);
+    idGenerator.setCommandExecutor(commandExecutor);
+  }
+
+  @After
+  public void tearDown() {
+    idGenerator.close();
+  }
+
+  @Test
+  public void testIdsAreHandedOutInOrder() {
+    for (int i = 0; i < 3 * ID_BLOCK_SIZE; i++) {
+      assertEquals(Long.toString(i), idGenerator.getNextId());
+    }
+  }
+
+  @Test
+  public void testBlocksArePrefetched() throws Exception {
+    idGenerator.getNextId();
+
+    // the first block plus the two blocks in flight
+    commandExecutor.awaitFetchedBlocks(3);
+    assertEquals(3, commandExecutor.fetchedBlocks.get());
+  }
+
+  @Test
+  public void testFallbackToSynchronousFetch() {
+    commandExecutor.failPrefetch = true;
+
+    for (int i = 0; i < 3 * ID_BLOCK_SIZE; i++) {
+      assertEquals(Long.toString(i), idGenerator.getNextId());
+    }
+  }
+
+  @Test
+  public void testConcurrentIdsAreUnique() throws Exception {
+    final int numThreads = 8;
+    final int idsPerThread = 1000;
+    final Set<String> ids = Collections.synchronizedSet(new HashSet<String>());
+    final CountDownLatch startLatch = new CountDownLatch(1);
+
+    List<Thread> threads = new ArrayList<Thread>();
+    for (int i = 0; i < numThreads; i++) {
+      Thread thread = new Thread() {
+        public void run() {
+          try {
+            startLatch.await();
+          } catch (InterruptedException e) {
+            return;
+          }
+          for (int j = 0; j < idsPerThread; j++) {
+            ids.add(idGenerator.getNextId());
+          }
+        }
+      };
+      thread.start();
+      threads.add(thread);
+    }
+
+    startLatch.countDown();
+    for (Thread thread : threads) {
+      thread.join();
+    }
+
+    assertEquals(numThreads * idsPerThread, ids.size());
+  }
+
+  /**
+   * Hands out consecutive id blocks without a database.
+   */
+  protected static class IdBlockCommandExecutor implements CommandExecutor {
+
+    protected AtomicInteger fetchedBlocks = new AtomicInteger();
+    protected volatile boolean failPrefetch = false;
+
+    @SuppressWarnings("unchecked")
+    public <T> T execute(Command<T> command) {
+      assertTrue(command instanceof GetNextIdBlockCmd);
+      if (failPrefetch && Thread.currentThread().getName().startsWith("camunda-id-block-prefetch")) {
+        throw new ProcessEngineException("cannot prefetch id block");
+      }
+
+      synchronized (this) {
+        long nextId = (long) fetchedBlocks.getAndIncrement() * ID_BLOCK_SIZE;
+        notifyAll();
+        return (T) new IdBlock(nextId, nextId + ID_BLOCK_SIZE - 1);
+      }
+    }
+
+    public synchronized void awaitFetchedBlocks(int numBlocks) throws InterruptedException {
+      long deadline = System.currentTimeMillis() + 10000;
+      while (fetchedBlocks.get() < numBlocks && System.currentTimeMillis() < deadline) {
+        wait(100);
+      }
+    }
+  }
+
+}
@@ -0,0 +1,48 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.db;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.UUID;
+
+import org.camunda.bpm.engine.impl.persistence.TimeOrderedUuidGenerator;
+import org.junit.Test;
+
+public class TimeOrderedUuidGeneratorTest {
+
+  protected TimeOrderedUuidGenerator idGenerator = new TimeOrderedUuidGenerator();
+
+  @Test
+  public void testIdsIncreaseMonotonically() {
+    String previousId = idGenerator.getNextId();
+
+    for (int i = 0; i < 10000; i++) {
+      String id = idGenerator.getNextId();
+      assertTrue(id + " is not greater than " + previousId, id.compareTo(previousId) > 0);
+      previousId = id;
+    }
+  }
+
+  @Test
+  public void testIdsAreValidUuids() {
+    String id = idGenerator.getNextId();
+    assertEquals(36, id.length());
+
+    UUID uuid = UUID.fromString(id);
+    assertEquals(6, uuid.version());
+    assertEquals(2, uuid.variant());
+  }
+
+}
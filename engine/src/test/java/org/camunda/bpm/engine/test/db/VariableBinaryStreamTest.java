@@ -0,0 +1,200 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.db;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.Arrays;
+
+import org.camunda.bpm.engine.ProcessEngineException;
+import org.camunda.bpm.engine.history.HistoricVariableInstance;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.persistence.entity.util.ByteArrayCodec;
+import org.camunda.bpm.engine.impl.persistence.entity.util.DeflateByteArrayCodec;
+import org.camunda.bpm.engine.impl.persistence.entity.util.LazyByteArrayInputStream;
+import org.camunda.bpm.engine.impl.test.PluggableProcessEngineTestCase;
+import org.camunda.bpm.engine.impl.util.IoUtil;
+import org.camunda.bpm.engine.runtime.ProcessInstance;
+import org.camunda.bpm.engine.task.Task;
+import org.camunda.bpm.engine.test.Deployment;
+import org.camunda.bpm.engine.variable.Variables;
+import org.camunda.bpm.engine.variable.type.ValueType;
+import org.camunda.bpm.engine.variable.value.StreamValue;
+
+public class VariableBinaryStreamTest extends PluggableProcessEngineTestCase {
+
+  protected static final String ONE_TASK_PROCESS = "org/camunda/bpm/engine/test/api/oneTaskProcess.bpmn20.xml";
+
+  protected ByteArrayCodec byteArrayCodec;
+
+  protected void setUp() throws Exception {
+    super.setUp();
+    byteArrayCodec = processEngineConfiguration.getByteArrayCodec();
+  }
+
+  protected void tearDown() throws Exception {
+    processEngineConfiguration.setByteArrayCodec(byteArrayCodec);
+    super.tearDown();
+  }
+
+  @Deployment(resources = ONE_TASK_PROCESS)
+  public void testExecutionVariableBinaryStream() {
+    byte[] bytes = createBytes(5000);
+    ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("oneTaskProcess",
+        Variables.createVariables().putValue("bytes", bytes));
+
+    InputStream stream = runtimeService.getVariableBinaryStream(processInstance.getId(), "bytes");
+    assertTrue(stream instanceof LazyByteArrayInputStream);
+    assertTrue(Arrays.equals(bytes, readAndClose(stream)));
+
+    stream = runtimeService.getVariableLocalBinaryStream(processInstance.getId(), "bytes");
+    assertTrue(Arrays.equals(bytes, readAndClose(stream)));
+  }
+
+  @Deployment(resources = ONE_TASK_PROCESS)
+  public void testTaskVariableBinaryStream() {
+    byte[] bytes = createBytes(5000);
+    runtimeService.startProcessInstanceByKey("oneTaskProcess",
+        Variables.createVariables().putValue("processBytes", bytes));
+
+    Task task = taskService.createTaskQuery().singleResult();
+    taskService.setVariableLocal(task.getId(), "taskBytes", bytes);
+
+    assertTrue(Arrays.equals(bytes, readAndClose(taskService.getVariableBinaryStream(task.getId(), "processBytes"))));
+    assertTrue(Arrays.equals(bytes, readAndClose(taskService.getVariableLocalBinaryStream(task.getId(), "taskBytes"))));
+    assertNull(taskService.getVariableLocalBinaryStream(task.getId(), "processBytes"));
+  }
+
+  @Deployment(resources = ONE_TASK_PROCESS)
+  public void testNoStreamForOtherVariables() {
+    ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("oneTaskProcess",
+        Variables.createVariables()
+          .putValue("aString", "aValue")
+          .putValue("nullBytes", Variables.byteArrayValue(null)));
+
+    assertNull(runtimeService.getVariableBinaryStream(processInstance.getId(), "aString"));
+    assertNull(runtimeService.getVariableBinaryStream(processInstance.getId(), "nullBytes"));
+    assertNull(runtimeService.getVariableBinaryStream(processInstance.getId(), "unknown"));
+  }
+
+  public void testNonExistingExecution() {
+    try {
+      runtimeService.getVariableBinaryStream("nonExisting", "bytes");
+      fail("exception expected");
+    } catch (ProcessEngineException e) {
+      assertTextPresent("execution nonExisting doesn't exist", e.getMessage());
+    }
+  }
+
+  @Deployment(resources = ONE_TASK_PROCESS)
+  public void testCompressedVariableBinaryStream() {
+    processEngineConfiguration.setByteArrayCodec(new DeflateByteArrayCodec(0));
+
+    byte[] bytes = createBytes(50000);
+    ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("oneTaskProcess",
+        Variables.createVariables().putValue("bytes", bytes));
+
+    InputStream stream = runtimeService.getVariableBinaryStream(processInstance.getId(), "bytes");
+    assertTrue(Arrays.equals(bytes, readAndClose(stream)));
+  }
+
+  @Deployment(resources = ONE_TASK_PROCESS)
+  public void testStreamAndValueOfUncompressedBytesLookingCompressedAreEqual() {
+    // stored unchanged although they look like compressed bytes
+    processEngineConfiguration.setByteArrayCodec(new DeflateByteArrayCodec());
+    byte[] bytes = new DeflateByteArrayCodec(0).encode(createBytes(50000));
+    ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("oneTaskProcess",
+        Variables.createVariables().putValue("bytes", bytes));
+
+    processEngineConfiguration.setByteArrayCodec(new DeflateByteArrayCodec(0));
+
+    InputStream stream = runtimeService.getVariableBinaryStream(processInstance.getId(), "bytes");
+    assertTrue(Arrays.equals(bytes, readAndClose(stream)));
+    assertTrue(Arrays.equals(bytes, (byte[]) runtimeService.getVariable(processInstance.getId(), "bytes")));
+  }
+
+  @Deployment(resources = ONE_TASK_PROCESS)
+  public void testStreamVariable() {
+    byte[] bytes = createBytes(5000);
+    ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("oneTaskProcess",
+        Variables.createVariables().putValue("stream", Variables.streamValue(new ByteArrayInputStream(bytes))));
+
+    StreamValue value = runtimeService.getVariableTyped(processInstance.getId(), "stream");
+    assertEquals(ValueType.STREAM, value.getType());
+    assertTrue(value.getValue() instanceof LazyByteArrayInputStream);
+    assertTrue(Arrays.equals(bytes, readAndClose(value.getValue())));
+
+    InputStream stream = runtimeService.getVariableBinaryStream(processInstance.getId(), "stream");
+    assertTrue(Arrays.equals(bytes, readAndClose(stream)));
+
+    // update the value
+    byte[] otherBytes = createBytes(7000);
+    runtimeService.setVariable(processInstance.getId(), "stream", new ByteArrayInputStream(otherBytes));
+
+    value = runtimeService.getVariableTyped(processInstance.getId(), "stream");
+    assertTrue(Arrays.equals(otherBytes, readAndClose(value.getValue())));
+
+    // replace the value by a value of another type
+    runtimeService.setVariable(processInstance.getId(), "stream", "aString");
+    assertEquals("aString", runtimeService.getVariable(processInstance.getId(), "stream"));
+
+    runtimeService.setVariable(processInstance.getId(), "stream", Variables.streamValue(null));
+    value = runtimeService.getVariableTyped(processInstance.getId(), "stream");
+    assertNull(value.getValue());
+    assertNull(runtimeService.getVariableBinaryStream(processInstance.getId(), "stream"));
+  }
+
+  @Deployment(resources = ONE_TASK_PROCESS)
+  public void testStreamVariableIsStoredUncompressed() {
+    processEngineConfiguration.setByteArrayCodec(new DeflateByteArrayCodec(0));
+
+    byte[] bytes = createBytes(50000);
+    ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("oneTaskProcess",
+        Variables.createVariables().putValue("stream", Variables.streamValue(new ByteArrayInputStream(bytes))));
+
+    InputStream stream = runtimeService.getVariableBinaryStream(processInstance.getId(), "stream");
+    assertTrue(Arrays.equals(bytes, readAndClose(stream)));
+  }
+
+  @Deployment(resources = ONE_TASK_PROCESS)
+  public void testContentOfStreamVariableIsNotCopiedToHistory() {
+    ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("oneTaskProcess",
+        Variables.createVariables().putValue("stream", Variables.streamValue(new ByteArrayInputStream(createBytes(500)))));
+
+    if (processEngineConfiguration.getHistoryLevel().getId() >= ProcessEngineConfigurationImpl.HISTORYLEVEL_AUDIT) {
+      HistoricVariableInstance historicVariable = historyService.createHistoricVariableInstanceQuery()
+        .processInstanceId(processInstance.getId())
+        .singleResult();
+      assertEquals(ValueType.STREAM.getName(), historicVariable.getTypeName());
+      assertNull(historicVariable.getValue());
+    }
+  }
+
+  protected byte[] createBytes(int length) {
+    byte[] bytes = new byte[length];
+    for (int i = 0; i < length; i++) {
+      bytes[i] = (byte) (i % 7);
+    }
+    return bytes;
+  }
+
+  protected byte[] readAndClose(InputStream stream) {
+    assertNotNull(stream);
+    try {
+      return IoUtil.readInputStream(stream, "variable value");
+    } finally {
+      IoUtil.closeSilently(stream);
+    }
+  }
+
+}
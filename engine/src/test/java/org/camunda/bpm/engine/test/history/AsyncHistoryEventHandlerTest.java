@@ -0,0 +1,220 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.history;
+
+import java.util.concurrent.CountDownLatch;
+
+import org.camunda.bpm.engine.ProcessEngineException;
+import org.camunda.bpm.engine.history.HistoricActivityInstance;
+import org.camunda.bpm.engine.history.HistoricProcessInstance;
+import org.camunda.bpm.engine.history.HistoricVariableInstance;
+import org.camunda.bpm.engine.impl.history.handler.AsyncDbHistoryEventHandler;
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.interceptor.CommandExecutor;
+import org.camunda.bpm.engine.impl.test.ResourceProcessEngineTestCase;
+import org.camunda.bpm.engine.runtime.ProcessInstance;
+import org.camunda.bpm.engine.task.Task;
+import org.camunda.bpm.engine.test.Deployment;
+import org.camunda.bpm.engine.variable.Variables;
+
+public class AsyncHistoryEventHandlerTest extends ResourceProcessEngineTestCase {
+
+  protected static final String ONE_TASK_PROCESS = "org/camunda/bpm/engine/test/api/oneTaskProcess.bpmn20.xml";
+
+  public AsyncHistoryEventHandlerTest() {
+    super("org/camunda/bpm/engine/test/history/AsyncHistoryEventHandlerTest.camunda.cfg.xml");
+  }
+
+  @Override
+  protected void closeDownProcessEngine() {
+    processEngine.close();
+    super.closeDownProcessEngine();
+  }
+
+  public void testAsyncHandlerIsConfigured() {
+    assertTrue(processEngineConfiguration.getHistoryEventHandler() instanceof AsyncDbHistoryEventHandler);
+
+    AsyncDbHistoryEventHandler historyEventHandler = getHistoryEventHandler();
+    assertEquals(10, historyEventHandler.getQueueCapacity());
+    assertEquals(5, historyEventHandler.getBatchSize());
+  }
+
+  @Deployment(resources = ONE_TASK_PROCESS)
+  public void testHistoryIsWrittenAfterCommit() {
+    ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("oneTaskProcess",
+        Variables.createVariables().putValue("aVariable", "aValue"));
+    runtimeService.setVariable(processInstance.getId(), "aVariable", "anotherValue");
+
+    Task task = taskService.createTaskQuery().singleResult();
+    taskService.complete(task.getId());
+
+    waitForHistoryEvents();
+
+    HistoricProcessInstance historicProcessInstance = historyService.createHistoricProcessInstanceQuery().singleResult();
+    assertEquals(processInstance.getId(), historicProcessInstance.getId());
+    assertNotNull(historicProcessInstance.getStartTime());
+    assertNotNull(historicProcessInstance.getEndTime());
+
+    assertEquals(3, historyService.createHistoricActivityInstanceQuery().finished().count());
+    HistoricActivityInstance historicTaskActivity = historyService.createHistoricActivityInstanceQuery()
+        .activityId("theTask")
+        .singleResult();
+    assertNotNull(historicTaskActivity.getStartTime());
+    assertNotNull(historicTaskActivity.getEndTime());
+
+    assertEquals(1, historyService.createHistoricTaskInstanceQuery().finished().count());
+
+    HistoricVariableInstance historicVariable = historyService.createHistoricVariableInstanceQuery().singleResult();
+    assertEquals("anotherValue", historicVariable.getValue());
+    assertEquals(2, historyService.createHistoricDetailQuery().variableUpdates().count());
+  }
+
+  @Deployment(resources = ONE_TASK_PROCESS)
+  public void testManyTransactions() {
+    // more events than fit into the queue
+    for (int i = 0; i < 20; i++) {
+      runtimeService.startProcessInstanceByKey("oneTaskProcess");
+    }
+
+    for (Task task : taskService.createTaskQuery().list()) {
+      taskService.complete(task.getId());
+    }
+
+    waitForHistoryEvents();
+
+    assertEquals(20, historyService.createHistoricProcessInstanceQuery().finished().count());
+    assertEquals(60, historyService.createHistoricActivityInstanceQuery().finished().count());
+  }
+
+  @Deployment(resources = ONE_TASK_PROCESS)
+  public void testEventsAreWrittenInOrderIfQueueIsFull() throws Exception {
+    AsyncDbHistoryEventHandler historyEventHandler = getHistoryEventHandler();
+    final CommandExecutor commandExecutor = processEngineConfiguration.getCommandExecutorTxRequiresNew();
+    final CountDownLatch writerReleased = new CountDownLatch(1);
+
+    // the writer thread blocks before writing its first batch
+    historyEventHandler.setCommandExecutor(new CommandExecutor() {
+      public <T> T execute(Command<T> command) {
+        try {
+          writerReleased.await();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        return commandExecutor.execute(command);
+      }
+    });
+
+    Thread processThread = new Thread() {
+      public void run() {
+        for (int i = 0; i < 3; i++) {
+          runtimeService.startProcessInstanceByKey("oneTaskProcess");
+          Task task = taskService.createTaskQuery().active().listPage(0, 1).get(0);
+          taskService.complete(task.getId());
+        }
+      }
+    };
+
+    try {
+      processThread.start();
+
+      // the queue is full and the committing thread waits for the writer
+      processThread.join(500);
+      assertTrue(processThread.isAlive());
+
+    } finally {
+      writerReleased.countDown();
+    }
+
+    processThread.join(10000);
+    assertFalse(processThread.isAlive());
+    waitForHistoryEvents();
+
+    assertEquals(0, runtimeService.createProcessInstanceQuery().count());
+    assertEquals(3, historyService.createHistoricProcessInstanceQuery().finished().count());
+    for (HistoricProcessInstance historicProcessInstance : historyService.createHistoricProcessInstanceQuery().list()) {
+      assertNotNull(historicProcessInstance.getStartTime());
+      assertNotNull(historicProcessInstance.getEndTime());
+    }
+    assertEquals(9, historyService.createHistoricActivityInstanceQuery().finished().count());
+    assertEquals(0, historyService.createHistoricActivityInstanceQuery().unfinished().count());
+  }
+
+  @Deployment(resources = ONE_TASK_PROCESS)
+  public void testEventsOfRolledBackTransactionAreDiscarded() {
+    try {
+      processEngineConfiguration.getCommandExecutorTxRequired().execute(new Command<Void>() {
+        public Void execute(CommandContext commandContext) {
+          runtimeService.startProcessInstanceByKey("oneTaskProcess");
+          throw new ProcessEngineException("expected exception");
+        }
+      });
+      fail("exception expected");
+
+    } catch (ProcessEngineException e) {
+      assertTextPresent("expected exception", e.getMessage());
+    }
+
+    waitForHistoryEvents();
+
+    assertEquals(0, runtimeService.createProcessInstanceQuery().count());
+    assertEquals(0, historyService.createHistoricProcessInstanceQuery().count());
+    assertEquals(0, historyService.createHistoricActivityInstanceQuery().count());
+  }
+
+  @Deployment(resources = ONE_TASK_PROCESS)
+  public void testEventsOfTransactionCommittingAfterCloseAreWritten() {
+    final AsyncDbHistoryEventHandler historyEventHandler = getHistoryEventHandler();
+
+    processEngineConfiguration.getCommandExecutorTxRequired().execute(new Command<Void>() {
+      public Void execute(CommandContext commandContext) {
+        runtimeService.startProcessInstanceByKey("oneTaskProcess");
+        // the events of the process instance start are buffered and committed afterwards
+        historyEventHandler.close();
+        return null;
+      }
+    });
+
+    // the events were written synchronously when the transaction committed
+    assertEquals(0, historyEventHandler.getPendingEventCount());
+    assertEquals(1, historyService.createHistoricProcessInstanceQuery().count());
+    assertEquals(1, historyService.createHistoricActivityInstanceQuery().activityId("theTask").count());
+
+    // events of later transactions are written as well
+    Task task = taskService.createTaskQuery().singleResult();
+    taskService.complete(task.getId());
+    assertEquals(1, historyService.createHistoricProcessInstanceQuery().finished().count());
+  }
+
+  protected AsyncDbHistoryEventHandler getHistoryEventHandler() {
+    return (AsyncDbHistoryEventHandler) processEngineConfiguration.getHistoryEventHandler();
+  }
+
+  protected void waitForHistoryEvents() {
+    AsyncDbHistoryEventHandler historyEventHandler = getHistoryEventHandler();
+    long deadline = System.currentTimeMillis() + 10000;
+
+    while (historyEventHandler.getPendingEventCount() > 0) {
+      if (System.currentTimeMillis() > deadline) {
+        fail("history events were not written in time");
+      }
+      try {
+        Thread.sleep(20);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        fail("interrupted");
+      }
+    }
+  }
+
+}
@@ -0,0 +1,198 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.jobexecutor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.camunda.bpm.engine.impl.ProcessEngineImpl;
+import org.camunda.bpm.engine.impl.cmd.AcquireJobsCmd;
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.jobexecutor.AcquiredJobs;
+import org.camunda.bpm.engine.impl.jobexecutor.BackoffJobAcquisitionStrategy;
+import org.camunda.bpm.engine.impl.jobexecutor.JobExecutor;
+import org.junit.Before;
+import org.junit.Test;
+
+public class BackoffJobAcquisitionStrategyTest {
+
+  protected static final String ENGINE_NAME = "default";
+
+  protected CapacityJobExecutor jobExecutor;
+  protected TestAcquisitionStrategy strategy;
+
+  @Before
+  public void setUp() {
+    jobExecutor = new CapacityJobExecutor();
+    jobExecutor.setMaxJobsPerAcquisition(3);
+    jobExecutor.setWaitTimeInMillis(5000);
+
+    strategy = new TestAcquisitionStrategy(jobExecutor);
+    strategy.setMaxJobsPerAcquisition(12);
+    strategy.setBackoffTimeInMillis(100);
+    strategy.setMaxBackoffTimeInMillis(400);
+    strategy.processEngineNames.add(ENGINE_NAME);
+  }
+
+  @Test
+  public void testIncreaseNumberOfJobsIfAllRequestedJobsWereFound() {
+    assertEquals(3, strategy.getNumJobsToAcquire(ENGINE_NAME));
+
+    strategy.jobsAcquired(ENGINE_NAME, 3, acquiredJobs(3, 0));
+    assertEquals(6, strategy.getNumJobsToAcquire(ENGINE_NAME));
+    assertEquals(0, strategy.getWaitTime());
+
+    strategy.jobsAcquired(ENGINE_NAME, 6, acquiredJobs(6, 0));
+    assertEquals(12, strategy.getNumJobsToAcquire(ENGINE_NAME));
+
+    // the maximum is not exceeded
+    strategy.jobsAcquired(ENGINE_NAME, 12, acquiredJobs(12, 0));
+    assertEquals(12, strategy.getNumJobsToAcquire(ENGINE_NAME));
+  }
+
+  @Test
+  public void testDecreaseNumberOfJobsIfFewerJobsWereFound() {
+    strategy.jobsAcquired(ENGINE_NAME, 3, acquiredJobs(3, 0));
+    strategy.jobsAcquired(ENGINE_NAME, 6, acquiredJobs(6, 0));
+    assertEquals(12, strategy.getNumJobsToAcquire(ENGINE_NAME));
+
+    strategy.jobsAcquired(ENGINE_NAME, 12, acquiredJobs(2, 0));
+    assertEquals(6, strategy.getNumJobsToAcquire(ENGINE_NAME));
+
+    strategy.jobsAcquired(ENGINE_NAME, 6, acquiredJobs(0, 0));
+    assertEquals(3, strategy.getNumJobsToAcquire(ENGINE_NAME));
+
+    // never fewer than the job executor's maxJobsPerAcquisition
+    strategy.jobsAcquired(ENGINE_NAME, 3, acquiredJobs(0, 0));
+    assertEquals(3, strategy.getNumJobsToAcquire(ENGINE_NAME));
+  }
+
+  @Test
+  public void testNumberOfJobsIsLimitedByRemainingCapacity() {
+    strategy.jobsAcquired(ENGINE_NAME, 3, acquiredJobs(3, 0));
+    strategy.jobsAcquired(ENGINE_NAME, 6, acquiredJobs(6, 0));
+
+    jobExecutor.remainingCapacity = 4;
+    assertEquals(4, strategy.getNumJobsToAcquire(ENGINE_NAME));
+
+    jobExecutor.remainingCapacity = 0;
+    assertEquals(0, strategy.getNumJobsToAcquire(ENGINE_NAME));
+    assertEquals(100, strategy.getWaitTime());
+  }
+
+  @Test
+  public void testWaitIfAllEnginesAreIdle() {
+    strategy.processEngineNames.add("otherEngine");
+
+    strategy.jobsAcquired(ENGINE_NAME, 3, acquiredJobs(0, 0));
+    // the state of the other engine is not known yet
+    assertEquals(0, strategy.getWaitTime());
+
+    strategy.jobsAcquired("otherEngine", 3, acquiredJobs(1, 0));
+    assertEquals(5000, strategy.getWaitTime());
+
+    strategy.jobsAcquired("otherEngine", 3, acquiredJobs(3, 0));
+    assertEquals(0, strategy.getWaitTime());
+  }
+
+  @Test
+  public void testBackoffOnLockingFailures() {
+    strategy.jobsAcquired(ENGINE_NAME, 3, acquiredJobs(1, 2));
+    long waitTime = strategy.getWaitTime();
+    assertTrue(waitTime >= 50 && waitTime <= 100);
+
+    strategy.jobsAcquired(ENGINE_NAME, 6, acquiredJobs(1, 2));
+    waitTime = strategy.getWaitTime();
+    assertTrue(waitTime >= 100 && waitTime <= 200);
+
+    strategy.jobsAcquired(ENGINE_NAME, 3, acquiredJobs(1, 2));
+    strategy.jobsAcquired(ENGINE_NAME, 3, acquiredJobs(1, 2));
+    strategy.jobsAcquired(ENGINE_NAME, 3, acquiredJobs(1, 2));
+    waitTime = strategy.getWaitTime();
+    assertTrue(waitTime >= 200 && waitTime <= 400);
+
+    // backoff is reset once no collisions occur
+    strategy.jobsAcquired(ENGINE_NAME, 3, acquiredJobs(3, 0));
+    assertEquals(0, strategy.getWaitTime());
+  }
+
+  @Test
+  public void testCustomAcquireJobsCmdIsUsed() {
+    Command<AcquiredJobs> customCmd = new Command<AcquiredJobs>() {
+      public AcquiredJobs execute(CommandContext commandContext) {
+        return new AcquiredJobs();
+      }
+    };
+
+    jobExecutor.setAcquireJobsCmd(customCmd);
+    assertSame(customCmd, jobExecutor.getAcquireJobsCmd(strategy.getNumJobsToAcquire(ENGINE_NAME)));
+
+    // the custom command survives a restart of the job executor
+    jobExecutor.start();
+    jobExecutor.shutdown();
+    assertSame(customCmd, jobExecutor.getAcquireJobsCmd(3));
+
+    jobExecutor.setAcquireJobsCmd(null);
+    assertTrue(jobExecutor.getAcquireJobsCmd(3) instanceof AcquireJobsCmd);
+  }
+
+  protected AcquiredJobs acquiredJobs(int numAcquired, int numFailedToLock) {
+    AcquiredJobs acquiredJobs = new AcquiredJobs();
+    for (int i = 0; i < numAcquired + numFailedToLock; i++) {
+      List<String> batch = new ArrayList<String>();
+      batch.add("job" + i);
+      acquiredJobs.addJobIdBatch(batch);
+    }
+    for (int i = 0; i < numFailedToLock; i++) {
+      acquiredJobs.removeJobId("job" + i);
+    }
+    return acquiredJobs;
+  }
+
+  protected static class TestAcquisitionStrategy extends BackoffJobAcquisitionStrategy {
+
+    protected List<String> processEngineNames = new ArrayList<String>();
+
+    public TestAcquisitionStrategy(JobExecutor jobExecutor) {
+      super(jobExecutor);
+    }
+
+    protected List<String> getProcessEngineNames() {
+      return processEngineNames;
+    }
+  }
+
+  protected static class CapacityJobExecutor extends JobExecutor {
+
+    protected int remainingCapacity = Integer.MAX_VALUE;
+
+    public int getRemainingCapacity() {
+      return remainingCapacity;
+    }
+
+    protected void startExecutingJobs() {
+    }
+
+    protected void stopExecutingJobs() {
+    }
+
+    public void executeJobs(List<String> jobIds, ProcessEngineImpl processEngine) {
+    }
+  }
+
+}
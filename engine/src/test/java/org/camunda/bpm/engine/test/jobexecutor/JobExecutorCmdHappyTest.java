@@ -12,6 +12,8 @@
  */
 package org.camunda.bpm.engine.test.jobexecutor;
 
+import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
@@ -23,6 +25,7 @@ import org.camunda.bpm.engine.impl.interceptor.CommandContext;
 import org.camunda.bpm.engine.impl.interceptor.CommandExecutor;
 import org.camunda.bpm.engine.impl.jobexecutor.AcquiredJobs;
 import org.camunda.bpm.engine.impl.jobexecutor.JobExecutor;
+import org.camunda.bpm.engine.impl.persistence.entity.JobEntity;
 import org.camunda.bpm.engine.impl.persistence.entity.MessageEntity;
 import org.camunda.bpm.engine.impl.persistence.entity.TimerEntity;
 import org.camunda.bpm.engine.impl.util.ClockUtil;
@@ -105,4 +108,152 @@ public class JobExecutorCmdHappyTest extends JobExecutorTestCase {
     assertEquals("i'm coding a test", tweetHandler.getMessages().get(0));
     assertEquals(1, tweetHandler.getMessages().size());
   }
+
+  public void testAcquireJobsLocksJobs() {
+    CommandExecutor commandExecutor = processEngineConfiguration.getCommandExecutorTxRequired();
+    JobExecutor jobExecutor = processEngineConfiguration.getJobExecutor();
+
+    final String firstJobId = insertTweetMessage(commandExecutor, "first tweet");
+    final String secondJobId = insertTweetMessage(commandExecutor, "second tweet");
+
+    AcquiredJobs acquiredJobs = commandExecutor.execute(new AcquireJobsCmd(jobExecutor, 2));
+    assertEquals(2, acquiredJobs.size());
+    assertTrue(acquiredJobs.contains(firstJobId));
+    assertTrue(acquiredJobs.contains(secondJobId));
+
+    JobEntity firstJob = (JobEntity) managementService.createJobQuery().jobId(firstJobId).singleResult();
+    assertEquals(jobExecutor.getLockOwner(), firstJob.getLockOwner());
+    assertNotNull(firstJob.getLockExpirationTime());
+    assertEquals(2, firstJob.getRevision());
+
+    JobEntity secondJob = (JobEntity) managementService.createJobQuery().jobId(secondJobId).singleResult();
+    assertEquals(jobExecutor.getLockOwner(), secondJob.getLockOwner());
+    assertEquals(2, secondJob.getRevision());
+
+    deleteJobs(commandExecutor, firstJobId, secondJobId);
+  }
+
+  public void testAcquireJobsIgnoresConcurrentlyModifiedJobs() {
+    CommandExecutor commandExecutor = processEngineConfiguration.getCommandExecutorTxRequired();
+    final JobExecutor jobExecutor = processEngineConfiguration.getJobExecutor();
+
+    final String firstJobId = insertTweetMessage(commandExecutor, "first tweet");
+    final String secondJobId = insertTweetMessage(commandExecutor, "second tweet");
+
+    AcquiredJobs acquiredJobs = commandExecutor.execute(new Command<AcquiredJobs>() {
+
+      public AcquiredJobs execute(CommandContext commandContext) {
+        AcquiredJobs acquiredJobs = new AcquireJobsCmd(jobExecutor, 2).execute(commandContext);
+
+        // another transaction modifies the second job before the lock is flushed
+        try {
+          Statement statement = commandContext.getDbSqlSession().getSqlSession().getConnection().createStatement();
+          statement.executeUpdate("UPDATE ACT_RU_JOB SET REV_ = REV_ + 1 WHERE ID_ = '" + secondJobId + "'");
+          statement.close();
+        } catch (SQLException e) {
+          throw new RuntimeException(e);
+        }
+
+        return acquiredJobs;
+      }
+    });
+
+    // only the first job has been acquired
+    assertEquals(1, acquiredJobs.size());
+    assertTrue(acquiredJobs.contains(firstJobId));
+    assertFalse(acquiredJobs.contains(secondJobId));
+
+    JobEntity secondJob = (JobEntity) managementService.createJobQuery().jobId(secondJobId).singleResult();
+    assertNull(secondJob.getLockOwner());
+
+    deleteJobs(commandExecutor, firstJobId, secondJobId);
+  }
+
+  public void testAcquireJobsKeepsAllLockedJobsIfOneIsConcurrentlyModified() {
+    CommandExecutor commandExecutor = processEngineConfiguration.getCommandExecutorTxRequired();
+    final JobExecutor jobExecutor = processEngineConfiguration.getJobExecutor();
+
+    final String firstJobId = insertTweetMessage(commandExecutor, "first tweet");
+    final String secondJobId = insertTweetMessage(commandExecutor, "second tweet");
+    final String thirdJobId = insertTweetMessage(commandExecutor, "third tweet");
+
+    AcquiredJobs acquiredJobs = commandExecutor.execute(new Command<AcquiredJobs>() {
+
+      public AcquiredJobs execute(CommandContext commandContext) {
+        AcquiredJobs acquiredJobs = new AcquireJobsCmd(jobExecutor, 3).execute(commandContext);
+
+        // another transaction modifies the third job before the lock is flushed
+        try {
+          Statement statement = commandContext.getDbSqlSession().getSqlSession().getConnection().createStatement();
+          statement.executeUpdate("UPDATE ACT_RU_JOB SET REV_ = REV_ + 1 WHERE ID_ = '" + thirdJobId + "'");
+          statement.close();
+        } catch (SQLException e) {
+          throw new RuntimeException(e);
+        }
+
+        return acquiredJobs;
+      }
+    });
+
+    // the jobs which were locked are looked up and remain acquired
+    assertEquals(2, acquiredJobs.size());
+    assertTrue(acquiredJobs.contains(firstJobId));
+    assertTrue(acquiredJobs.contains(secondJobId));
+    assertFalse(acquiredJobs.contains(thirdJobId));
+
+    deleteJobs(commandExecutor, firstJobId, secondJobId, thirdJobId);
+  }
+
+  public void testFindLockedJobIds() {
+    CommandExecutor commandExecutor = processEngineConfiguration.getCommandExecutorTxRequired();
+    final JobExecutor jobExecutor = processEngineConfiguration.getJobExecutor();
+
+    final String firstJobId = insertTweetMessage(commandExecutor, "first tweet");
+    final String secondJobId = insertTweetMessage(commandExecutor, "second tweet");
+    final String thirdJobId = insertTweetMessage(commandExecutor, "third tweet");
+
+    commandExecutor.execute(new AcquireJobsCmd(jobExecutor, 2));
+
+    List<String> lockedJobIds = commandExecutor.execute(new Command<List<String>>() {
+
+      public List<String> execute(CommandContext commandContext) {
+        List<String> jobIds = new ArrayList<String>();
+        jobIds.add(firstJobId);
+        jobIds.add(secondJobId);
+        jobIds.add(thirdJobId);
+        return commandContext.getJobManager().findLockedJobIds(jobIds, 1, jobExecutor.getLockOwner());
+      }
+    });
+
+    assertEquals(2, lockedJobIds.size());
+    for (String jobId : new String[] { firstJobId, secondJobId, thirdJobId }) {
+      JobEntity job = (JobEntity) managementService.createJobQuery().jobId(jobId).singleResult();
+      assertEquals(job.getLockOwner() != null, lockedJobIds.contains(jobId));
+    }
+
+    deleteJobs(commandExecutor, firstJobId, secondJobId, thirdJobId);
+  }
+
+  protected String insertTweetMessage(CommandExecutor commandExecutor, final String msg) {
+    return commandExecutor.execute(new Command<String>() {
+
+      public String execute(CommandContext commandContext) {
+        MessageEntity message = createTweetMessage(msg);
+        commandContext.getJobManager().send(message);
+        return message.getId();
+      }
+    });
+  }
+
+  protected void deleteJobs(CommandExecutor commandExecutor, final String... jobIds) {
+    commandExecutor.execute(new Command<Void>() {
+
+      public Void execute(CommandContext commandContext) {
+        for (String jobId : jobIds) {
+          commandContext.getJobManager().findJobById(jobId).delete();
+        }
+        return null;
+      }
+    });
+  }
 }
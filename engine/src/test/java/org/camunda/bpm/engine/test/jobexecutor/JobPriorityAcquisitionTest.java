@@ -0,0 +1,157 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.jobexecutor;
+
+import java.util.List;
+
+import org.camunda.bpm.engine.ProcessEngineException;
+import org.camunda.bpm.engine.impl.Page;
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.persistence.entity.JobEntity;
+import org.camunda.bpm.engine.impl.test.PluggableProcessEngineTestCase;
+import org.camunda.bpm.engine.management.JobDefinition;
+import org.camunda.bpm.engine.runtime.Job;
+import org.camunda.bpm.engine.test.Deployment;
+
+public class JobPriorityAcquisitionTest extends PluggableProcessEngineTestCase {
+
+  protected static final String SIMPLE_ASYNC_PROCESS = "org/camunda/bpm/engine/test/jobexecutor/simpleAsyncProcess.bpmn20.xml";
+
+  public void setUp() throws Exception {
+    super.setUp();
+    processEngineConfiguration.setJobExecutorAcquireByPriority(true);
+  }
+
+  public void tearDown() throws Exception {
+    processEngineConfiguration.setJobExecutorAcquireByPriority(false);
+    super.tearDown();
+  }
+
+  @Deployment(resources = SIMPLE_ASYNC_PROCESS)
+  public void testDefaultPriority() {
+    runtimeService.startProcessInstanceByKey("simpleAsyncProcess");
+
+    Job job = managementService.createJobQuery().singleResult();
+    assertEquals(JobEntity.DEFAULT_PRIORITY, job.getPriority());
+
+    JobDefinition jobDefinition = managementService.createJobDefinitionQuery().singleResult();
+    assertNull(jobDefinition.getJobPriority());
+  }
+
+  @Deployment(resources = SIMPLE_ASYNC_PROCESS)
+  public void testSetJobPriority() {
+    runtimeService.startProcessInstanceByKey("simpleAsyncProcess");
+    Job job = managementService.createJobQuery().singleResult();
+
+    managementService.setJobPriority(job.getId(), 42);
+
+    job = managementService.createJobQuery().singleResult();
+    assertEquals(42, job.getPriority());
+  }
+
+  public void testSetPriorityOfNonExistingJob() {
+    try {
+      managementService.setJobPriority("nonExistingJob", 42);
+      fail("exception expected");
+    } catch (ProcessEngineException e) {
+      assertTextPresent("No job found with id 'nonExistingJob'", e.getMessage());
+    }
+  }
+
+  @Deployment(resources = SIMPLE_ASYNC_PROCESS)
+  public void testJobDefinitionPriorityIsAppliedToNewJobs() {
+    runtimeService.startProcessInstanceByKey("simpleAsyncProcess");
+    Job existingJob = managementService.createJobQuery().singleResult();
+
+    JobDefinition jobDefinition = managementService.createJobDefinitionQuery().singleResult();
+    managementService.setJobDefinitionPriority(jobDefinition.getId(), 10L);
+
+    jobDefinition = managementService.createJobDefinitionQuery().singleResult();
+    assertEquals(Long.valueOf(10), jobDefinition.getJobPriority());
+
+    String processInstanceId = runtimeService.startProcessInstanceByKey("simpleAsyncProcess").getId();
+
+    // the existing job keeps its priority
+    existingJob = managementService.createJobQuery().jobId(existingJob.getId()).singleResult();
+    assertEquals(JobEntity.DEFAULT_PRIORITY, existingJob.getPriority());
+
+    Job newJob = managementService.createJobQuery().processInstanceId(processInstanceId).singleResult();
+    assertEquals(10, newJob.getPriority());
+
+    // resetting the job definition priority
+    managementService.setJobDefinitionPriority(jobDefinition.getId(), null);
+    processInstanceId = runtimeService.startProcessInstanceByKey("simpleAsyncProcess").getId();
+
+    newJob = managementService.createJobQuery().processInstanceId(processInstanceId).singleResult();
+    assertEquals(JobEntity.DEFAULT_PRIORITY, newJob.getPriority());
+  }
+
+  @Deployment(resources = SIMPLE_ASYNC_PROCESS)
+  public void testAcquisitionOrderedByPriority() {
+    String lowPriorityJobId = startInstanceWithJobPriority(1);
+    String highPriorityJobId = startInstanceWithJobPriority(100);
+    String mediumPriorityJobId = startInstanceWithJobPriority(50);
+
+    List<JobEntity> acquirableJobs = findAcquirableJobs(3, null, null);
+
+    assertEquals(3, acquirableJobs.size());
+    assertEquals(highPriorityJobId, acquirableJobs.get(0).getId());
+    assertEquals(mediumPriorityJobId, acquirableJobs.get(1).getId());
+    assertEquals(lowPriorityJobId, acquirableJobs.get(2).getId());
+
+    // a limited page contains only the most important job
+    acquirableJobs = findAcquirableJobs(1, null, null);
+    assertEquals(1, acquirableJobs.size());
+    assertEquals(highPriorityJobId, acquirableJobs.get(0).getId());
+  }
+
+  @Deployment(resources = SIMPLE_ASYNC_PROCESS)
+  public void testAcquisitionByPriorityRange() {
+    String lowPriorityJobId = startInstanceWithJobPriority(1);
+    String highPriorityJobId = startInstanceWithJobPriority(100);
+    String mediumPriorityJobId = startInstanceWithJobPriority(50);
+
+    List<JobEntity> acquirableJobs = findAcquirableJobs(10, 50L, null);
+    assertEquals(2, acquirableJobs.size());
+    assertEquals(highPriorityJobId, acquirableJobs.get(0).getId());
+    assertEquals(mediumPriorityJobId, acquirableJobs.get(1).getId());
+
+    acquirableJobs = findAcquirableJobs(10, null, 49L);
+    assertEquals(1, acquirableJobs.size());
+    assertEquals(lowPriorityJobId, acquirableJobs.get(0).getId());
+
+    acquirableJobs = findAcquirableJobs(10, 2L, 99L);
+    assertEquals(1, acquirableJobs.size());
+    assertEquals(mediumPriorityJobId, acquirableJobs.get(0).getId());
+  }
+
+  protected String startInstanceWithJobPriority(long priority) {
+    String processInstanceId = runtimeService.startProcessInstanceByKey("simpleAsyncProcess").getId();
+    Job job = managementService.createJobQuery().processInstanceId(processInstanceId).singleResult();
+    managementService.setJobPriority(job.getId(), priority);
+    return job.getId();
+  }
+
+  protected List<JobEntity> findAcquirableJobs(final int maxResults, final Long priorityMin, final Long priorityMax) {
+    return processEngineConfiguration.getCommandExecutorTxRequired().execute(new Command<List<JobEntity>>() {
+
+      public List<JobEntity> execute(CommandContext commandContext) {
+        return commandContext
+          .getJobManager()
+          .findNextJobsToExecute(new Page(0, maxResults), priorityMin, priorityMax);
+      }
+    });
+  }
+
+}
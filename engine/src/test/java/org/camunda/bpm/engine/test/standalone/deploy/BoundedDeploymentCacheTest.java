@@ -0,0 +1,90 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.standalone.deploy;
+
+import org.camunda.bpm.engine.impl.persistence.deploy.DeploymentCache;
+import org.camunda.bpm.engine.impl.persistence.deploy.cache.Cache;
+import org.camunda.bpm.engine.impl.persistence.deploy.cache.LruCache;
+import org.camunda.bpm.engine.impl.persistence.entity.ProcessDefinitionEntity;
+import org.camunda.bpm.engine.impl.test.PluggableProcessEngineTestCase;
+import org.camunda.bpm.engine.repository.ProcessDefinition;
+import org.camunda.bpm.engine.test.Deployment;
+import org.camunda.bpm.model.bpmn.BpmnModelInstance;
+
+public class BoundedDeploymentCacheTest extends PluggableProcessEngineTestCase {
+
+  protected Cache<String, ProcessDefinitionEntity> originalProcessDefinitionCache;
+  protected Cache<String, BpmnModelInstance> originalBpmnModelInstanceCache;
+
+  protected void setUp() throws Exception {
+    super.setUp();
+    DeploymentCache deploymentCache = processEngineConfiguration.getDeploymentCache();
+    originalProcessDefinitionCache = deploymentCache.getProcessDefinitionCache();
+    originalBpmnModelInstanceCache = deploymentCache.getBpmnModelInstanceCache();
+
+    deploymentCache.setProcessDefinitionCache(new LruCache<String, ProcessDefinitionEntity>(1));
+    deploymentCache.setBpmnModelInstanceCache(new LruCache<String, BpmnModelInstance>(1));
+  }
+
+  protected void tearDown() throws Exception {
+    DeploymentCache deploymentCache = processEngineConfiguration.getDeploymentCache();
+    deploymentCache.setProcessDefinitionCache(originalProcessDefinitionCache);
+    deploymentCache.setBpmnModelInstanceCache(originalBpmnModelInstanceCache);
+    super.tearDown();
+  }
+
+  @Deployment(resources = {
+      "org/camunda/bpm/engine/test/api/oneTaskProcess.bpmn20.xml",
+      "org/camunda/bpm/engine/test/api/twoTasksProcess.bpmn20.xml"
+  })
+  public void testEvictedProcessDefinitionIsParsedAgain() {
+    Cache<String, ProcessDefinitionEntity> processDefinitionCache = processEngineConfiguration
+        .getDeploymentCache()
+        .getProcessDefinitionCache();
+
+    // both definitions are resolved although only one fits into the cache
+    runtimeService.startProcessInstanceByKey("oneTaskProcess");
+    runtimeService.startProcessInstanceByKey("twoTasksProcess");
+    runtimeService.startProcessInstanceByKey("oneTaskProcess");
+
+    assertEquals(1, processDefinitionCache.size());
+    assertTrue(processDefinitionCache.getEvictionCount() > 0);
+    assertTrue(processDefinitionCache.getMissCount() > 0);
+
+    assertEquals(2, runtimeService.createProcessInstanceQuery().processDefinitionKey("oneTaskProcess").count());
+    assertEquals(1, runtimeService.createProcessInstanceQuery().processDefinitionKey("twoTasksProcess").count());
+  }
+
+  @Deployment(resources = {
+      "org/camunda/bpm/engine/test/api/oneTaskProcess.bpmn20.xml",
+      "org/camunda/bpm/engine/test/api/twoTasksProcess.bpmn20.xml"
+  })
+  public void testEvictedModelInstanceIsParsedAgain() {
+    ProcessDefinition oneTaskProcess = repositoryService.createProcessDefinitionQuery()
+        .processDefinitionKey("oneTaskProcess").singleResult();
+    ProcessDefinition twoTasksProcess = repositoryService.createProcessDefinitionQuery()
+        .processDefinitionKey("twoTasksProcess").singleResult();
+
+    assertNotNull(repositoryService.getBpmnModelInstance(oneTaskProcess.getId()));
+    assertNotNull(repositoryService.getBpmnModelInstance(twoTasksProcess.getId()));
+    assertNotNull(repositoryService.getBpmnModelInstance(oneTaskProcess.getId()));
+
+    Cache<String, BpmnModelInstance> bpmnModelInstanceCache = processEngineConfiguration
+        .getDeploymentCache()
+        .getBpmnModelInstanceCache();
+
+    assertEquals(1, bpmnModelInstanceCache.size());
+    assertEquals(2, bpmnModelInstanceCache.getEvictionCount());
+  }
+
+}
@@ -0,0 +1,111 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.standalone.deploy;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.camunda.bpm.engine.impl.persistence.deploy.cache.LruCache;
+import org.junit.Test;
+
+public class LruCacheTest {
+
+  @Test
+  public void testEvictLeastRecentlyUsedEntry() {
+    LruCache<String, String> cache = new LruCache<String, String>(2);
+    cache.put("a", "1");
+    cache.put("b", "2");
+
+    // access a so that b is the least recently used entry
+    assertEquals("1", cache.get("a"));
+
+    cache.put("c", "3");
+
+    assertEquals(2, cache.size());
+    assertNull(cache.get("b"));
+    assertEquals("1", cache.get("a"));
+    assertEquals("3", cache.get("c"));
+    assertEquals(1, cache.getEvictionCount());
+  }
+
+  @Test
+  public void testUnboundedCache() {
+    LruCache<Integer, Integer> cache = new LruCache<Integer, Integer>();
+    for (int i = 0; i < 1000; i++) {
+      cache.put(i, i);
+    }
+
+    assertEquals(1000, cache.size());
+    assertEquals(0, cache.getEvictionCount());
+  }
+
+  @Test
+  public void testHitAndMissCounters() {
+    LruCache<String, String> cache = new LruCache<String, String>(10);
+    cache.put("a", "1");
+
+    cache.get("a");
+    cache.get("a");
+    cache.get("b");
+
+    assertEquals(2, cache.getHitCount());
+    assertEquals(1, cache.getMissCount());
+  }
+
+  @Test
+  public void testRemoveAndClear() {
+    LruCache<String, String> cache = new LruCache<String, String>(10);
+    cache.put("a", "1");
+    cache.put("b", "2");
+
+    cache.remove("a");
+    assertNull(cache.get("a"));
+    assertEquals(1, cache.size());
+
+    cache.clear();
+    assertEquals(0, cache.size());
+    // removals are not evictions
+    assertEquals(0, cache.getEvictionCount());
+  }
+
+  @Test
+  public void testConcurrentAccessDoesNotExceedMaxSize() throws Exception {
+    final LruCache<Integer, Integer> cache = new LruCache<Integer, Integer>(10);
+
+    List<Thread> threads = new ArrayList<Thread>();
+    for (int t = 0; t < 4; t++) {
+      final int offset = t * 1000;
+      threads.add(new Thread() {
+        public void run() {
+          for (int i = 0; i < 1000; i++) {
+            cache.put(offset + i, i);
+            cache.get(offset + i);
+          }
+        }
+      });
+    }
+    for (Thread thread : threads) {
+      thread.start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+
+    assertEquals(10, cache.size());
+    assertEquals(3990, cache.getEvictionCount());
+  }
+
+}
@@ -101,6 +101,21 @@ public class ScriptCompilationTest extends PluggableProcessEngineTestCase {
     assertNotNull(script.getCompiledScript());
   }
 
+  public void testScriptsWithSameSourceShareCompiledScript() {
+    // when two scripts with the same source are created and executed
+    SourceExecutableScript script = createScript(SCRIPT_LANGUAGE, EXAMPLE_SCRIPT);
+    SourceExecutableScript otherScript = createScript(SCRIPT_LANGUAGE, EXAMPLE_SCRIPT);
+    executeScript(script);
+
+    long hitCount = processEngineConfiguration.getScriptingEngines().getCompiledScriptCache().getHitCount();
+    executeScript(otherScript);
+
+    // then the script is only compiled once
+    assertNotNull(script.getCompiledScript());
+    assertSame(script.getCompiledScript(), otherScript.getCompiledScript());
+    assertEquals(hitCount + 1, processEngineConfiguration.getScriptingEngines().getCompiledScriptCache().getHitCount());
+  }
+
   protected Object executeScript(final ExecutableScript script) {
     final ScriptingEnvironment scriptingEnvironment = processEngineConfiguration.getScriptingEnvironment();
     return processEngineConfiguration.getCommandExecutorTxRequired()
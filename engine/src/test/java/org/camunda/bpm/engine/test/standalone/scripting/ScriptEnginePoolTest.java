@@ -0,0 +1,118 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.standalone.scripting;
+
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import javax.script.ScriptContext;
+import javax.script.ScriptEngine;
+import javax.script.ScriptEngineManager;
+
+import org.camunda.bpm.engine.impl.scripting.engine.JuelScriptEngineFactory;
+import org.camunda.bpm.engine.impl.scripting.engine.ScriptingEngines;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ScriptEnginePoolTest {
+
+  protected static final String NOT_THREADSAFE_LANGUAGE = "not-threadsafe-juel";
+
+  protected ScriptingEngines scriptingEngines;
+
+  @Before
+  public void setUp() {
+    scriptingEngines = new ScriptingEngines(new ScriptEngineManager());
+    scriptingEngines.addScriptEngineFactory(new JuelScriptEngineFactory());
+    scriptingEngines.addScriptEngineFactory(new NotThreadsafeScriptEngineFactory());
+  }
+
+  @Test
+  public void testReleasedEngineIsReused() {
+    ScriptEngine scriptEngine = scriptingEngines.getScriptEngineForLanguage(NOT_THREADSAFE_LANGUAGE);
+
+    // an engine which is in use is not handed out twice
+    ScriptEngine otherScriptEngine = scriptingEngines.getScriptEngineForLanguage(NOT_THREADSAFE_LANGUAGE);
+    assertNotSame(scriptEngine, otherScriptEngine);
+
+    scriptingEngines.releaseScriptEngine(NOT_THREADSAFE_LANGUAGE, scriptEngine);
+
+    assertSame(scriptEngine, scriptingEngines.getScriptEngineForLanguage(NOT_THREADSAFE_LANGUAGE));
+  }
+
+  @Test
+  public void testBindingsAreResetWhenEngineIsReleased() {
+    ScriptEngine scriptEngine = scriptingEngines.getScriptEngineForLanguage(NOT_THREADSAFE_LANGUAGE);
+    scriptEngine.put("aVariable", "aValue");
+
+    scriptingEngines.releaseScriptEngine(NOT_THREADSAFE_LANGUAGE, scriptEngine);
+
+    ScriptEngine pooledScriptEngine = scriptingEngines.getScriptEngineForLanguage(NOT_THREADSAFE_LANGUAGE);
+    assertSame(scriptEngine, pooledScriptEngine);
+    assertNull(pooledScriptEngine.get("aVariable"));
+    assertNull(pooledScriptEngine.getBindings(ScriptContext.ENGINE_SCOPE).get("aVariable"));
+  }
+
+  @Test
+  public void testPoolIsBounded() {
+    scriptingEngines.setScriptEnginePoolSize(1);
+
+    ScriptEngine scriptEngine = scriptingEngines.getScriptEngineForLanguage(NOT_THREADSAFE_LANGUAGE);
+    ScriptEngine otherScriptEngine = scriptingEngines.getScriptEngineForLanguage(NOT_THREADSAFE_LANGUAGE);
+
+    scriptingEngines.releaseScriptEngine(NOT_THREADSAFE_LANGUAGE, scriptEngine);
+    // the pool is full, the engine is dropped
+    scriptingEngines.releaseScriptEngine(NOT_THREADSAFE_LANGUAGE, otherScriptEngine);
+
+    assertSame(scriptEngine, scriptingEngines.getScriptEngineForLanguage(NOT_THREADSAFE_LANGUAGE));
+    ScriptEngine newScriptEngine = scriptingEngines.getScriptEngineForLanguage(NOT_THREADSAFE_LANGUAGE);
+    assertNotSame(scriptEngine, newScriptEngine);
+    assertNotSame(otherScriptEngine, newScriptEngine);
+  }
+
+  @Test
+  public void testNoPoolingIfCachingIsDisabled() {
+    scriptingEngines.setEnableScriptEngineCaching(false);
+
+    ScriptEngine scriptEngine = scriptingEngines.getScriptEngineForLanguage(NOT_THREADSAFE_LANGUAGE);
+    scriptingEngines.releaseScriptEngine(NOT_THREADSAFE_LANGUAGE, scriptEngine);
+
+    assertNotSame(scriptEngine, scriptingEngines.getScriptEngineForLanguage(NOT_THREADSAFE_LANGUAGE));
+  }
+
+  @Test
+  public void testThreadsafeEngineIsShared() {
+    ScriptEngine scriptEngine = scriptingEngines.getScriptEngineForLanguage("juel");
+
+    assertSame(scriptEngine, scriptingEngines.getScriptEngineForLanguage("juel"));
+
+    scriptingEngines.releaseScriptEngine("juel", scriptEngine);
+    assertSame(scriptEngine, scriptingEngines.getScriptEngineForLanguage("juel"));
+  }
+
+  public static class NotThreadsafeScriptEngineFactory extends JuelScriptEngineFactory {
+
+    public String getEngineName() {
+      return NOT_THREADSAFE_LANGUAGE;
+    }
+
+    public Object getParameter(String key) {
+      if ("THREADING".equals(key)) {
+        return null;
+      }
+      return super.getParameter(key);
+    }
+  }
+
+}
@@ -0,0 +1,59 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.camunda.bpm.engine.test.util;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.ref.WeakReference;
+import java.net.URL;
+import java.net.URLClassLoader;
+
+import org.camunda.bpm.engine.impl.delegate.ClassDelegateMetadata;
+import org.junit.Test;
+
+public class ClassDelegateMetadataTest {
+
+  @Test
+  public void testIsResolvedWithSameClassLoaders() {
+    ClassLoader classLoader = new URLClassLoader(new URL[0]);
+    ClassDelegateMetadata metadata = new ClassDelegateMetadata(null, classLoader, String.class);
+
+    assertTrue(metadata.isResolvedWith(null, classLoader));
+    assertFalse(metadata.isResolvedWith(classLoader, classLoader));
+    assertFalse(metadata.isResolvedWith(null, new URLClassLoader(new URL[0])));
+    assertFalse(metadata.isResolvedWith(null, null));
+    assertSame(String.class, metadata.getDelegateClass());
+  }
+
+  @Test
+  public void testDoesNotKeepClassLoaderFromBeingCollected() {
+    ClassLoader classLoader = new URLClassLoader(new URL[0]);
+    WeakReference<ClassLoader> classLoaderReference = new WeakReference<ClassLoader>(classLoader);
+
+    ClassDelegateMetadata metadata = new ClassDelegateMetadata(classLoader, classLoader, String.class);
+    metadata.setSharedInstance(new Object());
+    classLoader = null;
+
+    for (int i = 0; i < 100 && classLoaderReference.get() != null; i++) {
+      System.gc();
+    }
+
+    assertNull(classLoaderReference.get());
+    assertNull(metadata.getSharedInstance());
+  }
+
+}
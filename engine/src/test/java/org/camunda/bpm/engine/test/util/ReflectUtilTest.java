@@ -0,0 +1,159 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.camunda.bpm.engine.test.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.camunda.bpm.engine.ClassLoadingException;
+import org.camunda.bpm.engine.impl.util.ClassLoaderUtil;
+import org.camunda.bpm.engine.impl.util.ReflectUtil;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ReflectUtilTest {
+
+  protected static final String MISSING_CLASS_NAME = "org.camunda.bpm.engine.test.util.NotExistingClass";
+
+  protected ClassLoader previousContextClassLoader;
+  protected RecordingClassLoader classLoader;
+
+  @Before
+  public void setUp() {
+    ReflectUtil.clearClassResolutionCache();
+    previousContextClassLoader = ClassLoaderUtil.getContextClassloader();
+    classLoader = new RecordingClassLoader(getClass().getClassLoader());
+    ClassLoaderUtil.setContextClassloader(classLoader);
+  }
+
+  @After
+  public void tearDown() {
+    ClassLoaderUtil.setContextClassloader(previousContextClassLoader);
+    ReflectUtil.setClassResolutionMissTimeToLive(ReflectUtil.DEFAULT_CLASS_RESOLUTION_MISS_TIME_TO_LIVE);
+    ReflectUtil.clearClassResolutionCache();
+  }
+
+  @Test
+  public void testResolvedClassIsCached() {
+    Class<?> clazz = ReflectUtil.loadClass(ReflectUtilTest.class.getName());
+
+    assertSame(ReflectUtilTest.class, clazz);
+    assertSame(clazz, ReflectUtil.loadClass(ReflectUtilTest.class.getName()));
+  }
+
+  @Test
+  public void testMissIsCached() {
+    assertClassNotFound(MISSING_CLASS_NAME);
+    assertClassNotFound(MISSING_CLASS_NAME);
+
+    assertEquals(1, classLoader.countRequests(MISSING_CLASS_NAME));
+  }
+
+  @Test
+  public void testMissIsCachedPerClassLoader() {
+    assertClassNotFound(MISSING_CLASS_NAME);
+
+    RecordingClassLoader otherClassLoader = new RecordingClassLoader(getClass().getClassLoader());
+    ClassLoaderUtil.setContextClassloader(otherClassLoader);
+    assertClassNotFound(MISSING_CLASS_NAME);
+
+    assertEquals(1, classLoader.countRequests(MISSING_CLASS_NAME));
+    assertEquals(1, otherClassLoader.countRequests(MISSING_CLASS_NAME));
+  }
+
+  @Test
+  public void testCachedMissThrowsNewException() {
+    Throwable cause = assertClassNotFound(MISSING_CLASS_NAME);
+    Throwable cachedCause = assertClassNotFound(MISSING_CLASS_NAME);
+    Throwable otherCachedCause = assertClassNotFound(MISSING_CLASS_NAME);
+
+    assertNotSame(cause, cachedCause);
+    assertNotSame(cachedCause, otherCachedCause);
+    assertEquals(1, classLoader.countRequests(MISSING_CLASS_NAME));
+  }
+
+  @Test
+  public void testCachedMissExpires() throws InterruptedException {
+    ReflectUtil.setClassResolutionMissTimeToLive(1);
+    assertClassNotFound(MISSING_CLASS_NAME);
+
+    Thread.sleep(10);
+    assertClassNotFound(MISSING_CLASS_NAME);
+
+    assertEquals(2, classLoader.countRequests(MISSING_CLASS_NAME));
+  }
+
+  @Test
+  public void testMissIsNotCachedWithoutTimeToLive() {
+    ReflectUtil.setClassResolutionMissTimeToLive(0);
+    assertClassNotFound(MISSING_CLASS_NAME);
+    assertClassNotFound(MISSING_CLASS_NAME);
+
+    assertEquals(2, classLoader.countRequests(MISSING_CLASS_NAME));
+  }
+
+  @Test
+  public void testClearCache() {
+    assertClassNotFound(MISSING_CLASS_NAME);
+
+    ReflectUtil.clearClassResolutionCache();
+    assertClassNotFound(MISSING_CLASS_NAME);
+
+    assertEquals(2, classLoader.countRequests(MISSING_CLASS_NAME));
+  }
+
+  protected Throwable assertClassNotFound(String className) {
+    try {
+      ReflectUtil.loadClass(className);
+      fail("exception expected");
+      return null;
+    } catch (ClassLoadingException e) {
+      assertEquals(className, e.getClassName());
+      assertTrue(e.getCause() instanceof ClassNotFoundException);
+      return e.getCause();
+    }
+  }
+
+  public static class RecordingClassLoader extends ClassLoader {
+
+    protected List<String> requestedClassNames = new ArrayList<String>();
+
+    public RecordingClassLoader(ClassLoader parent) {
+      super(parent);
+    }
+
+    protected synchronized Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+      requestedClassNames.add(name);
+      return super.loadClass(name, resolve);
+    }
+
+    public synchronized int countRequests(String name) {
+      int count = 0;
+      for (String requestedClassName : requestedClassNames) {
+        if (requestedClassName.equals(name)) {
+          count++;
+        }
+      }
+      return count;
+    }
+  }
+
+}
@@ -0,0 +1,110 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.qa.performance.engine.jmh;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.camunda.bpm.engine.ProcessEngineException;
+import org.camunda.bpm.engine.impl.bpmn.deployer.BpmnDeployer;
+import org.camunda.bpm.engine.impl.bpmn.parser.BpmnParse;
+import org.camunda.bpm.engine.impl.bpmn.parser.BpmnParser;
+import org.camunda.bpm.engine.impl.persistence.deploy.Deployer;
+import org.camunda.bpm.engine.impl.persistence.entity.DeploymentEntity;
+import org.camunda.bpm.engine.impl.persistence.entity.ProcessDefinitionEntity;
+import org.camunda.bpm.engine.impl.util.IoUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * <p>Parses BPMN 2.0 models into process definitions using the {@link BpmnParser} of a
+ * process engine, including its parse listeners, as it happens when a deployment is
+ * deployed or a process definition is added to the deployment cache.</p>
+ *
+ * <p>The models are the invoice example and a sequence of 15 manual tasks.</p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class BpmnParseBenchmark {
+
+  protected static final String RESOURCE_PATH = "org/camunda/bpm/qa/performance/engine/jmh/";
+
+  @Param({"invoice.bpmn", "sequence15Steps.bpmn"})
+  public String resourceName;
+
+  @Param({"true", "false"})
+  public boolean validateSchema;
+
+  protected BpmnParser bpmnParser;
+  protected DeploymentEntity deployment;
+  protected byte[] resourceBytes;
+
+  @Setup
+  public void loadResource(ProcessEngineState processEngineState) {
+    bpmnParser = getBpmnParser(processEngineState);
+
+    deployment = new DeploymentEntity();
+    deployment.setId("benchmarkDeployment");
+
+    InputStream inputStream = getClass().getClassLoader().getResourceAsStream(RESOURCE_PATH + resourceName);
+    if (inputStream == null) {
+      throw new ProcessEngineException("Resource " + RESOURCE_PATH + resourceName + " not found");
+    }
+    try {
+      resourceBytes = IoUtil.readInputStream(inputStream, resourceName);
+    } finally {
+      IoUtil.closeSilently(inputStream);
+    }
+  }
+
+  protected BpmnParser getBpmnParser(ProcessEngineState processEngineState) {
+    List<Deployer> deployers = processEngineState.getProcessEngineConfiguration().getDeploymentCache().getDeployers();
+    for (Deployer deployer : deployers) {
+      if (deployer instanceof BpmnDeployer) {
+        return ((BpmnDeployer) deployer).getBpmnParser();
+      }
+    }
+    throw new ProcessEngineException("The process engine has no BpmnDeployer");
+  }
+
+  @Benchmark
+  public List<ProcessDefinitionEntity> parse(ProcessEngineContextState context) {
+    BpmnParse bpmnParse = bpmnParser
+      .createParse()
+      .sourceInputStream(new ByteArrayInputStream(resourceBytes))
+      .deployment(deployment)
+      .name(resourceName);
+
+    if (!validateSchema) {
+      bpmnParse.setSchemaResource(null);
+    }
+
+    return bpmnParse.execute().getProcessDefinitions();
+  }
+
+}
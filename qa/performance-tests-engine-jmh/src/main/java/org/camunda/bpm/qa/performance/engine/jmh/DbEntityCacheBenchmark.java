@@ -0,0 +1,125 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.qa.performance.engine.jmh;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.camunda.bpm.engine.impl.db.DbEntity;
+import org.camunda.bpm.engine.impl.db.entitymanager.cache.DbEntityCache;
+import org.camunda.bpm.engine.impl.db.entitymanager.operation.DbEntityOperation;
+import org.camunda.bpm.engine.impl.db.entitymanager.operation.DbOperation;
+import org.camunda.bpm.engine.impl.db.entitymanager.operation.DbOperationManager;
+import org.camunda.bpm.engine.impl.db.entitymanager.operation.DbOperationType;
+import org.camunda.bpm.engine.impl.persistence.entity.ExecutionEntity;
+import org.camunda.bpm.engine.impl.persistence.entity.VariableInstanceEntity;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * <p>Measures the first level cache of a command and the planning of its flush.</p>
+ *
+ * <p>The entities are executions forming trees of varying depth and the same number
+ * of variable instances. Their ids are not ordered like the execution trees.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class DbEntityCacheBenchmark {
+
+  @Param({"100", "1000"})
+  public int numberOfExecutions;
+
+  protected List<DbEntity> entities;
+
+  @Setup
+  public void createEntities() {
+    Random random = new Random(42);
+    entities = new ArrayList<DbEntity>();
+
+    List<ExecutionEntity> executions = new ArrayList<ExecutionEntity>();
+    for (int i = 0; i < numberOfExecutions; i++) {
+      executions.add(new ExecutionEntity());
+    }
+    entities.addAll(executions);
+
+    for (int i = 0; i < numberOfExecutions; i++) {
+      entities.add(new VariableInstanceEntity());
+    }
+
+    List<Integer> ids = new ArrayList<Integer>();
+    for (int i = 0; i < entities.size(); i++) {
+      ids.add(100000 + i);
+    }
+    Collections.shuffle(ids, random);
+    for (int i = 0; i < entities.size(); i++) {
+      entities.get(i).setId(String.valueOf(ids.get(i)));
+    }
+
+    // every fifth execution is a process instance, the others are children of a random execution
+    for (int i = 0; i < numberOfExecutions; i++) {
+      if (i % 5 != 0) {
+        executions.get(i).setParent(executions.get(random.nextInt(i)));
+      }
+    }
+  }
+
+  @Benchmark
+  public DbEntityCache putPersistentAndGet() {
+    DbEntityCache cache = new DbEntityCache();
+    for (DbEntity entity : entities) {
+      cache.putPersistent(entity);
+    }
+    for (DbEntity entity : entities) {
+      cache.get(entity.getClass(), entity.getId());
+    }
+    return cache;
+  }
+
+  @Benchmark
+  public List<DbOperation> planInsertFlush() {
+    return planFlush(DbOperationType.INSERT);
+  }
+
+  @Benchmark
+  public List<DbOperation> planDeleteFlush() {
+    return planFlush(DbOperationType.DELETE);
+  }
+
+  protected List<DbOperation> planFlush(DbOperationType operationType) {
+    DbOperationManager operationManager = new DbOperationManager();
+    for (DbEntity entity : entities) {
+      DbEntityOperation operation = new DbEntityOperation();
+      operation.setEntity(entity);
+      operation.setOperationType(operationType);
+      operationManager.addOperation(operation);
+    }
+    return operationManager.calculateFlush();
+  }
+
+}
@@ -0,0 +1,140 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.qa.performance.engine.jmh;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.camunda.bpm.engine.impl.bpmn.parser.BpmnParse;
+import org.camunda.bpm.engine.impl.bpmn.parser.BpmnParser;
+import org.camunda.bpm.engine.impl.context.Context;
+import org.camunda.bpm.engine.impl.persistence.deploy.DeploymentSnapshotStore;
+import org.camunda.bpm.engine.impl.persistence.entity.DeploymentEntity;
+import org.camunda.bpm.engine.impl.persistence.entity.ProcessDefinitionEntity;
+import org.camunda.bpm.engine.impl.util.xml.Element;
+import org.camunda.bpm.engine.impl.util.xml.ElementSerializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * <p>Measures the parts of redeploying a BPMN resource with and without the document snapshots
+ * of the {@link DeploymentSnapshotStore}:</p>
+ *
+ * <ul>
+ *   <li><code>parseXml</code>: parsing and validating the XML and building the process definitions,
+ *   as without a snapshot</li>
+ *   <li><code>restoreSnapshot</code>: reading the document from its snapshot and building the
+ *   process definitions, as with a snapshot</li>
+ *   <li><code>readSnapshot</code>: reading the document from its snapshot only</li>
+ *   <li><code>buildDefinitions</code>: building the process definitions from a document in memory.
+ *   This is the most a snapshot of the process definitions themselves could save over the document
+ *   snapshot, since restoring the definitions would have to replace it.</li>
+ * </ul>
+ *
+ * <p>The snapshot is read from memory, so file system access is not included.</p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class DeploymentSnapshotBenchmark {
+
+  @Param({"invoice.bpmn", "sequence15Steps.bpmn"})
+  public String resourceName;
+
+  protected BpmnParser bpmnParser;
+  protected DeploymentEntity deployment;
+  protected byte[] resourceBytes;
+
+  protected byte[] snapshot;
+  protected Element rootElement;
+
+  @Setup
+  public void writeSnapshot(ProcessEngineState processEngineState) throws IOException {
+    // reuse the resource setup of the parse benchmark
+    BpmnParseBenchmark parseBenchmark = new BpmnParseBenchmark();
+    parseBenchmark.resourceName = resourceName;
+    parseBenchmark.loadResource(processEngineState);
+    bpmnParser = parseBenchmark.bpmnParser;
+    deployment = parseBenchmark.deployment;
+    resourceBytes = parseBenchmark.resourceBytes;
+
+    Context.setProcessEngineConfiguration(processEngineState.getProcessEngineConfiguration());
+    try {
+      rootElement = createXmlParse().execute().getRootElement();
+    } finally {
+      Context.removeProcessEngineConfiguration();
+    }
+
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    DataOutputStream out = new DataOutputStream(bytes);
+    ElementSerializer.writeElement(out, rootElement);
+    out.flush();
+    snapshot = bytes.toByteArray();
+  }
+
+  @Benchmark
+  public List<ProcessDefinitionEntity> parseXml(ProcessEngineContextState context) {
+    return createXmlParse().execute().getProcessDefinitions();
+  }
+
+  @Benchmark
+  public List<ProcessDefinitionEntity> restoreSnapshot(ProcessEngineContextState context) throws IOException {
+    return buildDefinitions(readSnapshot());
+  }
+
+  @Benchmark
+  public Element readSnapshot() throws IOException {
+    return ElementSerializer.readElement(new DataInputStream(new ByteArrayInputStream(snapshot)));
+  }
+
+  @Benchmark
+  public List<ProcessDefinitionEntity> buildDefinitions(ProcessEngineContextState context) {
+    return buildDefinitions(rootElement);
+  }
+
+  protected List<ProcessDefinitionEntity> buildDefinitions(Element rootElement) {
+    BpmnParse bpmnParse = bpmnParser
+      .createParse()
+      .deployment(deployment)
+      .name(resourceName);
+
+    bpmnParse.sourceRootElement(rootElement);
+    return bpmnParse.execute().getProcessDefinitions();
+  }
+
+  protected BpmnParse createXmlParse() {
+    return bpmnParser
+      .createParse()
+      .sourceInputStream(new ByteArrayInputStream(resourceBytes))
+      .deployment(deployment)
+      .name(resourceName);
+  }
+
+}
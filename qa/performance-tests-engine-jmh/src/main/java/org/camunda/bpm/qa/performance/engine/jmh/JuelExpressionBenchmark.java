@@ -0,0 +1,116 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.qa.performance.engine.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.camunda.bpm.engine.delegate.Expression;
+import org.camunda.bpm.engine.impl.el.ExpressionManager;
+import org.camunda.bpm.engine.impl.el.JuelExpression;
+import org.camunda.bpm.engine.impl.pvm.ProcessDefinitionBuilder;
+import org.camunda.bpm.engine.impl.pvm.delegate.ActivityBehavior;
+import org.camunda.bpm.engine.impl.pvm.delegate.ActivityExecution;
+import org.camunda.bpm.engine.impl.pvm.runtime.PvmExecutionImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * <p>Evaluates {@link JuelExpression JuelExpressions} created by the {@link ExpressionManager}
+ * of a process engine against the variables of an in-memory process instance.</p>
+ *
+ * <p>The <code>create</code> benchmarks create the expression on every invocation, i.e. they
+ * include the lookup of the parsed expression in the tree cache.</p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class JuelExpressionBenchmark {
+
+  protected static final String VARIABLE_EXPRESSION = "${amount}";
+  protected static final String ARITHMETIC_EXPRESSION = "${amount * 2 > limit && approved}";
+  protected static final String METHOD_EXPRESSION = "${customer.toUpperCase().startsWith('CAMUNDA')}";
+
+  protected ExpressionManager expressionManager;
+  protected PvmExecutionImpl processInstance;
+
+  protected Expression variableExpression;
+  protected Expression arithmeticExpression;
+  protected Expression methodExpression;
+
+  @Setup
+  public void createExpressions(ProcessEngineState processEngineState) {
+    expressionManager = processEngineState.getProcessEngineConfiguration().getExpressionManager();
+
+    variableExpression = expressionManager.createExpression(VARIABLE_EXPRESSION);
+    arithmeticExpression = expressionManager.createExpression(ARITHMETIC_EXPRESSION);
+    methodExpression = expressionManager.createExpression(METHOD_EXPRESSION);
+
+    processInstance = (PvmExecutionImpl) new ProcessDefinitionBuilder()
+      .createActivity("waitState")
+        .initial()
+        .behavior(new WaitState())
+      .endActivity()
+    .buildProcessDefinition()
+    .createProcessInstance();
+
+    processInstance.setVariable("amount", 500L);
+    processInstance.setVariable("limit", 800L);
+    processInstance.setVariable("approved", true);
+    processInstance.setVariable("customer", "camunda services GmbH");
+    processInstance.start();
+  }
+
+  @Benchmark
+  public Object evaluateVariable(ProcessEngineContextState context) {
+    return variableExpression.getValue(processInstance);
+  }
+
+  @Benchmark
+  public Object evaluateArithmetic(ProcessEngineContextState context) {
+    return arithmeticExpression.getValue(processInstance);
+  }
+
+  @Benchmark
+  public Object evaluateMethodInvocation(ProcessEngineContextState context) {
+    return methodExpression.getValue(processInstance);
+  }
+
+  @Benchmark
+  public Object createAndEvaluateArithmetic(ProcessEngineContextState context) {
+    return expressionManager.createExpression(ARITHMETIC_EXPRESSION).getValue(processInstance);
+  }
+
+  @Benchmark
+  public Object createAndEvaluateMethodInvocation(ProcessEngineContextState context) {
+    return expressionManager.createExpression(METHOD_EXPRESSION).getValue(processInstance);
+  }
+
+  public static class WaitState implements ActivityBehavior {
+
+    public void execute(ActivityExecution execution) throws Exception {
+      // wait
+    }
+  }
+
+}
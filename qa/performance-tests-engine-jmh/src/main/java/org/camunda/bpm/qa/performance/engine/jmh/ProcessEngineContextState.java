@@ -0,0 +1,41 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.qa.performance.engine.jmh;
+
+import org.camunda.bpm.engine.impl.context.Context;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Makes the configuration of the {@link ProcessEngineState process engine} available through
+ * {@link Context#getProcessEngineConfiguration()} on the benchmark thread, as it is inside of
+ * a command. The context is thread local, so it is set up for every iteration on the thread
+ * which executes the iteration.
+ */
+@State(Scope.Thread)
+public class ProcessEngineContextState {
+
+  @Setup(Level.Iteration)
+  public void setProcessEngineConfiguration(ProcessEngineState processEngineState) {
+    Context.setProcessEngineConfiguration(processEngineState.getProcessEngineConfiguration());
+  }
+
+  @TearDown(Level.Iteration)
+  public void removeProcessEngineConfiguration() {
+    Context.removeProcessEngineConfiguration();
+  }
+
+}
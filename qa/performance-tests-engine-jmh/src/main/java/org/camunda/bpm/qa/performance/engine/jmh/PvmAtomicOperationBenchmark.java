@@ -0,0 +1,178 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.qa.performance.engine.jmh;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.camunda.bpm.engine.impl.pvm.PvmActivity;
+import org.camunda.bpm.engine.impl.pvm.PvmProcessDefinition;
+import org.camunda.bpm.engine.impl.pvm.PvmProcessInstance;
+import org.camunda.bpm.engine.impl.pvm.PvmTransition;
+import org.camunda.bpm.engine.impl.pvm.ProcessDefinitionBuilder;
+import org.camunda.bpm.engine.impl.pvm.delegate.ActivityBehavior;
+import org.camunda.bpm.engine.impl.pvm.delegate.ActivityExecution;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * <p>Runs process instances of in-memory process definitions built with the
+ * {@link ProcessDefinitionBuilder}. This measures the chain of atomic operations
+ * performed by the process virtual machine without any persistence.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class PvmAtomicOperationBenchmark {
+
+  protected static final int NUMBER_OF_ACTIVITIES = 10;
+  protected static final int NUMBER_OF_BRANCHES = 5;
+
+  protected PvmProcessDefinition sequence;
+  protected PvmProcessDefinition parallelBranches;
+
+  @Setup
+  public void buildProcessDefinitions() {
+    sequence = buildSequence();
+    parallelBranches = buildParallelBranches();
+  }
+
+  /**
+   * start -> activity1 -> ... -> activityN -> end
+   */
+  protected PvmProcessDefinition buildSequence() {
+    ProcessDefinitionBuilder builder = new ProcessDefinitionBuilder()
+      .createActivity("start")
+        .initial()
+        .behavior(new Automatic())
+        .transition("activity1")
+      .endActivity();
+
+    for (int i = 1; i <= NUMBER_OF_ACTIVITIES; i++) {
+      String nextActivityId = i < NUMBER_OF_ACTIVITIES ? "activity" + (i + 1) : "end";
+      builder
+        .createActivity("activity" + i)
+          .behavior(new Automatic())
+          .transition(nextActivityId)
+        .endActivity();
+    }
+
+    return builder
+      .createActivity("end")
+        .behavior(new End())
+      .endActivity()
+    .buildProcessDefinition();
+  }
+
+  /**
+   * start -> fork -> N concurrent activities -> join -> end
+   */
+  protected PvmProcessDefinition buildParallelBranches() {
+    ProcessDefinitionBuilder builder = new ProcessDefinitionBuilder()
+      .createActivity("start")
+        .initial()
+        .behavior(new Automatic())
+        .transition("fork")
+      .endActivity();
+
+    builder
+      .createActivity("fork")
+        .behavior(new ParallelGateway());
+    for (int i = 1; i <= NUMBER_OF_BRANCHES; i++) {
+      builder.transition("branch" + i);
+    }
+    builder.endActivity();
+
+    for (int i = 1; i <= NUMBER_OF_BRANCHES; i++) {
+      builder
+        .createActivity("branch" + i)
+          .behavior(new Automatic())
+          .transition("join")
+        .endActivity();
+    }
+
+    return builder
+      .createActivity("join")
+        .behavior(new ParallelGateway())
+        .transition("end")
+      .endActivity()
+      .createActivity("end")
+        .behavior(new End())
+      .endActivity()
+    .buildProcessDefinition();
+  }
+
+  @Benchmark
+  public PvmProcessInstance sequence() {
+    PvmProcessInstance processInstance = sequence.createProcessInstance();
+    processInstance.start();
+    return processInstance;
+  }
+
+  @Benchmark
+  public PvmProcessInstance parallelBranches() {
+    PvmProcessInstance processInstance = parallelBranches.createProcessInstance();
+    processInstance.start();
+    return processInstance;
+  }
+
+  /**
+   * Takes the first outgoing transition or ends the execution if there is none.
+   */
+  public static class Automatic implements ActivityBehavior {
+
+    public void execute(ActivityExecution execution) throws Exception {
+      List<PvmTransition> outgoingTransitions = execution.getActivity().getOutgoingTransitions();
+      if (outgoingTransitions.isEmpty()) {
+        execution.end(true);
+      } else {
+        execution.take(outgoingTransitions.get(0));
+      }
+    }
+  }
+
+  public static class End implements ActivityBehavior {
+
+    public void execute(ActivityExecution execution) throws Exception {
+      execution.end(true);
+    }
+  }
+
+  /**
+   * Joins all incoming and forks all outgoing transitions.
+   */
+  public static class ParallelGateway implements ActivityBehavior {
+
+    public void execute(ActivityExecution execution) throws Exception {
+      PvmActivity activity = execution.getActivity();
+      execution.inactivate();
+
+      List<ActivityExecution> joinedExecutions = execution.findInactiveConcurrentExecutions(activity);
+      if (joinedExecutions.size() == activity.getIncomingTransitions().size()) {
+        execution.takeAll(activity.getOutgoingTransitions(), joinedExecutions);
+      }
+    }
+  }
+
+}
@@ -0,0 +1,182 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.qa.performance.engine.jmh;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.camunda.bpm.engine.impl.persistence.entity.ByteArrayEntity;
+import org.camunda.bpm.engine.impl.variable.serializer.ByteArrayValueSerializer;
+import org.camunda.bpm.engine.impl.variable.serializer.JavaObjectSerializer;
+import org.camunda.bpm.engine.impl.variable.serializer.LongValueSerlializer;
+import org.camunda.bpm.engine.impl.variable.serializer.StringValueSerializer;
+import org.camunda.bpm.engine.impl.variable.serializer.ValueFields;
+import org.camunda.bpm.engine.variable.Variables;
+import org.camunda.bpm.engine.variable.value.BytesValue;
+import org.camunda.bpm.engine.variable.value.LongValue;
+import org.camunda.bpm.engine.variable.value.ObjectValue;
+import org.camunda.bpm.engine.variable.value.StringValue;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * <p>Writes values to and reads them from in-memory {@link ValueFields} using the
+ * serializers in <code>org.camunda.bpm.engine.impl.variable.serializer</code>, as it
+ * happens when variable instances are flushed and loaded.</p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class VariableSerializerBenchmark {
+
+  protected StringValueSerializer stringSerializer = new StringValueSerializer();
+  protected LongValueSerlializer longSerializer = new LongValueSerlializer();
+  protected ByteArrayValueSerializer byteArraySerializer = new ByteArrayValueSerializer();
+  protected JavaObjectSerializer javaObjectSerializer = new JavaObjectSerializer();
+
+  protected StringValue stringValue;
+  protected LongValue longValue;
+  protected BytesValue bytesValue;
+  protected Map<String, Object> object;
+
+  @Setup
+  public void createValues() {
+    stringValue = Variables.stringValue("Some Text which is considerably longer than a single word.");
+    longValue = Variables.longValue(4711L);
+    bytesValue = Variables.byteArrayValue(new byte[1024]);
+
+    // a map with nested collections, similar to the payload of a typical business object
+    object = new HashMap<String, Object>();
+    for (int i = 0; i < 10; i++) {
+      List<String> values = new ArrayList<String>();
+      for (int j = 0; j < 10; j++) {
+        values.add("value" + j);
+      }
+      object.put("key" + i, values);
+    }
+  }
+
+  @Benchmark
+  public StringValue writeAndReadString() {
+    InMemoryValueFields valueFields = new InMemoryValueFields();
+    stringSerializer.writeValue(stringValue, valueFields);
+    return stringSerializer.readValue(valueFields, true);
+  }
+
+  @Benchmark
+  public LongValue writeAndReadLong() {
+    InMemoryValueFields valueFields = new InMemoryValueFields();
+    longSerializer.writeValue(longValue, valueFields);
+    return longSerializer.readValue(valueFields, true);
+  }
+
+  @Benchmark
+  public BytesValue writeAndReadByteArray() {
+    InMemoryValueFields valueFields = new InMemoryValueFields();
+    byteArraySerializer.writeValue(bytesValue, valueFields);
+    return byteArraySerializer.readValue(valueFields, true);
+  }
+
+  /**
+   * Java serialization uses the default charset of the process engine, so the benchmark
+   * requires the process engine context.
+   */
+  @Benchmark
+  public ObjectValue writeAndReadJavaObject(ProcessEngineContextState context) {
+    InMemoryValueFields valueFields = new InMemoryValueFields();
+    javaObjectSerializer.writeValue(Variables.objectValue(object).create(), valueFields);
+    return javaObjectSerializer.readValue(valueFields, true);
+  }
+
+  @Benchmark
+  public ObjectValue writeJavaObjectAndReadSerialized(ProcessEngineContextState context) {
+    InMemoryValueFields valueFields = new InMemoryValueFields();
+    javaObjectSerializer.writeValue(Variables.objectValue(object).create(), valueFields);
+    return javaObjectSerializer.readValue(valueFields, false);
+  }
+
+  /**
+   * Holds the fields in memory instead of a variable instance and its byte array entity.
+   */
+  public static class InMemoryValueFields implements ValueFields {
+
+    protected String textValue;
+    protected String textValue2;
+    protected Long longValue;
+    protected Double doubleValue;
+    protected ByteArrayEntity byteArrayValue;
+
+    public String getName() {
+      return "benchmarkVariable";
+    }
+
+    public String getTextValue() {
+      return textValue;
+    }
+
+    public void setTextValue(String textValue) {
+      this.textValue = textValue;
+    }
+
+    public String getTextValue2() {
+      return textValue2;
+    }
+
+    public void setTextValue2(String textValue2) {
+      this.textValue2 = textValue2;
+    }
+
+    public Long getLongValue() {
+      return longValue;
+    }
+
+    public void setLongValue(Long longValue) {
+      this.longValue = longValue;
+    }
+
+    public Double getDoubleValue() {
+      return doubleValue;
+    }
+
+    public void setDoubleValue(Double doubleValue) {
+      this.doubleValue = doubleValue;
+    }
+
+    public String getByteArrayValueId() {
+      return null;
+    }
+
+    public ByteArrayEntity getByteArrayValue() {
+      return byteArrayValue;
+    }
+
+    public void setByteArrayValue(byte[] bytes) {
+      byteArrayValue = bytes != null ? new ByteArrayEntity(bytes) : null;
+    }
+  }
+
+}
@@ -0,0 +1,74 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.qa.performance.engine.benchmark;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.camunda.bpm.qa.performance.engine.framework.PerfTestLatencyResult;
+import org.camunda.bpm.qa.performance.engine.framework.PerfTestResult;
+import org.camunda.bpm.qa.performance.engine.framework.PerfTestResults;
+import org.camunda.bpm.qa.performance.engine.framework.aggregate.TabularResultAggregator;
+import org.camunda.bpm.qa.performance.engine.framework.aggregate.TabularResultSet;
+
+/**
+ * Aggregates the latency distribution of the runs and of the individual steps
+ * of each pass. The latencies are in microseconds.
+ *
+ */
+public class BenchmarkLatencyAggregator extends TabularResultAggregator {
+
+  public static final String RUN = "Run";
+
+  public BenchmarkLatencyAggregator(String resultsFolderPath) {
+    super(resultsFolderPath);
+  }
+
+  protected TabularResultSet createAggrgatedResultsInstance() {
+    TabularResultSet resultSet = new TabularResultSet();
+    resultSet.setResultColumnNames(Arrays.asList(BenchmarkAggregator.TEST_NAME,
+        "Threads", "Step", "Count", "Mean", "p50", "p99", "p99.9", "Max"));
+    return resultSet;
+  }
+
+  protected void processResults(PerfTestResults results, TabularResultSet tabularResultSet) {
+    for (PerfTestResult passResult : results.getPassResults()) {
+      if (passResult.getRunLatency() != null) {
+        tabularResultSet.addResultRow(processRow(results, passResult, RUN, passResult.getRunLatency()));
+      }
+
+      List<PerfTestLatencyResult> stepLatencies = passResult.getStepLatencies();
+      for (int i = 0; i < stepLatencies.size(); i++) {
+        // steps are numbered since the same step behavior may be used multiple times
+        String stepName = (i + 1) + ". " + stepLatencies.get(i).getStepName();
+        tabularResultSet.addResultRow(processRow(results, passResult, stepName, stepLatencies.get(i)));
+      }
+    }
+  }
+
+  protected List<Object> processRow(PerfTestResults results, PerfTestResult passResult, String name, PerfTestLatencyResult latency) {
+    List<Object> row = new ArrayList<Object>();
+    row.add(results.getTestName());
+    row.add(passResult.getNumberOfThreads());
+    row.add(name);
+    row.add(latency.getCount());
+    row.add(latency.getMean());
+    row.add(latency.getP50());
+    row.add(latency.getP99());
+    row.add(latency.getP999());
+    row.add(latency.getMax());
+    return row;
+  }
+
+}
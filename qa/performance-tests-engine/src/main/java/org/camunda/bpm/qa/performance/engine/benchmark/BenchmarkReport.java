@@ -64,6 +64,20 @@ public class BenchmarkReport {
         "benchmark",
         new BenchmarkAggregator(resultsFolder),
         "Benchmark Duration Report");
+
+    writeReport(
+        resultsFolder,
+        reportsFolder,
+        "benchmark-latency",
+        new BenchmarkLatencyAggregator(resultsFolder),
+        "Benchmark Latency Report (microseconds)");
+
+    writeReport(
+        resultsFolder,
+        reportsFolder,
+        "benchmark-throughput",
+        new BenchmarkThroughputTimelineAggregator(resultsFolder),
+        "Benchmark Throughput Timeline Report (completed runs per second)");
   }
 
   private static void writeReport(String resultsFolder,
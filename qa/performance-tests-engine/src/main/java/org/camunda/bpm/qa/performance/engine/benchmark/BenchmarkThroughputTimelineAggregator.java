@@ -0,0 +1,63 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.qa.performance.engine.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.camunda.bpm.qa.performance.engine.framework.PerfTestResult;
+import org.camunda.bpm.qa.performance.engine.framework.PerfTestResults;
+import org.camunda.bpm.qa.performance.engine.framework.aggregate.TabularResultAggregator;
+import org.camunda.bpm.qa.performance.engine.framework.aggregate.TabularResultSet;
+
+/**
+ * Aggregates the throughput timelines of the passes: each row holds the
+ * number of runs completed in every second of a pass.
+ *
+ */
+public class BenchmarkThroughputTimelineAggregator extends TabularResultAggregator {
+
+  public BenchmarkThroughputTimelineAggregator(String resultsFolderPath) {
+    super(resultsFolderPath);
+  }
+
+  protected TabularResultSet createAggrgatedResultsInstance() {
+    return new TabularResultSet();
+  }
+
+  protected void processResults(PerfTestResults results, TabularResultSet tabularResultSet) {
+    for (PerfTestResult passResult : results.getPassResults()) {
+      List<Object> row = new ArrayList<Object>();
+      row.add(results.getTestName());
+      row.add(passResult.getNumberOfThreads());
+      row.addAll(passResult.getThroughputTimeline());
+      tabularResultSet.addResultRow(row);
+    }
+  }
+
+  protected void postProcessResultSet(TabularResultSet tabularResultSet) {
+    int columnSize = 2;
+    for (List<Object> row : tabularResultSet.getResults()) {
+      columnSize = Math.max(columnSize, row.size());
+    }
+
+    ArrayList<String> columnNames = new ArrayList<String>();
+    columnNames.add(BenchmarkAggregator.TEST_NAME);
+    columnNames.add("Threads");
+    for (int i = 2; i < columnSize; i++) {
+      columnNames.add((i - 1) + "s");
+    }
+    tabularResultSet.setResultColumnNames(columnNames);
+  }
+
+}
@@ -0,0 +1,126 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.qa.performance.engine.framework;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * <p>Records latencies in a histogram with a fixed memory footprint, similar to an
+ * HdrHistogram: values are counted in buckets covering a power of two each, every bucket
+ * is divided into {@value #SUB_BUCKET_COUNT} linear sub buckets. Values below
+ * {@value #SUB_BUCKET_COUNT} are counted exactly, larger values with a relative
+ * error below 1 / {@value #SUB_BUCKET_COUNT}.</p>
+ *
+ * <p>Recording a value does not allocate and does not lock, so that the histogram can
+ * be shared by all threads of a pass.</p>
+ *
+ */
+public class PerfTestLatencyHistogram {
+
+  protected static final int SUB_BUCKET_BITS = 8;
+  public static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+  /** the highest trackable value, larger values are recorded as this value */
+  protected final long highestTrackableValue;
+
+  protected final AtomicLongArray counts;
+  protected final AtomicLong totalCount = new AtomicLong();
+  protected final AtomicLong totalValue = new AtomicLong();
+  protected final AtomicLong maxValue = new AtomicLong();
+
+  /**
+   * @param highestTrackableValue the highest value to be tracked, must be at least 1
+   */
+  public PerfTestLatencyHistogram(long highestTrackableValue) {
+    if (highestTrackableValue < 1) {
+      throw new PerfTestException("Highest trackable value must be at least 1, was " + highestTrackableValue);
+    }
+    this.highestTrackableValue = highestTrackableValue;
+    this.counts = new AtomicLongArray(countsIndex(highestTrackableValue) + 1);
+  }
+
+  public void recordValue(long value) {
+    if (value < 0) {
+      value = 0;
+    } else if (value > highestTrackableValue) {
+      value = highestTrackableValue;
+    }
+
+    counts.incrementAndGet(countsIndex(value));
+    totalCount.incrementAndGet();
+    totalValue.addAndGet(value);
+
+    long currentMax = maxValue.get();
+    while (value > currentMax && !maxValue.compareAndSet(currentMax, value)) {
+      currentMax = maxValue.get();
+    }
+  }
+
+  /**
+   * @param percentile the percentile between 0 and 100
+   * @return the highest value which is equivalent to the value at the given percentile,
+   *   never more than the {@link #getMaxValue() max value}, 0 if no value was recorded
+   */
+  public long getValueAtPercentile(double percentile) {
+    long count = totalCount.get();
+    if (count == 0) {
+      return 0;
+    }
+
+    double requestedPercentile = Math.min(Math.max(percentile, 0), 100);
+    long countAtPercentile = Math.max(1, (long) Math.ceil((requestedPercentile / 100) * count));
+
+    long max = maxValue.get();
+    long cumulativeCount = 0;
+    for (int i = 0; i < counts.length(); i++) {
+      cumulativeCount += counts.get(i);
+      if (cumulativeCount >= countAtPercentile) {
+        return Math.min(highestEquivalentValue(i), max);
+      }
+    }
+    return max;
+  }
+
+  public long getTotalCount() {
+    return totalCount.get();
+  }
+
+  public long getMaxValue() {
+    return maxValue.get();
+  }
+
+  public double getMean() {
+    long count = totalCount.get();
+    if (count == 0) {
+      return 0;
+    } else {
+      return (double) totalValue.get() / count;
+    }
+  }
+
+  /**
+   * Values with the same highest {@link #SUB_BUCKET_BITS} + 1 bits share an index.
+   */
+  protected static int countsIndex(long value) {
+    int shift = Math.max(0, (63 - Long.numberOfLeadingZeros(value)) - SUB_BUCKET_BITS);
+    return (int) ((shift << SUB_BUCKET_BITS) + (value >>> shift));
+  }
+
+  protected static long highestEquivalentValue(int index) {
+    int shift = Math.max(0, (index >>> SUB_BUCKET_BITS) - 1);
+    long subBucket = index - (shift << SUB_BUCKET_BITS);
+    return ((subBucket + 1) << shift) - 1;
+  }
+
+}
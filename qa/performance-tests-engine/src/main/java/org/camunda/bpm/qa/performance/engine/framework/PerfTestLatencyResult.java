@@ -0,0 +1,101 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.qa.performance.engine.framework;
+
+/**
+ * The latency distribution of a step or of a complete run during a pass.
+ * All values are in microseconds.
+ *
+ */
+public class PerfTestLatencyResult {
+
+  /** the name of the step or null for the latency of complete runs */
+  protected String stepName;
+
+  protected long count;
+  protected long mean;
+  protected long p50;
+  protected long p99;
+  protected long p999;
+  protected long max;
+
+  public PerfTestLatencyResult(String stepName, PerfTestLatencyHistogram histogram) {
+    this.stepName = stepName;
+    count = histogram.getTotalCount();
+    mean = Math.round(histogram.getMean());
+    p50 = histogram.getValueAtPercentile(50);
+    p99 = histogram.getValueAtPercentile(99);
+    p999 = histogram.getValueAtPercentile(99.9);
+    max = histogram.getMaxValue();
+  }
+
+  public PerfTestLatencyResult() {
+  }
+
+  public String getStepName() {
+    return stepName;
+  }
+
+  public void setStepName(String stepName) {
+    this.stepName = stepName;
+  }
+
+  public long getCount() {
+    return count;
+  }
+
+  public void setCount(long count) {
+    this.count = count;
+  }
+
+  public long getMean() {
+    return mean;
+  }
+
+  public void setMean(long mean) {
+    this.mean = mean;
+  }
+
+  public long getP50() {
+    return p50;
+  }
+
+  public void setP50(long p50) {
+    this.p50 = p50;
+  }
+
+  public long getP99() {
+    return p99;
+  }
+
+  public void setP99(long p99) {
+    this.p99 = p99;
+  }
+
+  public long getP999() {
+    return p999;
+  }
+
+  public void setP999(long p999) {
+    this.p999 = p999;
+  }
+
+  public long getMax() {
+    return max;
+  }
+
+  public void setMax(long max) {
+    this.max = max;
+  }
+
+}
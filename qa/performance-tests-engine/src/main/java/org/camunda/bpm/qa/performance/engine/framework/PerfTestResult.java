@@ -28,6 +28,15 @@ public class PerfTestResult {
 
   protected List<PerfTestStepResult> stepResults = Collections.synchronizedList(new ArrayList<PerfTestStepResult>());
 
+  /** the latency of the complete runs */
+  protected PerfTestLatencyResult runLatency;
+
+  /** the latency of the individual steps, in the order of the steps */
+  protected List<PerfTestLatencyResult> stepLatencies = new ArrayList<PerfTestLatencyResult>();
+
+  /** the number of runs completed in each second of the pass */
+  protected List<Long> throughputTimeline = new ArrayList<Long>();
+
   public long getDuration() {
     return duration;
   }
@@ -52,6 +61,30 @@ public class PerfTestResult {
     this.stepResults = stepResults;
   }
 
+  public PerfTestLatencyResult getRunLatency() {
+    return runLatency;
+  }
+
+  public void setRunLatency(PerfTestLatencyResult runLatency) {
+    this.runLatency = runLatency;
+  }
+
+  public List<PerfTestLatencyResult> getStepLatencies() {
+    return stepLatencies;
+  }
+
+  public void setStepLatencies(List<PerfTestLatencyResult> stepLatencies) {
+    this.stepLatencies = stepLatencies;
+  }
+
+  public List<Long> getThroughputTimeline() {
+    return throughputTimeline;
+  }
+
+  public void setThroughputTimeline(List<Long> throughputTimeline) {
+    this.throughputTimeline = throughputTimeline;
+  }
+
   /**
    * log a step result. NOTE: this is expensive as it requires synchronization on the stepResultList.
    *
@@ -28,6 +28,7 @@ public class PerfTestRun implements PerfTestRunContext, Runnable {
 
   protected long runStartTime;
   protected long runEndTime;
+  protected long runStartNanos;
 
   protected long stepStartTime;
   protected long stepEndTime;
@@ -45,6 +46,7 @@ public class PerfTestRun implements PerfTestRunContext, Runnable {
 
   public void startRun() {
     runStartTime = System.currentTimeMillis();
+    runStartNanos = System.nanoTime();
     isStarted = true;
     notifyWatchersStartRun();
   }
@@ -64,7 +66,10 @@ public class PerfTestRun implements PerfTestRunContext, Runnable {
       PerfTestRunContext.currentContext.set(this);
 
       PerfTestStepBehavior perfTestStepBehavior = currentStep.getStepBehavior();
+      stepStartTime = System.nanoTime();
       perfTestStepBehavior.execute(this);
+      stepEndTime = System.nanoTime();
+      runner.recordStepLatency(currentStep, stepEndTime - stepStartTime);
 
       notifyWatchersAfterStep();
       runner.completedStep(this, currentStep);
@@ -103,6 +108,10 @@ public class PerfTestRun implements PerfTestRunContext, Runnable {
     return runEndTime;
   }
 
+  public long getRunStartNanos() {
+    return runStartNanos;
+  }
+
   public PerfTestStep getCurrentStep() {
     return currentStep;
   }
@@ -111,10 +120,16 @@ public class PerfTestRun implements PerfTestRunContext, Runnable {
     return runner;
   }
 
+  /**
+   * @return the {@link System#nanoTime()} at which the current step ended
+   */
   public long getStepEndTime() {
     return stepEndTime;
   }
 
+  /**
+   * @return the {@link System#nanoTime()} at which the current step started
+   */
   public long getStepStartTime() {
     return stepStartTime;
   }
@@ -14,7 +14,9 @@ package org.camunda.bpm.qa.performance.engine.framework;
 
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -31,6 +33,9 @@ import org.camunda.bpm.engine.impl.util.ReflectUtil;
  */
 public class PerfTestRunner {
 
+  /** latencies are recorded in microseconds up to one hour */
+  public static final long HIGHEST_TRACKABLE_LATENCY = TimeUnit.HOURS.toMicros(1);
+
   protected ExecutorService executor;
   protected PerfTest test;
   protected PerfTestConfiguration configuration;
@@ -42,6 +47,9 @@ public class PerfTestRunner {
   protected long passStartTime;
   protected int passNumberOfThreads;
   protected PerfTestResult passResult;
+  protected Map<PerfTestStep, PerfTestLatencyHistogram> passStepLatencies;
+  protected PerfTestLatencyHistogram passRunLatency;
+  protected PerfTestThroughputTimeline passThroughputTimeline;
 
   // global state
   protected PerfTestResults results;
@@ -161,6 +169,13 @@ public class PerfTestRunner {
     PerfTestStep firstStep = test.getFirstStep();
     int numberOfRuns = configuration.getNumberOfRuns();
 
+    // the histograms are created upfront, so that the map is not modified during the pass
+    passStepLatencies = new IdentityHashMap<PerfTestStep, PerfTestLatencyHistogram>();
+    for (PerfTestStep step = firstStep; step != null; step = step.getNextStep()) {
+      passStepLatencies.put(step, new PerfTestLatencyHistogram(HIGHEST_TRACKABLE_LATENCY));
+    }
+    passRunLatency = new PerfTestLatencyHistogram(HIGHEST_TRACKABLE_LATENCY);
+
     // first create the runs
     PerfTestRun[] runs = new PerfTestRun[numberOfRuns];
     for (int i = 0; i < numberOfRuns; i++) {
@@ -169,6 +184,7 @@ public class PerfTestRunner {
 
     // now execute the runs
     this.passStartTime = System.currentTimeMillis();
+    passThroughputTimeline = new PerfTestThroughputTimeline(passStartTime);
     for (int i = 0; i < numberOfRuns; i++) {
       executor.execute(runs[i]);
     }
@@ -220,6 +236,9 @@ public class PerfTestRunner {
   public void completedRun(PerfTestRun run) {
     run.endRun();
 
+    passRunLatency.recordValue(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - run.getRunStartNanos()));
+    passThroughputTimeline.recordCompletion(run.getRunEndTime());
+
     long currentlyCompleted = passCompletedRuns.incrementAndGet();
     if(currentlyCompleted >= configuration.getNumberOfRuns()) {
       synchronized (passMonitor) {
@@ -227,6 +246,7 @@ public class PerfTestRunner {
         // record the results:
         passResult.setDuration(System.currentTimeMillis() - passStartTime);
         passResult.setNumberOfThreads(passNumberOfThreads);
+        recordLatencies();
 
         results.getPassResults().add(passResult);
 
@@ -237,6 +257,24 @@ public class PerfTestRunner {
   }
 
 
+  /**
+   * Invoked when a {@link PerfTestRun} completed the execution of a step.
+   *
+   * @param step the executed step
+   * @param durationNanos the duration of the step execution in nanoseconds
+   */
+  public void recordStepLatency(PerfTestStep step, long durationNanos) {
+    passStepLatencies.get(step).recordValue(TimeUnit.NANOSECONDS.toMicros(durationNanos));
+  }
+
+  protected void recordLatencies() {
+    for (PerfTestStep step = test.getFirstStep(); step != null; step = step.getNextStep()) {
+      passResult.getStepLatencies().add(new PerfTestLatencyResult(step.getStepName(), passStepLatencies.get(step)));
+    }
+    passResult.setRunLatency(new PerfTestLatencyResult(null, passRunLatency));
+    passResult.setThroughputTimeline(passThroughputTimeline.getCompletionsPerSecond());
+  }
+
   public void failed(PerfTestRun perfTestRun, Throwable t) {
     synchronized (doneMonitor) {
       this.exception = t;
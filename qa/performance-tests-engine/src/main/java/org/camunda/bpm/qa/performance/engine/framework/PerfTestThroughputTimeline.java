@@ -0,0 +1,74 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.qa.performance.engine.framework;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts the runs completed in each second of a pass, which shows
+ * the warm-up behavior and throughput variations during the pass.
+ *
+ */
+public class PerfTestThroughputTimeline {
+
+  protected final long startTime;
+
+  protected final ConcurrentMap<Long, AtomicLong> completionsPerSecond = new ConcurrentHashMap<Long, AtomicLong>();
+
+  /**
+   * @param startTime the start time of the pass in milliseconds
+   */
+  public PerfTestThroughputTimeline(long startTime) {
+    this.startTime = startTime;
+  }
+
+  /**
+   * @param completionTime the time the run completed in milliseconds
+   */
+  public void recordCompletion(long completionTime) {
+    Long second = Math.max(0, completionTime - startTime) / 1000;
+
+    AtomicLong completions = completionsPerSecond.get(second);
+    if (completions == null) {
+      AtomicLong newCompletions = new AtomicLong();
+      completions = completionsPerSecond.putIfAbsent(second, newCompletions);
+      if (completions == null) {
+        completions = newCompletions;
+      }
+    }
+    completions.incrementAndGet();
+  }
+
+  /**
+   * @return the number of completed runs for every second from the start of the pass
+   *   to the last completion
+   */
+  public List<Long> getCompletionsPerSecond() {
+    long lastSecond = -1;
+    for (Long second : completionsPerSecond.keySet()) {
+      lastSecond = Math.max(lastSecond, second);
+    }
+
+    List<Long> timeline = new ArrayList<Long>();
+    for (long second = 0; second <= lastSecond; second++) {
+      AtomicLong completions = completionsPerSecond.get(second);
+      timeline.add(completions != null ? completions.get() : 0L);
+    }
+    return timeline;
+  }
+
+}
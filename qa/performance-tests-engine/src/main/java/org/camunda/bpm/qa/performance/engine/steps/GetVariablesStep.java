@@ -0,0 +1,36 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.qa.performance.engine.steps;
+
+import org.camunda.bpm.engine.ProcessEngine;
+import org.camunda.bpm.qa.performance.engine.framework.PerfTestRunContext;
+
+/**
+ * Reads all variables of the execution whose id is stored in the
+ * run context under the given key.
+ */
+public class GetVariablesStep extends ProcessEngineAwareStep {
+
+  protected String executionIdKey;
+
+  public GetVariablesStep(ProcessEngine processEngine, String executionIdKey) {
+    super(processEngine);
+    this.executionIdKey = executionIdKey;
+  }
+
+  public void execute(PerfTestRunContext context) {
+    String executionId = context.getVariable(executionIdKey);
+    runtimeService.getVariables(executionId);
+  }
+
+}
@@ -0,0 +1,39 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.qa.performance.engine.bpmn;
+
+import org.camunda.bpm.engine.test.Deployment;
+import org.camunda.bpm.qa.performance.engine.junit.ProcessEnginePerformanceTestCase;
+import org.camunda.bpm.qa.performance.engine.steps.StartProcessInstanceStep;
+import org.junit.Test;
+
+/**
+ * <p>Executes a sequence of service tasks which invoke methods on the execution
+ * using expressions. Every task evaluates a different expression, so that each run
+ * parses (or looks up in the tree cache) and resolves the invoked methods of ten
+ * expressions.</p>
+ *
+ * <p>Run with <code>-DnumberOfThreads=N</code> to measure the contention on the
+ * expression tree cache and the method resolution of the <code>BeanELResolver</code>.</p>
+ */
+public class ExpressionPerformanceTest extends ProcessEnginePerformanceTestCase {
+
+  @Test
+  @Deployment
+  public void methodExpressions10Steps() {
+    performanceTest()
+      .step(new StartProcessInstanceStep(engine, "process"))
+    .run();
+  }
+
+}
@@ -0,0 +1,55 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.qa.performance.engine.bpmn;
+
+import org.camunda.bpm.engine.impl.ProcessEngineImpl;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.test.Deployment;
+import org.camunda.bpm.qa.performance.engine.junit.ProcessEnginePerformanceTestCase;
+import org.camunda.bpm.qa.performance.engine.steps.StartProcessInstanceStep;
+import org.junit.Test;
+
+/**
+ * <p>Executes a sequence of 50 service tasks delegating to a Java class, which shows the
+ * overhead of resolving and instantiating class delegates per task.</p>
+ *
+ * <p>The second test shares the delegate instances between all invocations.</p>
+ */
+public class ServiceTaskPerformanceTest extends ProcessEnginePerformanceTestCase {
+
+  protected static final String CLASS_DELEGATES_50_STEPS = "org/camunda/bpm/qa/performance/engine/bpmn/ServiceTaskPerformanceTest.classDelegates50Steps.bpmn";
+
+  @Test
+  @Deployment(resources = CLASS_DELEGATES_50_STEPS)
+  public void classDelegates50Steps() {
+    performanceTest()
+      .step(new StartProcessInstanceStep(engine, "process"))
+    .run();
+  }
+
+  @Test
+  @Deployment(resources = CLASS_DELEGATES_50_STEPS)
+  public void sharedClassDelegates50Steps() {
+    ProcessEngineConfigurationImpl processEngineConfiguration = ((ProcessEngineImpl) engine).getProcessEngineConfiguration();
+    processEngineConfiguration.setEnableSharedDelegateInstances(true);
+    try {
+      performanceTest()
+        .step(new StartProcessInstanceStep(engine, "process"))
+      .run();
+
+    } finally {
+      processEngineConfiguration.setEnableSharedDelegateInstances(false);
+    }
+  }
+
+}
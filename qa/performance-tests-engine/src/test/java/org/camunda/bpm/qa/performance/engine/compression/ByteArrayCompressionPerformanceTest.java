@@ -0,0 +1,144 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.qa.performance.engine.compression;
+
+import static org.camunda.bpm.qa.performance.engine.steps.PerfTestConstants.PROCESS_INSTANCE_ID;
+import static org.camunda.bpm.qa.performance.engine.steps.PerfTestConstants.VARIABLE1;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.camunda.bpm.engine.ProcessEngine;
+import org.camunda.bpm.engine.ProcessEngineConfiguration;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.cfg.StandaloneProcessEngineConfiguration;
+import org.camunda.bpm.engine.impl.persistence.entity.util.DeflateByteArrayCodec;
+import org.camunda.bpm.qa.performance.engine.framework.PerfTestBuilder;
+import org.camunda.bpm.qa.performance.engine.framework.PerfTestConfiguration;
+import org.camunda.bpm.qa.performance.engine.junit.PerfTestConfigurationRule;
+import org.camunda.bpm.qa.performance.engine.junit.PerfTestResultRecorderRule;
+import org.camunda.bpm.qa.performance.engine.steps.GetVariablesStep;
+import org.camunda.bpm.qa.performance.engine.steps.StartProcessInstanceStep;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+
+/**
+ * <p>Compares the throughput of writing and reading serialized process variables
+ * with and without byte array compression.</p>
+ *
+ * <p>The variable is a map resembling a typical business object with nested
+ * line items, about 4 KB when serialized. Each test uses a separate H2 in-memory
+ * database.</p>
+ */
+public class ByteArrayCompressionPerformanceTest {
+
+  protected static final String PROCESS_RESOURCE = "org/camunda/bpm/qa/performance/engine/bpmn/UserTaskPerformanceTest.singleTask.bpmn";
+
+  @Rule
+  public PerfTestConfigurationRule testConfigurationRule = new PerfTestConfigurationRule();
+
+  @Rule
+  public PerfTestResultRecorderRule resultRecorderRule = new PerfTestResultRecorderRule();
+
+  protected ProcessEngine engine;
+
+  @After
+  public void closeProcessEngine() {
+    if (engine != null) {
+      engine.close();
+      engine = null;
+    }
+  }
+
+  @Test
+  public void uncompressed() {
+    runPerformanceTest("uncompressed", DeflateByteArrayCodec.COMPRESSION_DISABLED);
+  }
+
+  @Test
+  public void compressedAbove512Bytes() {
+    runPerformanceTest("compressed", 512);
+  }
+
+  protected void runPerformanceTest(String databaseName, int compressionThreshold) {
+    engine = createProcessEngine(databaseName, compressionThreshold);
+
+    engine.getRepositoryService()
+      .createDeployment()
+      .addClasspathResource(PROCESS_RESOURCE)
+      .deploy();
+
+    Map<String, Object> variables = new HashMap<String, Object>();
+    variables.put(VARIABLE1, createOrder());
+
+    performanceTest()
+      .step(new StartProcessInstanceStep(engine, "process", variables))
+      .step(new GetVariablesStep(engine, PROCESS_INSTANCE_ID))
+    .run();
+  }
+
+  protected HashMap<String, Object> createOrder() {
+    HashMap<String, Object> order = new HashMap<String, Object>();
+    order.put("orderId", "ORD-2014-000042");
+    order.put("customerId", "CUST-4711");
+    order.put("customerName", "Acme Corporation");
+    order.put("street", "Main Street 1");
+    order.put("city", "Springfield");
+    order.put("orderDate", new Date());
+    order.put("priority", 2);
+
+    List<HashMap<String, Object>> items = new ArrayList<HashMap<String, Object>>();
+    for (int i = 0; i < 30; i++) {
+      HashMap<String, Object> item = new HashMap<String, Object>();
+      item.put("position", i);
+      item.put("articleId", "ART-" + (1000 + i));
+      item.put("description", "Article number " + i + " of the catalog");
+      item.put("quantity", i % 5 + 1);
+      item.put("price", 9.99d * (i + 1));
+      items.add(item);
+    }
+    order.put("items", items);
+
+    return order;
+  }
+
+  protected ProcessEngine createProcessEngine(String databaseName, int compressionThreshold) {
+    PerfTestConfiguration configuration = testConfigurationRule.getPerformanceTestConfiguration();
+
+    ProcessEngineConfigurationImpl processEngineConfiguration = new StandaloneProcessEngineConfiguration();
+    processEngineConfiguration
+      .setJdbcUrl("jdbc:h2:mem:byte-array-compression-" + databaseName + ";MVCC=TRUE")
+      .setJdbcDriver("org.h2.Driver")
+      .setJdbcUsername("sa")
+      .setJdbcPassword("")
+      .setJdbcMaxActiveConnections(100)
+      .setDatabaseSchemaUpdate(ProcessEngineConfiguration.DB_SCHEMA_UPDATE_CREATE_DROP)
+      .setHistory(configuration.getHistoryLevel())
+      .setProcessEngineName("byte-array-compression-" + databaseName);
+
+    processEngineConfiguration.setByteArrayCompressionThreshold(compressionThreshold);
+
+    return processEngineConfiguration.buildProcessEngine();
+  }
+
+  protected PerfTestBuilder performanceTest() {
+    PerfTestConfiguration configuration = testConfigurationRule.getPerformanceTestConfiguration();
+    configuration.setPlatform("camunda BPM");
+    return new PerfTestBuilder(configuration, resultRecorderRule);
+  }
+
+}
@@ -0,0 +1,121 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.qa.performance.engine.deployment;
+
+import java.util.List;
+
+import org.camunda.bpm.engine.impl.ProcessEngineImpl;
+import org.camunda.bpm.engine.impl.bpmn.deployer.BpmnDeployer;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.persistence.deploy.Deployer;
+import org.camunda.bpm.engine.impl.persistence.deploy.DeploymentCache;
+import org.camunda.bpm.engine.impl.persistence.deploy.DeploymentParseExecutor;
+import org.camunda.bpm.engine.impl.persistence.entity.DeploymentEntity;
+import org.camunda.bpm.engine.repository.DeploymentBuilder;
+import org.camunda.bpm.model.bpmn.Bpmn;
+import org.camunda.bpm.model.bpmn.builder.AbstractFlowNodeBuilder;
+import org.camunda.bpm.qa.performance.engine.framework.PerfTestRunContext;
+import org.camunda.bpm.qa.performance.engine.framework.PerfTestStepBehavior;
+import org.camunda.bpm.qa.performance.engine.junit.ProcessEnginePerformanceTestCase;
+import org.junit.Test;
+
+/**
+ * <p>Measures the time needed to parse a deployment of 100 process definitions with
+ * 50 user tasks each, as it happens on every cache miss after an engine startup.</p>
+ *
+ * <p>The first test parses the resources sequentially, the second one on as many threads
+ * as processors are available.</p>
+ */
+public class DeploymentParsePerformanceTest extends ProcessEnginePerformanceTestCase {
+
+  protected static final int NUMBER_OF_PROCESSES = 100;
+  protected static final int NUMBER_OF_TASKS = 50;
+
+  @Test
+  public void sequentialParsing100Processes() {
+    parseDeployment(1);
+  }
+
+  @Test
+  public void parallelParsing100Processes() {
+    parseDeployment(Runtime.getRuntime().availableProcessors());
+  }
+
+  protected void parseDeployment(int parallelism) {
+    ProcessEngineConfigurationImpl processEngineConfiguration = ((ProcessEngineImpl) engine).getProcessEngineConfiguration();
+    BpmnDeployer bpmnDeployer = getBpmnDeployer(processEngineConfiguration.getDeploymentCache().getDeployers());
+    DeploymentParseExecutor previousParseExecutor = bpmnDeployer.getParseExecutor();
+    DeploymentParseExecutor parseExecutor = new DeploymentParseExecutor(parallelism);
+
+    String deploymentId = createDeployment().deploy().getId();
+    bpmnDeployer.setParseExecutor(parseExecutor);
+    try {
+      performanceTest()
+        .step(new ParseDeploymentStep(processEngineConfiguration, deploymentId))
+      .run();
+
+    } finally {
+      bpmnDeployer.setParseExecutor(previousParseExecutor);
+      parseExecutor.close();
+      engine.getRepositoryService().deleteDeployment(deploymentId, true);
+    }
+  }
+
+  protected DeploymentBuilder createDeployment() {
+    DeploymentBuilder deployment = engine.getRepositoryService().createDeployment();
+    for (int i = 0; i < NUMBER_OF_PROCESSES; i++) {
+      AbstractFlowNodeBuilder<?, ?> builder = Bpmn.createExecutableProcess("process" + i).startEvent();
+      for (int j = 0; j < NUMBER_OF_TASKS; j++) {
+        builder = builder.userTask("task" + j).name("Task " + j);
+      }
+      deployment.addModelInstance("process" + i + ".bpmn", builder.endEvent().done());
+    }
+    return deployment;
+  }
+
+  protected BpmnDeployer getBpmnDeployer(List<Deployer> deployers) {
+    for (Deployer deployer : deployers) {
+      if (deployer instanceof BpmnDeployer) {
+        return (BpmnDeployer) deployer;
+      }
+    }
+    throw new IllegalStateException("No BPMN deployer configured");
+  }
+
+  /**
+   * Parses all resources of the deployment like the {@link DeploymentCache} does on a miss.
+   */
+  public static class ParseDeploymentStep implements PerfTestStepBehavior {
+
+    protected ProcessEngineConfigurationImpl processEngineConfiguration;
+    protected String deploymentId;
+
+    public ParseDeploymentStep(ProcessEngineConfigurationImpl processEngineConfiguration, String deploymentId) {
+      this.processEngineConfiguration = processEngineConfiguration;
+      this.deploymentId = deploymentId;
+    }
+
+    public void execute(PerfTestRunContext context) {
+      processEngineConfiguration.getCommandExecutorTxRequired().execute(new Command<Void>() {
+        public Void execute(CommandContext commandContext) {
+          DeploymentEntity deployment = commandContext.getDeploymentManager().findDeploymentById(deploymentId);
+          processEngineConfiguration.getDeploymentCache().deploy(deployment);
+          return null;
+        }
+      });
+    }
+  }
+
+}
@@ -0,0 +1,140 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.qa.performance.engine.flush;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.camunda.bpm.engine.impl.db.DbEntity;
+import org.camunda.bpm.engine.impl.db.entitymanager.operation.DbEntityOperation;
+import org.camunda.bpm.engine.impl.db.entitymanager.operation.DbOperationManager;
+import org.camunda.bpm.engine.impl.db.entitymanager.operation.DbOperationType;
+import org.camunda.bpm.engine.impl.persistence.entity.ExecutionEntity;
+import org.camunda.bpm.engine.impl.persistence.entity.VariableInstanceEntity;
+import org.camunda.bpm.qa.performance.engine.framework.PerfTestBuilder;
+import org.camunda.bpm.qa.performance.engine.framework.PerfTestConfiguration;
+import org.camunda.bpm.qa.performance.engine.framework.PerfTestRunContext;
+import org.camunda.bpm.qa.performance.engine.framework.PerfTestStepBehavior;
+import org.camunda.bpm.qa.performance.engine.junit.PerfTestConfigurationRule;
+import org.camunda.bpm.qa.performance.engine.junit.PerfTestResultRecorderRule;
+import org.junit.Rule;
+import org.junit.Test;
+
+/**
+ * <p>Compares the time needed to plan the flush of 10000 operations using the
+ * {@link DbOperationManager} and the {@link SortedSetDbOperationManager} baseline.</p>
+ *
+ * <p>The operations work on 5000 executions forming trees of varying depth and on
+ * 5000 variable instances. Each run plans the insert and the delete of all entities.
+ * No process engine or database is involved.</p>
+ */
+public class FlushPlanningPerformanceTest {
+
+  protected static final int NUMBER_OF_EXECUTIONS = 5000;
+  protected static final int NUMBER_OF_VARIABLES = 5000;
+
+  @Rule
+  public PerfTestConfigurationRule testConfigurationRule = new PerfTestConfigurationRule();
+
+  @Rule
+  public PerfTestResultRecorderRule resultRecorderRule = new PerfTestResultRecorderRule();
+
+  protected static final List<DbEntity> ENTITIES = createEntities();
+
+  @Test
+  public void linearFlushPlanning() {
+    performanceTest()
+      .step(new PlanFlushStep(DbOperationType.INSERT, false))
+      .step(new PlanFlushStep(DbOperationType.DELETE, false))
+    .run();
+  }
+
+  @Test
+  public void sortedSetFlushPlanning() {
+    performanceTest()
+      .step(new PlanFlushStep(DbOperationType.INSERT, true))
+      .step(new PlanFlushStep(DbOperationType.DELETE, true))
+    .run();
+  }
+
+  protected static List<DbEntity> createEntities() {
+    Random random = new Random(42);
+    List<DbEntity> entities = new ArrayList<DbEntity>();
+
+    List<ExecutionEntity> executions = new ArrayList<ExecutionEntity>();
+    for (int i = 0; i < NUMBER_OF_EXECUTIONS; i++) {
+      ExecutionEntity execution = new ExecutionEntity();
+      // every fifth execution is a process instance, the others are children of a random execution
+      if (i % 5 != 0) {
+        execution.setParent(executions.get(random.nextInt(i)));
+      }
+      executions.add(execution);
+    }
+    entities.addAll(executions);
+
+    for (int i = 0; i < NUMBER_OF_VARIABLES; i++) {
+      entities.add(new VariableInstanceEntity());
+    }
+
+    // ids which are not ordered like the execution trees
+    List<Integer> ids = new ArrayList<Integer>();
+    for (int i = 0; i < entities.size(); i++) {
+      ids.add(100000 + i);
+    }
+    Collections.shuffle(ids, random);
+    for (int i = 0; i < entities.size(); i++) {
+      entities.get(i).setId(String.valueOf(ids.get(i)));
+    }
+
+    for (ExecutionEntity execution : executions) {
+      if (execution.getParent() != null) {
+        execution.setParentId(execution.getParent().getId());
+      }
+    }
+
+    return entities;
+  }
+
+  protected PerfTestBuilder performanceTest() {
+    PerfTestConfiguration configuration = testConfigurationRule.getPerformanceTestConfiguration();
+    configuration.setPlatform("camunda BPM");
+    return new PerfTestBuilder(configuration, resultRecorderRule);
+  }
+
+  public static class PlanFlushStep implements PerfTestStepBehavior {
+
+    protected DbOperationType operationType;
+    protected boolean useBaseline;
+
+    public PlanFlushStep(DbOperationType operationType, boolean useBaseline) {
+      this.operationType = operationType;
+      this.useBaseline = useBaseline;
+    }
+
+    public void execute(PerfTestRunContext context) {
+      DbOperationManager operationManager = useBaseline ? new SortedSetDbOperationManager() : new DbOperationManager();
+
+      for (DbEntity entity : ENTITIES) {
+        DbEntityOperation operation = new DbEntityOperation();
+        operation.setEntity(entity);
+        operation.setOperationType(operationType);
+        operationManager.addOperation(operation);
+      }
+
+      operationManager.calculateFlush();
+    }
+  }
+
+}
@@ -0,0 +1,136 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.qa.performance.engine.flush;
+
+import static org.camunda.bpm.engine.impl.db.entitymanager.operation.DbOperationType.DELETE;
+import static org.camunda.bpm.engine.impl.db.entitymanager.operation.DbOperationType.INSERT;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.camunda.bpm.engine.impl.db.DbEntity;
+import org.camunda.bpm.engine.impl.db.HasDbReferences;
+import org.camunda.bpm.engine.impl.db.entitymanager.operation.DbEntityOperation;
+import org.camunda.bpm.engine.impl.db.entitymanager.operation.DbOperation;
+import org.camunda.bpm.engine.impl.db.entitymanager.operation.DbOperationManager;
+
+/**
+ * <p>The flush planner as it was before operations were collected in unordered buckets:
+ * every operation is added to a {@link TreeSet} per type and operations on entities
+ * referencing each other are ordered by moving them in a list, which is quadratic in
+ * the number of operations per type.</p>
+ *
+ * <p>Only used as baseline by the {@link FlushPlanningPerformanceTest}, bulk operations
+ * are not supported.</p>
+ */
+public class SortedSetDbOperationManager extends DbOperationManager {
+
+  protected SortedMap<Class<?>, SortedSet<DbEntityOperation>> sortedInserts = new TreeMap<Class<?>, SortedSet<DbEntityOperation>>(INSERT_TYPE_COMPARATOR);
+  protected SortedMap<Class<?>, SortedSet<DbEntityOperation>> sortedUpdates = new TreeMap<Class<?>, SortedSet<DbEntityOperation>>(MODIFICATION_TYPE_COMPARATOR);
+  protected SortedMap<Class<?>, SortedSet<DbEntityOperation>> sortedDeletes = new TreeMap<Class<?>, SortedSet<DbEntityOperation>>(MODIFICATION_TYPE_COMPARATOR);
+
+  public boolean addOperation(DbEntityOperation newOperation) {
+    if(newOperation.getOperationType() == INSERT) {
+      return getSortedOperations(sortedInserts, newOperation.getEntityType()).add(newOperation);
+
+    } else if(newOperation.getOperationType() == DELETE) {
+      return getSortedOperations(sortedDeletes, newOperation.getEntityType()).add(newOperation);
+
+    } else {
+      return getSortedOperations(sortedUpdates, newOperation.getEntityType()).add(newOperation);
+
+    }
+  }
+
+  protected SortedSet<DbEntityOperation> getSortedOperations(SortedMap<Class<?>, SortedSet<DbEntityOperation>> operations, Class<? extends DbEntity> type) {
+    SortedSet<DbEntityOperation> operationsByType = operations.get(type);
+    if(operationsByType == null) {
+      operationsByType = new TreeSet<DbEntityOperation>(MODIFICATION_OPERATION_COMPARATOR);
+      operations.put(type, operationsByType);
+    }
+    return operationsByType;
+  }
+
+  public List<DbOperation> calculateFlush() {
+    List<DbOperation> flush = new ArrayList<DbOperation>();
+    addOperations(sortedInserts, flush);
+
+    SortedSet<Class<?>> modifiedEntityTypes = new TreeSet<Class<?>>(MODIFICATION_TYPE_COMPARATOR);
+    modifiedEntityTypes.addAll(sortedUpdates.keySet());
+    modifiedEntityTypes.addAll(sortedDeletes.keySet());
+    for (Class<?> type : modifiedEntityTypes) {
+      addOperations(type, sortedUpdates.get(type), flush);
+      addOperations(type, sortedDeletes.get(type), flush);
+    }
+
+    return flush;
+  }
+
+  protected void addOperations(SortedMap<Class<?>, SortedSet<DbEntityOperation>> operations, List<DbOperation> flush) {
+    for (Entry<Class<?>, SortedSet<DbEntityOperation>> operationsForType : operations.entrySet()) {
+      addOperations(operationsForType.getKey(), operationsForType.getValue(), flush);
+    }
+  }
+
+  protected void addOperations(Class<?> type, SortedSet<DbEntityOperation> preSortedOperations, List<DbOperation> flush) {
+    if(preSortedOperations != null) {
+      if(HasDbReferences.class.isAssignableFrom(type)) {
+        flush.addAll(sortByReferences(preSortedOperations));
+      } else {
+        flush.addAll(preSortedOperations);
+      }
+    }
+  }
+
+  protected List<DbEntityOperation> sortByReferences(SortedSet<DbEntityOperation> preSorted) {
+    List<DbEntityOperation> opList = new ArrayList<DbEntityOperation>(preSorted);
+
+    for (int i = 0; i < opList.size(); i++) {
+
+      DbEntityOperation currentOperation = opList.get(i);
+      DbEntity currentEntity = currentOperation.getEntity();
+
+      int moveTo = i;
+      for(int k = i+1; k < opList.size(); k++) {
+        DbEntity otherEntity = opList.get(k).getEntity();
+
+        if(currentOperation.getOperationType() == INSERT) {
+          if(((HasDbReferences) currentEntity).hasReferenceTo(otherEntity)) {
+            moveTo = k;
+            break;
+          }
+
+        } else {
+          if(((HasDbReferences) otherEntity).hasReferenceTo(currentEntity)) {
+            moveTo = k;
+          }
+
+        }
+      }
+
+      if(moveTo > i) {
+        opList.remove(i);
+        opList.add(moveTo, currentOperation);
+        i--;
+      }
+    }
+
+    return opList;
+  }
+
+}
@@ -0,0 +1,129 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.qa.performance.engine.idgenerator;
+
+import static org.camunda.bpm.qa.performance.engine.steps.PerfTestConstants.VARIABLE1;
+import static org.camunda.bpm.qa.performance.engine.steps.PerfTestConstants.VARIABLE2;
+import static org.camunda.bpm.qa.performance.engine.steps.PerfTestConstants.VARIABLE3;
+import static org.camunda.bpm.qa.performance.engine.steps.PerfTestConstants.VARIABLE4;
+import static org.camunda.bpm.qa.performance.engine.steps.PerfTestConstants.VARIABLE5;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.camunda.bpm.engine.ProcessEngine;
+import org.camunda.bpm.engine.ProcessEngineConfiguration;
+import org.camunda.bpm.engine.impl.cfg.IdGenerator;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.cfg.StandaloneProcessEngineConfiguration;
+import org.camunda.bpm.engine.impl.persistence.StrongUuidGenerator;
+import org.camunda.bpm.engine.impl.persistence.TimeOrderedUuidGenerator;
+import org.camunda.bpm.qa.performance.engine.framework.PerfTestBuilder;
+import org.camunda.bpm.qa.performance.engine.framework.PerfTestConfiguration;
+import org.camunda.bpm.qa.performance.engine.junit.PerfTestConfigurationRule;
+import org.camunda.bpm.qa.performance.engine.junit.PerfTestResultRecorderRule;
+import org.camunda.bpm.qa.performance.engine.steps.StartProcessInstanceStep;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+
+/**
+ * <p>Compares the insert throughput of the different {@link IdGenerator} implementations.</p>
+ *
+ * <p>Each test uses a separate, initially empty H2 in-memory database so that the
+ * primary key indexes of the different id formats grow independently. The process
+ * instances wait in a user task so that the runtime tables grow as well as the
+ * history tables.</p>
+ */
+public class IdGeneratorPerformanceTest {
+
+  protected static final String PROCESS_RESOURCE = "org/camunda/bpm/qa/performance/engine/bpmn/UserTaskPerformanceTest.singleTask.bpmn";
+
+  @Rule
+  public PerfTestConfigurationRule testConfigurationRule = new PerfTestConfigurationRule();
+
+  @Rule
+  public PerfTestResultRecorderRule resultRecorderRule = new PerfTestResultRecorderRule();
+
+  protected ProcessEngine engine;
+
+  @After
+  public void closeProcessEngine() {
+    if (engine != null) {
+      engine.close();
+      engine = null;
+    }
+  }
+
+  @Test
+  public void dbIdGenerator() {
+    // the default id generator is created by the configuration
+    runInsertPerformanceTest("dbIdGenerator", null);
+  }
+
+  @Test
+  public void strongUuidGenerator() {
+    runInsertPerformanceTest("strongUuidGenerator", new StrongUuidGenerator());
+  }
+
+  @Test
+  public void timeOrderedUuidGenerator() {
+    runInsertPerformanceTest("timeOrderedUuidGenerator", new TimeOrderedUuidGenerator());
+  }
+
+  protected void runInsertPerformanceTest(String databaseName, IdGenerator idGenerator) {
+    engine = createProcessEngine(databaseName, idGenerator);
+
+    engine.getRepositoryService()
+      .createDeployment()
+      .addClasspathResource(PROCESS_RESOURCE)
+      .deploy();
+
+    Map<String, Object> variables = new HashMap<String, Object>();
+    variables.put(VARIABLE1, "someValue");
+    variables.put(VARIABLE2, "someValue");
+    variables.put(VARIABLE3, "someValue");
+    variables.put(VARIABLE4, "someValue");
+    variables.put(VARIABLE5, "someValue");
+
+    performanceTest()
+      .step(new StartProcessInstanceStep(engine, "process", variables))
+    .run();
+  }
+
+  protected ProcessEngine createProcessEngine(String databaseName, IdGenerator idGenerator) {
+    PerfTestConfiguration configuration = testConfigurationRule.getPerformanceTestConfiguration();
+
+    ProcessEngineConfigurationImpl processEngineConfiguration = new StandaloneProcessEngineConfiguration();
+    processEngineConfiguration
+      .setJdbcUrl("jdbc:h2:mem:id-generator-" + databaseName + ";MVCC=TRUE")
+      .setJdbcDriver("org.h2.Driver")
+      .setJdbcUsername("sa")
+      .setJdbcPassword("")
+      .setJdbcMaxActiveConnections(100)
+      .setDatabaseSchemaUpdate(ProcessEngineConfiguration.DB_SCHEMA_UPDATE_CREATE_DROP)
+      .setHistory(configuration.getHistoryLevel())
+      .setProcessEngineName("id-generator-" + databaseName);
+
+    processEngineConfiguration.setIdGenerator(idGenerator);
+
+    return processEngineConfiguration.buildProcessEngine();
+  }
+
+  protected PerfTestBuilder performanceTest() {
+    PerfTestConfiguration configuration = testConfigurationRule.getPerformanceTestConfiguration();
+    configuration.setPlatform("camunda BPM");
+    return new PerfTestBuilder(configuration, resultRecorderRule);
+  }
+
+}